@@ -43,6 +43,7 @@ import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.streamsets.pipeline.lib.dirspooler.PathMatcherMode.GLOB;
 import static com.streamsets.pipeline.lib.dirspooler.PathMatcherMode.REGEX;
@@ -131,22 +132,33 @@ public class LocalFileSystem implements WrappedFileSystem {
     return Files.isDirectory(Paths.get(filePath.getAbsolutePath()));
   }
 
-  public void addFiles(WrappedFile dirFile, WrappedFile startingFile, List<WrappedFile> toProcess, boolean includeStartingFile, boolean useLastModified) throws IOException {
+  public boolean addFiles(WrappedFile dirFile, WrappedFile startingFile, List<WrappedFile> toProcess, boolean includeStartingFile, boolean useLastModified) throws IOException {
     final long scanTime = System.currentTimeMillis();
+    final AtomicBoolean skippedNewFiles = new AtomicBoolean(false);
 
     DirectoryStream.Filter<Path> filter = new DirectoryStream.Filter<Path>() {
       @Override
       public boolean accept(Path entry) throws IOException {
         boolean accept = false;
         if (entry != null) {
+          // Without last modified ordering, files at or before the starting file are discarded by name, without
+          // reading their attributes. Rescanning a directory then only reads the attributes of the new files.
+          if (!useLastModified && startingFile != null && !startingFile.toString().isEmpty()) {
+            int compares = entry.toAbsolutePath().toString().compareTo(startingFile.getAbsolutePath());
+            if (compares < 0 || (compares == 0 && !includeStartingFile)) {
+              return false;
+            }
+          }
           // SDC-3551: Pick up only files with mtime strictly less than scan time.
           try {
             long mtime = getLastModifiedTime(entry);
             long ctime = getChangedTime(entry);
             long time = Math.max(mtime, ctime);
 
-            if (patternMatches(entry.getFileName().toString()) && time < scanTime) {
-              if (startingFile == null || startingFile.toString().isEmpty()) {
+            if (patternMatches(entry.getFileName().toString())) {
+              if (time >= scanTime) {
+                skippedNewFiles.set(true);
+              } else if (startingFile == null || startingFile.toString().isEmpty()) {
                 accept = true;
               } else {
                 int compares = compare(getFile(entry.toString()), startingFile, useLastModified);
@@ -175,6 +187,7 @@ public class LocalFileSystem implements WrappedFileSystem {
         }
       }
     }
+    return skippedNewFiles.get();
   }
 
   public void archiveFiles(WrappedFile archiveDirPath, List<WrappedFile> toProcess, long timeThreshold) throws IOException {
@@ -16,12 +16,15 @@
 package com.streamsets.pipeline.stage.destination.sdcipc;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.math.IntMath;
 import com.streamsets.pipeline.api.ConfigDefBean;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.credential.CredentialValue;
 import com.streamsets.pipeline.api.ConfigDef;
 import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.ValueChooserModel;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.tls.TlsConfigBean;
 import com.streamsets.pipeline.lib.util.ThreadUtil;
@@ -39,7 +42,9 @@ import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Configs {
   private static final Logger LOG = LoggerFactory.getLogger(Configs.class);
@@ -142,11 +147,43 @@ public class Configs {
   )
   public boolean compression;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "SNAPPY",
+      label = "Compression Codec",
+      description = "Codec used when the receiving pipeline supports it, otherwise Snappy is used",
+      displayPosition = 115,
+      group = "ADVANCED",
+      dependsOn = "compression",
+      triggeredByValue = "true"
+  )
+  @ValueChooserModel(RpcCompressionChooserValues.class)
+  public RpcCompression compressionCodec = RpcCompression.SNAPPY;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Max Requests in Flight",
+      description = "Splits each batch in up to this many requests that are sent in parallel to the active SDC RPC " +
+          "connections, at most one per active connection as each receiver processes one request at a time. The " +
+          "batch is complete once all of them are acknowledged. Record order is only kept with 1.",
+      displayPosition = 120,
+      group = "ADVANCED",
+      min = 1,
+      max = 64
+  )
+  public int maxInFlightRequests = 1;
+
   // This flag indicates that connection validation must apply the retry and backoff.
   boolean retryDuringValidation = false;
 
   private SSLSocketFactory sslSocketFactory;
 
+  // compression codecs advertised by each receiver when validating connectivity
+  private final Map<String, Set<String>> supportedCompressions = new ConcurrentHashMap<>();
+
   public List<Stage.ConfigIssue> init(Stage.Context context) {
     List<Stage.ConfigIssue> issues = new ArrayList<>();
 
@@ -310,6 +347,23 @@ public class Configs {
     return conn;
   }
 
+  /**
+   * Returns the compression to use with the given receiver, null for no compression.
+   * <p/>
+   * Receivers that don't advertise the configured codec (older Data Collectors) get Snappy, which all of them support.
+   */
+  String getCompression(String hostPort) {
+    if (!compression) {
+      return null;
+    }
+    String codec = compressionCodec.getHeaderValue();
+    Set<String> supported = supportedCompressions.get(hostPort);
+    if (supported != null && supported.contains(codec)) {
+      return codec;
+    }
+    return Constants.SNAPPY_COMPRESSION;
+  }
+
   void validateConnectivity(Stage.Context context, List<Stage.ConfigIssue> issues) {
     boolean ok = false;
     List<String> errors = new ArrayList<>();
@@ -321,6 +375,10 @@ public class Configs {
         if (conn.getResponseCode() == HttpURLConnection.HTTP_OK) {
           if (Constants.X_SDC_PING_VALUE.equals(conn.getHeaderField(Constants.X_SDC_PING_HEADER))) {
             ok = true;
+            String supported = conn.getHeaderField(Constants.X_SDC_COMPRESSION_SUPPORTED_HEADER);
+            if (supported != null) {
+              supportedCompressions.put(hostPort, ImmutableSet.copyOf(Splitter.on(',').trimResults().split(supported)));
+            }
           } else {
             issues.add(context.createConfigIssue(Groups.RPC.name(), HOST_PORTS,
                                                  Errors.IPC_DEST_12, hostPort ));
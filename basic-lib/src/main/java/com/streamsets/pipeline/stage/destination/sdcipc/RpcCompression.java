@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.sdcipc;
+
+import com.streamsets.pipeline.api.GenerateResourceBundle;
+import com.streamsets.pipeline.api.Label;
+
+@GenerateResourceBundle
+public enum RpcCompression implements Label {
+  SNAPPY("Snappy", Constants.SNAPPY_COMPRESSION),
+  LZ4("LZ4", Constants.LZ4_COMPRESSION),
+  ;
+
+  private final String label;
+  private final String headerValue;
+
+  RpcCompression(String label, String headerValue) {
+    this.label = label;
+    this.headerValue = headerValue;
+  }
+
+  @Override
+  public String getLabel() {
+    return label;
+  }
+
+  /**
+   * Value of the compression header for this codec.
+   */
+  public String getHeaderValue() {
+    return headerValue;
+  }
+}
@@ -23,25 +23,31 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.BaseTarget;
 import com.streamsets.pipeline.api.ext.ContextExtensions;
 import com.streamsets.pipeline.api.ext.RecordWriter;
+import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
 import com.streamsets.pipeline.stage.common.DefaultErrorRecordHandler;
 import com.streamsets.pipeline.stage.common.ErrorRecordHandler;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.io.IOUtils;
 import org.iq80.snappy.SnappyFramedOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class SdcIpcTarget extends BaseTarget {
   private static final Logger LOG = LoggerFactory.getLogger(SdcIpcTarget.class);
 
   private final Configs config;
   private ErrorRecordHandler errorRecordHandler;
+  private SafeScheduledExecutorService senderExecutor;
   final List<String> standByHostPorts;
   final List<String> activeHostPorts;
   int lastActive;
@@ -60,10 +66,23 @@ public class SdcIpcTarget extends BaseTarget {
     issues.addAll(config.init(getContext()));
     if (issues.isEmpty()) {
       initializeHostPortsLists();
+      if (getMaxInFlightRequests() > 1) {
+        senderExecutor = new SafeScheduledExecutorService(
+            getMaxInFlightRequests(),
+            getContext().getStageInfo().getInstanceName() + "_sender_"
+        );
+      }
     }
     return issues;
   }
 
+  /**
+   * A receiver processes one request at a time, requests in flight are bounded by the number of active receivers.
+   */
+  int getMaxInFlightRequests() {
+    return Math.min(config.maxInFlightRequests, activeHostPorts.size());
+  }
+
   int getActiveConnectionsNumber() {
     int count = (int) Math.log(config.hostPorts.size()) + 1;
     return (count < 2) ? 2 : count;
@@ -93,7 +112,7 @@ public class SdcIpcTarget extends BaseTarget {
     }
   }
 
-  String getHostPort(boolean previousOneHadError) {
+  synchronized String getHostPort(boolean previousOneHadError) {
     if (activeHostPorts.size() == 1) {
       return activeHostPorts.get(0);
     } else {
@@ -114,7 +133,11 @@ public class SdcIpcTarget extends BaseTarget {
   }
 
   HttpURLConnection createWriteConnection(boolean isRetry) throws IOException, StageException {
-    HttpURLConnection  conn = config.createConnection(getHostPort(isRetry));
+    return createWriteConnection(getHostPort(isRetry));
+  }
+
+  HttpURLConnection createWriteConnection(String hostPort) throws IOException, StageException {
+    HttpURLConnection  conn = config.createConnection(hostPort);
     conn.setRequestMethod("POST");
     conn.setRequestProperty(Constants.CONTENT_TYPE_HEADER, Constants.APPLICATION_BINARY);
     conn.setRequestProperty(Constants.X_SDC_JSON1_FRAGMENTABLE_HEADER, "true");
@@ -126,6 +149,48 @@ public class SdcIpcTarget extends BaseTarget {
 
   @Override
   public void write(Batch batch) throws StageException {
+    List<Record> records = Lists.newArrayList(batch.getRecords());
+    int fragments = Math.min(getMaxInFlightRequests(), records.size());
+    if (fragments <= 1) {
+      String errorReason = send(batch, records, getHostPort(false));
+      if (errorReason != null) {
+        handleError(records, errorReason);
+      }
+    } else {
+      // Fragments are sent in parallel, the batch is done (and its offset committed) only once all were acknowledged
+      List<List<Record>> parts = Lists.partition(records, (records.size() + fragments - 1) / fragments);
+      List<Future<String>> futures = new ArrayList<>(parts.size());
+      for (List<Record> part : parts) {
+        // consecutive picks go to different active receivers
+        String hostPort = getHostPort(false);
+        futures.add(senderExecutor.submit(() -> send(batch, part, hostPort)));
+      }
+      for (int i = 0; i < parts.size(); i++) {
+        String errorReason;
+        try {
+          errorReason = futures.get(i).get();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          errorReason = ex.toString();
+        } catch (ExecutionException ex) {
+          if (ex.getCause() instanceof StageException) {
+            throw (StageException) ex.getCause();
+          }
+          errorReason = ex.getCause().toString();
+        }
+        if (errorReason != null) {
+          handleError(parts.get(i), errorReason);
+        }
+      }
+    }
+  }
+
+  /**
+   * Sends the given records in a single request, with retries. Retries go to the next active receiver.
+   *
+   * @return null if the records were written out, the reason of the last failure otherwise.
+   */
+  private String send(Batch batch, List<Record> records, String firstHostPort) throws StageException {
     ContextExtensions ext = (ContextExtensions) getContext();
     boolean ok = false;
     int retryCount = 0;
@@ -137,18 +202,20 @@ public class SdcIpcTarget extends BaseTarget {
       config.backOffWait(retryCount);
 
       try {
-        conn = createWriteConnection(retryCount > 0);
-        if (config.compression) {
-          conn.setRequestProperty(Constants.X_SDC_COMPRESSION_HEADER, Constants.SNAPPY_COMPRESSION);
+        String hostPort = (retryCount == 0) ? firstHostPort : getHostPort(true);
+        conn = createWriteConnection(hostPort);
+        String compression = config.getCompression(hostPort);
+        if (compression != null) {
+          conn.setRequestProperty(Constants.X_SDC_COMPRESSION_HEADER, compression);
         }
         OutputStream os = conn.getOutputStream();
-        if (config.compression) {
+        if (Constants.SNAPPY_COMPRESSION.equals(compression)) {
           os = new SnappyFramedOutputStream(os);
+        } else if (Constants.LZ4_COMPRESSION.equals(compression)) {
+          os = new FramedLZ4CompressorOutputStream(os);
         }
         RecordWriter writer = ext.createRecordWriter(os);
-        Iterator<Record> it = batch.getRecords();
-        while (it.hasNext()) {
-          Record record = it.next();
+        for (Record record : records) {
           writer.write(record);
         }
         writer.close();
@@ -160,6 +227,7 @@ public class SdcIpcTarget extends BaseTarget {
         } else {
           LOG.debug("Batch for entity '{}' and offset '{}' written out on retry '{}'", batch.getSourceEntity(), batch.getSourceOffset(), retryCount);
         }
+        consumeResponse(conn, ok);
       } catch (IOException ex) {
         errorReason = ex.toString();
         LOG.warn("Batch for entity '{}' and offset '{}' could not be written out: {}", batch.getSourceEntity(), batch.getSourceOffset(), errorReason, ex);
@@ -170,22 +238,46 @@ public class SdcIpcTarget extends BaseTarget {
       }
       retryCount++;
     }
-    if (!ok) {
-      OnRecordError onErrorRecord = getContext().getOnErrorRecord();
-      // this branch only happens when the pipeline error handling strategy is "send to RPC". if we can't forward to
-      // that pipeline, then it's a pipeline-stopping problem.
-      if (onErrorRecord == null) {
-        throw new StageException(Errors.IPC_DEST_20, errorReason);
+    return ok ? null : errorReason;
+  }
+
+  /**
+   * Reads the response to the end, so the connection goes back to the keep-alive cache and the next request to the
+   * same receiver doesn't have to connect (and TLS handshake) again.
+   */
+  private static void consumeResponse(HttpURLConnection conn, boolean ok) {
+    try (InputStream is = ok ? conn.getInputStream() : conn.getErrorStream()) {
+      if (is != null) {
+        IOUtils.skip(is, Long.MAX_VALUE);
       }
+    } catch (IOException ex) {
+      LOG.debug("Could not read response: {}", ex.toString(), ex);
+    }
+  }
 
-      errorRecordHandler.onError(
-          Lists.newArrayList(batch.getRecords()),
-          new StageException(
-              Errors.IPC_DEST_20,
-              errorReason
-          )
-      );
+  private void handleError(List<Record> records, String errorReason) throws StageException {
+    OnRecordError onErrorRecord = getContext().getOnErrorRecord();
+    // this branch only happens when the pipeline error handling strategy is "send to RPC". if we can't forward to
+    // that pipeline, then it's a pipeline-stopping problem.
+    if (onErrorRecord == null) {
+      throw new StageException(Errors.IPC_DEST_20, errorReason);
+    }
+
+    errorRecordHandler.onError(
+        records,
+        new StageException(
+            Errors.IPC_DEST_20,
+            errorReason
+        )
+    );
+  }
+
+  @Override
+  public void destroy() {
+    if (senderExecutor != null) {
+      senderExecutor.shutdownNow();
     }
+    super.destroy();
   }
 
 }
@@ -30,7 +30,7 @@ import com.streamsets.pipeline.api.credential.CredentialValue;
 import java.util.Arrays;
 
 @StageDef(
-    version = 3,
+    version = 4,
     label = "Write to SDC RPC",
     description = "Writes pipeline Statistic records to another pipeline over SDC RPC",
     icon="sdcipc.png",
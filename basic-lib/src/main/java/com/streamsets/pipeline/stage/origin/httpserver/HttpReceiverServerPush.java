@@ -18,10 +18,12 @@ package com.streamsets.pipeline.stage.origin.httpserver;
 
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.lib.http.AsyncHttpReceiverServlet;
 import com.streamsets.pipeline.lib.http.Errors;
 import com.streamsets.pipeline.lib.http.HttpConfigs;
 import com.streamsets.pipeline.lib.http.HttpReceiver;
 import com.streamsets.pipeline.lib.http.HttpReceiverServer;
+import com.streamsets.pipeline.lib.http.HttpReceiverServlet;
 import com.streamsets.pipeline.lib.httpsource.CredentialValueUserPassBean;
 import com.streamsets.pipeline.lib.httpsource.HttpSourceConfigs;
 import org.apache.commons.lang.StringUtils;
@@ -68,8 +70,41 @@ public class HttpReceiverServerPush extends HttpReceiverServer {
       "     isInitiator=false;\n" +
       "};";
 
+  private final boolean asyncRequestProcessing;
+  private final long maxRequestSize;
+
   public HttpReceiverServerPush(HttpConfigs configs, HttpReceiver receiver, BlockingQueue<Exception> errorQueue) {
+    this(configs, receiver, errorQueue, false, -1);
+  }
+
+  public HttpReceiverServerPush(
+      HttpConfigs configs,
+      HttpReceiver receiver,
+      BlockingQueue<Exception> errorQueue,
+      boolean asyncRequestProcessing,
+      long maxRequestSize
+  ) {
     super(configs, receiver, errorQueue);
+    this.asyncRequestProcessing = asyncRequestProcessing;
+    this.maxRequestSize = maxRequestSize;
+  }
+
+  @Override
+  protected HttpReceiverServlet createReceiverServlet(
+      Stage.Context context,
+      HttpReceiver receiver,
+      BlockingQueue<Exception> errorQueue
+  ) {
+    if (asyncRequestProcessing) {
+      return new AsyncHttpReceiverServlet(
+          context,
+          receiver,
+          errorQueue,
+          configs.getMaxConcurrentRequests(),
+          maxRequestSize
+      );
+    }
+    return super.createReceiverServlet(context, receiver, errorQueue);
   }
 
   @Override
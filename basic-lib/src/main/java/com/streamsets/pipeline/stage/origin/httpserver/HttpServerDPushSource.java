@@ -33,7 +33,7 @@ import com.streamsets.pipeline.stage.origin.lib.DataParserFormatConfig;
 import static com.streamsets.pipeline.config.OriginAvroSchemaSource.SOURCE;
 
 @StageDef(
-    version = 14,
+    version = 15,
     label = "HTTP Server",
     description = "Listens for requests on an HTTP endpoint",
     icon="httpserver_multithreaded.png",
@@ -76,6 +76,18 @@ public class HttpServerDPushSource extends DPushSource {
   )
   public int maxRequestSizeMB;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Asynchronous Request Processing",
+      description = "Reads request payloads without blocking server threads and processes them in the background. " +
+          "Use to serve many concurrent or slow clients",
+      defaultValue = "false",
+      displayPosition = 35,
+      group = "HTTP"
+  )
+  public boolean asyncRequestProcessing;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.MODEL,
@@ -95,7 +107,13 @@ public class HttpServerDPushSource extends DPushSource {
     if (dataFormat == DataFormat.AVRO) {
       dataFormatConfig.avroSchemaSource = SOURCE;
     }
-    return new HttpServerPushSource(httpConfigs, maxRequestSizeMB, dataFormat, dataFormatConfig);
+    return new HttpServerPushSource(
+        httpConfigs,
+        maxRequestSizeMB,
+        asyncRequestProcessing,
+        dataFormat,
+        dataFormatConfig
+    );
   }
 
 }
\ No newline at end of file
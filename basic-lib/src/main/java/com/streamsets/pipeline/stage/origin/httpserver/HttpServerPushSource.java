@@ -33,16 +33,32 @@ public class HttpServerPushSource extends AbstractHttpServerPushSource<HttpRecei
 
   private final DataParserFormatConfig dataFormatConfig;
 
+  private final int maxRequestSizeMB;
+
+  private final boolean asyncRequestProcessing;
+
   public HttpServerPushSource(
       HttpConfigs httpConfigs,
       int maxRequestSizeMB,
       DataFormat dataFormat,
       DataParserFormatConfig dataFormatConfig
+  ) {
+    this(httpConfigs, maxRequestSizeMB, false, dataFormat, dataFormatConfig);
+  }
+
+  public HttpServerPushSource(
+      HttpConfigs httpConfigs,
+      int maxRequestSizeMB,
+      boolean asyncRequestProcessing,
+      DataFormat dataFormat,
+      DataParserFormatConfig dataFormatConfig
   ) {
     super(httpConfigs, new PushHttpReceiver(httpConfigs, maxRequestSizeMB, dataFormatConfig));
     this.httpConfigs = httpConfigs;
     this.dataFormat = dataFormat;
     this.dataFormatConfig = dataFormatConfig;
+    this.maxRequestSizeMB = maxRequestSizeMB;
+    this.asyncRequestProcessing = asyncRequestProcessing;
   }
 
   @Override
@@ -73,6 +89,13 @@ public class HttpServerPushSource extends AbstractHttpServerPushSource<HttpRecei
 
   @Override
   protected AbstractHttpReceiverServer getHttpReceiver() {
-    return new HttpReceiverServerPush(httpConfigs, getReceiver(), getErrorQueue());
+    return new HttpReceiverServerPush(
+        httpConfigs,
+        getReceiver(),
+        getErrorQueue(),
+        asyncRequestProcessing,
+        // same limit as PushHttpReceiver applies to the request body
+        maxRequestSizeMB * 1000L * 1000L
+    );
   }
 }
@@ -22,6 +22,7 @@ import com.streamsets.pipeline.api.ext.ContextExtensions;
 import com.streamsets.pipeline.api.ext.RecordReader;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.stage.destination.sdcipc.Constants;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
 import org.iq80.snappy.SnappyFramedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +40,8 @@ import java.util.concurrent.BlockingQueue;
 @SuppressWarnings({"squid:S2226", "squid:S1989", "squid:S1948"})
 public class IpcServlet extends HttpServlet {
   private static final Logger LOG = LoggerFactory.getLogger(IpcServlet.class);
+  private static final String SUPPORTED_COMPRESSIONS =
+      Constants.SNAPPY_COMPRESSION + "," + Constants.LZ4_COMPRESSION;
 
   private final Stage.Context context;
   private final Configs configs;
@@ -73,6 +76,7 @@ public class IpcServlet extends HttpServlet {
     } else {
       LOG.debug("Validation from '{}', OK", req.getRemoteAddr());
       resp.setHeader(Constants.X_SDC_PING_HEADER, Constants.X_SDC_PING_VALUE);
+      resp.setHeader(Constants.X_SDC_COMPRESSION_SUPPORTED_HEADER, SUPPORTED_COMPRESSIONS);
       resp.setStatus(HttpServletResponse.SC_OK);
     }
   }
@@ -107,6 +111,9 @@ public class IpcServlet extends HttpServlet {
                 case Constants.SNAPPY_COMPRESSION:
                   is = new SnappyFramedInputStream(is, true);
                   break;
+                case Constants.LZ4_COMPRESSION:
+                  is = new FramedLZ4CompressorInputStream(is);
+                  break;
                 default:
                   LOG.warn("Invalid compression '{}' in request, returning error", compression);
                   resp.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
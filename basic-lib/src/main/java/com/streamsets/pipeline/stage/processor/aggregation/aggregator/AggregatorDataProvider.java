@@ -18,6 +18,7 @@ package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.EvictingQueue;
+import com.google.common.collect.ImmutableMap;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.stage.processor.aggregation.WindowType;
 
@@ -28,7 +29,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The AggregatorDataProvider is responsible for creating and providing AggregatorData structures to a set of
@@ -42,6 +42,10 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p/>
  * By providing the AggregatorData to a set of Aggregators, the AggregatorDataProvider has the capability of
  * atomically replacing the AggregatorData for all registered Aggregators with no contention.
+ * <p/>
+ * The AggregatorData of the simple aggregators accumulate into striped counters (LongAdder, DoubleAdder,
+ * LongAccumulator, DoubleAccumulator), so pipeline runners processing records concurrently don't contend on them.
+ * The stripes are merged only when the value is read, by a gauge or when the DataWindow closes.
  */
 public class AggregatorDataProvider {
 
@@ -190,11 +194,12 @@ public class AggregatorDataProvider {
     Utils.checkState(!stopped, "Already stopped");
 
     Map<Aggregator, AggregatorData> result = data;
-    Map<Aggregator, AggregatorData> newData = new ConcurrentHashMap<>();
+    // The map is never modified once published, AggregatorData instances handle concurrent updates on their own
+    ImmutableMap.Builder<Aggregator, AggregatorData> newData = ImmutableMap.builder();
     for (Aggregator aggregator : aggregators) {
       newData.put(aggregator, aggregator.createAggregatorData(newDataWindowEndTimeMillis));
     }
-    data = newData;
+    data = newData.build();
 
     Map<Aggregator, AggregatorData> oldData = result;
     // In case of sliding window, aggregate the data windows to get the result
@@ -17,6 +17,8 @@ package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
 
 import com.streamsets.pipeline.api.impl.Utils;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Count Aggregator.
  */
@@ -47,7 +49,7 @@ public class CountAggregator extends SimpleAggregator<CountAggregator, Long> {
   }
 
   private class Data extends AggregatorData<CountAggregator, Long> {
-    private long count;
+    private final LongAdder count = new LongAdder();
 
     public Data(String name, long time) {
       super(name, time);
@@ -61,15 +63,13 @@ public class CountAggregator extends SimpleAggregator<CountAggregator, Long> {
     @Override
     public void process(Long value) {
       if (value != null) {
-        synchronized (this) {
-          count += value;
-        }
+        count.add(value);
       }
     }
 
     @Override
-    public synchronized Long get() {
-      return count;
+    public Long get() {
+      return count.sum();
     }
 
     @Override
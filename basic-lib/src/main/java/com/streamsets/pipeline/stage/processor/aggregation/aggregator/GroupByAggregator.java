@@ -22,7 +22,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Group-by Aggregator supporting all Simple Aggregators as group-by element.
@@ -53,14 +53,16 @@ public class GroupByAggregator<A extends SimpleAggregator, T> extends Aggregator
     }
   }
 
+  /**
+   * Group-by elements are kept in a concurrent map, looking up an existing element does not lock and the element
+   * AggregatorData take care of concurrent updates on their own.
+   */
   class Data extends AggregatorData<GroupByAggregator<A, T>, Map<String, T>> {
-    private final Map<String, AggregatorData<SimpleAggregator, Number>> groups;
-    private final ReentrantReadWriteLock rwLock;
+    private final ConcurrentHashMap<String, AggregatorData<SimpleAggregator, Number>> groups;
 
     public Data(String name, long time) {
       super(name, time);
-      groups = new HashMap<>();
-      rwLock = new ReentrantReadWriteLock(true);
+      groups = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -77,67 +79,50 @@ public class GroupByAggregator<A extends SimpleAggregator, T> extends Aggregator
 
     @SuppressWarnings("unchecked")
     protected void process(String group, T value) {
-      AggregatorData aggregatorData;
-      rwLock.writeLock().lock();
-      try {
+      AggregatorData aggregatorData = getOrCreateGroup(group);
+      aggregatorData.process(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AggregatorData<SimpleAggregator, Number> getOrCreateGroup(String group) {
+      // get() first, computeIfAbsent() locks the bin even when the group already exists
+      AggregatorData<SimpleAggregator, Number> aggregatorData = groups.get(group);
+      if (aggregatorData == null) {
         aggregatorData = groups.computeIfAbsent(group,
             k -> GroupByAggregator.this.createElementAggregatorData(group, getTime())
         );
-      } finally {
-        rwLock.writeLock().unlock();
       }
-      aggregatorData.process(value);
+      return aggregatorData;
     }
 
 
     @Override
     @SuppressWarnings("unchecked")
     public Map<String, T> get() {
-      rwLock.readLock().lock();
-      try {
-        Map<String, T> map = new HashMap<>();
-        for (Map.Entry<String, AggregatorData<SimpleAggregator, Number>> group : groups.entrySet()) {
-          map.put(group.getKey(), (T) group.getValue().get());
-        }
-        return map;
-      } finally {
-        rwLock.readLock().unlock();
+      Map<String, T> map = new HashMap<>();
+      for (Map.Entry<String, AggregatorData<SimpleAggregator, Number>> group : groups.entrySet()) {
+        map.put(group.getKey(), (T) group.getValue().get());
       }
+      return map;
     }
 
-    @SuppressWarnings("unchecked")
     public AggregatorData<SimpleAggregator, Number> getGroupByElementData(String groupName) {
-      rwLock.readLock().lock();
-      try {
-        return groups.get(groupName);
-      } finally {
-        rwLock.readLock().unlock();
-      }
+      return groups.get(groupName);
     }
 
     public Set<String> getGroupByElements() {
-      rwLock.readLock().lock();
-      try {
-        return new HashSet<>(groups.keySet());
-      } finally {
-        rwLock.readLock().unlock();
-      }
+      return new HashSet<>(groups.keySet());
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Aggregatable<GroupByAggregator<A, T>> getAggregatable() {
       GroupByAggregatable aggregatable = new GroupByAggregatable().setName(getName());
-      rwLock.readLock().lock();
-      try {
-        Map<String, Aggregatable> aggregatableGroups = new HashMap<>();
-        for (Map.Entry<String, AggregatorData<SimpleAggregator, Number>> group : groups.entrySet()) {
-          aggregatableGroups.put(group.getKey(), group.getValue().getAggregatable());
-        }
-        aggregatable.setGroups(aggregatableGroups);
-      } finally {
-        rwLock.readLock().unlock();
+      Map<String, Aggregatable> aggregatableGroups = new HashMap<>();
+      for (Map.Entry<String, AggregatorData<SimpleAggregator, Number>> group : groups.entrySet()) {
+        aggregatableGroups.put(group.getKey(), group.getValue().getAggregatable());
       }
+      aggregatable.setGroups(aggregatableGroups);
       return (Aggregatable) aggregatable;
     }
 
@@ -154,16 +139,9 @@ public class GroupByAggregator<A extends SimpleAggregator, T> extends Aggregator
           GroupByAggregatable.class.getSimpleName()
       ));
 
-      rwLock.writeLock().lock();
-      try {
-        for (Map.Entry<String, Aggregatable> entry : ((GroupByAggregatable) aggregatable).getGroups().entrySet()) {
-          AggregatorData aggregatorData = groups.computeIfAbsent(entry.getKey(),
-              groupByElementName -> GroupByAggregator.this.createElementAggregatorData(groupByElementName, getTime())
-          );
-          aggregatorData.aggregate(entry.getValue());
-        }
-      } finally {
-        rwLock.writeLock().unlock();
+      for (Map.Entry<String, Aggregatable> entry : ((GroupByAggregatable) aggregatable).getGroups().entrySet()) {
+        AggregatorData aggregatorData = getOrCreateGroup(entry.getKey());
+        aggregatorData.aggregate(entry.getValue());
       }
     }
   }
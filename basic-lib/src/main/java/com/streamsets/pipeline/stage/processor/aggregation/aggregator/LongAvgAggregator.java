@@ -17,6 +17,8 @@ package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
 
 import com.streamsets.pipeline.api.impl.Utils;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Long Average Aggregator.
  */
@@ -67,8 +69,8 @@ public class LongAvgAggregator extends SimpleAggregator<LongAvgAggregator, Long>
   }
 
   private class Data extends AggregatorData<LongAvgAggregator, Long> {
-    private long count;
-    private long total;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
 
     public Data(String name, long time) {
       super(name, time);
@@ -80,21 +82,31 @@ public class LongAvgAggregator extends SimpleAggregator<LongAvgAggregator, Long>
     }
 
     @Override
-    public synchronized void process(Long value) {
+    public void process(Long value) {
       if (value != null) {
-        total += value;
-        count++;
+        total.add(value);
+        count.increment();
       }
     }
 
     @Override
-    public synchronized Long get() {
+    public Long get() {
+      return average(count.sum(), total.sum());
+    }
+
+    private Long average(long count, long total) {
       return (count == 0) ? null : (long) Math.rint((double)total / count);
     }
 
     @Override
-    public synchronized Aggregatable<LongAvgAggregator> getAggregatable() {
-      return new LongAvgAggregatable().setName(getName()).setCount(count).setTotal(total).setAverage(get());
+    public Aggregatable<LongAvgAggregator> getAggregatable() {
+      long count = this.count.sum();
+      long total = this.total.sum();
+      return new LongAvgAggregatable()
+          .setName(getName())
+          .setCount(count)
+          .setTotal(total)
+          .setAverage(average(count, total));
     }
 
     @Override
@@ -110,10 +122,8 @@ public class LongAvgAggregator extends SimpleAggregator<LongAvgAggregator, Long>
           aggregatable.getClass().getSimpleName(),
           LongAvgAggregatable.class.getSimpleName()
       ));
-      synchronized (this) {
-        count += ((LongAvgAggregatable) aggregatable).getCount();
-        total += ((LongAvgAggregatable) aggregatable).getTotal();
-      }
+      count.add(((LongAvgAggregatable) aggregatable).getCount());
+      total.add(((LongAvgAggregatable) aggregatable).getTotal());
     }
   }
 
@@ -30,7 +30,7 @@ import com.streamsets.pipeline.api.base.configurablestage.DProcessor;
 import java.util.List;
 
 @StageDef(
-    version = 1,
+    version = 2,
     label = "Record Deduplicator",
     description = "Separates unique and duplicate records based on field comparison",
     icon="dedup.png",
@@ -93,9 +93,42 @@ public class DeDupDProcessor extends DProcessor {
   @FieldSelectorModel
   public List<String> fieldsToCompare;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "HEAP",
+      label = "Hash Store",
+      description = "Where the hashes of the compared records are kept. Off-Heap keeps them outside of the Java heap " +
+          "and needs much less memory for large record windows.",
+      displayPosition = 50,
+      group = "DE_DUP"
+  )
+  @ValueChooserModel(HashStoreChooserValues.class)
+  public HashStore hashStore;
+
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.STRING,
+      defaultValue = "",
+      label = "Hash Store File",
+      description = "Optional file to memory-map the off-heap hash store to, so the window survives pipeline restarts",
+      displayPosition = 60,
+      group = "DE_DUP",
+      dependsOn = "hashStore",
+      triggeredByValue = "OFF_HEAP"
+  )
+  public String hashStoreFile;
+
   @Override
   protected Processor createProcessor() {
-    return new DeDupProcessor(recordCountWindow, timeWindowSecs, compareFields, fieldsToCompare);
+    return new DeDupProcessor(
+        recordCountWindow,
+        timeWindowSecs,
+        compareFields,
+        fieldsToCompare,
+        hashStore,
+        hashStoreFile
+    );
   }
 
 }
@@ -31,6 +31,8 @@ import com.streamsets.pipeline.lib.queue.XEvictingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -39,20 +41,30 @@ import java.util.concurrent.TimeUnit;
 
 public class DeDupProcessor extends RecordProcessor {
   private static final String CACHE_KEY = "cache";
+  private static final String OFF_HEAP_INDEX_KEY = "offHeapIndex";
   private static final Logger LOG = LoggerFactory.getLogger(DeDupProcessor.class);
 
   private final  int recordCountWindow;
   private final  int timeWindowSecs;
   private final  SelectFields compareFields;
   private final  List<String> fieldsToCompare;
+  private final  HashStore hashStore;
+  private final  String hashStoreFile;
   private CacheCleaner cacheCleaner;
 
   public DeDupProcessor(int recordCountWindow, int timeWindowSecs,
       SelectFields compareFields, List<String> fieldsToCompare) {
+    this(recordCountWindow, timeWindowSecs, compareFields, fieldsToCompare, HashStore.HEAP, null);
+  }
+
+  public DeDupProcessor(int recordCountWindow, int timeWindowSecs,
+      SelectFields compareFields, List<String> fieldsToCompare, HashStore hashStore, String hashStoreFile) {
     this.recordCountWindow = recordCountWindow;
     this.timeWindowSecs = timeWindowSecs;
     this.compareFields = compareFields;
     this.fieldsToCompare = fieldsToCompare;
+    this.hashStore = hashStore;
+    this.hashStoreFile = hashStoreFile;
   }
 
   private static final Object VOID = new Object();
@@ -61,6 +73,7 @@ public class DeDupProcessor extends RecordProcessor {
   private HashingUtil.RecordFunnel funnel;
   private Cache<HashCode, HashCode> hashCache;
   private XEvictingQueue<HashCode> hashBuffer;
+  private OffHeapHashIndex offHeapIndex;
   private String uniqueLane;
   private String duplicateLane;
 
@@ -93,25 +106,46 @@ public class DeDupProcessor extends RecordProcessor {
       ) : HashingUtil.getRecordFunnel(fieldsToCompare, false, true, '\u0000');
 
       Map<String, Object> runnerSharedMap = getContext().getStageRunnerSharedMap();
-      synchronized (runnerSharedMap) {
-        if(!runnerSharedMap.containsKey(CACHE_KEY)) {
-          CacheBuilder cacheBuilder = CacheBuilder.newBuilder();
-          if (timeWindowSecs > 0) {
-            cacheBuilder.expireAfterWrite(timeWindowSecs, TimeUnit.SECONDS);
+      if (hashStore == HashStore.OFF_HEAP) {
+        synchronized (runnerSharedMap) {
+          offHeapIndex = (OffHeapHashIndex) runnerSharedMap.get(OFF_HEAP_INDEX_KEY);
+          if (offHeapIndex == null) {
+            try {
+              offHeapIndex = new OffHeapHashIndex(
+                  recordCountWindow,
+                  timeWindowSecs,
+                  (hashStoreFile == null || hashStoreFile.isEmpty()) ? null : Paths.get(hashStoreFile)
+              );
+              runnerSharedMap.put(OFF_HEAP_INDEX_KEY, offHeapIndex);
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+              LOG.error("Can't create off-heap hash store", e);
+              issues.add(getContext().createConfigIssue(Groups.DE_DUP.name(), "hashStore", Errors.DEDUP_05, e.toString()));
+              return issues;
+            }
           }
-          if(LOG.isDebugEnabled()) {
-            cacheBuilder.recordStats();
+          offHeapIndex.acquire();
+        }
+      } else {
+        synchronized (runnerSharedMap) {
+          if(!runnerSharedMap.containsKey(CACHE_KEY)) {
+            CacheBuilder cacheBuilder = CacheBuilder.newBuilder();
+            if (timeWindowSecs > 0) {
+              cacheBuilder.expireAfterWrite(timeWindowSecs, TimeUnit.SECONDS);
+            }
+            if(LOG.isDebugEnabled()) {
+              cacheBuilder.recordStats();
+            }
+            hashCache = cacheBuilder.build();
+
+            runnerSharedMap.put(CACHE_KEY, hashCache);
+          } else {
+            hashCache = (Cache<HashCode, HashCode>) runnerSharedMap.get(CACHE_KEY);
           }
-          hashCache = cacheBuilder.build();
-
-          runnerSharedMap.put(CACHE_KEY, hashCache);
-        } else {
-          hashCache = (Cache<HashCode, HashCode>) runnerSharedMap.get(CACHE_KEY);
         }
-      }
-      cacheCleaner = new CacheCleaner(hashCache, "DeDupProcessor", 10 * 60 * 1000);
+        cacheCleaner = new CacheCleaner(hashCache, "DeDupProcessor", 10 * 60 * 1000);
 
-      hashBuffer = XEvictingQueue.create(recordCountWindow);
+        hashBuffer = XEvictingQueue.create(recordCountWindow);
+      }
       hashAttrName = getInfo() + ".hash";
       uniqueLane = getContext().getOutputLanes().get(OutputStreams.UNIQUE.ordinal());
       duplicateLane = getContext().getOutputLanes().get(OutputStreams.DUPLICATE.ordinal());
@@ -123,6 +157,11 @@ public class DeDupProcessor extends RecordProcessor {
     HashCode hash = hasher.hashObject(record, funnel);
     record.getHeader().setAttribute(hashAttrName, hash.toString());
 
+    if (offHeapIndex != null) {
+      // The off-heap index evicts synchronously, so there is no window of false duplicates
+      return !offHeapIndex.add(hash);
+    }
+
     HashCode hashInstance = hashCache.get(hash, () -> hash);
     // We are riding on the fact that if the instance is the same we just added and it is not a dup
     boolean dup = hashInstance != hash;
@@ -141,7 +180,7 @@ public class DeDupProcessor extends RecordProcessor {
 
   @Override
   public void process(Batch batch, BatchMaker batchMaker) throws StageException {
-    if (!batch.getRecords().hasNext()) {
+    if (cacheCleaner != null && !batch.getRecords().hasNext()) {
       // No records - take the opportunity to clean up the cache so that we don't hold on to memory indefinitely
       cacheCleaner.periodicCleanUp();
     }
@@ -162,4 +201,22 @@ public class DeDupProcessor extends RecordProcessor {
     }
   }
 
+  @Override
+  public void destroy() {
+    if (offHeapIndex != null) {
+      Map<String, Object> runnerSharedMap = getContext().getStageRunnerSharedMap();
+      synchronized (runnerSharedMap) {
+        try {
+          if (offHeapIndex.release()) {
+            runnerSharedMap.remove(OFF_HEAP_INDEX_KEY);
+          }
+        } catch (IOException e) {
+          LOG.error("Error while closing off-heap hash store", e);
+        }
+      }
+      offHeapIndex = null;
+    }
+    super.destroy();
+  }
+
 }
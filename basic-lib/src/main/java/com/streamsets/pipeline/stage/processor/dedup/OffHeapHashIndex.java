@@ -0,0 +1,363 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.dedup;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Window of 128-bit hashes kept outside of the Java heap.
+ *
+ * Hashes are stored in an open-addressing (linear probing) hash table, and in a ring buffer that keeps their insertion
+ * order so that the oldest hash can be evicted once the record count window is full or once it falls out of the time
+ * window. Both live in direct byte buffers, or in a memory-mapped file so that the window survives restarts.
+ *
+ * A single byte buffer can't exceed 2GB, so large windows are split into segments selected by the hash, each one with
+ * its own share of the window. Eviction order is then first-in-first-out per segment rather than globally, which for
+ * uniformly distributed hashes makes no practical difference. Segments are also the unit of locking.
+ */
+class OffHeapHashIndex implements Closeable {
+  private static final long MAGIC = 0x5344434465447570L;
+  private static final int VERSION = 1;
+
+  private static final int HEADER_SIZE = 64;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int VERSION_OFFSET = 8;
+  private static final int CAPACITY_OFFSET = 12;
+  private static final int TABLE_SIZE_OFFSET = 16;
+  private static final int ENTRY_SIZE_OFFSET = 20;
+  private static final int FIRST_OFFSET = 24;
+  private static final int SIZE_OFFSET = 28;
+
+  private static final int SLOT_SIZE = 16;
+  private static final int TIMED_ENTRY_SIZE = 24;
+
+  @VisibleForTesting
+  static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+  private final Segment[] segments;
+  private final long timeWindowMillis;
+  private final FileChannel channel;
+  private int references;
+
+  /**
+   * @param recordCountWindow maximum number of hashes kept.
+   * @param timeWindowSecs hashes older than this are evicted, 0 to disable.
+   * @param file memory-mapped file to keep the hashes in, null to keep them in direct memory only.
+   */
+  OffHeapHashIndex(int recordCountWindow, int timeWindowSecs, Path file) throws IOException {
+    Preconditions.checkArgument(recordCountWindow > 0, "recordCountWindow must be greater than zero");
+    this.timeWindowMillis = timeWindowSecs * 1000L;
+    int entrySize = (timeWindowSecs > 0) ? TIMED_ENTRY_SIZE : SLOT_SIZE;
+
+    int segmentCount = 1;
+    while (segmentBytes(segmentCapacity(recordCountWindow, segmentCount), entrySize) > MAX_SEGMENT_BYTES) {
+      segmentCount *= 2;
+    }
+    int capacity = segmentCapacity(recordCountWindow, segmentCount);
+    long bytes = segmentBytes(capacity, entrySize);
+
+    segments = new Segment[segmentCount];
+    if (file == null) {
+      channel = null;
+      for (int i = 0; i < segmentCount; i++) {
+        segments[i] = new Segment(ByteBuffer.allocateDirect((int) bytes));
+        segments[i].initialize(capacity, entrySize);
+      }
+    } else {
+      channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      try {
+        boolean reuse = channel.size() == bytes * segmentCount;
+        if (!reuse) {
+          // mapping grows the file as needed, but won't shrink it
+          channel.truncate(bytes * segmentCount);
+        }
+        for (int i = 0; i < segmentCount; i++) {
+          segments[i] = new Segment(channel.map(FileChannel.MapMode.READ_WRITE, i * bytes, bytes));
+          reuse = reuse && segments[i].isCompatible(capacity, entrySize);
+        }
+        if (!reuse) {
+          // Written with a different window (or not at all), start over
+          for (Segment segment : segments) {
+            segment.clear();
+            segment.initialize(capacity, entrySize);
+          }
+        }
+      } catch (IOException | RuntimeException ex) {
+        channel.close();
+        throw ex;
+      }
+    }
+  }
+
+  private static int segmentCapacity(int recordCountWindow, int segmentCount) {
+    return (recordCountWindow + segmentCount - 1) / segmentCount;
+  }
+
+  private static int tableSize(int capacity) {
+    // load factor of at most 0.75, and always at least one free slot to terminate probing
+    return capacity + capacity / 3 + 1;
+  }
+
+  private static long segmentBytes(int capacity, int entrySize) {
+    return HEADER_SIZE + (long) capacity * entrySize + (long) tableSize(capacity) * SLOT_SIZE;
+  }
+
+  /**
+   * Adds the given hash to the window.
+   *
+   * @return true if the hash was added, false if it was already in the window (duplicate).
+   */
+  boolean add(HashCode hash) {
+    byte[] bytes = hash.asBytes();
+    return add(toLong(bytes, 0), (bytes.length >= 16) ? toLong(bytes, 8) : 0, System.currentTimeMillis());
+  }
+
+  @VisibleForTesting
+  boolean add(long hi, long lo, long now) {
+    if (hi == 0 && lo == 0) {
+      // all zeros marks an empty slot
+      lo = 1;
+    }
+    Segment segment = segments[(int) Long.remainderUnsigned(lo, segments.length)];
+    synchronized (segment) {
+      if (timeWindowMillis > 0) {
+        segment.expire(now - timeWindowMillis);
+      }
+      return segment.add(hi, lo, now);
+    }
+  }
+
+  @VisibleForTesting
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  @VisibleForTesting
+  int getSegmentCount() {
+    return segments.length;
+  }
+
+  private static long toLong(byte[] bytes, int offset) {
+    long value = 0;
+    for (int i = offset; i < offset + 8 && i < bytes.length; i++) {
+      value = (value << 8) | (bytes[i] & 0xFF);
+    }
+    return value;
+  }
+
+  /**
+   * Registers a user of this index (a pipeline runner), it will be closed once all of them released it.
+   */
+  synchronized void acquire() {
+    references++;
+  }
+
+  /**
+   * @return true if this was the last user and the index got closed.
+   */
+  synchronized boolean release() throws IOException {
+    if (--references <= 0) {
+      close();
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null && channel.isOpen()) {
+      for (Segment segment : segments) {
+        synchronized (segment) {
+          ((MappedByteBuffer) segment.buffer).force();
+        }
+      }
+      channel.close();
+    }
+  }
+
+  private static class Segment {
+    private final ByteBuffer buffer;
+    private int capacity;
+    private int tableSize;
+    private int entrySize;
+    private int tableOffset;
+
+    Segment(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    boolean isCompatible(int capacity, int entrySize) {
+      if (buffer.getLong(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION
+          || buffer.getInt(CAPACITY_OFFSET) != capacity || buffer.getInt(TABLE_SIZE_OFFSET) != tableSize(capacity)
+          || buffer.getInt(ENTRY_SIZE_OFFSET) != entrySize) {
+        return false;
+      }
+      setLayout(capacity, entrySize);
+      return true;
+    }
+
+    void clear() {
+      for (int i = 0; i + 8 <= buffer.capacity(); i += 8) {
+        buffer.putLong(i, 0);
+      }
+    }
+
+    void initialize(int capacity, int entrySize) {
+      setLayout(capacity, entrySize);
+      buffer.putLong(MAGIC_OFFSET, MAGIC);
+      buffer.putInt(VERSION_OFFSET, VERSION);
+      buffer.putInt(CAPACITY_OFFSET, capacity);
+      buffer.putInt(TABLE_SIZE_OFFSET, tableSize);
+      buffer.putInt(ENTRY_SIZE_OFFSET, entrySize);
+      buffer.putInt(FIRST_OFFSET, 0);
+      buffer.putInt(SIZE_OFFSET, 0);
+    }
+
+    private void setLayout(int capacity, int entrySize) {
+      this.capacity = capacity;
+      this.tableSize = tableSize(capacity);
+      this.entrySize = entrySize;
+      this.tableOffset = HEADER_SIZE + capacity * entrySize;
+    }
+
+    int size() {
+      return buffer.getInt(SIZE_OFFSET);
+    }
+
+    boolean add(long hi, long lo, long now) {
+      if (find(hi, lo) >= 0) {
+        return false;
+      }
+      int first = buffer.getInt(FIRST_OFFSET);
+      int size = buffer.getInt(SIZE_OFFSET);
+      if (size == capacity) {
+        evictOldest();
+        first = buffer.getInt(FIRST_OFFSET);
+        size--;
+      }
+
+      // ring buffer
+      int entry = HEADER_SIZE + ((first + size) % capacity) * entrySize;
+      buffer.putLong(entry, hi);
+      buffer.putLong(entry + 8, lo);
+      if (entrySize == TIMED_ENTRY_SIZE) {
+        buffer.putLong(entry + 16, now);
+      }
+
+      // hash table
+      int slot = home(hi);
+      while (!isEmpty(slot)) {
+        slot = next(slot);
+      }
+      putSlot(slot, hi, lo);
+
+      buffer.putInt(SIZE_OFFSET, size + 1);
+      return true;
+    }
+
+    void expire(long cutoff) {
+      while (size() > 0) {
+        int entry = HEADER_SIZE + buffer.getInt(FIRST_OFFSET) * entrySize;
+        if (buffer.getLong(entry + 16) >= cutoff) {
+          break;
+        }
+        evictOldest();
+      }
+    }
+
+    private void evictOldest() {
+      int first = buffer.getInt(FIRST_OFFSET);
+      int entry = HEADER_SIZE + first * entrySize;
+      remove(buffer.getLong(entry), buffer.getLong(entry + 8));
+      buffer.putInt(FIRST_OFFSET, (first + 1) % capacity);
+      buffer.putInt(SIZE_OFFSET, size() - 1);
+    }
+
+    private int find(long hi, long lo) {
+      int slot = home(hi);
+      while (!isEmpty(slot)) {
+        int offset = tableOffset + slot * SLOT_SIZE;
+        if (buffer.getLong(offset) == hi && buffer.getLong(offset + 8) == lo) {
+          return slot;
+        }
+        slot = next(slot);
+      }
+      return -1;
+    }
+
+    /**
+     * Removes the hash using backward shift deletion, so that no tombstones are needed.
+     */
+    private void remove(long hi, long lo) {
+      int hole = find(hi, lo);
+      if (hole < 0) {
+        return;
+      }
+      int slot = hole;
+      while (true) {
+        slot = next(slot);
+        if (isEmpty(slot)) {
+          break;
+        }
+        int offset = tableOffset + slot * SLOT_SIZE;
+        long slotHi = buffer.getLong(offset);
+        int home = home(slotHi);
+        // the entry can fill the hole unless its home lies cyclically in (hole, slot]
+        boolean homeBetween = (hole <= slot) ? (home > hole && home <= slot) : (home > hole || home <= slot);
+        if (!homeBetween) {
+          putSlot(hole, slotHi, buffer.getLong(offset + 8));
+          hole = slot;
+        }
+      }
+      putSlot(hole, 0, 0);
+    }
+
+    private int home(long hi) {
+      return (int) Long.remainderUnsigned(hi, tableSize);
+    }
+
+    private int next(int slot) {
+      return (slot + 1 == tableSize) ? 0 : slot + 1;
+    }
+
+    private boolean isEmpty(int slot) {
+      int offset = tableOffset + slot * SLOT_SIZE;
+      return buffer.getLong(offset) == 0 && buffer.getLong(offset + 8) == 0;
+    }
+
+    private void putSlot(int slot, long hi, long lo) {
+      int offset = tableOffset + slot * SLOT_SIZE;
+      buffer.putLong(offset, hi);
+      buffer.putLong(offset + 8, lo);
+    }
+  }
+}
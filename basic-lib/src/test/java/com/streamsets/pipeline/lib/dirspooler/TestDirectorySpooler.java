@@ -822,4 +822,61 @@ public class TestDirectorySpooler {
 
     spooler.destroy();
   }
+
+  @Test
+  public void testUnchangedDirectoryIsNotListedAgain() throws Exception {
+    assertTrue(spoolDir.mkdirs());
+    File logFile1 = new File(spoolDir, "x1.log").getAbsoluteFile();
+    new FileWriter(logFile1).close();
+    FileTime dirTime = FileTime.fromMillis(System.currentTimeMillis() - 10000);
+    Files.setLastModifiedTime(spoolDir.toPath(), dirTime);
+
+    DirectorySpooler.Builder builder = initializeAndGetBuilder()
+        .setMaxSpoolFiles(3);
+    DirectorySpooler spooler = builder.build();
+
+    spooler.init("");
+    Assert.assertEquals(logFile1.getAbsolutePath(), spooler.poolForFile(intervalMillis, TimeUnit.MILLISECONDS).getAbsolutePath());
+
+    // the directory looks unchanged, it is not listed
+    File logFile2 = new File(spoolDir, "x2.log").getAbsoluteFile();
+    new FileWriter(logFile2).close();
+    Files.setLastModifiedTime(spoolDir.toPath(), dirTime);
+    spooler.finder.run();
+    Assert.assertNull(spooler.poolForFile(100, TimeUnit.MILLISECONDS));
+
+    // once the directory changes, it is listed again
+    Files.setLastModifiedTime(spoolDir.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+    spooler.finder.run();
+    Assert.assertEquals(logFile2.getAbsolutePath(), spooler.poolForFile(intervalMillis, TimeUnit.MILLISECONDS).getAbsolutePath());
+    spooler.destroy();
+  }
+
+  @Test
+  public void testDirectoryWithNewFilesIsListedAgain() throws Exception {
+    assertTrue(spoolDir.mkdirs());
+    File logFile1 = new File(spoolDir, "x1.log").getAbsoluteFile();
+    new FileWriter(logFile1).close();
+    File logFile2 = new File(spoolDir, "x2.log").getAbsoluteFile();
+    new FileWriter(logFile2).close();
+    // still being written, it is skipped
+    Files.setLastModifiedTime(logFile2.toPath(), FileTime.fromMillis(System.currentTimeMillis() + 60000));
+    FileTime dirTime = FileTime.fromMillis(System.currentTimeMillis() - 10000);
+    Files.setLastModifiedTime(spoolDir.toPath(), dirTime);
+
+    DirectorySpooler.Builder builder = initializeAndGetBuilder()
+        .setMaxSpoolFiles(3);
+    DirectorySpooler spooler = builder.build();
+
+    spooler.init("");
+    Assert.assertEquals(logFile1.getAbsolutePath(), spooler.poolForFile(intervalMillis, TimeUnit.MILLISECONDS).getAbsolutePath());
+    Assert.assertNull(spooler.poolForFile(100, TimeUnit.MILLISECONDS));
+
+    // the skipped file is complete, the directory is unchanged but it was not indexed
+    Files.setLastModifiedTime(logFile2.toPath(), FileTime.fromMillis(System.currentTimeMillis() - 5000));
+    Files.setLastModifiedTime(spoolDir.toPath(), dirTime);
+    spooler.finder.run();
+    Assert.assertEquals(logFile2.getAbsolutePath(), spooler.poolForFile(intervalMillis, TimeUnit.MILLISECONDS).getAbsolutePath());
+    spooler.destroy();
+  }
 }
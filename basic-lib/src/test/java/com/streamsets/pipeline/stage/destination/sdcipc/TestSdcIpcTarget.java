@@ -54,6 +54,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TestSdcIpcTarget {
 
@@ -280,6 +281,9 @@ public class TestSdcIpcTarget {
 
   private static class ReceiverServlet extends HttpServlet {
     boolean compressedData;
+    boolean lz4Supported;
+    volatile String compressionCodec;
+    final AtomicInteger posts = new AtomicInteger();
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
@@ -288,6 +292,9 @@ public class TestSdcIpcTarget {
         resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
       } else {
         resp.setHeader(Constants.X_SDC_PING_HEADER, Constants.X_SDC_PING_VALUE);
+        if (lz4Supported) {
+          resp.setHeader(Constants.X_SDC_COMPRESSION_SUPPORTED_HEADER, Constants.LZ4_COMPRESSION);
+        }
         resp.setStatus(HttpServletResponse.SC_OK);
       }
     }
@@ -303,6 +310,8 @@ public class TestSdcIpcTarget {
       } else {
         compressedData = req.getHeader(Constants.X_SDC_COMPRESSION_HEADER) != null &&
                          req.getHeader(Constants.X_SDC_COMPRESSION_HEADER).equals(Constants.SNAPPY_COMPRESSION);
+        compressionCodec = req.getHeader(Constants.X_SDC_COMPRESSION_HEADER);
+        posts.incrementAndGet();
         InputStream is = req.getInputStream();
         while (is.read() > 1);
         resp.setStatus(HttpServletResponse.SC_OK);
@@ -391,6 +400,110 @@ public class TestSdcIpcTarget {
     }
   }
 
+  @Test
+  public void testHttpParallelRequestsWithLz4() throws Exception {
+    Server server = new Server(0);
+    ServletContextHandler context = new ServletContextHandler();
+    ReceiverServlet servlet = new ReceiverServlet();
+    servlet.lz4Supported = true;
+    context.addServlet(new ServletHolder(servlet), Constants.IPC_PATH);
+    context.setContextPath("/");
+    server.setHandler(context);
+    // a second port, to have two active receivers
+    ServerConnector secondConnector = new ServerConnector(server);
+    secondConnector.setPort(0);
+    server.addConnector(secondConnector);
+    try {
+      server.start();
+
+      Configs config = new Configs();
+      config.appId = () -> "appId";
+      config.connectionTimeOutMs = 1000;
+      config.readTimeOutMs = 2000;
+      config.hostPorts = new ArrayList<>(ImmutableList.of(
+          "localhost:" + server.getURI().getPort(),
+          "localhost:" + secondConnector.getLocalPort()
+      ));
+      config.retriesPerBatch = 2;
+      config.tlsConfigBean.tlsEnabled = false;
+      config.tlsConfigBean.trustStoreFilePath = "";
+      config.tlsConfigBean.trustStorePassword = () -> "";
+      config.hostVerification = true;
+      config.compression = true;
+      config.compressionCodec = RpcCompression.LZ4;
+      config.maxInFlightRequests = 3;
+
+      SdcIpcTarget target = new SdcIpcTarget(config);
+
+      TargetRunner runner = new TargetRunner.Builder(SdcIpcDTarget.class, target)
+          .setOnRecordError(OnRecordError.TO_ERROR).build();
+      try {
+        runner.runInit();
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+          records.add(RecordCreator.create());
+        }
+        runner.runWrite(records);
+        // one request per active receiver, they process one request at a time
+        Assert.assertEquals(2, servlet.posts.get());
+        Assert.assertEquals(Constants.LZ4_COMPRESSION, servlet.compressionCodec);
+        Assert.assertTrue(runner.getErrorRecords().isEmpty());
+        Assert.assertTrue(runner.getErrors().isEmpty());
+      } finally {
+        runner.runDestroy();
+      }
+
+      // a single receiver gets the whole batch in one request
+      servlet.posts.set(0);
+      Configs singleHostConfig = new Configs();
+      singleHostConfig.appId = () -> "appId";
+      singleHostConfig.connectionTimeOutMs = 1000;
+      singleHostConfig.readTimeOutMs = 2000;
+      singleHostConfig.hostPorts = ImmutableList.of("localhost:" + server.getURI().getPort());
+      singleHostConfig.retriesPerBatch = 2;
+      singleHostConfig.tlsConfigBean.tlsEnabled = false;
+      singleHostConfig.tlsConfigBean.trustStoreFilePath = "";
+      singleHostConfig.tlsConfigBean.trustStorePassword = () -> "";
+      singleHostConfig.hostVerification = true;
+      singleHostConfig.compression = true;
+      singleHostConfig.compressionCodec = RpcCompression.LZ4;
+      singleHostConfig.maxInFlightRequests = 3;
+      target = new SdcIpcTarget(singleHostConfig);
+      runner = new TargetRunner.Builder(SdcIpcDTarget.class, target)
+          .setOnRecordError(OnRecordError.TO_ERROR).build();
+      try {
+        runner.runInit();
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+          records.add(RecordCreator.create());
+        }
+        runner.runWrite(records);
+        Assert.assertEquals(1, servlet.posts.get());
+        Assert.assertTrue(runner.getErrorRecords().isEmpty());
+      } finally {
+        runner.runDestroy();
+      }
+
+      // receivers that don't advertise LZ4 get Snappy
+      servlet.lz4Supported = false;
+      servlet.posts.set(0);
+      target = new SdcIpcTarget(config);
+      runner = new TargetRunner.Builder(SdcIpcDTarget.class, target)
+          .setOnRecordError(OnRecordError.TO_ERROR).build();
+      try {
+        runner.runInit();
+        runner.runWrite(ImmutableList.of(RecordCreator.create()));
+        Assert.assertEquals(1, servlet.posts.get());
+        Assert.assertEquals(Constants.SNAPPY_COMPRESSION, servlet.compressionCodec);
+        Assert.assertTrue(runner.getErrorRecords().isEmpty());
+      } finally {
+        runner.runDestroy();
+      }
+    } finally {
+      server.stop();
+    }
+  }
+
   private void testHttps(boolean hostVerification) throws Exception {
     String hostname = (hostVerification) ? TLSTestUtils.getHostname() : "localhost";
 
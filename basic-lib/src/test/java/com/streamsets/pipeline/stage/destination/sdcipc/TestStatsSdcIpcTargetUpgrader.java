@@ -64,4 +64,15 @@ public class TestStatsSdcIpcTargetUpgrader {
     UpgraderTestUtils.assertExists(configs, configPrefix + "certificateChain", new ArrayList<>());
     UpgraderTestUtils.assertExists(configs, configPrefix + "trustedCertificates", new ArrayList<>());
   }
+
+  @Test
+  public void testV3ToV4() {
+    Mockito.doReturn(3).when(context).getFromVersion();
+    Mockito.doReturn(4).when(context).getToVersion();
+
+    configs = upgrader.upgrade(configs, context);
+
+    UpgraderTestUtils.assertExists(configs, "config.compressionCodec", "SNAPPY");
+    UpgraderTestUtils.assertExists(configs, "config.maxInFlightRequests", 1);
+  }
 }
@@ -232,6 +232,53 @@ public class TestHttpServerPushSource {
     }
   }
 
+  @Test
+  public void testAsyncRequestProcessing() throws Exception {
+    HttpSourceConfigs httpConfigs = new HttpSourceConfigs();
+    httpConfigs.appIds = new ArrayList<>();
+    httpConfigs.appIds.add(new CredentialValueBean("id"));
+    httpConfigs.port = NetworkUtils.getRandomPort();
+    httpConfigs.maxConcurrentRequests = 1;
+    httpConfigs.tlsConfigBean.tlsEnabled = false;
+    HttpServerPushSource source =
+        new HttpServerPushSource(httpConfigs, 1, true, DataFormat.TEXT, new DataParserFormatConfig());
+    final PushSourceRunner runner =
+        new PushSourceRunner.Builder(HttpServerDPushSource.class, source).addOutputLane("a").build();
+    runner.runInit();
+    try {
+      final List<Record> records = new ArrayList<>();
+      runner.runProduce(Collections.<String, String>emptyMap(), 1, new PushSourceRunner.Callback() {
+        @Override
+        public void processBatch(StageRunner.Output output) {
+          records.clear();
+          records.addAll(output.getRecords().get("a"));
+        }
+      });
+
+      // wait for the HTTP server up and running
+      HttpReceiverServer httpServer = (HttpReceiverServer)Whitebox.getInternalState(source, "server");
+      await().atMost(Duration.TEN_SECONDS).until(isServerRunning(httpServer));
+
+      HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + httpConfigs.getPort())
+          .openConnection();
+      connection.setRequestMethod("POST");
+      connection.setUseCaches(false);
+      connection.setDoOutput(true);
+      connection.setRequestProperty(Constants.X_SDC_APPLICATION_ID_HEADER, "id");
+      connection.getOutputStream().write("Hello\nWorld".getBytes());
+      Assert.assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+      Assert.assertEquals(2, records.size());
+      Assert.assertEquals("Hello", records.get(0).get("/text").getValue());
+      Assert.assertEquals("World", records.get(1).get("/text").getValue());
+
+      runner.setStop();
+    } catch (Exception e) {
+      Assert.fail(e.getMessage());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   public static Callable<Boolean> isServerRunning(AbstractHttpReceiverServer httpServer ) {
     return new Callable<Boolean>() {
       @Override
@@ -138,4 +138,14 @@ public class TestHttpServerPushSourceUpgrader {
     UpgraderTestUtils.assertExists(configs, configPrefix + "certificateChain", new ArrayList<>());
     UpgraderTestUtils.assertExists(configs, configPrefix + "trustedCertificates", new ArrayList<>());
   }
+
+  @Test
+  public void testV14ToV15() {
+    Mockito.doReturn(14).when(context).getFromVersion();
+    Mockito.doReturn(15).when(context).getToVersion();
+
+    configs = upgrader.upgrade(configs, context);
+
+    UpgraderTestUtils.assertExists(configs, "asyncRequestProcessing", false);
+  }
 }
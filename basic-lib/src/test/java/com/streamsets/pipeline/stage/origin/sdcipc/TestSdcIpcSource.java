@@ -29,6 +29,7 @@ import com.streamsets.pipeline.sdk.StageRunner;
 import com.streamsets.pipeline.stage.destination.sdcipc.Constants;
 import com.streamsets.pipeline.stage.util.tls.TLSTestUtils;
 import com.streamsets.testing.NetworkUtils;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
 import org.iq80.snappy.SnappyFramedOutputStream;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -56,7 +57,7 @@ public class TestSdcIpcSource {
     randomPort = NetworkUtils.getRandomPort();
   }
 
-  private void testReceiveRecords(final boolean ssl, final boolean compressed) throws Exception {
+  private void testReceiveRecords(final boolean ssl, final String compression) throws Exception {
     String hostname = TLSTestUtils.getHostname();
     File testDir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
     File keyStore = new File(testDir, "keystore.jks");
@@ -110,7 +111,7 @@ public class TestSdcIpcSource {
           r2.set(Field.create(false));
           List<Record> records = ImmutableList.of(r1, r2);
           return sendRecords(configs.appId, runner.getContext(), TLSTestUtils.getHostname() + ":" + configs.port, ssl,
-                             trustStore.toString(), "truststore", compressed, records);
+                             trustStore.toString(), "truststore", compression, records);
         }
       });
       StageRunner.Output output = runner.runProduce(null, 10);
@@ -133,7 +134,7 @@ public class TestSdcIpcSource {
           r2.set(Field.create(false));
           List<Record> records = ImmutableList.of(r1, r2);
           return sendRecords(() ->"invalid", runner.getContext(), TLSTestUtils.getHostname() + ":" + configs.port, ssl,
-                             trustStore.toString(), "truststore", compressed, records);
+                             trustStore.toString(), "truststore", compression, records);
         }
       });
 
@@ -189,7 +190,7 @@ public class TestSdcIpcSource {
     boolean ssl,
     String trustStoreFile,
     String trustStorePassword,
-    boolean compressed,
+    String compression,
     List<Record> records) throws Exception {
     try {
       ContextExtensions ext = (ContextExtensions) context;
@@ -197,15 +198,17 @@ public class TestSdcIpcSource {
                                              trustStorePassword);
       conn.setRequestMethod("POST");
       conn.setRequestProperty(Constants.CONTENT_TYPE_HEADER, Constants.APPLICATION_BINARY);
-      if (compressed) {
-        conn.setRequestProperty(Constants.X_SDC_COMPRESSION_HEADER, Constants.SNAPPY_COMPRESSION);
+      if (compression != null) {
+        conn.setRequestProperty(Constants.X_SDC_COMPRESSION_HEADER, compression);
       }
       conn.setDefaultUseCaches(false);
       conn.setDoOutput(true);
       conn.setDoInput(true);
       OutputStream os = conn.getOutputStream();
-      if (compressed) {
+      if (Constants.SNAPPY_COMPRESSION.equals(compression)) {
         os = new SnappyFramedOutputStream(os);
+      } else if (Constants.LZ4_COMPRESSION.equals(compression)) {
+        os = new FramedLZ4CompressorOutputStream(os);
       }
       RecordWriter writer = ext.createRecordWriter(os);
       for (Record record : records) {
@@ -221,14 +224,15 @@ public class TestSdcIpcSource {
 
   @Test
   public void testReceiveRecordsHttp() throws Exception {
-    testReceiveRecords(false, false);
-    testReceiveRecords(false, true);
+    testReceiveRecords(false, null);
+    testReceiveRecords(false, Constants.SNAPPY_COMPRESSION);
+    testReceiveRecords(false, Constants.LZ4_COMPRESSION);
   }
 
   @Test
   public void testReceiveRecordsHttps() throws Exception {
-    testReceiveRecords(true, false);
-    testReceiveRecords(true, true);
+    testReceiveRecords(true, null);
+    testReceiveRecords(true, Constants.SNAPPY_COMPRESSION);
   }
 
 }
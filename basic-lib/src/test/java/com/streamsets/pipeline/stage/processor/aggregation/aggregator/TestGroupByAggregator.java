@@ -20,7 +20,12 @@ import com.streamsets.pipeline.stage.processor.aggregation.WindowType;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TestGroupByAggregator {
 
@@ -70,4 +75,39 @@ public class TestGroupByAggregator {
     aggregators.stop();
   }
 
+  @Test
+  public void testConcurrentProcessing() throws Exception {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING);
+    GroupByAggregator count = aggregators.createGroupBy("count", CountAggregator.class);
+    GroupByAggregator max = aggregators.createGroupBy("max", LongMaxAggregator.class);
+    aggregators.start(1);
+
+    int threads = 4;
+    int iterations = 10000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (long i = 0; i < iterations; i++) {
+            count.process((i % 2 == 0) ? "even" : "odd", 1L);
+            max.process("all", i);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals(ImmutableMap.of("even", (long) threads * iterations / 2, "odd", (long) threads * iterations / 2),
+        count.get()
+    );
+    Assert.assertEquals(ImmutableMap.of("all", (long) iterations - 1), max.get());
+
+    aggregators.stop();
+  }
+
 }
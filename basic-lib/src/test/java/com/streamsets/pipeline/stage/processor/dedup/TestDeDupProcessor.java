@@ -482,6 +482,33 @@ public class TestDeDupProcessor {
     return record;
   }
 
+  @Test
+  public void testOffHeapHashStore() throws Exception {
+    Processor processor = new DeDupProcessor(2, 0, SelectFields.ALL_FIELDS, Collections.EMPTY_LIST,
+        HashStore.OFF_HEAP, null);
+    ProcessorRunner runner = new ProcessorRunner.Builder(DeDupDProcessor.class, processor)
+        .addOutputLane("unique")
+        .addOutputLane("duplicate")
+        .build();
+    runner.runInit();
+    try {
+      List<Record> input = ImmutableList.of(
+          createRecordWithValue("a"),
+          createRecordWithValue("b"),
+          createRecordWithValue("a"),
+          createRecordWithValue("c"),
+          createRecordWithValue("a")
+      );
+      StageRunner.Output output = runner.runProcess(input);
+      // "a" falls out of the window of 2 once "c" is added
+      Assert.assertEquals(4, output.getRecords().get("unique").size());
+      Assert.assertEquals(1, output.getRecords().get("duplicate").size());
+      Assert.assertEquals("a", output.getRecords().get("duplicate").get(0).get("/value").getValueAsString());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   private long getDefaultMemoryLimitMiB() {
     long maxMemoryMiB = Runtime.getRuntime().maxMemory() / 1000 / 1000;
     return (long)(maxMemoryMiB * 0.65);
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.dedup;
+
+import com.google.common.hash.HashCode;
+import com.streamsets.pipeline.lib.hashing.HashingUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TestOffHeapHashIndex {
+
+  @Test
+  public void testDuplicates() throws Exception {
+    try (OffHeapHashIndex index = new OffHeapHashIndex(100, 0, null)) {
+      Assert.assertEquals(1, index.getSegmentCount());
+      for (int i = 0; i < 50; i++) {
+        Assert.assertTrue(index.add(hash("v" + i)));
+      }
+      for (int i = 0; i < 50; i++) {
+        Assert.assertFalse(index.add(hash("v" + i)));
+      }
+      Assert.assertEquals(50, index.size());
+    }
+  }
+
+  @Test
+  public void testRecordCountWindow() throws Exception {
+    try (OffHeapHashIndex index = new OffHeapHashIndex(3, 0, null)) {
+      Assert.assertTrue(index.add(1, 1, 0));
+      Assert.assertTrue(index.add(2, 2, 0));
+      Assert.assertTrue(index.add(3, 3, 0));
+      Assert.assertFalse(index.add(1, 1, 0));
+
+      // evicts the oldest one
+      Assert.assertTrue(index.add(4, 4, 0));
+      Assert.assertEquals(3, index.size());
+      Assert.assertTrue(index.add(1, 1, 0));
+      Assert.assertFalse(index.add(3, 3, 0));
+      Assert.assertFalse(index.add(4, 4, 0));
+    }
+  }
+
+  @Test
+  public void testTimeWindow() throws Exception {
+    try (OffHeapHashIndex index = new OffHeapHashIndex(10, 10, null)) {
+      Assert.assertTrue(index.add(1, 1, 1000));
+      Assert.assertTrue(index.add(2, 2, 5000));
+      Assert.assertFalse(index.add(1, 1, 10000));
+
+      // first hash is now older than 10 secs
+      Assert.assertTrue(index.add(1, 1, 11001));
+      Assert.assertFalse(index.add(2, 2, 11001));
+      Assert.assertEquals(2, index.size());
+    }
+  }
+
+  @Test
+  public void testCollisionsAndRemoval() throws Exception {
+    // capacity 4 uses a table of 6 slots, all these hashes but the last one have the same home slot
+    try (OffHeapHashIndex index = new OffHeapHashIndex(4, 0, null)) {
+      Assert.assertTrue(index.add(6, 1, 0));
+      Assert.assertTrue(index.add(12, 1, 0));
+      Assert.assertTrue(index.add(18, 1, 0));
+      Assert.assertTrue(index.add(1, 1, 0));
+
+      // evicting (6, 1) shifts its followers back, all of them must still be found
+      Assert.assertTrue(index.add(24, 1, 0));
+      Assert.assertFalse(index.add(12, 1, 0));
+      Assert.assertFalse(index.add(18, 1, 0));
+      Assert.assertFalse(index.add(1, 1, 0));
+      Assert.assertFalse(index.add(24, 1, 0));
+      Assert.assertTrue(index.add(6, 1, 0));
+    }
+  }
+
+  @Test
+  public void testZeroHash() throws Exception {
+    try (OffHeapHashIndex index = new OffHeapHashIndex(4, 0, null)) {
+      Assert.assertTrue(index.add(0, 0, 0));
+      Assert.assertFalse(index.add(0, 0, 0));
+    }
+  }
+
+  @Test
+  public void testMemoryMappedFile() throws Exception {
+    Path file = Files.createTempFile("dedup", ".idx");
+    try {
+      try (OffHeapHashIndex index = new OffHeapHashIndex(10, 0, file)) {
+        Assert.assertTrue(index.add(hash("a")));
+        Assert.assertTrue(index.add(hash("b")));
+      }
+
+      // same window, hashes survive
+      try (OffHeapHashIndex index = new OffHeapHashIndex(10, 0, file)) {
+        Assert.assertEquals(2, index.size());
+        Assert.assertFalse(index.add(hash("a")));
+        Assert.assertTrue(index.add(hash("c")));
+      }
+
+      // different window, starts empty
+      try (OffHeapHashIndex index = new OffHeapHashIndex(20, 0, file)) {
+        Assert.assertEquals(0, index.size());
+        Assert.assertTrue(index.add(hash("a")));
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  private static HashCode hash(String value) {
+    return HashingUtil.getHasher(HashingUtil.HashType.MURMUR3_128).hashString(value, StandardCharsets.UTF_8);
+  }
+}
@@ -15,19 +15,19 @@
  */
 package com.streamsets.datacollector.el;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.streamsets.datacollector.definition.ELDefinitionExtractor;
 import com.streamsets.datacollector.util.ContainerCommonError;
 import com.streamsets.pipeline.api.el.ELEval;
 import com.streamsets.pipeline.api.el.ELEvalException;
 import com.streamsets.pipeline.api.el.ELVars;
-import com.streamsets.pipeline.api.impl.Utils;
 import org.apache.commons.el.LruExpressionEvaluatorImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.jsp.el.ELException;
 import javax.servlet.jsp.el.FunctionMapper;
-import javax.servlet.jsp.el.VariableResolver;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -43,10 +43,15 @@ public class ELEvaluator extends ELEval {
   private final List<ElFunctionDefinition> elFunctionDefinitions;
   private final List<ElConstantDefinition> elConstantDefinitions;
   private final ELDefinitionExtractor elDefinitionExtractor;
+  // stages evaluate a handful of expressions, only keep the most recently used ones if there are more
+  private final Cache<String, ELExpression> compiledExpressions;
+  private final ThreadLocal<ELExpression.VariableResolverImpl> resolvers;
 
   // ExpressionEvaluatorImpl can be used as a singleton
   private static final LruExpressionEvaluatorImpl EVALUATOR = new LruExpressionEvaluatorImpl();
 
+  private static final int MAX_COMPILED_EXPRESSIONS = 1000;
+
   public ELEvaluator(String configName, boolean explicit, Map<String, Object> constants, ELDefinitionExtractor elDefinitionExtractor, List<Class> elFuncConstDefClasses) {
     this(configName, explicit, constants, elDefinitionExtractor, elFuncConstDefClasses.toArray(new Class[elFuncConstDefClasses.size()]));
   }
@@ -60,6 +65,8 @@ public class ELEvaluator extends ELEval {
     this.elDefinitionExtractor = elDefinitionExtractor;
     populateConstantsAndFunctions(explicit, elFuncConstDefClasses);
     this.functionMapper = new FunctionMapperImpl();
+    compiledExpressions = CacheBuilder.newBuilder().maximumSize(MAX_COMPILED_EXPRESSIONS).build();
+    resolvers = ThreadLocal.withInitial(() -> new ELExpression.VariableResolverImpl(this.constants));
   }
 
   public ELEvaluator(String configName, ELDefinitionExtractor elDefinitionExtractor, Class<?>... elFuncConstDefClasses) {
@@ -125,40 +132,54 @@ public class ELEvaluator extends ELEval {
     }
   }
 
+  /**
+   * Parses the given expression once, the returned expression can be evaluated many times with different variables.
+   */
+  public ELExpression compile(String expression) throws ELEvalException {
+    try {
+      return compileExpression(expression);
+    } catch (ELException e) {
+      LOG.debug("Error parsering EL '{}': {}", expression, e.toString(), e);
+      throw new ELEvalException(ContainerCommonError.CTRCMN_0101, expression, e.toString(), e);
+    }
+  }
+
+  private ELExpression compileExpression(String expression) throws ELException {
+    ELExpression compiled = compiledExpressions.getIfPresent(expression);
+    if (compiled == null) {
+      compiled = new ELExpression(expression, EVALUATOR.parseExpressionString(expression), resolvers, functionMapper);
+      compiledExpressions.put(expression, compiled);
+    }
+    return compiled;
+  }
+
   @Override
-  @SuppressWarnings("unchecked")
   public <T> T evaluate (final ELVars vars, String expression, Class<T> returnType) throws ELEvalException {
-    VariableResolver variableResolver = new VariableResolver() {
-
-      @Override
-      public Object resolveVariable(String name) throws ELException {
-        Object value = constants.get(name);
-        if (!vars.hasVariable(name)) {
-          if (value == null && !constants.containsKey(name)) {
-            throw new ELException(Utils.format("Constants/Variable '{}' cannot be resolved", name));
-          }
-        } else {
-          value = vars.getVariable(name);
-        }
-        return value;
-      }
-    };
+    if (expression == null) {
+      throw new ELEvalException(ContainerCommonError.CTRCMN_0100, null, "Expression cannot be null");
+    }
+    ELExpression compiled;
     try {
-      return (T) EVALUATOR.evaluate(expression, returnType, variableResolver, functionMapper);
+      compiled = compileExpression(expression);
     } catch (ELException e) {
-      // Apache evaluator is not using the getCause exception chaining that is available in Java but rather a custom
-      // chaining mechanism. This doesn't work well for us as we're effectively swallowing the cause that is not
-      // available in log, ...
-      Throwable t = e;
-      if(e.getRootCause() != null) {
-        t = e.getRootCause();
-        if(e.getCause() == null) {
-          e.initCause(t);
-        }
+      throw toELEvalException(expression, e);
+    }
+    return compiled.evaluate(vars, returnType);
+  }
+
+  static ELEvalException toELEvalException(String expression, ELException e) {
+    // Apache evaluator is not using the getCause exception chaining that is available in Java but rather a custom
+    // chaining mechanism. This doesn't work well for us as we're effectively swallowing the cause that is not
+    // available in log, ...
+    Throwable t = e;
+    if(e.getRootCause() != null) {
+      t = e.getRootCause();
+      if(e.getCause() == null) {
+        e.initCause(t);
       }
-      LOG.debug("Error valuating EL '{}': {}", expression, e.toString(), e);
-      throw new ELEvalException(ContainerCommonError.CTRCMN_0100, expression, t.toString(), e);
     }
+    LOG.debug("Error valuating EL '{}': {}", expression, e.toString(), e);
+    return new ELEvalException(ContainerCommonError.CTRCMN_0100, expression, t.toString(), e);
   }
 
   private class FunctionMapperImpl implements FunctionMapper {
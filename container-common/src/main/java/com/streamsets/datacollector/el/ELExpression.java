@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.el;
+
+import com.streamsets.pipeline.api.el.ELEvalException;
+import com.streamsets.pipeline.api.el.ELVars;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.apache.commons.el.ArraySuffix;
+import org.apache.commons.el.BinaryOperatorExpression;
+import org.apache.commons.el.Coercions;
+import org.apache.commons.el.ComplexValue;
+import org.apache.commons.el.ConditionalExpression;
+import org.apache.commons.el.Expression;
+import org.apache.commons.el.ExpressionString;
+import org.apache.commons.el.Literal;
+import org.apache.commons.el.Logger;
+import org.apache.commons.el.UnaryOperatorExpression;
+
+import javax.servlet.jsp.el.ELException;
+import javax.servlet.jsp.el.FunctionMapper;
+import javax.servlet.jsp.el.VariableResolver;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EL expression parsed once by an {@link ELEvaluator}, that can then be evaluated many times without going through
+ * the global parsed expressions cache of the Apache evaluator.
+ * <p/>
+ * Expressions that don't reference any variable, constant or function (plain strings, literals, arithmetic on
+ * literals) are found by walking the parsed expression tree, they are evaluated once when compiled and their value is
+ * reused.
+ */
+public class ELExpression {
+  private static final Logger EL_LOGGER = new Logger(System.out);
+
+  private final String expression;
+  private final Object parsed;
+  private final ThreadLocal<VariableResolverImpl> resolvers;
+  private final FunctionMapper functionMapper;
+  private final boolean constant;
+  private final Object constantValue;
+
+  ELExpression(
+      String expression,
+      Object parsed,
+      ThreadLocal<VariableResolverImpl> resolvers,
+      FunctionMapper functionMapper
+  ) {
+    this.expression = expression;
+    this.parsed = parsed;
+    this.resolvers = resolvers;
+    this.functionMapper = functionMapper;
+    boolean isConstant = isConstant(parsed);
+    Object value = null;
+    if (isConstant) {
+      try {
+        // never calls the resolver, there is nothing to resolve
+        value = evaluateParsed(null, functionMapper);
+      } catch (ELException | RuntimeException ex) {
+        // report the error when the expression is evaluated, like for any other expression
+        isConstant = false;
+      }
+    }
+    constant = isConstant;
+    constantValue = value;
+  }
+
+  public String getExpression() {
+    return expression;
+  }
+
+  public boolean isConstant() {
+    return constant;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T evaluate(ELVars vars, Class<T> returnType) throws ELEvalException {
+    try {
+      Object value = constantValue;
+      if (!constant) {
+        VariableResolverImpl resolver = resolvers.get();
+        // functions can evaluate other expressions of the same evaluator in the same thread
+        ELVars previousVars = resolver.bind(vars);
+        try {
+          value = evaluateParsed(resolver, functionMapper);
+        } finally {
+          resolver.bind(previousVars);
+        }
+      }
+      // values that already have the expected type don't need coercion, that is the common case
+      if (value != null && returnType.isInstance(value)) {
+        return (T) value;
+      }
+      return (T) Coercions.coerce(value, returnType, EL_LOGGER);
+    } catch (ELException e) {
+      throw ELEvaluator.toELEvalException(expression, e);
+    }
+  }
+
+  private Object evaluateParsed(VariableResolver resolver, FunctionMapper functions) throws ELException {
+    if (parsed instanceof Expression) {
+      return ((Expression) parsed).evaluate(resolver, functions, EL_LOGGER);
+    } else {
+      return ((ExpressionString) parsed).evaluate(resolver, functions, EL_LOGGER);
+    }
+  }
+
+  /**
+   * An expression is constant if its tree has no variable, constant (both are named values) or function invocation.
+   */
+  static boolean isConstant(Object parsed) {
+    if (parsed instanceof String || parsed instanceof Literal) {
+      return true;
+    } else if (parsed instanceof ExpressionString) {
+      return allConstant(((ExpressionString) parsed).getElements());
+    } else if (parsed instanceof BinaryOperatorExpression) {
+      BinaryOperatorExpression binary = (BinaryOperatorExpression) parsed;
+      return isConstant(binary.getExpression()) && allConstant(binary.getExpressions().toArray());
+    } else if (parsed instanceof UnaryOperatorExpression) {
+      return isConstant(((UnaryOperatorExpression) parsed).getExpression());
+    } else if (parsed instanceof ConditionalExpression) {
+      ConditionalExpression conditional = (ConditionalExpression) parsed;
+      return isConstant(conditional.getCondition()) &&
+          isConstant(conditional.getTrueBranch()) &&
+          isConstant(conditional.getFalseBranch());
+    } else if (parsed instanceof ComplexValue) {
+      ComplexValue complex = (ComplexValue) parsed;
+      if (!isConstant(complex.getPrefix())) {
+        return false;
+      }
+      List suffixes = complex.getSuffixes();
+      for (Object suffix : suffixes) {
+        // property suffixes (a.b) have no index expression
+        if (!(suffix instanceof ArraySuffix)) {
+          return false;
+        }
+        Expression index = ((ArraySuffix) suffix).getIndex();
+        if (index != null && !isConstant(index)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    // NamedValue, FunctionInvocation and anything not known to be constant
+    return false;
+  }
+
+  private static boolean allConstant(Object[] elements) {
+    for (Object element : elements) {
+      if (!isConstant(element)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return Utils.format("ELExpression[expression='{}' constant='{}']", expression, constant);
+  }
+
+  /**
+   * Resolves variables from the bound variables first, then from the evaluator constants. There is one per evaluator
+   * and thread, bound to the variables of the expression being evaluated.
+   */
+  static class VariableResolverImpl implements VariableResolver {
+    private final Map<String, Object> constants;
+    private ELVars vars;
+
+    VariableResolverImpl(Map<String, Object> constants) {
+      this.constants = constants;
+    }
+
+    /**
+     * @return the previously bound variables
+     */
+    ELVars bind(ELVars vars) {
+      ELVars previous = this.vars;
+      this.vars = vars;
+      return previous;
+    }
+
+    @Override
+    public Object resolveVariable(String name) throws ELException {
+      if (vars != null && vars.hasVariable(name)) {
+        return vars.getVariable(name);
+      }
+      Object value = constants.get(name);
+      if (value == null && !constants.containsKey(name)) {
+        throw new ELException(Utils.format("Constants/Variable '{}' cannot be resolved", name));
+      }
+      return value;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.el;
+
+import com.streamsets.datacollector.definition.ELDefinitionExtractor;
+import com.streamsets.datacollector.util.ContainerCommonError;
+import com.streamsets.pipeline.api.ElFunction;
+import com.streamsets.pipeline.api.ElParam;
+import com.streamsets.pipeline.api.el.ELEval;
+import com.streamsets.pipeline.api.el.ELEvalException;
+import com.streamsets.pipeline.api.el.ELVars;
+import org.apache.commons.el.LruExpressionEvaluatorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.servlet.jsp.el.ELException;
+import javax.servlet.jsp.el.FunctionMapper;
+import javax.servlet.jsp.el.VariableResolver;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluating a per record expression like <code>${record:value('/x') + 1}</code> with
+ * {@link ELEvaluator}, which compiles it once, and with the global parsed expressions cache of the Apache evaluator
+ * and a new variable resolver per evaluation, as {@link ELEvaluator} did before.
+ * <p/>
+ * Records are plain maps, read by a <code>record:value</code> function defined here. Not run as part of the build,
+ * run the main method from the IDE or the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class ELEvaluatorBenchmark {
+  private static final String RECORD_CONTEXT_VAR = "record";
+
+  @Param({
+      "${record:value('/x') + 1}",
+      "${record:value('/x') > 10 && record:value('/y') == 'a'}",
+      "${str:concat(record:value('/y'), 'b')}"
+  })
+  public String expression;
+
+  private ELEvaluator compiled;
+  private ELEval globalCache;
+
+  @State(Scope.Thread)
+  public static class RecordState {
+    private final ELVars vars = new ELVariables();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      Map<String, Object> record = new HashMap<>();
+      record.put("/x", 42);
+      record.put("/y", "a");
+      vars.addContextVariable(RECORD_CONTEXT_VAR, record);
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    ELDefinitionExtractor extractor = new ELDefinitionExtractor(new Class[0]) {};
+    compiled = new ELEvaluator("benchmark", false, extractor, BenchmarkEL.class);
+    globalCache = new GlobalCacheELEval();
+  }
+
+  @Benchmark
+  public Object compiledExpression(RecordState state) throws ELEvalException {
+    return compiled.eval(state.vars, expression, Object.class);
+  }
+
+  @Benchmark
+  public Object globalParsedExpressionCache(RecordState state) throws ELEvalException {
+    return globalCache.eval(state.vars, expression, Object.class);
+  }
+
+  public static class BenchmarkEL {
+
+    @ElFunction(prefix = "record", name = "value", description = "Returns the value of the field of the record")
+    @SuppressWarnings("unchecked")
+    public static Object getValue(@ElParam("fieldPath") String fieldPath) {
+      Map<String, Object> record = (Map<String, Object>) ELEval.getVariablesInScope().getContextVariable(
+          RECORD_CONTEXT_VAR
+      );
+      return record.get(fieldPath);
+    }
+
+    @ElFunction(prefix = "str", name = "concat", description = "Concatenates the strings")
+    public static String concat(@ElParam("string1") String string1, @ElParam("string2") String string2) {
+      return string1 + string2;
+    }
+  }
+
+  /**
+   * Evaluation path of {@link ELEvaluator} before expressions were compiled.
+   */
+  private static class GlobalCacheELEval extends ELEval {
+    private static final LruExpressionEvaluatorImpl EVALUATOR = new LruExpressionEvaluatorImpl();
+
+    private final Map<String, Method> functions = new HashMap<>();
+    private final FunctionMapper functionMapper = (prefix, name) -> functions.get(prefix + ":" + name);
+
+    GlobalCacheELEval() throws NoSuchMethodException {
+      functions.put("record:value", BenchmarkEL.class.getMethod("getValue", String.class));
+      functions.put("str:concat", BenchmarkEL.class.getMethod("concat", String.class, String.class));
+    }
+
+    @Override
+    public String getConfigName() {
+      return "benchmark";
+    }
+
+    @Override
+    public ELVars createVariables() {
+      return new ELVariables(Collections.emptyMap());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T evaluate(final ELVars vars, String expression, Class<T> returnType) throws ELEvalException {
+      VariableResolver variableResolver = new VariableResolver() {
+        @Override
+        public Object resolveVariable(String name) throws ELException {
+          if (!vars.hasVariable(name)) {
+            throw new ELException(name);
+          }
+          return vars.getVariable(name);
+        }
+      };
+      try {
+        return (T) EVALUATOR.evaluate(expression, returnType, variableResolver, functionMapper);
+      } catch (ELException e) {
+        throw new ELEvalException(ContainerCommonError.CTRCMN_0100, expression, e.toString(), e);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(ELEvaluatorBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -29,6 +29,10 @@ public interface SnapshotStore {
   // creates a snapshot info, in progress
   public SnapshotInfo create(String user, String name, String rev, String id, String label, boolean failureSnapshot) throws PipelineException;
 
+  // appends a captured batch to a snapshot in progress, so captured batches don't have to be held in memory until the
+  // snapshot is saved. Appended batches come before the ones given to save().
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch) throws PipelineException;
+
   // saves the data of the snapshot and updates the corresponding snapshot info.
   public SnapshotInfo save(
       String name,
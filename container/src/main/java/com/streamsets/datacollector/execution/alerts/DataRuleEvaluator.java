@@ -19,7 +19,6 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.EvictingQueue;
 import com.streamsets.datacollector.alerts.AlertsUtil;
 import com.streamsets.datacollector.config.DataRuleDefinition;
 import com.streamsets.datacollector.config.DriftRuleDefinition;
@@ -32,6 +31,7 @@ import com.streamsets.datacollector.el.ElFunctionDefinition;
 import com.streamsets.datacollector.el.RuleELRegistry;
 import com.streamsets.datacollector.execution.runner.common.Constants;
 import com.streamsets.datacollector.execution.runner.common.SampledRecord;
+import com.streamsets.datacollector.execution.runner.common.SampledRecordBuffer;
 import com.streamsets.datacollector.metrics.MetricsConfigurator;
 import com.streamsets.datacollector.event.json.CounterJson;
 import com.streamsets.datacollector.event.json.MetricRegistryJson;
@@ -109,6 +109,9 @@ public class DataRuleEvaluator {
   private final String rev;
   private final MetricRegistryJson metricRegistryJson;
   private final BlockingQueue<Record> statsQueue;
+  // built once per rule, they keep the compiled condition and alert text for all the sampled records
+  private final ELEvaluator conditionEvaluator;
+  private final ELEvaluator alertTextEvaluator;
 
   public DataRuleEvaluator(
       String name,
@@ -132,10 +135,22 @@ public class DataRuleEvaluator {
     this.alertManager = alertManager;
     this.metricRegistryJson = metricRegistryJson;
     this.statsQueue = statsQueue;
+    this.conditionEvaluator = new ELEvaluator(
+        "el",
+        false,
+        ConcreteELDefinitionExtractor.get(),
+        RuleELRegistry.getRuleELs(dataRuleDefinition.getFamily())
+    );
+    this.alertTextEvaluator = new ELEvaluator(
+        "alertInfo",
+        false,
+        ConcreteELDefinitionExtractor.get(),
+        RuleELRegistry.getRuleELs(RuleELRegistry.ALERT)
+    );
   }
 
   public void evaluateRule(List<Record> sampleRecords, String lane,
-      Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap) {
+      Map<String, SampledRecordBuffer> ruleToSampledRecordsMap) {
 
     if (dataRuleDefinition.isEnabled() && sampleRecords != null && sampleRecords.size() > 0) {
 
@@ -145,8 +160,8 @@ public class DataRuleEvaluator {
       elVars.addContextVariable(PIPELINE_CONTEXT, pipelineELContext);
       elVars.addContextVariable(RULE_ID_CONTEXT, dataRuleDefinition.getId());
 
-      //cache all sampled records for this data rule definition in an evicting queue
-      EvictingQueue<SampledRecord> sampledRecords = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
+      //cache all sampled records for this data rule definition in an evicting buffer
+      SampledRecordBuffer sampledRecords = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
       if (sampledRecords == null) {
         int maxSize = configuration.get(
             Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY,
@@ -155,7 +170,7 @@ public class DataRuleEvaluator {
         if (size > maxSize) {
           size = maxSize;
         }
-        sampledRecords = EvictingQueue.create(size);
+        sampledRecords = new SampledRecordBuffer(size);
         ruleToSampledRecordsMap.put(dataRuleDefinition.getId(), sampledRecords);
       }
       //Meter
@@ -296,12 +311,7 @@ public class DataRuleEvaluator {
   @VisibleForTesting
   boolean evaluate(ELVariables elVars, Record record, String el, String id) {
     try {
-      return AlertsUtil.evaluateRecord(
-        record,
-        el,
-        elVars,
-        new ELEvaluator("el",false, ConcreteELDefinitionExtractor.get(), RuleELRegistry.getRuleELs(dataRuleDefinition.getFamily()))
-      );
+      return AlertsUtil.evaluateRecord(record, el, elVars, conditionEvaluator);
     } catch (ObserverException e) {
       //A faulty condition should not take down rest of the alerts with it.
       //Log and it and continue for now
@@ -322,10 +332,9 @@ public class DataRuleEvaluator {
         alertText = "";
       }
 
-      ELEvaluator elEval = new ELEvaluator("alertInfo",false, ConcreteELDefinitionExtractor.get(), RuleELRegistry.getRuleELs(RuleELRegistry.ALERT));
       RecordEL.setRecordInContext(elVars, record);
 
-      return elEval.eval(elVars, alertText, String.class);
+      return alertTextEvaluator.eval(elVars, alertText, String.class);
 
     } catch (ELEvalException e) {
       //A faulty el alerttext should not take down rest of the alerts with it.
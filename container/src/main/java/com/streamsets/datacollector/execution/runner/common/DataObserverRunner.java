@@ -17,7 +17,6 @@ package com.streamsets.datacollector.execution.runner.common;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.EvictingQueue;
 import com.streamsets.datacollector.config.DataRuleDefinition;
 import com.streamsets.datacollector.creation.PipelineBeanCreator;
 import com.streamsets.datacollector.creation.RuleDefinitionsConfigBean;
@@ -41,7 +40,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DataObserverRunner {
 
@@ -49,7 +48,8 @@ public class DataObserverRunner {
   private static final String USER_PREFIX = "user.";
 
   private RulesConfigurationChangeRequest rulesConfigurationChangeRequest;
-  private final Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap;
+  // written by the observer thread, read by REST calls
+  private final Map<String, SampledRecordBuffer> ruleToSampledRecordsMap;
   private final MetricRegistry metrics;
   private final AlertManager alertManager;
   private final Configuration configuration;
@@ -69,7 +69,7 @@ public class DataObserverRunner {
       Map<String, Object> resolvedParameters
   ) {
     this.metrics = metrics;
-    this.ruleToSampledRecordsMap = new HashMap<>();
+    this.ruleToSampledRecordsMap = new ConcurrentHashMap<>();
     this.configuration = configuration;
     this.alertManager = alertManager;
     this.name = name;
@@ -118,7 +118,7 @@ public class DataObserverRunner {
             dataRuleEvaluator.evaluateRule(sampledRecords, lane, ruleToSampledRecordsMap);
           } else if (!dataRuleDefinition.isEnabled()) {
             //If data rule is disabled, clear the sampled records for that rule
-            EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
+            SampledRecordBuffer records = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
             if(records != null) {
               records.clear();
             }
@@ -136,7 +136,7 @@ public class DataObserverRunner {
     for(String ruleId : rulesConfigurationChangeRequest.getRulesToRemove().keySet()) {
       MetricsConfigurator.removeMeter(metrics, USER_PREFIX + ruleId, name, rev);
       MetricsConfigurator.removeCounter(metrics, USER_PREFIX + ruleId, name, rev);
-      EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(ruleId);
+      SampledRecordBuffer records = ruleToSampledRecordsMap.get(ruleId);
       if(records != null) {
         records.clear();
       }
@@ -152,11 +152,11 @@ public class DataObserverRunner {
       );
     }
 
-    //resize evicting queue which retains sampled records
+    //resize the buffer which retains sampled records
     for(Map.Entry<String, Integer> e :
       rulesConfigurationChangeRequest.getRulesWithSampledRecordSizeChanges().entrySet()) {
       if(ruleToSampledRecordsMap.get(e.getKey()) != null) {
-        EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(e.getKey());
+        SampledRecordBuffer records = ruleToSampledRecordsMap.get(e.getKey());
         int newSize = e.getValue();
 
         int maxSize = configuration.get(
@@ -166,10 +166,10 @@ public class DataObserverRunner {
           newSize = maxSize;
         }
 
-        EvictingQueue<SampledRecord> newQueue = EvictingQueue.create(newSize);
+        SampledRecordBuffer newBuffer = new SampledRecordBuffer(newSize);
         //this will retain only the last 'newSize' number of elements
-        newQueue.addAll(records);
-        ruleToSampledRecordsMap.put(e.getKey(), newQueue);
+        newBuffer.addAll(records.getRecords());
+        ruleToSampledRecordsMap.put(e.getKey(), newBuffer);
       }
     }
   }
@@ -194,12 +194,9 @@ public class DataObserverRunner {
   }
 
   public List<SampledRecord> getSampledRecords(String ruleId, int size) {
-    if(ruleToSampledRecordsMap.get(ruleId) != null) {
-      if(ruleToSampledRecordsMap.get(ruleId).size() > size) {
-        return new CopyOnWriteArrayList<>(ruleToSampledRecordsMap.get(ruleId)).subList(0, size);
-      } else {
-        return new CopyOnWriteArrayList<>(ruleToSampledRecordsMap.get(ruleId));
-      }
+    SampledRecordBuffer records = ruleToSampledRecordsMap.get(ruleId);
+    if(records != null) {
+      return records.getRecords(size);
     }
     return Collections.emptyList();
   }
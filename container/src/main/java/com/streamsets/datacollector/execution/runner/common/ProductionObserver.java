@@ -31,19 +31,19 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Random;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 public class ProductionObserver implements Observer {
 
   private static final Logger LOG = LoggerFactory.getLogger(ProductionObserver.class);
+  // records are sampled in windows of this many records
+  private static final int SAMPLING_WINDOW = 100;
 
   private final com.streamsets.datacollector.util.Configuration configuration;
   private BlockingQueue<Object> observeRequests;
@@ -52,37 +52,14 @@ public class ProductionObserver implements Observer {
   private volatile RulesConfigurationChangeRequest currentConfig;
   private volatile RulesConfigurationChangeRequest newConfig;
 
-   /*A lane has multiple rules with different sampling percentages.
-    Pick the one with highest sampling %, say n and generate n integers between 0 and 99.
-    All other rules for that lane pick a subset of numbers from that generated list based on their sampling %.
-    Maintain a record counter per lane that counts the records that flows through it.
-    If the counter matches a generated number, that record is picked uo, cloned and sent for evaluation.
-    This map holds the n generated numbers for the rule with max sampling % */
-  private final ThreadLocal<Map<String, Set<Integer>>> laneToMaxRecordIndexMap;
-  /*This map holds the generated numbers for each rule, which is selected from the n generated numbers for the rule
-  with max sampling %.*/
-  private final ThreadLocal<Map<String, Set<Integer>>> ruleIdToRecordIndexMap;
-  /*This map holds the count of records that have flown though that lane. The counter is reset when it reaches 100*/
-  private final ThreadLocal<Map<String, Integer>> laneToRecordCounterMap;
-  /*Contains integers between 0 and 99 and n random numbers are selected by shuffling this list and picking the first
-  n*/
-  private final ThreadLocal<List<Integer>> randomNumberSampleSpace;
+  /*Sampling state of each lane, per pipeline runner thread.*/
+  private final ThreadLocal<Map<String, LaneSampler>> laneToSamplerMap;
 
   @Inject
   public ProductionObserver(Configuration configuration, MetricsObserverRunner metricsObserverRunner) {
     this.configuration = configuration;
     this.metricsObserverRunner = metricsObserverRunner;
-    this.laneToMaxRecordIndexMap = ThreadLocal.withInitial(HashMap::new);
-    this.ruleIdToRecordIndexMap = ThreadLocal.withInitial(HashMap::new);
-    this.laneToRecordCounterMap = ThreadLocal.withInitial(HashMap::new);
-    this.randomNumberSampleSpace = ThreadLocal.withInitial(() -> {
-      List<Integer> randomNumberSampleSpace = new ArrayList<>(100);
-      for(int i = 0; i < 100; i++) {
-        randomNumberSampleSpace.add(i);
-      }
-
-      return randomNumberSampleSpace;
-    });
+    this.laneToSamplerMap = ThreadLocal.withInitial(HashMap::new);
   }
 
   public void setObserveRequests(BlockingQueue<Object> observeRequests) {
@@ -126,7 +103,6 @@ public class ProductionObserver implements Observer {
   @Override
   public void observe(Pipe pipe, Map<String, List<Record>> snapshot) {
     Map<String, Map<String, List<Record>>> laneToRecordsMap = new HashMap<>();
-    Map<String, List<Record>> ruleIdToRecordsMap = new HashMap<>();
     Map<String, Integer> laneToRecordsSizeMap = new HashMap<>();
     for(Map.Entry<String, List<Record>> entry : snapshot.entrySet()) {
       String lane = entry.getKey();
@@ -134,12 +110,8 @@ public class ProductionObserver implements Observer {
       laneToRecordsSizeMap.put(lane, allRecords.size());
       List<DataRuleDefinition> dataRuleDefinitions = currentConfig.getLaneToDataRuleMap().get(lane);
       if(dataRuleDefinitions != null) {
-        Map<String, List<Record>> sampleRecords = getSampleRecords(dataRuleDefinitions, allRecords, lane);
-        for(Map.Entry<String, List<Record>> e : sampleRecords.entrySet()) {
-          ruleIdToRecordsMap.put(e.getKey(), e.getValue());
-        }
+        laneToRecordsMap.put(lane, getSampleRecords(dataRuleDefinitions, allRecords, lane));
       }
-      laneToRecordsMap.put(lane, ruleIdToRecordsMap);
     }
     boolean offered;
     try {
@@ -168,134 +140,76 @@ public class ProductionObserver implements Observer {
     // Tucu's Algorithm for sampling
     /*
         1* pick the highest sampling percentage, X for that lane
-        2* generate X different random number between 0 and 99
-        4* send a counter reset event to the queue
-        5* start a record counter as records flow through the observer
-        6* when counter equals one of the X random numbers, that is sampling record
-        7* when record count hits 100 go back to #2
+        2* pick exactly X records out of every 100 records flowing through the lane
+        3* every other rule of the lane picks its own percentage out of those X records
     */
 
     //Implementation notes:
     /*
+      Records are picked with selection sampling: with n records left in the window of 100 and k of them still to
+      be picked, the current record is picked with probability k/n. This picks exactly X records per window without
+      generating or looking up anything per record, the state of a lane is just a few counters kept per runner
+      thread, so no locking is needed.
 
-      Algorithm implementation:
-      -------------------------
-      To start with, all maps and counters are empty.
-
-      Say this lane has 2 rules, rule 1 and rule 2 with sampling % N and M respectively, N > M.
-
-      In the first iteration, the rule with the max sampling %, for that lane is selected, which happens to be N in our
-      case, and N unique integers between 0 and 99 are generated.
-      Look at "getRecordsToPickUp(List<DataRuleDefinition> dataRuleDefinitions)" method for the generation algorithm.
-
-      rule 2 will pick up M numbers from the set of N numbers generated for rule1.
-      This way we clone only N% of records and both rules share the same cloned records.
+      Every rule picks its share out of the picked records the same way, so the rules with lower percentages get a
+      subset of the records of the rule with the highest percentage. A record is cloned only once and only if a
+      rule picked it, all rules share the clone.
 
-      rule1 evaluates all sampled records and rule2 will evaluate its share of records from the same list.
-
-      Picking up new configuration:
-      -----------------------------
-
-      When the record counter for that lane hits 100, it is reset to 0.
-      At that moment all maps and counters are cleared so that in the next iteration everything is computed fresh again.
-
-      This is the moment when any changes to sampling % of data rule definitions are picked up.
+      Any change to the rules of the lane (a new configuration) starts a new window.
 
       very Low throughput scenario:
       -----------------------------
 
-      Look at the following unit test that tries to simulate the very Low throughput scenario:
+      The window carries over batches. Look at the following unit test that tries to simulate the very Low
+      throughput scenario:
       "com.streamsets.pipeline.runner.production.TestProductionObserver.testGetSampledRecordsLowThroughput"
     */
 
-    //record counter for this lane, reset when the count reaches 100
-    int recordCounter = 0;
-    if(laneToRecordCounterMap.get().containsKey(lane)) {
-      recordCounter = laneToRecordCounterMap.get().get(lane);
-    } else {
-      laneToRecordCounterMap.get().put(lane, recordCounter);
-    }
+    LaneSampler sampler = laneToSamplerMap.get().computeIfAbsent(lane, key -> new LaneSampler());
     Map<String, List<Record>> sampledRecordsMap = new HashMap<>();
-
-    //Get the max percentage records to be sampled for this lane.
-    //Generates a set n random integers, where n is max percentage for this lane [say n = 50] between 0 and 99
-    //The set of integers generated is cached on a per lane basis.
-    Set<Integer> recordIndexToPickup;
-    if(laneToMaxRecordIndexMap.get().containsKey(lane)) {
-      recordIndexToPickup = laneToMaxRecordIndexMap.get().get(lane);
-    } else {
-      recordIndexToPickup = getRecordsToPickUp(dataRuleDefinitions);
-      laneToMaxRecordIndexMap.get().put(lane, recordIndexToPickup);
-    }
-
-    //Go over all records for this lane and determine if it needs to be cloned.
-    for(Record record : allRecords) {
-      if(recordIndexToPickup.contains(recordCounter)) {
-        //needs to be cloned
-        Record recordClone = ((RecordImpl) record).clone();
-        for(DataRuleDefinition d : dataRuleDefinitions) {
-          //for every rule in this lane, check the integers generated for it to see if this record needs to be
-          //sampled
-          Set<Integer> recordsToPickup;
-          if (ruleIdToRecordIndexMap.get().containsKey(d.getId())) {
-            recordsToPickup = ruleIdToRecordIndexMap.get().get(d.getId());
-          } else {
-            //the integers generated to pick up records for sampling is shared between all rules for that lane.
-            //the rule with least percentage contains records which are subset of rule with max percentage.
-            //this is to minimize cloning of records.
-            recordsToPickup = getRecordsToPickUp(recordIndexToPickup, (int)d.getSamplingPercentage());
-            ruleIdToRecordIndexMap.get().put(d.getId(), recordsToPickup);
-          }
-          if (recordsToPickup.contains(recordCounter)) {
-            //this record must be picked up by this rule
-            List<Record> sampledRecords = sampledRecordsMap.get(d.getId());
-            if (sampledRecords == null) {
-              sampledRecords = new ArrayList<>();
-              sampledRecordsMap.put(d.getId(), sampledRecords);
+    Random random = ThreadLocalRandom.current();
+    for (Record record : allRecords) {
+      if (sampler.position == SAMPLING_WINDOW || sampler.rules != dataRuleDefinitions) {
+        sampler.startWindow(dataRuleDefinitions);
+      }
+      int remaining = SAMPLING_WINDOW - sampler.position++;
+      if (sampler.toPick > 0 && random.nextInt(remaining) < sampler.toPick) {
+        int picks = sampler.toPick--;
+        Record recordClone = null;
+        for (int i = 0; i < sampler.ruleToPick.length; i++) {
+          if (sampler.ruleToPick[i] > 0 && random.nextInt(picks) < sampler.ruleToPick[i]) {
+            sampler.ruleToPick[i]--;
+            if (recordClone == null) {
+              recordClone = ((RecordImpl) record).clone();
             }
-            sampledRecords.add(recordClone);
+            sampledRecordsMap.computeIfAbsent(dataRuleDefinitions.get(i).getId(), id -> new ArrayList<>())
+                .add(recordClone);
           }
         }
       }
-      recordCounter++;
-      if(recordCounter == 100) {
-        //clear all records to pick up.
-        //It will be generated the next time the sampling is attempted
-        //It will also pick up any changes done to sampling percentages of rules in the next iteration.
-        recordCounter = 0;
-        for(DataRuleDefinition d : dataRuleDefinitions) {
-          ruleIdToRecordIndexMap.get().remove(d.getId());
-        }
-        laneToMaxRecordIndexMap.get().remove(lane);
-      }
     }
-    laneToRecordCounterMap.get().put(lane, recordCounter);
     return sampledRecordsMap;
   }
 
-  private Set<Integer> getRecordsToPickUp(List<DataRuleDefinition> dataRuleDefinitions) {
-    //Max percentage
-    double percentage = 0;
-    for(DataRuleDefinition dataRuleDefinition : dataRuleDefinitions) {
-      if (dataRuleDefinition.getSamplingPercentage() > percentage) {
-        percentage = dataRuleDefinition.getSamplingPercentage();
+  private static class LaneSampler {
+    private List<DataRuleDefinition> rules;
+    // position of the next record in the window
+    private int position;
+    // records still to be picked in the window, for the highest percentage
+    private int toPick;
+    // records still to be picked by each rule, out of the toPick ones
+    private int[] ruleToPick;
+
+    void startWindow(List<DataRuleDefinition> rules) {
+      this.rules = rules;
+      position = 0;
+      toPick = 0;
+      ruleToPick = new int[rules.size()];
+      for (int i = 0; i < ruleToPick.length; i++) {
+        ruleToPick[i] = Math.max(0, Math.min(SAMPLING_WINDOW, (int) rules.get(i).getSamplingPercentage()));
+        toPick = Math.max(toPick, ruleToPick[i]);
       }
     }
-    Set<Integer> recordsToPickup = new HashSet<>();
-    Collections.shuffle(randomNumberSampleSpace.get());
-    recordsToPickup.addAll(randomNumberSampleSpace.get().subList(0, (int) percentage));
-    return recordsToPickup;
-  }
-
-  private Set<Integer> getRecordsToPickUp(Set<Integer> recordIndexToPickup, int samplePercentage) {
-    Set<Integer> recordsToPickup = new HashSet<>();
-    Iterator<Integer> iterator = recordIndexToPickup.iterator();
-    int counter = 0;
-    while(iterator.hasNext() && counter < samplePercentage) {
-      recordsToPickup.add(iterator.next());
-      counter++;
-    }
-    return recordsToPickup;
   }
 
 }
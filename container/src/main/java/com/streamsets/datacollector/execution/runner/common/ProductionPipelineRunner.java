@@ -57,6 +57,7 @@ import com.streamsets.datacollector.runner.PipelineRunner;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
 import com.streamsets.datacollector.runner.ProcessedSink;
 import com.streamsets.datacollector.runner.PushSourceContextDelegate;
+import com.streamsets.datacollector.runner.RecordCloner;
 import com.streamsets.datacollector.runner.RunnerPool;
 import com.streamsets.datacollector.runner.SourceOffsetTracker;
 import com.streamsets.datacollector.runner.SourcePipe;
@@ -180,7 +181,8 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
   private BlockingQueue<Record> statsAggregatorRequests;
   private final List<BatchListener> batchListenerList = new CopyOnWriteArrayList<>();
   private ThreadHealthReporter threadHealthReporter;
-  private final List<List<StageOutput>> capturedBatches = new ArrayList<>();
+  // batches of the current snapshot already handed to the snapshot store
+  private int capturedBatches = 0;
   private PipeContext pipeContext = null;
   private PipelineConfigBean pipelineConfigBean = null;
   private PipelineConfiguration pipelineConfiguration = null;
@@ -408,6 +410,8 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
       Throwables.propagateIfInstanceOf(throwable, StageException.class);
       Throwables.propagateIfInstanceOf(throwable, PipelineRuntimeException.class);
       Throwables.propagate(throwable);
+    } finally {
+      offsetTracker.close();
     }
 
     if(resetOffset) {
@@ -459,9 +463,15 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
   private FullPipeBatch createFullPipeBatch(String entityName, String previousOffset) {
     FullPipeBatch pipeBatch;
     if(batchesToCapture > 0) {
-      pipeBatch = new FullPipeBatch(entityName, previousOffset, snapshotBatchSize, true);
+      pipeBatch = new FullPipeBatch(entityName, previousOffset, snapshotBatchSize, true, originPipe.getLaneIndex());
     } else {
-      pipeBatch = new FullPipeBatch(entityName, previousOffset, configuration.get(Constants.MAX_BATCH_SIZE_KEY, Constants.MAX_BATCH_SIZE_DEFAULT), false);
+      pipeBatch = new FullPipeBatch(
+          entityName,
+          previousOffset,
+          configuration.get(Constants.MAX_BATCH_SIZE_KEY, Constants.MAX_BATCH_SIZE_DEFAULT),
+          false,
+          originPipe.getLaneIndex()
+      );
     }
     pipeBatch.setRateLimiter(rateLimiter);
 
@@ -476,7 +486,11 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
     }
 
     FullPipeBatch pipeBatch = createFullPipeBatch(null,null);
-    BatchContextImpl batchContext = new BatchContextImpl(pipeBatch, originPipe.getStage().getDefinition().getRecordsByRef());
+    BatchContextImpl batchContext = new BatchContextImpl(
+        pipeBatch,
+        originPipe.getStage().getDefinition().getRecordsByRef(),
+        configuration.get(RecordCloner.COPY_ON_WRITE_KEY, RecordCloner.COPY_ON_WRITE_DEFAULT)
+    );
 
     originPipe.prepareBatchContext(batchContext);
 
@@ -717,7 +731,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
       FullPipeBatch pipeBatch;
 
       // Destroy origin pipe
-      pipeBatch = new FullPipeBatch(null, null, batchSize, false);
+      pipeBatch = new FullPipeBatch(null, null, batchSize, false, originPipe.getLaneIndex());
       try {
         LOG.trace("Destroying origin pipe");
         pipeBatch.skipStage(originPipe);
@@ -766,7 +780,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
         badRecordsHandler.handle(null, null, pipeBatch.getErrorSink(), pipeBatch.getSourceResponseSink());
 
         // Next iteration should have new and empty PipeBatch
-        pipeBatch = new FullPipeBatch(null, null, batchSize, false);
+        pipeBatch = new FullPipeBatch(null, null, batchSize, false, originPipe.getLaneIndex());
         pipeBatch.skipStage(originPipe);
       }
       if (isStatsAggregationEnabled()) {
@@ -834,7 +848,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
     synchronized (this) {
       this.snapshotBatchSize = 0;
       this.batchesToCapture = 0;
-      capturedBatches.clear();
+      capturedBatches = 0;
     }
   }
 
@@ -966,7 +980,8 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
       List<StageOutput> snapshot = pipeBatch.getSnapshotsOfAllStagesOutput();
       if( batchesToCapture > 0 && ValidationUtil.isSnapshotOutputUsable(pipeBatch.getSnapshotsOfAllStagesOutput())) {
         if (!snapshot.isEmpty()) {
-          capturedBatches.add(snapshot);
+          snapshotStore.appendBatch(pipelineName, revision, snapshotName, snapshot);
+          capturedBatches++;
         }
         /*
          * Reset the capture snapshot variable only after capturing the snapshot
@@ -976,9 +991,15 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
         if (batchesToCapture == 0) {
           snapshotBatchSize = 0;
           batchesToCapture = 0;
-          if (!capturedBatches.isEmpty()) {
-            snapshotStore.save(pipelineName, revision, snapshotName, batchCountMeter.getCount(), capturedBatches);
-            capturedBatches.clear();
+          if (capturedBatches > 0) {
+            snapshotStore.save(
+                pipelineName,
+                revision,
+                snapshotName,
+                batchCountMeter.getCount(),
+                Collections.<List<StageOutput>>emptyList()
+            );
+            capturedBatches = 0;
           }
         }
       }
@@ -1032,7 +1053,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
           pipeContext.getRuntimeStats().incIdleBatchCount();
 
           // Pipe batch to keep the batch info
-          FullPipeBatch pipeBatch = new FullPipeBatch(null, null, 0, false);
+          FullPipeBatch pipeBatch = new FullPipeBatch(null, null, 0, false, originPipe.getLaneIndex());
           pipeBatch.setIdleBatch(true);
 
           // We're explicitly skipping origin because this is framework generated, empty batch
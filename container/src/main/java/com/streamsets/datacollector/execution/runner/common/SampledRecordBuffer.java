@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed size buffer retaining the last sampled records of a data rule, older records are evicted as new ones are
+ * added.
+ * <p/>
+ * Records are added and cleared by the observer thread only, they can be read from any thread without locking: a
+ * reader copies the slots it needs and then drops any that the writer may have overwritten while it was copying.
+ */
+public class SampledRecordBuffer {
+  private final AtomicReferenceArray<SampledRecord> records;
+  // total number of records ever added, the newest record is at (added - 1) % capacity
+  private volatile long added;
+  // records added before this count have been cleared
+  private volatile long cleared;
+
+  public SampledRecordBuffer(int capacity) {
+    records = new AtomicReferenceArray<>(Math.max(0, capacity));
+  }
+
+  public int capacity() {
+    return records.length();
+  }
+
+  public void add(SampledRecord record) {
+    int capacity = records.length();
+    if (capacity > 0) {
+      long count = added;
+      records.set((int) (count % capacity), record);
+      added = count + 1;
+    }
+  }
+
+  public void addAll(Collection<SampledRecord> sampledRecords) {
+    for (SampledRecord record : sampledRecords) {
+      add(record);
+    }
+  }
+
+  public void clear() {
+    cleared = added;
+  }
+
+  public int size() {
+    long end = added;
+    return (int) (end - first(end));
+  }
+
+  /**
+   * Returns up to the given number of records, oldest first.
+   */
+  public List<SampledRecord> getRecords(int max) {
+    long end = added;
+    long start = first(end);
+    int size = (int) Math.min(Math.max(0, max), end - start);
+    List<SampledRecord> list = new ArrayList<>(size);
+    for (long i = start; i < start + size; i++) {
+      list.add(records.get((int) (i % records.length())));
+    }
+    // the writer may have wrapped around while we were copying, drop the overwritten records
+    long overwritten = first(added) - start;
+    if (overwritten > 0) {
+      list = list.subList((int) Math.min(overwritten, list.size()), list.size());
+    }
+    return list;
+  }
+
+  public List<SampledRecord> getRecords() {
+    return getRecords(Integer.MAX_VALUE);
+  }
+
+  private long first(long end) {
+    return Math.max(cleared, end - records.length());
+  }
+
+}
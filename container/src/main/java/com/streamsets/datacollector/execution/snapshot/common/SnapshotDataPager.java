@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Copies a page of snapshot data (a single batch and/or the output of a single stage) out of a snapshot data stream
+ * without reading the whole snapshot in memory. The page has the same layout as the full snapshot data.
+ */
+public class SnapshotDataPager {
+  public static final int ALL_BATCHES = -1;
+
+  private static final String SNAPSHOT_BATCHES = "snapshotBatches";
+  private static final String INSTANCE_NAME = "instanceName";
+
+  private final ObjectMapper json;
+  private final int batch;
+  private final String stageInstanceName;
+
+  /**
+   * @param batch index of the batch to copy, {@link #ALL_BATCHES} for all of them.
+   * @param stageInstanceName stage whose output is copied, null for all stages.
+   */
+  public SnapshotDataPager(ObjectMapper json, int batch, String stageInstanceName) {
+    this.json = json;
+    this.batch = batch;
+    this.stageInstanceName = stageInstanceName;
+  }
+
+  public void copy(InputStream snapshotData, OutputStream out) throws IOException {
+    try (JsonParser parser = json.getFactory().createParser(snapshotData)) {
+      JsonGenerator generator = json.getFactory().createGenerator(out);
+      generator.writeStartObject();
+      generator.writeArrayFieldStart(SNAPSHOT_BATCHES);
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.getCurrentName();
+          JsonToken token = parser.nextToken();
+          if (SNAPSHOT_BATCHES.equals(field) && token == JsonToken.START_ARRAY) {
+            copyBatches(parser, generator);
+          } else {
+            parser.skipChildren();
+          }
+        }
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.flush();
+    }
+  }
+
+  private void copyBatches(JsonParser parser, JsonGenerator generator) throws IOException {
+    int index = 0;
+    while (parser.nextToken() == JsonToken.START_ARRAY) {
+      if (batch == ALL_BATCHES || batch == index) {
+        copyStageOutputs(parser, generator);
+      } else {
+        parser.skipChildren();
+      }
+      index++;
+    }
+  }
+
+  private void copyStageOutputs(JsonParser parser, JsonGenerator generator) throws IOException {
+    generator.writeStartArray();
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      if (stageInstanceName == null) {
+        generator.copyCurrentStructure(parser);
+      } else {
+        // a single stage output of a single batch is small enough to be read as a tree
+        JsonNode stageOutput = parser.readValueAsTree();
+        JsonNode instanceName = stageOutput.get(INSTANCE_NAME);
+        if (instanceName != null && stageInstanceName.equals(instanceName.asText())) {
+          generator.writeTree(stageOutput);
+        }
+      }
+    }
+    generator.writeEndArray();
+  }
+
+}
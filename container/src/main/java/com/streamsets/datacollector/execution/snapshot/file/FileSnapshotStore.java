@@ -15,17 +15,17 @@
  */
 package com.streamsets.datacollector.execution.snapshot.file;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
-import com.streamsets.datacollector.execution.snapshot.common.SnapshotData;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotImpl;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotInfoImpl;
 import com.streamsets.datacollector.io.DataStore;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
-import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
 import com.streamsets.datacollector.restapi.bean.SnapshotInfoJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
 import com.streamsets.datacollector.runner.StageOutput;
@@ -37,28 +37,44 @@ import com.streamsets.datacollector.util.PipelineException;
 
 import javax.inject.Inject;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Snapshot store keeping every snapshot in its own directory.
+ * <p/>
+ * Batches appended while a snapshot is captured go to a JSON lines file, one batch per line. Saving the snapshot
+ * streams them, followed by the batches given to save, into the snapshot data file one batch at a time, so a
+ * snapshot is never held in memory as a whole.
+ */
 public class FileSnapshotStore implements SnapshotStore {
   private static final String SNAPSHOT_FILE_NAME = "snapshot.json";
+  private static final String SNAPSHOT_BATCHES_FILE_NAME = "batches.jsonl";
   private static final String INFO_FILE_NAME = "info.json";
   private final LockCache<String> lockCache;
   private final RuntimeInfo runtimeInfo;
   private final ObjectMapper json;
+  private final ObjectMapper jsonOneLine;
 
   @Inject
   public FileSnapshotStore(RuntimeInfo runtimeInfo, LockCache<String> lockCache) {
     this.runtimeInfo = runtimeInfo;
     this.lockCache = lockCache;
     json = ObjectMapperFactory.get();
+    jsonOneLine = ObjectMapperFactory.getOneLine();
   }
 
   @Override
@@ -75,6 +91,22 @@ public class FileSnapshotStore implements SnapshotStore {
     }
   }
 
+  @Override
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch) throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      if (getInfo(name, rev, id) == null) {
+        throw new PipelineException(ContainerError.CONTAINER_0605);
+      }
+      File batchesFile = getPipelineSnapshotBatchesFile(name, rev, id);
+      try (Writer writer = new OutputStreamWriter(new FileOutputStream(batchesFile, true), StandardCharsets.UTF_8)) {
+        writer.write(jsonOneLine.writeValueAsString(BeanHelper.wrapStageOutput(snapshotBatch)));
+        writer.write('\n');
+      } catch (IOException e) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
+      }
+    }
+  }
+
   @Override
   public SnapshotInfo save(
       String name,
@@ -210,6 +242,11 @@ public class FileSnapshotStore implements SnapshotStore {
       SNAPSHOT_FILE_NAME);
   }
 
+  private File getPipelineSnapshotBatchesFile(String pipelineName, String rev, String snapshotName) {
+    return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, pipelineName, rev, snapshotName),
+      SNAPSHOT_BATCHES_FILE_NAME);
+  }
+
   private File getPipelineSnapshotInfoFile(String name, String rev, String id) {
     return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id),
       INFO_FILE_NAME);
@@ -231,10 +268,31 @@ public class FileSnapshotStore implements SnapshotStore {
 
   private void persistSnapshot(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
     throws PipelineRuntimeException {
+    File batchesFile = getPipelineSnapshotBatchesFile(name, rev, id);
     DataStore dataStore = new DataStore(getPipelineSnapshotFile(name, rev, id));
     try (OutputStream out = dataStore.getOutputStream()) {
-      json.writeValue(out, new SnapshotDataJson(new SnapshotData(snapshotBatches)));
+      // same layout as SnapshotDataJson, written a batch at a time
+      JsonGenerator generator = json.getFactory().createGenerator(out);
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("snapshotBatches");
+      if (batchesFile.exists()) {
+        try (BufferedReader reader = Files.newBufferedReader(batchesFile.toPath(), StandardCharsets.UTF_8)) {
+          String batch;
+          while ((batch = reader.readLine()) != null) {
+            if (!batch.isEmpty()) {
+              generator.writeRawValue(batch);
+            }
+          }
+        }
+      }
+      for (List<StageOutput> snapshotBatch : snapshotBatches) {
+        json.writeValue(generator, BeanHelper.wrapStageOutput(snapshotBatch));
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.flush();
       dataStore.commit(out);
+      Files.deleteIfExists(batchesFile.toPath());
     } catch (IOException e) {
       throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
     } finally {
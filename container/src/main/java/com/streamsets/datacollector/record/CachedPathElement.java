@@ -29,21 +29,25 @@ import java.util.function.Supplier;
  */
 public class CachedPathElement {
 
-  private static ThreadLocal<LoadingCache<String, List<PathElement>>> threadLocalCache = ThreadLocal.withInitial(new Supplier<LoadingCache<String, List<PathElement>>>() {
+  private static ThreadLocal<LoadingCache<String, CompiledFieldPath>> threadLocalCache = ThreadLocal.withInitial(new Supplier<LoadingCache<String, CompiledFieldPath>>() {
     @Override
-    public LoadingCache<String, List<PathElement>> get() {
+    public LoadingCache<String, CompiledFieldPath> get() {
       return CacheBuilder.newBuilder()
         .maximumSize(1000) // Currently hard-coded value
-        .build(new CacheLoader<String, List<PathElement>>() {
+        .build(new CacheLoader<String, CompiledFieldPath>() {
           @Override
-          public List<PathElement> load(String key) throws Exception {
-            return PathElement.parse(key, true);
+          public CompiledFieldPath load(String key) throws Exception {
+            return CompiledFieldPath.fromElements(key, PathElement.parse(key, true));
           }
         });
     }
   });
 
   public static List<PathElement> parse(String fieldPath) {
+    return compile(fieldPath).getElements();
+  }
+
+  public static CompiledFieldPath compile(String fieldPath) {
     return threadLocalCache.get().getUnchecked(fieldPath);
   }
 }
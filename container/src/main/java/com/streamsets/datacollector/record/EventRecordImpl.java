@@ -37,6 +37,10 @@ public class EventRecordImpl extends RecordImpl implements EventRecord {
     super(record);
   }
 
+  private EventRecordImpl(RecordImpl record, boolean copyOnWrite) {
+    super(record, copyOnWrite);
+  }
+
   private void setEventAtributes(String type, int version) {
     getHeader().setAttribute(EventRecord.TYPE, type);
     getHeader().setAttribute(EventRecord.VERSION, String.valueOf(version));
@@ -49,6 +53,11 @@ public class EventRecordImpl extends RecordImpl implements EventRecord {
     return new EventRecordImpl(this);
   }
 
+  @Override
+  public EventRecordImpl cloneCopyOnWrite() {
+    return new EventRecordImpl(this, true);
+  }
+
 
   @Override
   public String getEventType() {
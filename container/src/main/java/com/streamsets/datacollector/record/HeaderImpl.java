@@ -61,6 +61,9 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
 
   private Map<String, Object> map;
 
+  // true while the attribute map may be shared with another header (copy-on-write clone)
+  private transient boolean mapShared;
+
   public HeaderImpl() {
     map = new HashMap<>();
     map.put(SOURCE_RECORD_ATTR, null);
@@ -71,6 +74,24 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
     this.map = new HashMap<>(header.map);
   }
 
+  // for cloneCopyOnWrite() purposes
+  private HeaderImpl(HeaderImpl header, boolean copyOnWrite) {
+    this.map = header.map;
+    this.mapShared = true;
+    header.mapShared = true;
+  }
+
+  /**
+   * Makes sure this header owns its attribute map before mutating it.
+   */
+  private Map<String, Object> mutableMap() {
+    if (mapShared) {
+      map = new HashMap<>(map);
+      mapShared = false;
+    }
+    return map;
+  }
+
   // Predicate interface
 
   @Override
@@ -185,14 +206,14 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
     Preconditions.checkNotNull(name, "name cannot be null");
     Preconditions.checkArgument(!name.startsWith(RESERVED_PREFIX), RESERVED_PREFIX_EXCEPTION_MSG);
     Preconditions.checkNotNull(value, "value cannot be null");
-    map.put(name, value);
+    mutableMap().put(name, value);
   }
 
   @Override
   public void deleteAttribute(String name) {
     Preconditions.checkNotNull(name, "name cannot be null");
     Preconditions.checkArgument(!name.startsWith(RESERVED_PREFIX), RESERVED_PREFIX_EXCEPTION_MSG);
-    map.remove(name);
+    mutableMap().remove(name);
   }
 
   // For Json serialization
@@ -253,42 +274,42 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
 
   public void setStageCreator(String stateCreator) {
     Preconditions.checkNotNull(stateCreator, "stateCreator cannot be null");
-    map.put(STAGE_CREATOR_INSTANCE_ATTR, stateCreator);
+    mutableMap().put(STAGE_CREATOR_INSTANCE_ATTR, stateCreator);
   }
 
   public void setSourceId(String sourceId) {
     Preconditions.checkNotNull(sourceId, "sourceId cannot be null");
-    map.put(RECORD_SOURCE_ID_ATTR, sourceId);
+    mutableMap().put(RECORD_SOURCE_ID_ATTR, sourceId);
   }
 
   public void setStagesPath(String stagePath) {
     Preconditions.checkNotNull(stagePath, "stagePath cannot be null");
-    map.put(STAGES_PATH_ATTR, stagePath);
+    mutableMap().put(STAGES_PATH_ATTR, stagePath);
   }
 
   public void setTrackingId(String trackingId) {
     Preconditions.checkNotNull(trackingId, "trackingId cannot be null");
-    map.put(TRACKING_ID_ATTR, trackingId);
+    mutableMap().put(TRACKING_ID_ATTR, trackingId);
   }
 
   public void setPreviousTrackingId(String previousTrackingId) {
     Preconditions.checkNotNull(previousTrackingId, "previousTrackingId cannot be null");
-    map.put(PREVIOUS_TRACKING_ID_ATTR, previousTrackingId);
+    mutableMap().put(PREVIOUS_TRACKING_ID_ATTR, previousTrackingId);
   }
 
   public void setRaw(byte[] raw) {
     Preconditions.checkNotNull(raw, "raw cannot be null");
-    map.put(RAW_DATA_ATTR, raw.clone());
+    mutableMap().put(RAW_DATA_ATTR, raw.clone());
   }
 
   public void setRawMimeType(String rawMime) {
     Preconditions.checkNotNull(rawMime, "rawMime cannot be null");
-    map.put(RAW_MIME_TYPE_ATTR, rawMime);
+    mutableMap().put(RAW_MIME_TYPE_ATTR, rawMime);
   }
 
   public void setErrorJobId(String errorJobId) {
     Preconditions.checkNotNull(errorJobId, "errorJobId cannot be null");
-    map.put(ERROR_JOB_ID, errorJobId);
+    mutableMap().put(ERROR_JOB_ID, errorJobId);
   }
 
   public void setError(String errorStage, String errorStageName, ErrorMessage errorMessage) {
@@ -316,8 +337,8 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
   }
 
   public void setErrorContext(String datacollector, String pipelineName) {
-    map.put(ERROR_DATACOLLECTOR_ID_ATTR, datacollector);
-    map.put(ERROR_PIPELINE_NAME_ATTR, pipelineName);
+    mutableMap().put(ERROR_DATACOLLECTOR_ID_ATTR, datacollector);
+    mutableMap().put(ERROR_PIPELINE_NAME_ATTR, pipelineName);
   }
 
   private void setError(
@@ -328,16 +349,16 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
     long errorTimestamp,
     String errorStackTrace
   ) {
-    map.put(ERROR_STAGE_ATTR, errorStage);
-    map.put(ERROR_STAGE_LABEL_ATTR, errorStageName);
-    map.put(ERROR_CODE_ATTR, errorCode);
-    map.put(ERROR_MESSAGE_ATTR, errorMessage);
-    map.put(ERROR_TIMESTAMP_ATTR, errorTimestamp);
-    map.put(ERROR_STACKTRACE, errorStackTrace);
+    mutableMap().put(ERROR_STAGE_ATTR, errorStage);
+    mutableMap().put(ERROR_STAGE_LABEL_ATTR, errorStageName);
+    mutableMap().put(ERROR_CODE_ATTR, errorCode);
+    mutableMap().put(ERROR_MESSAGE_ATTR, errorMessage);
+    mutableMap().put(ERROR_TIMESTAMP_ATTR, errorTimestamp);
+    mutableMap().put(ERROR_STACKTRACE, errorStackTrace);
   }
 
   public void setSourceRecord(Record record) {
-    map.put(SOURCE_RECORD_ATTR, record);
+    mutableMap().put(SOURCE_RECORD_ATTR, record);
   }
 
   public Record getSourceRecord() {
@@ -394,6 +415,13 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
     return new HeaderImpl(this);
   }
 
+  /**
+   * Returns a header that shares the attribute map with this one until either of them is modified.
+   */
+  public HeaderImpl cloneCopyOnWrite() {
+    return new HeaderImpl(this, true);
+  }
+
   @Override
   public String toString() {
     return Utils.format("HeaderImpl[{}]", getSourceId());
@@ -447,6 +475,7 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
     // ImmutableMap can't have null values and our map could have, so use unmodifiable map
     Map<String, Object> old = Collections.unmodifiableMap(map);
     map = new HashMap<>(newAttrs);
+    mapShared = false;
     return old;
   }
 
@@ -465,6 +494,7 @@ public class HeaderImpl implements Record.Header, Predicate<String>, Cloneable,
 
     //Set current map to just the Reserved System Attributes
     map = getSystemAttributes();
+    mapShared = false;
     // Add and validate each of the new user attributes
     newAttributes.forEach((k,v) -> setAttribute(k, v.toString()));
     return old;
@@ -28,6 +28,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -40,6 +41,10 @@ public class RecordImpl implements Record, Cloneable {
   //Default true: so as to denote the record is just created
   //and initialized in a stage and did not pass through any other stage.
   private boolean isInitialRecord = true;
+  // true when the field tree may be shared with another record created by cloneCopyOnWrite()
+  private transient boolean fieldsShared;
+  // container fields already copied by this record since the tree became shared, they can be mutated in place
+  private transient Set<Field> ownedFields;
 
   // need default constructor for deserialization purposes (Kryo)
   private RecordImpl() {
@@ -82,6 +87,19 @@ public class RecordImpl implements Record, Cloneable {
     isInitialRecord = record.isInitialRecord();
   }
 
+  // for cloneCopyOnWrite() purposes
+
+  protected RecordImpl(RecordImpl record, boolean copyOnWrite) {
+    Preconditions.checkNotNull(record, "record cannot be null");
+    header = record.header.cloneCopyOnWrite();
+    value = record.value;
+    isInitialRecord = record.isInitialRecord();
+    // from now on neither record owns any container of the tree
+    fieldsShared = true;
+    record.fieldsShared = true;
+    record.ownedFields = null;
+  }
+
   public void addStageToStagePath(String stage) {
     Preconditions.checkNotNull(stage, "stage cannot be null");
     String currentPath = (header.getStagesPath() == null) ? "" : header.getStagesPath() + ":";
@@ -341,12 +359,18 @@ public class RecordImpl implements Record, Cloneable {
       // if asking for the root field we can return it without and fieldpath parsing
       return value;
     } else {
-      List<PathElement> elements = parse(fieldPath);
-      List<Field> fields = get(elements);
-      return (elements.size() == fields.size()) ? fields.get(fields.size() - 1) : null;
+      CompiledFieldPath path = CachedPathElement.compile(fieldPath);
+      return path.resolve(value, path.getElements().size());
     }
   }
 
+  /**
+   * Returns the field represented by the given compiled field-path, null if it does not exist.
+   */
+  public Field get(CompiledFieldPath fieldPath) {
+    return fieldPath.get(this);
+  }
+
 
   @Override
   public Field delete(String fieldPath) {
@@ -363,6 +387,7 @@ public class RecordImpl implements Record, Cloneable {
         value = null;
       } else {
         // the field to delete is a map or list element, so to delete, you must remove it from the parent collection.
+        detach(elements, fields, fieldPos);
         PathElement element = elements.get(fieldPos);
         switch (element.getType()) {
           case MAP:
@@ -382,9 +407,8 @@ public class RecordImpl implements Record, Cloneable {
 
   @Override
   public boolean has(String fieldPath) {
-    List<PathElement> elements = parse(fieldPath);
-    List<Field> fields = get(elements);
-    return (elements.size() == fields.size());
+    CompiledFieldPath path = CachedPathElement.compile(fieldPath);
+    return path.resolve(value, path.getElements().size()) != null;
   }
 
   @Override
@@ -540,6 +564,94 @@ public class RecordImpl implements Record, Cloneable {
     return new RecordImpl(this);
   }
 
+  /**
+   * Returns a copy of this record that shares the header attributes and the field tree with it. Both records copy
+   * only the containers on the touched field-path when they are modified through set(), delete() or the header
+   * setters, leaving the other record untouched.
+   *
+   * Fields obtained through get() are still shared, so this is only safe for stages that modify records via the
+   * Record API rather than by mutating the returned Field instances in place.
+   */
+  public RecordImpl cloneCopyOnWrite() {
+    return new RecordImpl(this, true);
+  }
+
+  boolean isFieldsShared() {
+    return fieldsShared;
+  }
+
+  /**
+   * Replaces the first 'count' fields on the given path by private shallow copies, so the last of them can be mutated
+   * without affecting records sharing the tree. The given list of fields is updated with the copies.
+   */
+  private void detach(List<PathElement> elements, List<Field> fields, int count) {
+    if (!fieldsShared) {
+      return;
+    }
+    if (ownedFields == null) {
+      ownedFields = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+    for (int i = 0; i < count; i++) {
+      Field field = fields.get(i);
+      if (!ownedFields.contains(field)) {
+        Field copy = shallowCopy(field);
+        if (i == 0) {
+          value = copy;
+        } else {
+          replaceInParent(fields.get(i - 1), elements.get(i), copy);
+        }
+        fields.set(i, copy);
+        ownedFields.add(copy);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Field shallowCopy(Field field) {
+    Object fieldValue = field.getValue();
+    if (fieldValue != null) {
+      switch (field.getType()) {
+        case MAP:
+        case LIST_MAP:
+          fieldValue = new LinkedHashMap<>((Map<String, Field>) fieldValue);
+          break;
+        case LIST:
+          fieldValue = new ArrayList<>((List<Field>) fieldValue);
+          break;
+        default:
+          break;
+      }
+    }
+    return Field.create(field.getType(), fieldValue, field.getAttributes());
+  }
+
+  private static void replaceInParent(Field parent, PathElement element, Field copy) {
+    switch (element.getType()) {
+      case MAP:
+        parent.getValueAsMap().put(element.getName(), copy);
+        break;
+      case LIST:
+        if (parent.getType() == Field.Type.LIST_MAP) {
+          // getValueAsList() of a LIST_MAP is a copy, replace the entry at the same position in the map instead
+          Map<String, Field> listMap = parent.getValueAsListMap();
+          int index = 0;
+          for (Map.Entry<String, Field> entry : listMap.entrySet()) {
+            if (index++ == element.getIndex()) {
+              entry.setValue(copy);
+              break;
+            }
+          }
+        } else {
+          parent.getValueAsList().set(element.getIndex(), copy);
+        }
+        break;
+      case ROOT:
+      case FIELD_EXPRESSION:
+      default:
+        throw new IllegalStateException("Unexpected field type " + element.getType());
+    }
+  }
+
   @Override
   public Field set(String fieldPath, Field newField) {
     Field fieldToReplace;
@@ -581,6 +693,7 @@ public class RecordImpl implements Record, Cloneable {
       //Note that this is not the real type of the field, this is how the parser interpreted the fieldPath argument
       //to the set API above. For example if fieldPath is /a/b parser interprets a as type map, if fieldPath is a[0]/b
       //parser interprets a as of type list
+      detach(elements, fields, fieldPos);
       switch (elements.get(fieldPos).getType()) {
         case MAP:
           //get the name of the field which must be added
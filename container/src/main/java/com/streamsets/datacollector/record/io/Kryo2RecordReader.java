@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.ext.RecordReader;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads records written with the KRYO2 encoding. Records can be skipped without deserializing them.
+ */
+public class Kryo2RecordReader implements RecordReader {
+  private final Kryo kryo;
+  private final Input input;
+  private boolean closed;
+
+  public Kryo2RecordReader(InputStream inputStream, long initialPosition) throws IOException {
+    IOUtils.skipFully(inputStream, initialPosition);
+    kryo = KryoRecordSerializer.borrowKryo();
+    input = new Input(KryoRecordSerializer.borrowBuffer());
+    input.setInputStream(inputStream);
+    input.setTotal(initialPosition);
+  }
+
+  @Override
+  public String getEncoding() {
+    return RecordEncoding.KRYO2.name();
+  }
+
+  @Override
+  public long getPosition() {
+    return input.total();
+  }
+
+  @Override
+  public Record readRecord() throws IOException {
+    if (closed) {
+      throw new IOException("input has been closed");
+    }
+    if (input.eof()) {
+      return null;
+    }
+    try {
+      input.readVarInt(true);
+      return kryo.readObject(input, RecordImpl.class);
+    } catch (KryoException ex) {
+      throw new IOException(ex.toString(), ex);
+    }
+  }
+
+  /**
+   * Skips the next record without deserializing it.
+   *
+   * @return false if there are no more records.
+   */
+  public boolean skipRecord() throws IOException {
+    if (closed) {
+      throw new IOException("input has been closed");
+    }
+    if (input.eof()) {
+      return false;
+    }
+    try {
+      input.skip(input.readVarInt(true));
+    } catch (KryoException ex) {
+      throw new IOException(ex.toString(), ex);
+    }
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      input.close();
+      KryoRecordSerializer.releaseBuffer(input.getBuffer());
+      KryoRecordSerializer.releaseKryo(kryo);
+    }
+  }
+
+}
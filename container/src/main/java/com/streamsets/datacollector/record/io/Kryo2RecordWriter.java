@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Output;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.ext.RecordWriter;
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes records with the KRYO2 encoding, each record is prefixed with its length so that readers can skip it
+ * without deserializing it.
+ */
+public class Kryo2RecordWriter implements RecordWriter {
+  private final Kryo kryo;
+  private final Serializer serializer;
+  private final Output output;
+  private final Output recordOutput;
+  private boolean closed;
+
+  public Kryo2RecordWriter(OutputStream outputStream) throws IOException {
+    kryo = KryoRecordSerializer.borrowKryo();
+    // EventRecordImpl and other subclasses are written as plain records
+    serializer = kryo.getSerializer(RecordImpl.class);
+    output = new Output(KryoRecordSerializer.borrowBuffer());
+    output.setOutputStream(outputStream);
+    recordOutput = new Output(KryoRecordSerializer.borrowBuffer(), -1);
+  }
+
+  @Override
+  public String getEncoding() {
+    return RecordEncoding.KRYO2.name();
+  }
+
+  @Override
+  public void write(Record record) throws IOException {
+    if (closed) {
+      throw new IOException("output has been closed");
+    }
+    Utils.checkNotNull(record, "record");
+    Utils.checkArgument(record instanceof RecordImpl, "record must be a RecordImpl");
+    recordOutput.clear();
+    kryo.writeObject(recordOutput, record, serializer);
+    output.writeVarInt(recordOutput.position(), true);
+    output.writeBytes(recordOutput.getBuffer(), 0, recordOutput.position());
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (closed) {
+      throw new IOException("output has been closed");
+    }
+    output.flush();
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      output.close();
+      KryoRecordSerializer.releaseBuffer(output.getBuffer());
+      KryoRecordSerializer.releaseBuffer(recordOutput.getBuffer());
+      KryoRecordSerializer.releaseKryo(kryo);
+    }
+  }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record.io;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.pool.KryoPool;
+import com.streamsets.datacollector.record.HeaderImpl;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Kryo serializer for records used by the KRYO2 encoding.
+ * <p/>
+ * Unlike KRYO1, which lets Kryo serialize records by reflection, the header attributes and the field tree are written
+ * explicitly with a one byte tag per value, so no class names are written for the common types and nothing is
+ * looked up by reflection. Field types are written by ordinal, Field.Type values are only ever appended.
+ * <p/>
+ * Kryo instances and serialization buffers are expensive to create, both are pooled.
+ */
+class KryoRecordSerializer extends Serializer<RecordImpl> {
+  private static final int RECORD_REGISTRATION_ID = 100;
+
+  private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+  // larger buffers are not kept in the pool, a single huge record should not pin the memory
+  private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+  private static final BlockingQueue<byte[]> BUFFER_POOL = new ArrayBlockingQueue<>(32);
+
+  private static final KryoPool KRYO_POOL = new KryoPool.Builder(() -> {
+    Kryo kryo = new Kryo();
+    // record trees have no shared or cyclic references, don't pay for tracking them
+    kryo.setReferences(false);
+    kryo.register(RecordImpl.class, new KryoRecordSerializer(), RECORD_REGISTRATION_ID);
+    return kryo;
+  }).softReferences().build();
+
+  private static final Field.Type[] FIELD_TYPES = Field.Type.values();
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte BYTES = 2;
+  private static final byte LONG = 3;
+  private static final byte RECORD = 4;
+  private static final byte OBJECT = 5;
+
+  static Kryo borrowKryo() {
+    return KRYO_POOL.borrow();
+  }
+
+  static void releaseKryo(Kryo kryo) {
+    KRYO_POOL.release(kryo);
+  }
+
+  static byte[] borrowBuffer() {
+    byte[] buffer = BUFFER_POOL.poll();
+    return (buffer != null) ? buffer : new byte[INITIAL_BUFFER_SIZE];
+  }
+
+  static void releaseBuffer(byte[] buffer) {
+    if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+      BUFFER_POOL.offer(buffer);
+    }
+  }
+
+  @Override
+  public void write(Kryo kryo, Output output, RecordImpl record) {
+    output.writeBoolean(record.isInitialRecord());
+    Map<String, Object> attributes = record.getHeader().getAllAttributes();
+    output.writeVarInt(attributes.size(), true);
+    for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+      output.writeString(entry.getKey());
+      writeAttribute(kryo, output, entry.getValue());
+    }
+    writeField(kryo, output, record.get());
+  }
+
+  @Override
+  public RecordImpl read(Kryo kryo, Input input, Class<RecordImpl> type) {
+    boolean initialRecord = input.readBoolean();
+    int size = input.readVarInt(true);
+    Map<String, Object> attributes = new HashMap<>(size * 4 / 3 + 1);
+    for (int i = 0; i < size; i++) {
+      String key = input.readString();
+      attributes.put(key, readAttribute(kryo, input));
+    }
+    HeaderImpl header = new HeaderImpl();
+    header.overrideUserAndSystemAttributes(attributes);
+    RecordImpl record = new RecordImpl(header, readField(kryo, input));
+    record.setInitialRecord(initialRecord);
+    return record;
+  }
+
+  private void writeAttribute(Kryo kryo, Output output, Object value) {
+    if (value == null) {
+      output.writeByte(NULL);
+    } else if (value instanceof String) {
+      output.writeByte(STRING);
+      output.writeString((String) value);
+    } else if (value instanceof byte[]) {
+      output.writeByte(BYTES);
+      writeBytes(output, (byte[]) value);
+    } else if (value instanceof Long) {
+      output.writeByte(LONG);
+      output.writeLong((Long) value);
+    } else if (value instanceof RecordImpl) {
+      output.writeByte(RECORD);
+      write(kryo, output, (RecordImpl) value);
+    } else {
+      output.writeByte(OBJECT);
+      kryo.writeClassAndObject(output, value);
+    }
+  }
+
+  private Object readAttribute(Kryo kryo, Input input) {
+    byte tag = input.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return input.readString();
+      case BYTES:
+        return readBytes(input);
+      case LONG:
+        return input.readLong();
+      case RECORD:
+        return read(kryo, input, RecordImpl.class);
+      case OBJECT:
+        return kryo.readClassAndObject(input);
+      default:
+        throw new KryoException("Invalid header attribute tag: " + tag);
+    }
+  }
+
+  private void writeField(Kryo kryo, Output output, Field field) {
+    if (field == null) {
+      output.writeVarInt(0, true);
+      return;
+    }
+    output.writeVarInt(field.getType().ordinal() + 1, true);
+
+    Map<String, String> attributes = field.getAttributes();
+    if (attributes == null) {
+      output.writeVarInt(0, true);
+    } else {
+      output.writeVarInt(attributes.size() + 1, true);
+      for (Map.Entry<String, String> entry : attributes.entrySet()) {
+        output.writeString(entry.getKey());
+        output.writeString(entry.getValue());
+      }
+    }
+
+    Object value = field.getValue();
+    output.writeBoolean(value != null);
+    if (value != null) {
+      writeValue(kryo, output, field.getType(), value);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeValue(Kryo kryo, Output output, Field.Type type, Object value) {
+    switch (type) {
+      case BOOLEAN:
+        output.writeBoolean((Boolean) value);
+        break;
+      case CHAR:
+        output.writeChar((Character) value);
+        break;
+      case BYTE:
+        output.writeByte((Byte) value);
+        break;
+      case SHORT:
+        output.writeShort((Short) value);
+        break;
+      case INTEGER:
+        output.writeVarInt((Integer) value, false);
+        break;
+      case LONG:
+        output.writeVarLong((Long) value, false);
+        break;
+      case FLOAT:
+        output.writeFloat((Float) value);
+        break;
+      case DOUBLE:
+        output.writeDouble((Double) value);
+        break;
+      case DATE:
+      case DATETIME:
+      case TIME:
+        output.writeLong(((Date) value).getTime());
+        break;
+      case DECIMAL:
+        BigDecimal decimal = (BigDecimal) value;
+        writeBytes(output, decimal.unscaledValue().toByteArray());
+        output.writeVarInt(decimal.scale(), false);
+        break;
+      case STRING:
+        output.writeString((String) value);
+        break;
+      case BYTE_ARRAY:
+        writeBytes(output, (byte[]) value);
+        break;
+      case MAP:
+      case LIST_MAP:
+        Map<String, Field> map = (Map<String, Field>) value;
+        output.writeVarInt(map.size(), true);
+        for (Map.Entry<String, Field> entry : map.entrySet()) {
+          output.writeString(entry.getKey());
+          writeField(kryo, output, entry.getValue());
+        }
+        break;
+      case LIST:
+        List<Field> list = (List<Field>) value;
+        output.writeVarInt(list.size(), true);
+        for (Field element : list) {
+          writeField(kryo, output, element);
+        }
+        break;
+      default:
+        // FILE_REF, ZONED_DATETIME, ...
+        kryo.writeClassAndObject(output, value);
+        break;
+    }
+  }
+
+  private Field readField(Kryo kryo, Input input) {
+    int typeTag = input.readVarInt(true);
+    if (typeTag == 0) {
+      return null;
+    }
+    Field.Type type = FIELD_TYPES[typeTag - 1];
+
+    Map<String, String> attributes = null;
+    int attributesTag = input.readVarInt(true);
+    if (attributesTag > 0) {
+      attributes = new LinkedHashMap<>();
+      for (int i = 0; i < attributesTag - 1; i++) {
+        String key = input.readString();
+        attributes.put(key, input.readString());
+      }
+    }
+
+    Object value = input.readBoolean() ? readValue(kryo, input, type) : null;
+    return Field.create(type, value, attributes);
+  }
+
+  private Object readValue(Kryo kryo, Input input, Field.Type type) {
+    switch (type) {
+      case BOOLEAN:
+        return input.readBoolean();
+      case CHAR:
+        return input.readChar();
+      case BYTE:
+        return input.readByte();
+      case SHORT:
+        return input.readShort();
+      case INTEGER:
+        return input.readVarInt(false);
+      case LONG:
+        return input.readVarLong(false);
+      case FLOAT:
+        return input.readFloat();
+      case DOUBLE:
+        return input.readDouble();
+      case DATE:
+      case DATETIME:
+      case TIME:
+        return new Date(input.readLong());
+      case DECIMAL:
+        BigInteger unscaled = new BigInteger(readBytes(input));
+        return new BigDecimal(unscaled, input.readVarInt(false));
+      case STRING:
+        return input.readString();
+      case BYTE_ARRAY:
+        return readBytes(input);
+      case MAP:
+      case LIST_MAP:
+        int size = input.readVarInt(true);
+        Map<String, Field> map = (type == Field.Type.MAP) ? new HashMap<>(size * 4 / 3 + 1) : new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+          String key = input.readString();
+          map.put(key, readField(kryo, input));
+        }
+        return map;
+      case LIST:
+        int length = input.readVarInt(true);
+        List<Field> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+          list.add(readField(kryo, input));
+        }
+        return list;
+      default:
+        return kryo.readClassAndObject(input);
+    }
+  }
+
+  private static void writeBytes(Output output, byte[] bytes) {
+    output.writeVarInt(bytes.length, true);
+    output.writeBytes(bytes);
+  }
+
+  private static byte[] readBytes(Input input) {
+    return input.readBytes(input.readVarInt(true));
+  }
+
+}
@@ -27,6 +27,8 @@ class RecordEncodingConstants {
   static final byte KRYO1_MAGIC_NUMBER = BASE_MAGIC_NUMBER | (byte) 0x02;
   //10100001
   static final byte JSON1_MAGIC_NUMBER = BASE_MAGIC_NUMBER | (byte) 0x01;
+  //10100011
+  static final byte KRYO2_MAGIC_NUMBER = BASE_MAGIC_NUMBER | (byte) 0x03;
 
   private RecordEncodingConstants() {}
 }
@@ -34,6 +36,7 @@ class RecordEncodingConstants {
 public enum RecordEncoding {
   JSON1(RecordEncodingConstants.JSON1_MAGIC_NUMBER),
   KRYO1(RecordEncodingConstants.KRYO1_MAGIC_NUMBER),
+  KRYO2(RecordEncodingConstants.KRYO2_MAGIC_NUMBER),
 
   ;
 
@@ -49,6 +49,9 @@ public class RecordWriterReaderFactory {
           case KRYO1:
             reader = new KryoRecordReader(is, initialPosition);
             break;
+          case KRYO2:
+            reader = new Kryo2RecordReader(is, initialPosition);
+            break;
           default:
             throw new RuntimeException("It cannot happen");
         }
@@ -81,6 +84,10 @@ public class RecordWriterReaderFactory {
         os.write(RecordEncodingConstants.KRYO1_MAGIC_NUMBER);
         writer = new KryoRecordWriter(os);
         break;
+      case KRYO2:
+        os.write(RecordEncodingConstants.KRYO2_MAGIC_NUMBER);
+        writer = new Kryo2RecordWriter(os);
+        break;
       default:
         throw new RuntimeException("It cannot happen");
     }
@@ -24,6 +24,8 @@ import com.streamsets.datacollector.execution.Runner;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.StartPipelineContextBuilder;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotDataPager;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.UserGroupManager;
 import com.streamsets.datacollector.restapi.bean.AlertInfoJson;
@@ -76,6 +78,8 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -712,12 +716,28 @@ public class ManagerResource {
       @PathParam("pipelineId") String pipelineId,
       @PathParam("snapshotName") String snapshotName,
       @QueryParam("rev") @DefaultValue("0") String rev,
-      @QueryParam("attachment") @DefaultValue("false") Boolean attachment
+      @QueryParam("attachment") @DefaultValue("false") Boolean attachment,
+      @QueryParam("batch") @DefaultValue("-1") int batch,
+      @QueryParam("stage") String stage
   ) throws PipelineException {
     PipelineInfo pipelineInfo = store.getInfo(pipelineId);
     RestAPIUtils.injectPipelineInMDC(pipelineInfo.getTitle(), pipelineInfo.getPipelineId());
     Runner runner = manager.getRunner(pipelineId, rev);
     if(runner != null) {
+      if (batch != SnapshotDataPager.ALL_BATCHES || stage != null) {
+        // page through the snapshot data instead of returning all of it
+        InputStream snapshotData = runner.getSnapshot(snapshotName).getOutput();
+        if (snapshotData == null) {
+          return Response.noContent().build();
+        }
+        SnapshotDataPager pager = new SnapshotDataPager(ObjectMapperFactory.get(), batch, stage);
+        StreamingOutput page = out -> {
+          try (InputStream in = snapshotData) {
+            pager.copy(in, out);
+          }
+        };
+        return Response.ok().type(MediaType.APPLICATION_JSON).entity(page).build();
+      }
       if (attachment) {
         String fileName = pipelineId + "_" + snapshotName;
         return Response.ok().
@@ -71,10 +71,14 @@ public class BatchContextImpl implements BatchContext {
   private final RecordCloner recordCloner;
 
   public BatchContextImpl(FullPipeBatch pipeBatch, boolean recordByRef) {
+    this(pipeBatch, recordByRef, RecordCloner.COPY_ON_WRITE_DEFAULT);
+  }
+
+  public BatchContextImpl(FullPipeBatch pipeBatch, boolean recordByRef, boolean copyOnWrite) {
     this.pipeBatch = pipeBatch;
     this.processed = false;
     this.startTime = System.currentTimeMillis();
-    this.recordCloner = new RecordCloner(recordByRef);
+    this.recordCloner = new RecordCloner(recordByRef, copyOnWrite);
   }
 
   @Override
@@ -45,7 +45,7 @@ public class FullPipeBatch implements PipeBatch {
   private final String sourceEntity;
   private final String lastOffset;
   private final int batchSize;
-  private final Map<String, List<Record>> fullPayload;
+  private final LanePayload payload;
   private final Set<String> processedStages;
   private final List<StageOutput> stageOutputSnapshot;
   private final ErrorSink errorSink;
@@ -61,10 +61,20 @@ public class FullPipeBatch implements PipeBatch {
   private boolean isIdleBatch;
 
   public FullPipeBatch(String sourceEntity, String lastOffset, int batchSize, boolean snapshotStagesOutput) {
+    this(sourceEntity, lastOffset, batchSize, snapshotStagesOutput, null);
+  }
+
+  public FullPipeBatch(
+      String sourceEntity,
+      String lastOffset,
+      int batchSize,
+      boolean snapshotStagesOutput,
+      @Nullable LaneIndex laneIndex
+  ) {
     this.sourceEntity = sourceEntity;
     this.lastOffset = lastOffset;
     this.batchSize = batchSize;
-    fullPayload = new HashMap<>();
+    payload = new LanePayload(laneIndex);
     processedStages = new HashSet<>();
     stageOutputSnapshot = (snapshotStagesOutput) ? new ArrayList<StageOutput>() : null;
     errorSink = new ErrorSink();
@@ -75,7 +85,7 @@ public class FullPipeBatch implements PipeBatch {
 
   @VisibleForTesting
   Map<String, List<Record>> getFullPayload() {
-    return fullPayload;
+    return payload.asMap();
   }
 
   @Override
@@ -104,17 +114,24 @@ public class FullPipeBatch implements PipeBatch {
   @Override
   @SuppressWarnings("unchecked")
   public BatchImpl getBatch(final Pipe pipe) throws StageException {
-    List<Record> records = new ArrayList<>();
-    List<String> inputLanes = pipe.getInputLanes();
-    for (String inputLane : inputLanes) {
-      records.addAll(fullPayload.get(inputLane));
+    int[] inputSlots = payload.slots(pipe, pipe.getInputLaneSlots(), pipe.getInputLanes());
+    List<InterceptorRuntime> preInterceptors = pipe.getStage().getPreInterceptors();
+    List<Record> records;
+    if (inputSlots.length == 1 && preInterceptors.isEmpty()) {
+      // Common case of a single input lane, the stage only gets a read-only view so there is no need to copy it
+      records = payload.get(inputSlots[0]);
+    } else {
+      records = new ArrayList<>();
+      for (int inputSlot : inputSlots) {
+        records.addAll(payload.get(inputSlot));
+      }
     }
     if (pipe.getStage().getDefinition().getType().isOneOf(StageType.TARGET, StageType.EXECUTOR)) {
       outputRecords += records.size();
     }
 
     // Run interceptors as part before providing data to the stage
-    records = intercept(records, pipe.getStage().getPreInterceptors());
+    records = intercept(records, preInterceptors);
 
     // And finally give the batch to the stage itself
     return new BatchImpl(pipe.getStage().getInfo().getInstanceName(), sourceEntity, lastOffset, records);
@@ -129,8 +146,8 @@ public class FullPipeBatch implements PipeBatch {
     // Keep interceptors for this batch and stage
     this.errorSink.registerInterceptorsForStage(stageName, pipe.getStage().getPreInterceptors());
     this.eventSink.registerInterceptorsForStage(stageName, pipe.getStage().getPostInterceptors());
-    for (String output : pipe.getOutputLanes()) {
-      fullPayload.put(output, null);
+    for (int outputSlot : payload.slots(pipe, pipe.getOutputLaneSlots(), pipe.getOutputLanes())) {
+      payload.put(outputSlot, null);
     }
     int recordAllowance = (pipe.getStage().getDefinition().getType() == StageType.SOURCE)
                           ? getBatchSize() : Integer.MAX_VALUE;
@@ -149,10 +166,14 @@ public class FullPipeBatch implements PipeBatch {
     }
 
     // Fill expected stage output lanes with empty lists
-    pipe.getOutputLanes().stream().forEach(lane -> fullPayload.put((String)lane, Collections.emptyList()));
+    for (int outputSlot : payload.slots(pipe, pipe.getOutputLaneSlots(), pipe.getOutputLanes())) {
+      payload.put(outputSlot, Collections.emptyList());
+    }
     // Components are allowed to generate events on destroy phase and hence we need to use default empty
     // list only if the event lane was not filled before.
-    pipe.getEventLanes().stream().forEach(lane -> fullPayload.putIfAbsent((String)lane, Collections.emptyList()));
+    for (int eventSlot : payload.slots(pipe, pipe.getEventLaneSlots(), pipe.getEventLanes())) {
+      payload.putIfAbsent(eventSlot, Collections.emptyList());
+    }
   }
 
   @Override
@@ -167,12 +188,12 @@ public class FullPipeBatch implements PipeBatch {
     // convert lane names from stage naming to pipe naming when adding to the payload
     // leveraging the fact that the stage output lanes and the pipe output lanes are in the same order
     List<String> stageLaneNames = pipe.getStage().getConfiguration().getOutputLanes();
+    int[] outputSlots = payload.slots(pipe, pipe.getOutputLaneSlots(), pipe.getOutputLanes());
     for (int i = 0; i < stageLaneNames.size() ; i++) {
       String stageLaneName = stageLaneNames.get(i);
-      String pipeLaneName = pipe.getOutputLanes().get(i);
       List<Record> records  = stageOutput.get(stageLaneName);
 
-      fullPayload.put(pipeLaneName, intercept(records, interceptors));
+      payload.put(outputSlots[i], intercept(records, interceptors));
     }
     if (stageOutputSnapshot != null) {
       String instanceName = pipe.getStage().getInfo().getInstanceName();
@@ -192,13 +213,13 @@ public class FullPipeBatch implements PipeBatch {
 
   @Override
   public void completeStage(StagePipe pipe) throws StageException {
-    List<String> inputLanes = pipe.getInputLanes();
-    for(String inputLane : inputLanes) {
-      fullPayload.remove(inputLane);
+    for (int inputSlot : payload.slots(pipe, pipe.getInputLaneSlots(), pipe.getInputLanes())) {
+      payload.remove(inputSlot);
     }
 
-    if(pipe.getEventLanes().size() == 1) {
-      fullPayload.put(pipe.getEventLanes().get(0), eventSink.getStageEvents(pipe.getStage().getInfo().getInstanceName()));
+    int[] eventSlots = payload.slots(pipe, pipe.getEventLaneSlots(), pipe.getEventLanes());
+    if(eventSlots.length == 1) {
+      payload.put(eventSlots[0], eventSink.getStageEvents(pipe.getStage().getInfo().getInstanceName()));
     }
   }
 
@@ -207,7 +228,7 @@ public class FullPipeBatch implements PipeBatch {
     Map<String, List<Record>> snapshot = new HashMap<>();
     for (String pipeLane : pipeLanes) {
       //The observer will copy
-      snapshot.put(pipeLane, fullPayload.get(pipeLane));
+      snapshot.put(pipeLane, payload.get(pipeLane));
     }
     return snapshot;
   }
@@ -235,10 +256,10 @@ public class FullPipeBatch implements PipeBatch {
     startStage(pipe);
     for (String pipeLaneName : pipe.getOutputLanes()) {
       String stageLaneName = LaneResolver.removePostFixFromLane(pipeLaneName);
-      fullPayload.put(pipeLaneName, stageOutput.getOutput().get(stageLaneName));
+      payload.put(pipeLaneName, stageOutput.getOutput().get(stageLaneName));
     }
     if(pipe.getEventLanes().size() == 1) {
-      fullPayload.put(pipe.getEventLanes().get(0), stageOutput.getEventRecords());
+      payload.put(pipe.getEventLanes().get(0), stageOutput.getEventRecords());
     }
     if (stageOutputSnapshot != null) {
       stageOutputSnapshot.add(new StageOutput(
@@ -262,7 +283,7 @@ public class FullPipeBatch implements PipeBatch {
     Map<String, Map<String, List<Record>>> salvagedStageOutputs = new LinkedHashMap<>();
 
     // Salvage what is in memory
-    fullPayload.forEach((lane, records) -> {
+    payload.forEach((lane, records) -> {
       // We can work only with multiplexer lanes as only those encode all the information we need
       if(!lane.endsWith(LaneResolver.MULTIPLEXER_OUT)) {
         return;
@@ -321,22 +342,22 @@ public class FullPipeBatch implements PipeBatch {
 
   @Override
   public void moveLane(String inputLane, String outputLane) {
-    fullPayload.put(outputLane, Preconditions.checkNotNull(fullPayload.remove(inputLane), Utils.formatL(
+    payload.put(outputLane, Preconditions.checkNotNull(payload.remove(inputLane), Utils.formatL(
         "Stream '{}' does not exist", inputLane)));
   }
 
   @Override
   public void moveLaneCopying(String inputLane, List<String> outputLanes) {
-    List<Record> records = Preconditions.checkNotNull(fullPayload.remove(inputLane), Utils.formatL(
+    List<Record> records = Preconditions.checkNotNull(payload.remove(inputLane), Utils.formatL(
         "Stream '{}' does not exist", inputLane));
     boolean firstOutputLane = true;
     for (String lane : outputLanes) {
-      Preconditions.checkState(!fullPayload.containsKey(lane), Utils.formatL("Lane '{}' already exists", lane));
+      Preconditions.checkState(!payload.contains(lane), Utils.formatL("Lane '{}' already exists", lane));
       if(firstOutputLane) {
-        fullPayload.put(lane, records);
+        payload.put(lane, records);
         firstOutputLane = false;
       } else {
-        fullPayload.put(lane, createCopy(records));
+        payload.put(lane, createCopy(records));
       }
     }
   }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Assigns an integer slot to every pipe lane of a pipeline. Lanes are resolved once when the pipes are built so that
+ * moving records between pipes is a plain array access rather than a lookup by lane name.
+ *
+ * All runners of the same pipeline share one index, lanes can only be added, never removed.
+ */
+public class LaneIndex {
+  private final Map<String, Integer> slots;
+  private final List<String> lanes;
+
+  public LaneIndex() {
+    slots = new ConcurrentHashMap<>();
+    lanes = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Returns the slot of the given lane, assigning a new one if the lane is not known yet.
+   */
+  public int register(String lane) {
+    Integer slot = slots.get(lane);
+    if (slot == null) {
+      synchronized (this) {
+        slot = slots.get(lane);
+        if (slot == null) {
+          slot = lanes.size();
+          lanes.add(lane);
+          slots.put(lane, slot);
+        }
+      }
+    }
+    return slot;
+  }
+
+  public int[] register(List<String> lanes) {
+    int[] laneSlots = new int[lanes.size()];
+    for (int i = 0; i < laneSlots.length; i++) {
+      laneSlots[i] = register(lanes.get(i));
+    }
+    return laneSlots;
+  }
+
+  /**
+   * Returns the slot of the given lane or -1 if the lane is not known.
+   */
+  public int getSlot(String lane) {
+    Integer slot = slots.get(lane);
+    return (slot == null) ? -1 : slot;
+  }
+
+  public String getLane(int slot) {
+    return lanes.get(slot);
+  }
+
+  public int size() {
+    return lanes.size();
+  }
+
+  /**
+   * Registers the lanes of all given pipes and makes the pipes aware of their slots.
+   */
+  public void resolve(List<? extends Pipe> pipes) {
+    for (Pipe pipe : pipes) {
+      pipe.resolveLanes(this);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner;
+
+import com.streamsets.pipeline.api.Record;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Records of a batch by pipe lane, stored in an array indexed by the lane slots of a LaneIndex.
+ *
+ * Behaves like a map from lane name to records, including lanes that are present with no records yet (mapped to null).
+ */
+class LanePayload {
+  // Marks a lane that is present but has no records (yet), the equivalent of a null value in a map
+  private static final List<Record> RESERVED = Collections.unmodifiableList(new ArrayList<>(0));
+
+  private final LaneIndex laneIndex;
+  private List<Record>[] slots;
+
+  LanePayload(LaneIndex laneIndex) {
+    // Batches created without a built pipeline (preview of a single stage, tests) register lanes on first use
+    this.laneIndex = (laneIndex != null) ? laneIndex : new LaneIndex();
+    this.slots = newSlots(this.laneIndex.size());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Record>[] newSlots(int size) {
+    return (List<Record>[]) new List[size];
+  }
+
+  private void ensureCapacity(int slot) {
+    if (slot >= slots.length) {
+      slots = Arrays.copyOf(slots, Math.max(slot + 1, laneIndex.size()));
+    }
+  }
+
+  int slot(String lane) {
+    return laneIndex.register(lane);
+  }
+
+  /**
+   * Returns the slots of the given pipe lanes. Uses the slots resolved by the pipe when it was built against the same
+   * index, resolves them by name otherwise.
+   */
+  int[] slots(Pipe pipe, int[] pipeSlots, List<String> lanes) {
+    if (pipeSlots != null && pipe.getLaneIndex() == laneIndex) {
+      return pipeSlots;
+    }
+    return laneIndex.register(lanes);
+  }
+
+  List<Record> get(int slot) {
+    List<Record> records = (slot < slots.length) ? slots[slot] : null;
+    return (records == RESERVED) ? null : records;
+  }
+
+  boolean contains(int slot) {
+    return slot < slots.length && slots[slot] != null;
+  }
+
+  void put(int slot, List<Record> records) {
+    ensureCapacity(slot);
+    slots[slot] = (records != null) ? records : RESERVED;
+  }
+
+  void putIfAbsent(int slot, List<Record> records) {
+    if (get(slot) == null) {
+      put(slot, records);
+    }
+  }
+
+  List<Record> remove(int slot) {
+    List<Record> records = get(slot);
+    if (slot < slots.length) {
+      slots[slot] = null;
+    }
+    return records;
+  }
+
+  List<Record> get(String lane) {
+    int slot = laneIndex.getSlot(lane);
+    return (slot >= 0) ? get(slot) : null;
+  }
+
+  boolean contains(String lane) {
+    int slot = laneIndex.getSlot(lane);
+    return slot >= 0 && contains(slot);
+  }
+
+  void put(String lane, List<Record> records) {
+    put(slot(lane), records);
+  }
+
+  List<Record> remove(String lane) {
+    int slot = laneIndex.getSlot(lane);
+    return (slot >= 0) ? remove(slot) : null;
+  }
+
+  void forEach(BiConsumer<String, List<Record>> consumer) {
+    for (int i = 0; i < slots.length; i++) {
+      if (slots[i] != null) {
+        consumer.accept(laneIndex.getLane(i), get(i));
+      }
+    }
+  }
+
+  Map<String, List<Record>> asMap() {
+    Map<String, List<Record>> map = new HashMap<>();
+    forEach(map::put);
+    return map;
+  }
+}
@@ -18,13 +18,21 @@ package com.streamsets.datacollector.runner;
 
 import com.streamsets.datacollector.validation.Issue;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 public class MultiplexerPipe extends Pipe<Pipe.Context> {
+  // Output lanes matching each input lane, the lanes of a pipe don't change so they are resolved only once
+  private final List<List<String>> matchingOutputLanes;
 
   public MultiplexerPipe(StageRuntime stage, List<String> inputLanes, List<String> outputLanes) {
     super(stage, inputLanes, outputLanes, Collections.<String>emptyList());
+    matchingOutputLanes = new ArrayList<>(inputLanes.size());
+    for (int i = 0; i < inputLanes.size(); i++) {
+      String inputStageLane = stage.getConfiguration().getOutputAndEventLanes().get(i);
+      matchingOutputLanes.add(LaneResolver.getMatchingOutputLanes(inputStageLane, outputLanes));
+    }
   }
 
   @Override
@@ -39,9 +47,8 @@ public class MultiplexerPipe extends Pipe<Pipe.Context> {
   @Override
   public void process(PipeBatch pipeBatch) throws PipelineRuntimeException {
     for (int i = 0; i < getInputLanes().size(); i++) {
-      String inputStageLane = getStage().getConfiguration().getOutputAndEventLanes().get(i);
       String inputPipeLane = getInputLanes().get(i);
-      List<String> outputLanes = LaneResolver.getMatchingOutputLanes(inputStageLane, getOutputLanes());
+      List<String> outputLanes = matchingOutputLanes.get(i);
       if (outputLanes.size() == 1) {
         pipeBatch.moveLane(inputPipeLane, outputLanes.get(0));
       } else {
@@ -27,6 +27,10 @@ public abstract class Pipe<C extends Pipe.Context> {
   private final List<String> inputLanes;
   private final List<String> outputLanes;
   private final List<String> eventLanes;
+  private LaneIndex laneIndex;
+  private int[] inputLaneSlots;
+  private int[] outputLaneSlots;
+  private int[] eventLaneSlots;
 
   public Pipe(StageRuntime stage, List<String> inputLanes, List<String> outputLanes, List<String> eventLanes) {
     this.stage = stage;
@@ -51,6 +55,32 @@ public abstract class Pipe<C extends Pipe.Context> {
     return eventLanes;
   }
 
+  /**
+   * Resolves the lanes of this pipe to their slots in the given index, called once when the pipeline is built.
+   */
+  void resolveLanes(LaneIndex laneIndex) {
+    this.inputLaneSlots = laneIndex.register(inputLanes);
+    this.outputLaneSlots = laneIndex.register(outputLanes);
+    this.eventLaneSlots = laneIndex.register(eventLanes);
+    this.laneIndex = laneIndex;
+  }
+
+  public LaneIndex getLaneIndex() {
+    return laneIndex;
+  }
+
+  int[] getInputLaneSlots() {
+    return inputLaneSlots;
+  }
+
+  int[] getOutputLaneSlots() {
+    return outputLaneSlots;
+  }
+
+  int[] getEventLaneSlots() {
+    return eventLaneSlots;
+  }
+
   public abstract List<Issue> init(C pipeContext) throws StageException;
 
   public abstract void process(PipeBatch pipeBatch) throws StageException, PipelineRuntimeException;
@@ -366,7 +366,8 @@ public class Pipeline {
               startTime,
               blobStore,
               lineagePublisherTask,
-              statsCollector
+              statsCollector,
+              originPipe.getLaneIndex()
             ));
           }
         } catch (PipelineRuntimeException e) {
@@ -671,7 +672,8 @@ public class Pipeline {
           startTime,
           blobStore,
           lineagePublisherTask,
-          statsCollector
+          statsCollector,
+          originPipe.getLaneIndex()
         ));
 
         // Error stage handling
@@ -831,7 +833,7 @@ public class Pipeline {
 
     private SourcePipe createOriginPipe(StageRuntime originRuntime, PipelineRunner runner) {
       LaneResolver laneResolver = new LaneResolver(ImmutableList.of(originRuntime));
-      return new SourcePipe(
+      SourcePipe originPipe = new SourcePipe(
         pipelineName,
         rev,
         originRuntime,
@@ -841,6 +843,9 @@ public class Pipeline {
         statsCollector,
         runner.getMetricRegistryJson()
       );
+      // Lane index shared by all runners of this pipeline, their pipes register their lanes when they are created
+      new LaneIndex().resolve(ImmutableList.of(originPipe));
+      return originPipe;
     }
 
   }
@@ -864,7 +869,8 @@ public class Pipeline {
     long startTime,
     BlobStoreTask blobStore,
     LineagePublisherTask lineagePublisherTask,
-    StatsCollector statsCollector
+    StatsCollector statsCollector,
+    LaneIndex laneIndex
   ) throws PipelineRuntimeException {
     Preconditions.checkArgument(beans.size() == sharedRunnerMaps.size(),
       Utils.format("New runner have different number of states then original one! ({} != {})", beans.size(), sharedRunnerMaps.size()));
@@ -908,7 +914,8 @@ public class Pipeline {
         rev,
         stages,
         runner,
-        observer
+        observer,
+        laneIndex
       )
     );
   }
@@ -932,7 +939,8 @@ public class Pipeline {
     String rev,
     List<StageRuntime> stages,
     PipelineRunner runner,
-    Observer observer
+    Observer observer,
+    LaneIndex laneIndex
   ) throws PipelineRuntimeException {
     LaneResolver laneResolver = new LaneResolver(stages);
     ImmutableList.Builder<Pipe> pipesBuilder = ImmutableList.builder();
@@ -996,7 +1004,9 @@ public class Pipeline {
           throw new IllegalStateException("Unexpected DefinitionType " + stage.getDefinition().getType());
       }
     }
-    return pipesBuilder.build();
+    List<Pipe> pipes = pipesBuilder.build();
+    laneIndex.resolve(pipes);
+    return pipes;
   }
 
   public static StageRuntime createAndInitializeStageRuntime(
@@ -24,21 +24,43 @@ import com.streamsets.pipeline.api.Record;
  * This is helpful method to make sure that all places that clone records in the framework will do so the same way.
  */
 public class RecordCloner {
+  /**
+   * Configuration (sdc.properties) enabling copy-on-write clones instead of deep clones.
+   */
+  public static final String COPY_ON_WRITE_KEY = "pipeline.record.copyOnWrite";
+  public static final boolean COPY_ON_WRITE_DEFAULT = false;
+
   /**
    * Should be directly taken from the associated stage's metadata (@StageDef)
    */
   private final boolean recordByRef;
 
+  /**
+   * When set, clones share the field tree with the original record and copy only the modified paths.
+   */
+  private final boolean copyOnWrite;
+
   public RecordCloner(boolean recordByRef) {
+    this(recordByRef, COPY_ON_WRITE_DEFAULT);
+  }
+
+  public RecordCloner(boolean recordByRef, boolean copyOnWrite) {
     this.recordByRef = recordByRef;
+    this.copyOnWrite = copyOnWrite;
   }
 
   public RecordImpl cloneRecordIfNeeded(Record record) {
-    return recordByRef ? (RecordImpl)record: ((RecordImpl) record).clone();
+    if (recordByRef) {
+      return (RecordImpl) record;
+    }
+    return copyOnWrite ? ((RecordImpl) record).cloneCopyOnWrite() : ((RecordImpl) record).clone();
   }
 
   public EventRecordImpl cloneEventIfNeeded(EventRecord record) {
-    return recordByRef ? (EventRecordImpl)record : ((EventRecordImpl) record).clone();
+    if (recordByRef) {
+      return (EventRecordImpl) record;
+    }
+    return copyOnWrite ? ((EventRecordImpl) record).cloneCopyOnWrite() : ((EventRecordImpl) record).clone();
   }
 
 }
@@ -17,46 +17,75 @@ package com.streamsets.datacollector.runner;
 
 import com.codahale.metrics.Histogram;
 import com.streamsets.datacollector.util.ContainerError;
-import org.jetbrains.annotations.NotNull;
 
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Small abstraction on top of blocking queue to model a pool of runners.
+ * Pool of runners shared by the threads of a multithreaded origin.
+ *
+ * A thread gets back the runner it used last whenever that one is available, so the stage state of a runner stays on
+ * the same thread (and CPU caches) from batch to batch. Otherwise the thread takes the runner that was returned the
+ * longest time ago. Runners are claimed with a compare-and-set, there is no lock shared by all threads.
  */
 public class RunnerPool <T> {
 
   /**
-   * Wrapper for the pool items to remember when they were inserted (what time).
+   * Pool state of a single runner.
    */
-  private static class QueueItem<T> implements Comparable<QueueItem> {
+  private static class Slot<T> {
     /**
-     * Timestamp of the insertion to the queue.
+     * Runner instance itself.
      */
-    long timestamp;
+    final T runner;
 
     /**
-     * Runner instance itself.
+     * True while the runner is checked out.
+     */
+    final AtomicBoolean inUse;
+
+    /**
+     * True while the slot is in the available queue (possibly as a stale entry for a runner that is in use).
      */
-    T runner;
+    final AtomicBoolean queued;
 
-    QueueItem(T runner) {
+    /**
+     * Timestamp of the last time the runner was returned to the pool.
+     */
+    volatile long timestamp;
+
+    Slot(T runner) {
       this.runner = runner;
+      this.inUse = new AtomicBoolean(false);
+      this.queued = new AtomicBoolean(true);
       this.timestamp = System.currentTimeMillis();
     }
-
-    @Override
-    public int compareTo(@NotNull QueueItem other) {
-      return (int) (this.timestamp - other.timestamp);
-    }
   }
 
   /**
-   * Internal blocking queue with all available runners
+   * Slots of all runners managed by this pool.
    */
-  private final PriorityBlockingQueue<QueueItem<T>> queue;
+  private final Map<T, Slot<T>> slots;
+
+  /**
+   * Available runners in the order they were returned, oldest first. Runners checked out through the thread affinity
+   * stay in the queue and are skipped once they get to the head.
+   */
+  private final ConcurrentLinkedDeque<Slot<T>> available;
+
+  /**
+   * One permit per available runner, this is where threads wait when all runners are in use.
+   */
+  private final Semaphore permits;
+
+  /**
+   * Runner that the current thread used last.
+   */
+  private final ThreadLocal<Slot<T>> lastUsed;
 
   /**
    * Runtime stats to keep info about available runners.
@@ -79,12 +108,19 @@ public class RunnerPool <T> {
    * @param runners Runners that this pool object should manage
    */
   public RunnerPool(List<T> runners, RuntimeStats runtimeStats, Histogram histogram) {
-    queue = new PriorityBlockingQueue<>(runners.size());
-    runners.forEach(runner -> queue.add(new QueueItem<>(runner)));
+    slots = new IdentityHashMap<>(runners.size());
+    available = new ConcurrentLinkedDeque<>();
+    runners.forEach(runner -> {
+      Slot<T> slot = new Slot<>(runner);
+      slots.put(runner, slot);
+      available.add(slot);
+    });
+    permits = new Semaphore(runners.size());
+    lastUsed = new ThreadLocal<>();
 
     this.runtimeStats = runtimeStats;
-    this.runtimeStats.setTotalRunners(queue.size());
-    this.runtimeStats.setAvailableRunners(queue.size());
+    this.runtimeStats.setTotalRunners(runners.size());
+    this.runtimeStats.setAvailableRunners(runners.size());
     this.histogram = histogram;
     this.destroyed = new AtomicBoolean(false);
   }
@@ -99,12 +135,34 @@ public class RunnerPool <T> {
     validateNotDestroyed();
 
     try {
-      return queue.take().runner;
+      permits.acquire();
     } catch (InterruptedException e) {
       throw new PipelineRuntimeException(ContainerError.CONTAINER_0801, e);
+    }
+
+    try {
+      // The runner this thread used last
+      Slot<T> slot = lastUsed.get();
+      if (slot != null && slot.inUse.compareAndSet(false, true)) {
+        return slot.runner;
+      }
+
+      // The permit guarantees that at least one runner is available for us
+      while (true) {
+        slot = available.pollFirst();
+        if (slot == null) {
+          // A concurrent getRunner() polled the runner we're entitled to but did not claim it yet
+          Thread.yield();
+          continue;
+        }
+        slot.queued.set(false);
+        if (slot.inUse.compareAndSet(false, true)) {
+          lastUsed.set(slot);
+          return slot.runner;
+        }
+      }
     } finally {
-      runtimeStats.setAvailableRunners(queue.size());
-      histogram.update(queue.size());
+      updateStats();
     }
   }
 
@@ -115,23 +173,23 @@ public class RunnerPool <T> {
    * @return First runner that fits such criteria or null if there is no such runner
    */
   public T getIdleRunner(long idleTime) {
-    // Take the first runner
-    QueueItem<T> item = queue.poll();
-
     // All runners might be currently in use, which is fine in this case.
-    if(item == null) {
+    if (!permits.tryAcquire()) {
       return null;
     }
 
-    // If the runner wasn't idle for the expected time, we need to put it back to the queue (it will be added to the
-    // begging again).
-    if((System.currentTimeMillis() - item.timestamp) < idleTime) {
-      queue.add(item);
-      return null;
+    long now = System.currentTimeMillis();
+    for (Slot<T> slot : available) {
+      if (!slot.inUse.get() && (now - slot.timestamp) >= idleTime && slot.inUse.compareAndSet(false, true)) {
+        // The slot stays in the queue as a stale entry, it's skipped by getRunner() until returned
+        updateStats();
+        return slot.runner;
+      }
     }
 
-    // Otherwise we do have runner that hasn't been used for at least idleTime, so we can return it now
-    return item.runner;
+    // No runner was idle for the expected time
+    permits.release();
+    return null;
   }
 
   /**
@@ -142,9 +200,21 @@ public class RunnerPool <T> {
   public void returnRunner(T runner) throws PipelineRuntimeException {
     validateNotDestroyed();
 
-    queue.add(new QueueItem<>(runner));
-    runtimeStats.setAvailableRunners(queue.size());
-    histogram.update(queue.size());
+    Slot<T> slot = slots.get(runner);
+    slot.timestamp = System.currentTimeMillis();
+    slot.inUse.set(false);
+    if (slot.queued.compareAndSet(false, true)) {
+      available.addLast(slot);
+    }
+    lastUsed.set(slot);
+    permits.release();
+    updateStats();
+  }
+
+  private void updateStats() {
+    int availableRunners = permits.availablePermits();
+    runtimeStats.setAvailableRunners(availableRunners);
+    histogram.update(availableRunners);
   }
 
   /**
@@ -161,8 +231,12 @@ public class RunnerPool <T> {
 
     // Validate that this thread pool have all runners back, otherwise we're missing something and that is sign of
     // a trouble.
-    if(queue.size() < runtimeStats.getTotalRunners()) {
-      throw new PipelineRuntimeException(ContainerError.CONTAINER_0802, queue.size(), runtimeStats.getTotalRunners());
+    if(permits.availablePermits() < runtimeStats.getTotalRunners()) {
+      throw new PipelineRuntimeException(
+          ContainerError.CONTAINER_0802,
+          permits.availablePermits(),
+          runtimeStats.getTotalRunners()
+      );
     }
   }
 
@@ -173,7 +247,11 @@ public class RunnerPool <T> {
    */
   private void validateNotDestroyed() throws PipelineRuntimeException {
     if(destroyed.get()) {
-      throw new PipelineRuntimeException(ContainerError.CONTAINER_0803, queue.size(), runtimeStats.getTotalRunners());
+      throw new PipelineRuntimeException(
+          ContainerError.CONTAINER_0803,
+          permits.availablePermits(),
+          runtimeStats.getTotalRunners()
+      );
     }
   }
 }
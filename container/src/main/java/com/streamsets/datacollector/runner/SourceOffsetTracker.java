@@ -58,4 +58,10 @@ public interface SourceOffsetTracker {
    */
   public void resetOffset();
 
+  /**
+   * Called once the pipeline stopped and no more offsets are committed, to persist whatever is still pending.
+   */
+  public default void close() {
+  }
+
 }
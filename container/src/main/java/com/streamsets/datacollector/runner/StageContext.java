@@ -261,7 +261,10 @@ public class StageContext extends ProtoContext implements
     this.lineagePublisherDelegator = lineagePublisherDelegator;
     this.services = services;
     this.isErrorStage = isErrorStage;
-    this.recordCloner = new RecordCloner(recordByRef);
+    this.recordCloner = new RecordCloner(
+        recordByRef,
+        configuration.get(RecordCloner.COPY_ON_WRITE_KEY, RecordCloner.COPY_ON_WRITE_DEFAULT)
+    );
   }
 
   @Override
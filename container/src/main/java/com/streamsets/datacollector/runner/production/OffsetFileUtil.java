@@ -31,12 +31,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 public class OffsetFileUtil {
   private static final Logger LOG = LoggerFactory.getLogger(ProductionSourceOffsetTracker.class);
 
   private static final String OFFSET_FILE = "offset.json";
+  private static final String OFFSET_LOG_FILE = "offset.log";
   private static final Map<String, String> DEFAULT_OFFSET = Collections.emptyMap();
   private static final int MAX_RETRIES = 5;
 
@@ -46,13 +48,21 @@ public class OffsetFileUtil {
     return new File(PipelineDirectoryUtil.getPipelineDir(runtimeInfo, pipelineName, rev), OFFSET_FILE);
   }
 
+  /**
+   * Log of the offsets committed since the offset file was last written, see {@link OffsetLog}.
+   */
+  public static File getPipelineOffsetLogFile(RuntimeInfo runtimeInfo, String pipelineName, String rev) {
+    return new File(PipelineDirectoryUtil.getPipelineDir(runtimeInfo, pipelineName, rev), OFFSET_LOG_FILE);
+  }
+
   public static Map<String, String> saveIfEmpty(RuntimeInfo runtimeInfo, String pipelineName, String rev) {
     File pipelineOffsetFile =  getPipelineOffsetFile(runtimeInfo, pipelineName, rev);
+    File offsetLogFile = getPipelineOffsetLogFile(runtimeInfo, pipelineName, rev);
     SourceOffset sourceOffset;
     DataStore ds = new DataStore(pipelineOffsetFile);
     try {
       if (ds.exists()) {
-        return readSourceOffsetFromDataStore(ds).getOffsets();
+        return readSourceOffsetFromDataStore(ds, offsetLogFile).getOffsets();
       } else {
         sourceOffset = new SourceOffset(SourceOffset.CURRENT_VERSION, DEFAULT_OFFSET);
         try (OutputStream os = ds.getOutputStream()) {
@@ -69,6 +79,45 @@ public class OffsetFileUtil {
   }
 
   public static void saveOffsets(RuntimeInfo runtimeInfo, String pipelineName, String rev, Map<String, String> offset) {
+    File offsetLogFile = getPipelineOffsetLogFile(runtimeInfo, pipelineName, rev);
+    synchronized (OffsetLog.getLock(offsetLogFile)) {
+      deleteOffsetLog(offsetLogFile);
+      writeOffsets(runtimeInfo, pipelineName, rev, offset);
+    }
+  }
+
+  /**
+   * Writes the offsets, which include all the changes in the given log, to the offset file and deletes the log.
+   */
+  static void compactOffsets(
+      RuntimeInfo runtimeInfo,
+      String pipelineName,
+      String rev,
+      Map<String, String> offset,
+      OffsetLog offsetLog
+  ) {
+    synchronized (OffsetLog.getLock(offsetLog.getFile())) {
+      // the log is only dropped once the offset file has all its changes
+      writeOffsets(runtimeInfo, pipelineName, rev, offset);
+      try {
+        offsetLog.delete();
+      } catch (IOException e) {
+        LOG.error("Failed to delete offset log '{}'. Reason {}", offsetLog.getFile(), e.toString(), e);
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private static void deleteOffsetLog(File offsetLogFile) {
+    try {
+      OffsetLog.delete(offsetLogFile);
+    } catch (IOException e) {
+      LOG.error("Failed to delete offset log '{}'. Reason {}", offsetLogFile, e.toString(), e);
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void writeOffsets(RuntimeInfo runtimeInfo, String pipelineName, String rev, Map<String, String> offset) {
     LOG.debug("Saving offset {} for pipeline {}", offset, pipelineName);
     SourceOffset sourceOffset = new SourceOffset(SourceOffset.CURRENT_VERSION, offset);
     DataStore dataStore = new DataStore(OffsetFileUtil.getPipelineOffsetFile(runtimeInfo, pipelineName, rev));
@@ -85,15 +134,19 @@ public class OffsetFileUtil {
   public static void saveSourceOffset(RuntimeInfo runtimeInfo, String pipelineName, String rev, SourceOffset offset) {
     // Assumes that the argument offset confirms to the format on disk. hence just writes it to offset file
     LOG.debug("Saving offset {} for pipeline {}", offset, pipelineName);
-    DataStore dataStore = new DataStore(OffsetFileUtil.getPipelineOffsetFile(runtimeInfo, pipelineName, rev));
-    try (OutputStream os = dataStore.getOutputStream()) {
-      ObjectMapperFactory.get().writeValue(os, offset);
-      dataStore.commit(os);
-    } catch (IOException e) {
-      LOG.error("Failed to save offset={}. Reason {}", offset, e.toString(), e);
-      throw new IllegalStateException(e);
-    } finally {
-      dataStore.release();
+    File offsetLogFile = getPipelineOffsetLogFile(runtimeInfo, pipelineName, rev);
+    synchronized (OffsetLog.getLock(offsetLogFile)) {
+      deleteOffsetLog(offsetLogFile);
+      DataStore dataStore = new DataStore(OffsetFileUtil.getPipelineOffsetFile(runtimeInfo, pipelineName, rev));
+      try (OutputStream os = dataStore.getOutputStream()) {
+        ObjectMapperFactory.get().writeValue(os, offset);
+        dataStore.commit(os);
+      } catch (IOException e) {
+        LOG.error("Failed to save offset={}. Reason {}", offset, e.toString(), e);
+        throw new IllegalStateException(e);
+      } finally {
+        dataStore.release();
+      }
     }
   }
 
@@ -133,7 +186,7 @@ public class OffsetFileUtil {
         if (pipelineOffsetFile.exists()) {
           DataStore ds = new DataStore(pipelineOffsetFile);
           if (ds.exists()) {
-            return readSourceOffsetFromDataStore(ds);
+            return readSourceOffsetFromDataStore(ds, getPipelineOffsetLogFile(runtimeInfo, pipelineName, rev));
           }
         }
 
@@ -147,12 +200,22 @@ public class OffsetFileUtil {
     throw new IllegalStateException(Utils.format("Retrieving offset failed for last attempt {}", retries));
   }
 
-  private static SourceOffset readSourceOffsetFromDataStore(DataStore ds) throws IOException {
-    try (InputStream is = ds.getInputStream()) {
-      SourceOffsetJson sourceOffsetJson = ObjectMapperFactory.get().readValue(is, SourceOffsetJson.class);
-      SourceOffset sourceOffset = BeanHelper.unwrapSourceOffset(sourceOffsetJson);
-      SourceOffsetUpgrader.upgrade(sourceOffset);
-      return sourceOffset;
+  /**
+   * Reads the offset file and applies the offsets committed to the log since it was written.
+   */
+  private static SourceOffset readSourceOffsetFromDataStore(DataStore ds, File offsetLogFile) throws IOException {
+    synchronized (OffsetLog.getLock(offsetLogFile)) {
+      try (InputStream is = ds.getInputStream()) {
+        SourceOffsetJson sourceOffsetJson = ObjectMapperFactory.get().readValue(is, SourceOffsetJson.class);
+        SourceOffset sourceOffset = BeanHelper.unwrapSourceOffset(sourceOffsetJson);
+        SourceOffsetUpgrader.upgrade(sourceOffset);
+        if (offsetLogFile.exists()) {
+          Map<String, String> offsets = new HashMap<>(sourceOffset.getOffsets());
+          OffsetLog.apply(offsetLogFile, offsets);
+          sourceOffset.setOffsets(offsets);
+        }
+        return sourceOffset;
+      }
     }
   }
 }
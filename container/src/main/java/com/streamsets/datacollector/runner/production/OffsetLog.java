@@ -0,0 +1,227 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner.production;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the offset changes committed since the offset file (the snapshot) was last written.
+ * <p/>
+ * Every entry is the length of its payload, the CRC32 of the payload and the payload itself: an operation byte,
+ * the entity and, for puts, the new offset. An entry that is cut short or doesn't match its checksum can only be
+ * the result of a crash in the middle of an append, it ends the log.
+ * <p/>
+ * The log is forced to disk every {@code syncBatches} appends or every {@code syncIntervalMillis}, whichever comes
+ * first (the offset file itself was never forced to disk).
+ */
+class OffsetLog {
+  private static final Logger LOG = LoggerFactory.getLogger(OffsetLog.class);
+
+  private static final byte PUT = 0;
+  private static final byte REMOVE = 1;
+  private static final int HEADER_SIZE = 8;
+
+  private static final ConcurrentMap<File, Object> LOCKS = new ConcurrentHashMap<>();
+
+  private final File file;
+  private final int syncBatches;
+  private final long syncIntervalMillis;
+  private int entries;
+  private int unsynced;
+  private long lastSync;
+
+  OffsetLog(File file, int syncBatches, long syncIntervalMillis) {
+    this.file = file;
+    this.syncBatches = syncBatches;
+    this.syncIntervalMillis = syncIntervalMillis;
+    this.lastSync = System.currentTimeMillis();
+    synchronized (getLock(file)) {
+      try {
+        Replay replay = replay(file, null);
+        entries = replay.entries;
+        if (file.exists() && replay.length < file.length()) {
+          LOG.warn("Dropping incomplete entry at the end of offset log '{}'", file);
+          try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(replay.length);
+          }
+        }
+      } catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
+    }
+  }
+
+  /**
+   * Returns the lock that serializes reading the offset file and its log against rewriting them.
+   */
+  static Object getLock(File file) {
+    return LOCKS.computeIfAbsent(file.getAbsoluteFile(), f -> new Object());
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * @return number of entries in the log.
+   */
+  int getEntries() {
+    return entries;
+  }
+
+  /**
+   * Appends an offset change, a null offset removes the entity.
+   */
+  void append(String entity, String offset) throws IOException {
+    byte[] entityBytes = entity.getBytes(StandardCharsets.UTF_8);
+    byte[] offsetBytes = (offset == null) ? null : offset.getBytes(StandardCharsets.UTF_8);
+    int payloadSize = 1 + 4 + entityBytes.length + ((offsetBytes == null) ? 0 : 4 + offsetBytes.length);
+
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+    buffer.putInt(payloadSize);
+    buffer.putInt(0);
+    buffer.put((offsetBytes == null) ? REMOVE : PUT);
+    buffer.putInt(entityBytes.length);
+    buffer.put(entityBytes);
+    if (offsetBytes != null) {
+      buffer.putInt(offsetBytes.length);
+      buffer.put(offsetBytes);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), HEADER_SIZE, payloadSize);
+    buffer.putInt(4, (int) crc.getValue());
+    buffer.flip();
+
+    try (FileChannel channel = FileChannel.open(
+        file.toPath(),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND
+    )) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      entries++;
+      unsynced++;
+      long now = System.currentTimeMillis();
+      if (unsynced >= syncBatches || now - lastSync >= syncIntervalMillis) {
+        channel.force(false);
+        unsynced = 0;
+        lastSync = now;
+      }
+    }
+  }
+
+  /**
+   * Deletes the log, to be called once the offsets it holds are in the offset file.
+   */
+  void delete() throws IOException {
+    delete(file);
+    entries = 0;
+    unsynced = 0;
+  }
+
+  static void delete(File file) throws IOException {
+    Files.deleteIfExists(file.toPath());
+  }
+
+  /**
+   * Applies the entries of the log to the given offsets.
+   *
+   * @return number of entries applied.
+   */
+  static int apply(File file, Map<String, String> offsets) throws IOException {
+    return replay(file, offsets).entries;
+  }
+
+  private static Replay replay(File file, Map<String, String> offsets) throws IOException {
+    Replay replay = new Replay();
+    try (InputStream is = Files.newInputStream(file.toPath())) {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(is));
+      CRC32 crc = new CRC32();
+      while (true) {
+        int payloadSize;
+        int checksum;
+        byte[] payload;
+        try {
+          payloadSize = in.readInt();
+          checksum = in.readInt();
+          if (payloadSize <= 0 || payloadSize > file.length()) {
+            break;
+          }
+          payload = new byte[payloadSize];
+          in.readFully(payload);
+        } catch (EOFException ex) {
+          break;
+        }
+        crc.reset();
+        crc.update(payload, 0, payloadSize);
+        if ((int) crc.getValue() != checksum) {
+          break;
+        }
+        if (offsets != null) {
+          applyEntry(ByteBuffer.wrap(payload), offsets);
+        }
+        replay.entries++;
+        replay.length += HEADER_SIZE + payloadSize;
+      }
+    } catch (NoSuchFileException ex) {
+      // no offsets were committed since the offset file was written
+    }
+    return replay;
+  }
+
+  private static void applyEntry(ByteBuffer payload, Map<String, String> offsets) {
+    byte op = payload.get();
+    String entity = readString(payload);
+    if (op == PUT) {
+      offsets.put(entity, readString(payload));
+    } else {
+      offsets.remove(entity);
+    }
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return value;
+  }
+
+  private static class Replay {
+    int entries;
+    long length;
+  }
+
+}
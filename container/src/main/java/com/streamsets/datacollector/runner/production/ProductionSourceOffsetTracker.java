@@ -18,35 +18,65 @@ package com.streamsets.datacollector.runner.production;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.runner.SourceOffsetTracker;
 
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Offset tracker that keeps the offsets in the pipeline offset file.
+ * <p/>
+ * Committed offsets are appended to an offset log rather than rewriting the whole offset file for every batch, the
+ * offset file is rewritten (compacted) once the log has enough entries and when the tracker is closed. Readers of the
+ * offset file apply the log.
+ */
 public class ProductionSourceOffsetTracker implements SourceOffsetTracker {
 
   private static final Logger LOG = LoggerFactory.getLogger(ProductionSourceOffsetTracker.class);
+
+  public static final String OFFSET_LOG_SYNC_BATCHES_KEY = "pipeline.offset.log.sync.batches";
+  public static final int OFFSET_LOG_SYNC_BATCHES_DEFAULT = 100;
+  public static final String OFFSET_LOG_SYNC_INTERVAL_MS_KEY = "pipeline.offset.log.sync.interval.ms";
+  public static final long OFFSET_LOG_SYNC_INTERVAL_MS_DEFAULT = 1000;
+  public static final String OFFSET_LOG_COMPACTION_ENTRIES_KEY = "pipeline.offset.log.compaction.entries";
+  public static final int OFFSET_LOG_COMPACTION_ENTRIES_DEFAULT = 10000;
+
   private Map<String, String> offsets;
   private volatile long lastBatchTime;
   private boolean finished;
   private final String pipelineName;
   private final String rev;
   private final RuntimeInfo runtimeInfo;
+  private final int compactionEntries;
+  private final OffsetLog offsetLog;
+
+  public ProductionSourceOffsetTracker(String pipelineName, String rev, RuntimeInfo runtimeInfo) {
+    this(pipelineName, rev, runtimeInfo, new Configuration());
+  }
 
   @Inject
   public ProductionSourceOffsetTracker(
       @Named("name") String pipelineName,
       @Named("rev") String rev,
-      RuntimeInfo runtimeInfo
+      RuntimeInfo runtimeInfo,
+      Configuration configuration
   ) {
     this.pipelineName = pipelineName;
     this.rev = rev;
     this.runtimeInfo = runtimeInfo;
+    this.compactionEntries = configuration.get(OFFSET_LOG_COMPACTION_ENTRIES_KEY, OFFSET_LOG_COMPACTION_ENTRIES_DEFAULT);
+    this.offsetLog = new OffsetLog(
+        OffsetFileUtil.getPipelineOffsetLogFile(runtimeInfo, pipelineName, rev),
+        configuration.get(OFFSET_LOG_SYNC_BATCHES_KEY, OFFSET_LOG_SYNC_BATCHES_DEFAULT),
+        configuration.get(OFFSET_LOG_SYNC_INTERVAL_MS_KEY, OFFSET_LOG_SYNC_INTERVAL_MS_DEFAULT)
+    );
     this.offsets = new HashMap<>(getSourceOffset(pipelineName, rev));
   }
 
@@ -79,8 +109,16 @@ public class ProductionSourceOffsetTracker implements SourceOffsetTracker {
         offsets.put(entity, newOffset);
       }
 
-      // Finally write new variant of the offset file
-      saveOffset(pipelineName, rev, offsets);
+      // Finally record the change in the offset log, folding the log into the offset file when it gets too long
+      try {
+        offsetLog.append(entity, newOffset);
+      } catch (IOException e) {
+        LOG.error("Failed to save offset {} for entity {}. Reason {}", newOffset, entity, e.toString(), e);
+        throw new IllegalStateException(e);
+      }
+      if (offsetLog.getEntries() >= compactionEntries) {
+        OffsetFileUtil.compactOffsets(runtimeInfo, pipelineName, rev, offsets, offsetLog);
+      }
     }
   }
 
@@ -95,11 +133,30 @@ public class ProductionSourceOffsetTracker implements SourceOffsetTracker {
 
   @Override
   public void resetOffset() {
-    OffsetFileUtil.resetOffsets(runtimeInfo, pipelineName, rev);
+    synchronized (offsets) {
+      OffsetFileUtil.resetOffsets(runtimeInfo, pipelineName, rev);
+      // the log was dropped with the offsets, there is nothing left to compact
+      try {
+        offsetLog.delete();
+      } catch (IOException e) {
+        LOG.error("Failed to delete offset log '{}'. Reason {}", offsetLog.getFile(), e.toString(), e);
+        throw new IllegalStateException(e);
+      }
+    }
   }
 
-  private void saveOffset(String pipelineName, String rev, Map<String, String> offset) {
-    OffsetFileUtil.saveOffsets(runtimeInfo, pipelineName, rev, offset);
+  @Override
+  public void close() {
+    // Leave a compact offset file behind a stopped pipeline, the log is still applied if this fails
+    synchronized (offsets) {
+      if (offsetLog.getEntries() > 0) {
+        try {
+          OffsetFileUtil.compactOffsets(runtimeInfo, pipelineName, rev, offsets, offsetLog);
+        } catch (IllegalStateException e) {
+          LOG.warn("Failed to compact offset log '{}'. Reason {}", offsetLog.getFile(), e.toString(), e);
+        }
+      }
+    }
   }
 
   @Override
@@ -17,6 +17,7 @@ package com.streamsets.datacollector.el;
 
 import com.streamsets.datacollector.definition.ConcreteELDefinitionExtractor;
 import com.streamsets.datacollector.definition.ELDefinitionExtractor;
+import com.streamsets.datacollector.util.ContainerCommonError;
 import com.streamsets.pipeline.api.ElConstant;
 import com.streamsets.pipeline.api.ElFunction;
 import com.streamsets.pipeline.api.el.ELEval;
@@ -128,6 +129,89 @@ public class TestELEvaluator {
     }
   }
 
+  @Test
+  public void testCompiledExpression() throws ELEvalException {
+    ELEvaluator elEval = new ELEvaluator("testCompiledExpression", false, elDefinitionExtractor, ValidTestEl.class);
+    ELExpression expression = elEval.compile("${x + 1}");
+    Assert.assertFalse(expression.isConstant());
+    Assert.assertSame(expression, elEval.compile("${x + 1}"));
+
+    ELVars variables = elEval.createVariables();
+    for (int i = 0; i < 3; i++) {
+      variables.addVariable("x", i);
+      Assert.assertEquals(i + 1, (long) expression.evaluate(variables, Long.class));
+      Assert.assertEquals(String.valueOf(i + 1), elEval.eval(variables, "${x + 1}", String.class));
+    }
+
+    Assert.assertFalse(elEval.compile("${location:city()}").isConstant());
+    Assert.assertFalse(elEval.compile("${CITY}").isConstant());
+  }
+
+  @Test
+  public void testConstantExpression() throws ELEvalException {
+    ELEvaluator elEval = new ELEvaluator("testConstantExpression", false, elDefinitionExtractor, ValidTestEl.class);
+    ELVars variables = elEval.createVariables();
+
+    ELExpression expression = elEval.compile("${2 * 3}");
+    Assert.assertTrue(expression.isConstant());
+    Assert.assertEquals(6, (int) expression.evaluate(variables, Integer.class));
+    Assert.assertEquals("6", expression.evaluate(variables, String.class));
+
+    expression = elEval.compile("plain text");
+    Assert.assertTrue(expression.isConstant());
+    Assert.assertEquals("plain text", expression.evaluate(variables, String.class));
+
+    expression = elEval.compile("a${1 < 2 ? 'b' : 'c'}${-(1)}");
+    Assert.assertTrue(expression.isConstant());
+    Assert.assertEquals("ab-1", expression.evaluate(variables, String.class));
+
+    Assert.assertFalse(elEval.compile("${1 < 2 ? x : 'c'}").isConstant());
+    Assert.assertFalse(elEval.compile("a${x.y}").isConstant());
+    Assert.assertFalse(elEval.compile("${'abc'[x]}").isConstant());
+  }
+
+  @Test
+  public void testVariablesAreNotKeptAfterEvaluation() throws ELEvalException {
+    ELEvaluator elEval = new ELEvaluator("testVariablesAreNotKept", false, elDefinitionExtractor, ValidTestEl.class);
+    ELVars variables = elEval.createVariables();
+    variables.addVariable("x", 1);
+    Assert.assertEquals(2, (long) elEval.eval(variables, "${x + 1}", Long.class));
+    try {
+      elEval.eval(elEval.createVariables(), "${x + 1}", Long.class);
+      Assert.fail("ELEvalException expected as the variable is not defined");
+    } catch (ELEvalException e) {
+      Assert.assertEquals(ContainerCommonError.CTRCMN_0100, e.getErrorCode());
+    }
+  }
+
+  @Test
+  public void testRecentlyUsedExpressionsAreCompiledOnce() throws ELEvalException {
+    ELEvaluator elEval = new ELEvaluator("testRecentlyUsed", false, elDefinitionExtractor, ValidTestEl.class);
+    for (int i = 0; i < 2000; i++) {
+      elEval.compile("${x + " + i + "}");
+    }
+    // new expressions are still cached once there are more than can be kept
+    ELExpression expression = elEval.compile("${x + 2000}");
+    Assert.assertSame(expression, elEval.compile("${x + 2000}"));
+  }
+
+  @Test
+  public void testCompileInvalidExpression() throws ELEvalException {
+    ELEvaluator elEval = new ELEvaluator("testCompileInvalidExpression", false, elDefinitionExtractor);
+    try {
+      elEval.compile("${location:city() eq }");
+      Assert.fail("ELEvalException expected as the EL string is not valid");
+    } catch (ELEvalException e) {
+      Assert.assertEquals(ContainerCommonError.CTRCMN_0101, e.getErrorCode());
+    }
+    try {
+      elEval.eval(elEval.createVariables(), "${unknown}", String.class);
+      Assert.fail("ELEvalException expected as the variable is not defined");
+    } catch (ELEvalException e) {
+      Assert.assertEquals(ContainerCommonError.CTRCMN_0100, e.getErrorCode());
+    }
+  }
+
   public static class ValidTestEl {
 
     @ElConstant(name = "CITY", description = "Declares the CITY constant to be 'San Francisco'")
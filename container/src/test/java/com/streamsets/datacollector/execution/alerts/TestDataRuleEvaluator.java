@@ -18,7 +18,6 @@ package com.streamsets.datacollector.execution.alerts;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
-import com.google.common.collect.EvictingQueue;
 import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.alerts.AlertsUtil;
 import com.streamsets.datacollector.config.DataRuleDefinition;
@@ -29,7 +28,7 @@ import com.streamsets.datacollector.definition.ConcreteELDefinitionExtractor;
 import com.streamsets.datacollector.el.ELEvaluator;
 import com.streamsets.datacollector.el.ELVariables;
 import com.streamsets.datacollector.execution.EventListenerManager;
-import com.streamsets.datacollector.execution.runner.common.SampledRecord;
+import com.streamsets.datacollector.execution.runner.common.SampledRecordBuffer;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
 import com.streamsets.datacollector.main.StandaloneRuntimeInfo;
@@ -291,7 +290,7 @@ public class TestDataRuleEvaluator {
   private void evaluateRule(DataRuleEvaluator dataRuleEvaluator, String lane) {
     dataRuleEvaluator.evaluateRule(TestUtil.createSnapshot(lane, dataRuleEvaluator.getDataRuleDefinition().getId())
       .get(LaneResolver.getPostFixedLaneForObserver(lane)).get(dataRuleEvaluator.getDataRuleDefinition().getId()),
-      lane, new HashMap<String,EvictingQueue<SampledRecord>>());
+      lane, new HashMap<String, SampledRecordBuffer>());
   }
 
   @Test
@@ -348,7 +347,7 @@ public class TestDataRuleEvaluator {
 
     ArgumentCaptor<DataRuleDefinition> captor = ArgumentCaptor.forClass(DataRuleDefinition.class);
 
-    dataRuleEvaluator.evaluateRule(records, "lane", new HashMap<String, EvictingQueue<SampledRecord>>());
+    dataRuleEvaluator.evaluateRule(records, "lane", new HashMap<String, SampledRecordBuffer>());
     Mockito.verify(alertManager).alert(
         Mockito.any(Object.class),
         Mockito.any(),
@@ -132,4 +132,29 @@ public class TestProductionObserver {
     System.out.println("Records for rule myID4 : " + ruleIdToSampledRecordsSize.get(ID + 4));
     System.out.println("Records for rule myID5 : " + ruleIdToSampledRecordsSize.get(ID + 5));*/
   }
+
+  @Test
+  public void testGetSampledRecordsSubset() {
+    long timestamp = System.currentTimeMillis();
+    List<DataRuleDefinition> dataRuleDefinitions = new ArrayList<>();
+    dataRuleDefinitions.add(new DataRuleDefinition(ID+1, "myRule", LANE + "::s", 30 /*Sampling %*/, 5,
+      "${record:value(\"/name\")==null}", true, "alertText", ThresholdType.COUNT, "2", 5, true, false, true,
+      timestamp));
+    dataRuleDefinitions.add(new DataRuleDefinition(ID+2, "myRule", LANE + "::s", 20 /*Sampling %*/, 5,
+      "${record:value(\"/name\")==null}", true, "alertText", ThresholdType.COUNT, "2", 5, true, false, true,
+      timestamp));
+
+    List<Record> allRecords = TestUtil.createRecords(200);
+
+    Map<String, List<Record>> sampleRecords = productionObserver.getSampleRecords(dataRuleDefinitions, allRecords,
+      LANE);
+
+    Assert.assertEquals(60, sampleRecords.get(ID + 1).size());
+    Assert.assertEquals(40, sampleRecords.get(ID + 2).size());
+    // rules with lower percentage share the clones of the rule with the highest percentage
+    for (Record record : sampleRecords.get(ID + 2)) {
+      Assert.assertTrue(sampleRecords.get(ID + 1).stream().anyMatch(r -> r == record));
+      Assert.assertFalse(allRecords.stream().anyMatch(r -> r == record));
+    }
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestSampledRecordBuffer {
+
+  private static List<SampledRecord> createSampledRecords(int count) {
+    List<SampledRecord> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      records.add(new SampledRecord(Mockito.mock(Record.class), i % 2 == 0));
+    }
+    return records;
+  }
+
+  @Test
+  public void testEviction() {
+    List<SampledRecord> records = createSampledRecords(7);
+    SampledRecordBuffer buffer = new SampledRecordBuffer(5);
+    Assert.assertEquals(0, buffer.size());
+    Assert.assertTrue(buffer.getRecords().isEmpty());
+
+    buffer.addAll(records.subList(0, 3));
+    Assert.assertEquals(3, buffer.size());
+    Assert.assertEquals(records.subList(0, 3), buffer.getRecords());
+
+    buffer.addAll(records.subList(3, 7));
+    Assert.assertEquals(5, buffer.size());
+    Assert.assertEquals(records.subList(2, 7), buffer.getRecords());
+    Assert.assertEquals(records.subList(2, 4), buffer.getRecords(2));
+  }
+
+  @Test
+  public void testClear() {
+    List<SampledRecord> records = createSampledRecords(4);
+    SampledRecordBuffer buffer = new SampledRecordBuffer(3);
+    buffer.addAll(records.subList(0, 3));
+    buffer.clear();
+    Assert.assertEquals(0, buffer.size());
+    Assert.assertTrue(buffer.getRecords().isEmpty());
+
+    buffer.add(records.get(3));
+    Assert.assertEquals(1, buffer.size());
+    Assert.assertEquals(records.subList(3, 4), buffer.getRecords());
+  }
+
+  @Test
+  public void testZeroCapacity() {
+    SampledRecordBuffer buffer = new SampledRecordBuffer(0);
+    buffer.addAll(createSampledRecords(2));
+    Assert.assertEquals(0, buffer.capacity());
+    Assert.assertEquals(0, buffer.size());
+    Assert.assertTrue(buffer.getRecords().isEmpty());
+  }
+
+}
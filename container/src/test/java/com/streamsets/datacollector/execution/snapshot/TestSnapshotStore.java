@@ -15,10 +15,13 @@
  */
 package com.streamsets.datacollector.execution.snapshot;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotDataPager;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.datacollector.runner.ErrorSink;
 import com.streamsets.datacollector.runner.EventSink;
@@ -30,6 +33,7 @@ import com.streamsets.pipeline.api.Record;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -227,6 +231,39 @@ public abstract class TestSnapshotStore {
 
   }
 
+  @Test
+  public void testAppendBatches() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL, false);
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotData());
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotData());
+    Assert.assertTrue(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+    Assert.assertNull(snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).getOutput());
+
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, 0, ImmutableList.of(createSnapshotData()));
+    Assert.assertFalse(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+
+    JsonNode batches;
+    try (InputStream data = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).getOutput()) {
+      batches = ObjectMapperFactory.get().readTree(data).get("snapshotBatches");
+    }
+    Assert.assertEquals(3, batches.size());
+    for (JsonNode batch : batches) {
+      Assert.assertEquals(2, batch.size());
+      Assert.assertEquals("source", batch.get(0).get("instanceName").asText());
+      Assert.assertEquals(2, batch.get(0).get("output").get("lane").size());
+    }
+
+    // a single stage of a single batch
+    ByteArrayOutputStream page = new ByteArrayOutputStream();
+    try (InputStream data = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).getOutput()) {
+      new SnapshotDataPager(ObjectMapperFactory.get(), 2, "processor").copy(data, page);
+    }
+    batches = ObjectMapperFactory.get().readTree(page.toByteArray()).get("snapshotBatches");
+    Assert.assertEquals(1, batches.size());
+    Assert.assertEquals(1, batches.get(0).size());
+    Assert.assertEquals("processor", batches.get(0).get(0).get("instanceName").asText());
+  }
+
   private List<List<StageOutput>> getSnapshotData() throws Exception {
     List<List<StageOutput>> snapshotBatches = new ArrayList<>();
     snapshotBatches.add(createSnapshotData());
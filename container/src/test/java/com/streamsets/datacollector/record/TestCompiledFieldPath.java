@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestCompiledFieldPath {
+
+  private static RecordImpl createRecord() {
+    RecordImpl record = new RecordImpl("stage", "source", null, null);
+    Map<String, Field> map = new LinkedHashMap<>();
+    map.put("a", Field.create("A"));
+    map.put("l", Field.create(new ArrayList<>(ImmutableList.of(Field.create(1), Field.create(2)))));
+    LinkedHashMap<String, Field> listMap = new LinkedHashMap<>();
+    listMap.put("x", Field.create("X"));
+    listMap.put("y", Field.create("Y"));
+    map.put("lm", Field.createListMap(listMap));
+    map.put("we'ird", Field.create("W"));
+    record.set(Field.create(map));
+    return record;
+  }
+
+  @Test
+  public void testGetAndHas() {
+    RecordImpl record = createRecord();
+    Assert.assertSame(record.get(), CompiledFieldPath.compile("").get(record));
+    Assert.assertSame(record.get(), CompiledFieldPath.compile("/").get(record));
+    Assert.assertEquals("A", CompiledFieldPath.compile("/a").get(record).getValueAsString());
+    Assert.assertEquals(2, CompiledFieldPath.compile("/l[1]").get(record).getValueAsInteger());
+    Assert.assertEquals("Y", CompiledFieldPath.compile("/lm[1]").get(record).getValueAsString());
+    Assert.assertEquals("Y", CompiledFieldPath.compile("/lm/y").get(record).getValueAsString());
+    Assert.assertEquals("W", CompiledFieldPath.compile("/'we\\'ird'").get(record).getValueAsString());
+
+    Assert.assertTrue(CompiledFieldPath.compile("/l").has(record));
+    Assert.assertFalse(CompiledFieldPath.compile("/l[2]").has(record));
+    Assert.assertFalse(CompiledFieldPath.compile("/a/b").has(record));
+    Assert.assertFalse(CompiledFieldPath.compile("/missing").has(record));
+    Assert.assertNull(CompiledFieldPath.compile("/lm[5]").get(record));
+  }
+
+  @Test
+  public void testConsistentWithRecord() {
+    RecordImpl record = createRecord();
+    for (String path : record.getEscapedFieldPaths()) {
+      CompiledFieldPath compiled = CompiledFieldPath.compile(path);
+      Assert.assertSame(path, record.get(path), compiled.get(record));
+      Assert.assertSame(path, record.get(path), record.get(compiled));
+    }
+  }
+
+  @Test
+  public void testParent() {
+    RecordImpl record = createRecord();
+    Assert.assertNull(CompiledFieldPath.compile("/").getParent(record));
+    Assert.assertSame(record.get(), CompiledFieldPath.compile("/a").getParent(record));
+    Assert.assertSame(record.get("/l"), CompiledFieldPath.compile("/l[0]").getParent(record));
+  }
+
+  @Test
+  public void testSetAndDelete() {
+    RecordImpl record = createRecord();
+    CompiledFieldPath path = CompiledFieldPath.compile("/b");
+    Assert.assertNull(path.set(record, Field.create("B")));
+    Assert.assertEquals("B", path.get(record).getValueAsString());
+    Assert.assertEquals("B", path.delete(record).getValueAsString());
+    Assert.assertFalse(path.has(record));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWildcardNotSupported() {
+    CompiledFieldPath.compile("/l[*]");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPath() {
+    CompiledFieldPath.compile("a");
+  }
+}
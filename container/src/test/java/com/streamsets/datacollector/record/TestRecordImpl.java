@@ -729,4 +729,62 @@ public class TestRecordImpl {
     Assert.assertEquals(fieldNames, ImmutableSet.of("", "string", "map", "inner", "list"));
 
   }
+
+  @Test
+  public void testCloneCopyOnWrite() {
+    RecordImpl record = new RecordImpl("stage", "source", null, null);
+    Map<String, Field> inner = new LinkedHashMap<>();
+    inner.put("a", Field.create("A"));
+    inner.put("b", Field.create("B"));
+    Map<String, Field> root = new LinkedHashMap<>();
+    root.put("inner", Field.create(inner));
+    root.put("other", Field.create(new LinkedHashMap<>(ImmutableMap.of("c", Field.create("C")))));
+    root.put("list", Field.create(new ArrayList<>(ImmutableList.of(Field.create(0), Field.create(1)))));
+    record.set(Field.create(root));
+    record.getHeader().setAttribute("h", "1");
+
+    RecordImpl clone = record.cloneCopyOnWrite();
+    Assert.assertEquals(record, clone);
+    Assert.assertTrue(clone.isFieldsShared());
+    // nothing has been copied yet
+    Assert.assertSame(record.get(), clone.get());
+    Assert.assertSame(record.get("/inner"), clone.get("/inner"));
+
+    clone.set("/inner/a", Field.create("X"));
+    clone.delete("/list[0]");
+    clone.getHeader().setAttribute("h", "2");
+
+    Assert.assertEquals("A", record.get("/inner/a").getValueAsString());
+    Assert.assertEquals("X", clone.get("/inner/a").getValueAsString());
+    Assert.assertEquals(2, record.get("/list").getValueAsList().size());
+    Assert.assertEquals(1, clone.get("/list").getValueAsList().size());
+    Assert.assertEquals("1", record.getHeader().getAttribute("h"));
+    Assert.assertEquals("2", clone.getHeader().getAttribute("h"));
+    // untouched paths are still shared
+    Assert.assertSame(record.get("/other"), clone.get("/other"));
+    Assert.assertSame(record.get("/inner/b"), clone.get("/inner/b"));
+
+    // the original record must copy on write as well
+    record.set("/other/c", Field.create("Y"));
+    Assert.assertEquals("C", clone.get("/other/c").getValueAsString());
+    Assert.assertEquals("Y", record.get("/other/c").getValueAsString());
+  }
+
+  @Test
+  public void testCloneCopyOnWriteListMap() {
+    RecordImpl record = new RecordImpl("stage", "source", null, null);
+    LinkedHashMap<String, Field> inner = new LinkedHashMap<>();
+    inner.put("a", Field.create("A"));
+    LinkedHashMap<String, Field> root = new LinkedHashMap<>();
+    root.put("first", Field.create("F"));
+    root.put("inner", Field.createListMap(inner));
+    record.set(Field.createListMap(root));
+
+    RecordImpl clone = record.cloneCopyOnWrite();
+    clone.set("[1]/b", Field.create("B"));
+
+    Assert.assertFalse(record.has("/inner/b"));
+    Assert.assertTrue(clone.has("/inner/b"));
+    Assert.assertEquals(ImmutableList.of("first", "inner"), new ArrayList<>(clone.get().getValueAsListMap().keySet()));
+  }
 }
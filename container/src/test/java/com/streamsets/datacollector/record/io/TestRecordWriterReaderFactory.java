@@ -20,11 +20,13 @@ import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.datacollector.record.io.RecordEncoding;
 import com.streamsets.datacollector.record.io.RecordEncodingConstants;
 import com.streamsets.datacollector.record.io.RecordWriterReaderFactory;
+import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.ext.RecordReader;
 import com.streamsets.pipeline.api.ext.RecordWriter;
+import com.streamsets.pipeline.api.impl.ErrorMessage;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -36,6 +38,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -86,6 +89,7 @@ public  class TestRecordWriterReaderFactory {
     testEncodingSelection(null, RecordEncodingConstants.JSON1_MAGIC_NUMBER);
     testEncodingSelection(RecordEncoding.JSON1.name(), RecordEncodingConstants.JSON1_MAGIC_NUMBER);
     testEncodingSelection(RecordEncoding.KRYO1.name(), RecordEncodingConstants.KRYO1_MAGIC_NUMBER);
+    testEncodingSelection(RecordEncoding.KRYO2.name(), RecordEncodingConstants.KRYO2_MAGIC_NUMBER);
   }
 
   private void testRecordWriterReader(RecordEncoding encoding) throws IOException {
@@ -204,6 +208,11 @@ public  class TestRecordWriterReaderFactory {
     testRecordWriterReader(RecordEncoding.KRYO1);
   }
 
+  @Test
+  public void testKryo2RecordWriter() throws IOException {
+    testRecordWriterReader(RecordEncoding.KRYO2);
+  }
+
   @Test
   public void testJsonRecorWithOffset() throws IOException {
     testRecordReaderWithOffset(RecordEncoding.JSON1);
@@ -214,6 +223,68 @@ public  class TestRecordWriterReaderFactory {
     testRecordReaderWithOffset(RecordEncoding.KRYO1);
   }
 
+  @Test
+  public void testKryo2RecordWithOffset() throws IOException {
+    testRecordReaderWithOffset(RecordEncoding.KRYO2);
+  }
+
+  @Test
+  public void testKryo2AllFieldTypes() throws IOException {
+    Date date = new Date();
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    RecordWriter writer = RecordWriterReaderFactory.createRecordWriter(RecordEncoding.KRYO2, os);
+    RecordImpl record1 = new RecordImpl("stage", "source", new byte[] { 0, 1, 2}, "mode");
+    record1.getHeader().setAttribute("attr", "value");
+    record1.getHeader().setError("stage", "label", new ErrorMessage(ContainerError.CONTAINER_0001, "error"));
+    record1.setInitialRecord(false);
+    Map<String, Field> map = new HashMap<>();
+    map.put("boolean", Field.create(true));
+    map.put("char", Field.create('c'));
+    map.put("byte", Field.create((byte) 1));
+    map.put("short", Field.create((short) -2));
+    map.put("int", Field.create(-3));
+    map.put("long", Field.create(Long.MAX_VALUE));
+    map.put("float", Field.create(1.5f));
+    map.put("double", Field.create(-2.5d));
+    map.put("date", Field.create(Field.Type.DATE, date));
+    map.put("datetime", Field.create(Field.Type.DATETIME, date));
+    map.put("time", Field.create(Field.Type.TIME, date));
+    map.put("decimal", Field.create(new BigDecimal("-36.7147")));
+    map.put("string", Field.create("Hello"));
+    map.put("bytes", Field.create(new byte[] { 3, 4}));
+    map.put("nullString", Field.create(Field.Type.STRING, null));
+    map.put("list", Field.create(Arrays.asList(Field.create(1), Field.create("2"))));
+    record1.set(Field.create(map));
+    writer.write(record1);
+    RecordImpl record2 = new RecordImpl("stage2", "source2", null, null);
+    record2.set(Field.create("Hello"));
+    writer.write(record2);
+    writer.close();
+
+    byte[] bytes = os.toByteArray();
+    Kryo2RecordReader reader =
+        (Kryo2RecordReader) RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(bytes), 0, 0);
+    Record record = reader.readRecord();
+    Assert.assertEquals(record1, record);
+    Assert.assertEquals("value", record.getHeader().getAttribute("attr"));
+    Assert.assertEquals(record1.getHeader().getErrorTimestamp(), record.getHeader().getErrorTimestamp());
+    Assert.assertFalse(((RecordImpl) record).isInitialRecord());
+    Assert.assertEquals(Field.Type.DATE, record.get("/date").getType());
+    Assert.assertEquals(date, record.get("/time").getValueAsTime());
+    Assert.assertEquals(new BigDecimal("-36.7147"), record.get("/decimal").getValueAsDecimal());
+    Assert.assertNull(record.get("/nullString").getValue());
+    Assert.assertEquals(record2, reader.readRecord());
+    Assert.assertNull(reader.readRecord());
+    reader.close();
+
+    // skipping records
+    reader = (Kryo2RecordReader) RecordWriterReaderFactory.createRecordReader(new ByteArrayInputStream(bytes), 0, 0);
+    Assert.assertTrue(reader.skipRecord());
+    Assert.assertEquals(record2, reader.readRecord());
+    Assert.assertFalse(reader.skipRecord());
+    reader.close();
+  }
+
   @Test
   public void testDecimal() throws IOException {
     // We've picked this number because if it's casted to double, then it will lead to 36.7147000000000000483...
@@ -17,10 +17,15 @@ package com.streamsets.datacollector.runner;
 
 import com.streamsets.datacollector.record.EventRecordImpl;
 import com.streamsets.datacollector.record.RecordImpl;
+import com.google.common.collect.ImmutableMap;
 import com.streamsets.pipeline.api.EventRecord;
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import org.junit.Test;
 
+import java.util.LinkedHashMap;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 
@@ -28,6 +33,7 @@ public class RecordClonerTest {
 
   private static final RecordCloner clone = new RecordCloner(false);
   private static final RecordCloner ref = new RecordCloner(true);
+  private static final RecordCloner copyOnWrite = new RecordCloner(false, true);
 
   @Test
   public void testRecordClone() {
@@ -42,4 +48,20 @@ public class RecordClonerTest {
     assertSame(record, ref.cloneEventIfNeeded(record));
     assertNotSame(record, clone.cloneEventIfNeeded(record));
   }
+
+  @Test
+  public void testCopyOnWriteClone() {
+    Record record = new RecordImpl("a", "b", null, null);
+    record.set(Field.create(new LinkedHashMap<>(ImmutableMap.of("a", Field.create("A")))));
+    Record cloned = copyOnWrite.cloneRecordIfNeeded(record);
+    assertNotSame(record, cloned);
+    assertSame(record.get(), cloned.get());
+
+    cloned.set("/a", Field.create("B"));
+    assertEquals("A", record.get("/a").getValueAsString());
+    assertEquals("B", cloned.get("/a").getValueAsString());
+
+    EventRecord event = new EventRecordImpl("type", 0, "a", "b", null, null);
+    assertNotSame(event, copyOnWrite.cloneEventIfNeeded(event));
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TestLaneIndex {
+
+  @Test
+  public void testRegister() {
+    LaneIndex index = new LaneIndex();
+    Assert.assertEquals(0, index.register("a"));
+    Assert.assertEquals(1, index.register("b"));
+    Assert.assertEquals(0, index.register("a"));
+    Assert.assertArrayEquals(new int[] {1, 2, 0}, index.register(ImmutableList.of("b", "c", "a")));
+    Assert.assertEquals(3, index.size());
+    Assert.assertEquals("c", index.getLane(2));
+    Assert.assertEquals(2, index.getSlot("c"));
+    Assert.assertEquals(-1, index.getSlot("unknown"));
+  }
+
+  @Test
+  public void testPayload() {
+    LaneIndex index = new LaneIndex();
+    index.register("a");
+    LanePayload payload = new LanePayload(index);
+    List<Record> records = ImmutableList.of(new RecordImpl("s", "id", null, null));
+
+    // present without records behaves like a null value in a map
+    payload.put("a", null);
+    Assert.assertTrue(payload.contains("a"));
+    Assert.assertNull(payload.get("a"));
+
+    payload.put("a", records);
+    Assert.assertSame(records, payload.get("a"));
+
+    // lanes unknown to the index are added on write
+    payload.put("b", Collections.emptyList());
+    Assert.assertEquals(1, index.getSlot("b"));
+    Assert.assertFalse(payload.contains("c"));
+    Assert.assertNull(payload.remove("c"));
+
+    Map<String, List<Record>> map = payload.asMap();
+    Assert.assertEquals(2, map.size());
+    Assert.assertSame(records, map.get("a"));
+
+    Assert.assertSame(records, payload.remove("a"));
+    Assert.assertFalse(payload.contains("a"));
+
+    payload.putIfAbsent(index.getSlot("a"), records);
+    Assert.assertSame(records, payload.get("a"));
+    payload.putIfAbsent(index.getSlot("a"), Collections.emptyList());
+    Assert.assertSame(records, payload.get("a"));
+  }
+}
@@ -22,6 +22,13 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class TestRunnerPool {
 
   private RunnerPool<String> runnerPool;
@@ -73,13 +80,71 @@ public class TestRunnerPool {
     Assert.assertEquals("b", runnerPool.getRunner());
 
     // Same order as last time with the same time spacing - but this time we will ask for runner with more idle time
-    // then we waiting, the order should not change.
+    // then we waiting. This thread gets back the runner it used last ("b") first, then the oldest one.
     runnerPool.returnRunner("a");
     Thread.sleep(10);
     runnerPool.returnRunner("b");
 
     Assert.assertNull(runnerPool.getIdleRunner(60*60*1000));
-    Assert.assertEquals("a", runnerPool.getRunner());
     Assert.assertEquals("b", runnerPool.getRunner());
+    Assert.assertEquals("a", runnerPool.getRunner());
+  }
+
+  @Test
+  public void testThreadAffinity() throws Exception {
+    String runner = runnerPool.getRunner();
+    runnerPool.returnRunner(runner);
+    Assert.assertEquals(runner, runnerPool.getRunner());
+    runnerPool.returnRunner(runner);
+
+    // Another thread gets the runner that was returned the longest time ago
+    List<String> otherRunners = new ArrayList<>();
+    Thread thread = new Thread(() -> {
+      try {
+        String other = runnerPool.getRunner();
+        otherRunners.add(other);
+        runnerPool.returnRunner(other);
+      } catch (PipelineRuntimeException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    thread.start();
+    thread.join();
+    Assert.assertEquals(1, otherRunners.size());
+    Assert.assertNotEquals(runner, otherRunners.get(0));
+
+    // While this thread still gets its own runner back
+    Assert.assertEquals(runner, runnerPool.getRunner());
+    runnerPool.returnRunner(runner);
+    runnerPool.destroy();
+  }
+
+  @Test
+  public void testConcurrentCheckout() throws Exception {
+    Set<String> inUse = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    AtomicBoolean failed = new AtomicBoolean(false);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      threads.add(new Thread(() -> {
+        try {
+          for (int j = 0; j < 1000; j++) {
+            String runner = runnerPool.getRunner();
+            if (!inUse.add(runner)) {
+              failed.set(true);
+            }
+            inUse.remove(runner);
+            runnerPool.returnRunner(runner);
+          }
+        } catch (PipelineRuntimeException e) {
+          failed.set(true);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertFalse(failed.get());
+    runnerPool.destroy();
   }
 }
@@ -18,7 +18,10 @@ package com.streamsets.datacollector.runner.production;
 import com.codahale.metrics.MetricRegistry;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.StandaloneRuntimeInfo;
+import com.streamsets.datacollector.restapi.bean.SourceOffsetJson;
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import com.streamsets.pipeline.api.Source;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -35,7 +38,10 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
 
 public class TestProductionSourceOffsetTracker {
   private static Logger LOG = LoggerFactory.getLogger(TestProductionSourceOffsetTracker.class);
@@ -44,6 +50,7 @@ public class TestProductionSourceOffsetTracker {
   private static final String PIPELINE_REV = "2.0";
 
   private static ProductionSourceOffsetTracker offsetTracker;
+  private static RuntimeInfo info;
 
   @BeforeClass
   public static void beforeClass() throws IOException {
@@ -64,7 +71,7 @@ public class TestProductionSourceOffsetTracker {
 
   @Before
   public void createOffsetTracker() throws Exception {
-    RuntimeInfo info = new StandaloneRuntimeInfo(
+    info = new StandaloneRuntimeInfo(
         RuntimeInfo.SDC_PRODUCT,
         RuntimeModule.SDC_PROPERTY_PREFIX,
         new MetricRegistry(),
@@ -114,4 +121,91 @@ public class TestProductionSourceOffsetTracker {
     Assert.assertEquals(0, offsetTracker.getOffsets().size());
   }
 
+  @Test
+  public void testOffsetsAreReadBackFromLog() throws Exception {
+    offsetTracker.commitOffset("a", "1");
+    offsetTracker.commitOffset("b", "2");
+    offsetTracker.commitOffset("a", null);
+    offsetTracker.commitOffset("b", "3");
+
+    File offsetLogFile = OffsetFileUtil.getPipelineOffsetLogFile(info, PIPELINE_NAME, PIPELINE_REV);
+    Assert.assertTrue(offsetLogFile.exists());
+    Assert.assertEquals("3", OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV).get("b"));
+    SourceOffsetJson exported = ObjectMapperFactory.get().readValue(
+        OffsetFileUtil.getSourceOffset(info, PIPELINE_NAME, PIPELINE_REV),
+        SourceOffsetJson.class
+    );
+    Assert.assertEquals(Collections.singletonMap("b", "3"), exported.getOffsets());
+
+    ProductionSourceOffsetTracker tracker = new ProductionSourceOffsetTracker(PIPELINE_NAME, PIPELINE_REV, info);
+    Assert.assertEquals(1, tracker.getOffsets().size());
+    Assert.assertEquals("3", tracker.getOffsets().get("b"));
+
+    // resetting the offsets drops the log too
+    tracker.resetOffset();
+    Assert.assertFalse(offsetLogFile.exists());
+    Assert.assertTrue(OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV).isEmpty());
+  }
+
+  @Test
+  public void testLogCompaction() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.set(ProductionSourceOffsetTracker.OFFSET_LOG_COMPACTION_ENTRIES_KEY, 2);
+    ProductionSourceOffsetTracker tracker =
+        new ProductionSourceOffsetTracker(PIPELINE_NAME, PIPELINE_REV, info, configuration);
+    File offsetLogFile = OffsetFileUtil.getPipelineOffsetLogFile(info, PIPELINE_NAME, PIPELINE_REV);
+
+    tracker.commitOffset("a", "1");
+    Assert.assertTrue(offsetLogFile.exists());
+    tracker.commitOffset("b", "2");
+    Assert.assertFalse(offsetLogFile.exists());
+    tracker.commitOffset("a", "3");
+    Assert.assertTrue(offsetLogFile.exists());
+
+    Map<String, String> offsets = OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV);
+    Assert.assertEquals(2, offsets.size());
+    Assert.assertEquals("3", offsets.get("a"));
+    Assert.assertEquals("2", offsets.get("b"));
+  }
+
+  @Test
+  public void testIncompleteLogEntryIsDropped() throws Exception {
+    offsetTracker.commitOffset("a", "1");
+    File offsetLogFile = OffsetFileUtil.getPipelineOffsetLogFile(info, PIPELINE_NAME, PIPELINE_REV);
+    long length = offsetLogFile.length();
+    // as left by a crash in the middle of an append
+    Files.write(offsetLogFile.toPath(), new byte[] {0, 0, 0, 20, 1, 2}, StandardOpenOption.APPEND);
+    Assert.assertEquals("1", OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV).get("a"));
+
+    ProductionSourceOffsetTracker tracker = new ProductionSourceOffsetTracker(PIPELINE_NAME, PIPELINE_REV, info);
+    Assert.assertEquals(length, offsetLogFile.length());
+    tracker.commitOffset("a", "2");
+    Assert.assertEquals("2", OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV).get("a"));
+  }
+
+  @Test
+  public void testLogIsCompactedOnClose() throws Exception {
+    offsetTracker.commitOffset("a", "1");
+    offsetTracker.commitOffset("b", "2");
+    File offsetLogFile = OffsetFileUtil.getPipelineOffsetLogFile(info, PIPELINE_NAME, PIPELINE_REV);
+    Assert.assertTrue(offsetLogFile.exists());
+
+    offsetTracker.close();
+    Assert.assertFalse(offsetLogFile.exists());
+    SourceOffsetJson snapshot = ObjectMapperFactory.get().readValue(
+        OffsetFileUtil.getPipelineOffsetFile(info, PIPELINE_NAME, PIPELINE_REV),
+        SourceOffsetJson.class
+    );
+    Assert.assertEquals(2, snapshot.getOffsets().size());
+    Assert.assertEquals("1", snapshot.getOffsets().get("a"));
+    Assert.assertEquals("2", snapshot.getOffsets().get("b"));
+
+    // nothing to compact after a reset
+    offsetTracker.commitOffset("a", "3");
+    offsetTracker.resetOffset();
+    offsetTracker.close();
+    Assert.assertFalse(offsetLogFile.exists());
+    Assert.assertTrue(OffsetFileUtil.getOffsets(info, PIPELINE_NAME, PIPELINE_REV).isEmpty());
+  }
+
 }
@@ -35,7 +35,11 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -45,6 +49,13 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public class DirectorySpooler {
   private static final Logger LOG = LoggerFactory.getLogger(DirectorySpooler.class);
   private static final String PENDING_FILES = "pending.files";
+  private static final int MAX_SCAN_THREADS = 8;
+  // directory modification times may have a coarse resolution (2 seconds on FAT), a directory modified within that
+  // window before a listing may still get new entries without changing its modification time
+  private static final long DIRECTORY_TIME_RESOLUTION_MILLIS = 2000;
+  // unchanged directories are listed again after this number of spooling periods anyway, to pick up files modified in
+  // place when ordering by last modified timestamp
+  private static final int DIRECTORY_INDEX_TTL_PERIODS = 12;
 
   private final PushSource.Context context;
   private final String spoolDir;
@@ -59,6 +70,7 @@ public class DirectorySpooler {
   private final Comparator<WrappedFile> pathComparator;
   protected final boolean processSubdirectories;
   private final long spoolingPeriodSec;
+  private final long directoryIndexTtlMillis;
   protected final WrappedFileSystem fs;
   protected final ReadWriteLock closeLock = new ReentrantReadWriteLock();
 
@@ -267,6 +279,7 @@ public class DirectorySpooler {
     this.useLastModified = useLastModified;
     this.processSubdirectories = processSubdirectories;
     this.spoolingPeriodSec = spoolingPeriodSec;
+    this.directoryIndexTtlMillis = DIRECTORY_INDEX_TTL_PERIODS * TimeUnit.SECONDS.toMillis(spoolingPeriodSec);
     this.fs = fs;
 
     pathComparator = fs.getComparator(useLastModified);
@@ -280,7 +293,12 @@ public class DirectorySpooler {
   private WrappedFile archiveDirPath;
   private WrappedFile errorArchiveDirPath;
   protected PriorityBlockingQueue<WrappedFile> filesQueue;
+  // same files as filesQueue, PriorityBlockingQueue.contains() is linear
+  private Set<WrappedFile> queuedFiles;
   private ScheduledExecutorService scheduledExecutor;
+  private ForkJoinPool scanPool;
+  // modification time of the directories when they were last listed, unchanged directories are not listed again
+  private final Map<String, IndexedDirectory> directoryIndex = new ConcurrentHashMap<>();
   private boolean waitForPathAppearance;
 
   protected Meter spoolQueueMeter;
@@ -312,6 +330,7 @@ public class DirectorySpooler {
 
       // 11 is the DEFAULT_INITIAL_CAPACITY -- seems pretty random, but lets use the same one.
       filesQueue = new PriorityBlockingQueue<>(11, pathComparator);
+      queuedFiles = ConcurrentHashMap.newKeySet();
       filesBeingProcessed = ConcurrentHashMap.newKeySet();
 
       if(StringUtils.isEmpty(sourceFile)) {
@@ -329,6 +348,7 @@ public class DirectorySpooler {
         // Adding initialFile to the filesQueue as it is not added later due to thread safety
         if (fs.exists(initialFile)) {
           filesQueue.add(initialFile);
+          queuedFiles.add(initialFile);
         }
       }
 
@@ -371,6 +391,7 @@ public class DirectorySpooler {
     running = true;
 
     scheduledExecutor = new SafeScheduledExecutorService(1, "directory-dirspooler");
+    scanPool = new ForkJoinPool(Math.min(Runtime.getRuntime().availableProcessors(), MAX_SCAN_THREADS));
 
     findAndQueueFiles(true, false);
 
@@ -396,6 +417,10 @@ public class DirectorySpooler {
         scheduledExecutor.shutdownNow();
         scheduledExecutor = null;
       }
+      if (scanPool != null) {
+        scanPool.shutdownNow();
+        scanPool = null;
+      }
     } catch (RuntimeException ex) {
       LOG.warn("Error during scheduledExecutor.shutdownNow(), {}", ex.toString(), ex);
     }
@@ -531,12 +556,14 @@ public class DirectorySpooler {
       }
     }
 
-    if (!filesQueue.contains(file) && !filesBeingProcessed.contains(file)) {
+    if (!queuedFiles.contains(file) && !filesBeingProcessed.contains(file)) {
       if (currentFile != null) {
         if (fs.compare(file, currentFile, useLastModified) > 0) {
+          queuedFiles.add(file);
           filesQueue.add(file);
         }
       } else {
+        queuedFiles.add(file);
         filesQueue.add(file);
       }
       spoolQueueMeter.mark(filesQueue.size());
@@ -595,7 +622,10 @@ public class DirectorySpooler {
           currentFile = next;
         }
 
-        filesQueue.poll();
+        WrappedFile polled = filesQueue.poll();
+        if (polled != null) {
+          queuedFiles.remove(polled);
+        }
 
         closeLock.readLock().unlock();
       }
@@ -671,11 +701,31 @@ public class DirectorySpooler {
       directories.add(spoolDirPath);
     }
 
+    final long scanTime = System.currentTimeMillis();
+    final List<WrappedFile> changedDirectories = new ArrayList<>();
     for (WrappedFile dir : directories) {
-      try {
-        List<WrappedFile> matchingFile = new ArrayList<>();
+      if (isUnchanged(dir, scanTime)) {
+        LOG.trace("Skipping directory '{}', it has not changed since it was last listed", dir);
+      } else {
+        changedDirectories.add(dir);
+      }
+    }
+
+    // several directories are listed in parallel, their files are queued in directory order
+    List<Future<List<WrappedFile>>> listings = null;
+    ForkJoinPool pool = scanPool;
+    if (pool != null && changedDirectories.size() > 1) {
+      listings = new ArrayList<>(changedDirectories.size());
+      for (WrappedFile dir : changedDirectories) {
+        listings.add(pool.submit(() -> listFiles(dir, includeStartingFile, scanTime)));
+      }
+    }
 
-        fs.addFiles(dir, this.currentFile, matchingFile, includeStartingFile, useLastModified);
+    for (int i = 0; i < changedDirectories.size(); i++) {
+      try {
+        List<WrappedFile> matchingFile = (listings != null)
+            ? listings.get(i).get()
+            : listFiles(changedDirectories.get(i), includeStartingFile, scanTime);
 
         if (matchingFile.size() > 0) {
           try {
@@ -706,6 +756,17 @@ public class DirectorySpooler {
       } catch(IOException ex) {
         LOG.error("findAndQueueFiles(): newDirectoryStream failed. " + ex.getMessage(), ex);
         destroy(ex);
+      } catch (ExecutionException ex) {
+        Exception cause = (ex.getCause() instanceof Exception) ? (Exception) ex.getCause() : ex;
+        LOG.error("findAndQueueFiles(): newDirectoryStream failed. " + cause.getMessage(), cause);
+        destroy(cause);
+      } catch (InterruptedException | CancellationException ex) {
+        // the spooler is being destroyed
+        LOG.debug("Listing of files interrupted");
+        if (ex instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+        }
+        return;
       }
     }
 
@@ -714,6 +775,56 @@ public class DirectorySpooler {
     LOG.debug("Found '{}' files", filesQueue.size());
   }
 
+  private List<WrappedFile> listFiles(WrappedFile dir, boolean includeStartingFile, long scanTime)
+      throws IOException {
+    // taken before listing, so that changes made while listing are seen as changes by the next scan
+    long modifiedTime = getModifiedTime(dir);
+    List<WrappedFile> matchingFile = new ArrayList<>();
+    boolean skippedNewFiles = fs.addFiles(dir, this.currentFile, matchingFile, includeStartingFile, useLastModified);
+    // files skipped because they are still being written don't change the directory once they are complete
+    if (!skippedNewFiles && modifiedTime > 0 && modifiedTime < scanTime - DIRECTORY_TIME_RESOLUTION_MILLIS) {
+      directoryIndex.put(dir.getAbsolutePath(), new IndexedDirectory(modifiedTime, scanTime));
+    } else {
+      directoryIndex.remove(dir.getAbsolutePath());
+    }
+    return matchingFile;
+  }
+
+  /**
+   * Adding, removing or renaming files changes the modification time of their directory, a directory that has the
+   * same modification time than when it was last listed has no new files.
+   */
+  private boolean isUnchanged(WrappedFile dir, long scanTime) {
+    IndexedDirectory indexed = directoryIndex.get(dir.getAbsolutePath());
+    if (indexed == null || scanTime - indexed.listedAt > directoryIndexTtlMillis) {
+      return false;
+    }
+    return getModifiedTime(dir) == indexed.modifiedTime;
+  }
+
+  private long getModifiedTime(WrappedFile dir) {
+    if (SpoolDirUtil.isGlobPattern(dir.getAbsolutePath())) {
+      return -1;
+    }
+    try {
+      // a new instance, as file instances may cache their metadata
+      return fs.getLastModifiedTime(fs.getFile(dir.getAbsolutePath()));
+    } catch (IOException | RuntimeException ex) {
+      LOG.debug("Could not get modification time of directory '{}': {}", dir, ex.toString(), ex);
+      return -1;
+    }
+  }
+
+  private static class IndexedDirectory {
+    private final long modifiedTime;
+    private final long listedAt;
+
+    private IndexedDirectory(long modifiedTime, long listedAt) {
+      this.modifiedTime = modifiedTime;
+      this.listedAt = listedAt;
+    }
+  }
+
   class FileFinder implements Runnable {
 
     public FileFinder(){
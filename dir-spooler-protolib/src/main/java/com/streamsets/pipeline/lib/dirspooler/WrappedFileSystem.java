@@ -73,12 +73,16 @@ public interface WrappedFileSystem {
   boolean isDirectory(WrappedFile filePath);
 
   /**
-   * Tells whether or not the file exists.
+   * Adds the files of the directory that match the pattern and were last modified before the listing started.
    *
-   * @param filePath {@link WrappedFile}
-   * @return  {@code true} if, and only if, the file exists
+   * @param archiveDirPath {@link WrappedFile} directory to list
+   * @param startingFile {@link WrappedFile} files at or before this one are not added
+   * @param toProcess list the matching files are added to
+   * @param includeStartingFile whether the starting file itself is added
+   * @param useLastModified whether files are ordered by last modified timestamp rather than by name
+   * @return  {@code true} if matching files were skipped because they were modified after the listing started
    */
-  void addFiles(WrappedFile archiveDirPath, WrappedFile startingFile, List<WrappedFile> toProcess, boolean includeStartingFile, boolean useLastModified) throws IOException;
+  boolean addFiles(WrappedFile archiveDirPath, WrappedFile startingFile, List<WrappedFile> toProcess, boolean includeStartingFile, boolean useLastModified) throws IOException;
 
   /**
    * Tells whether or not the file exists.
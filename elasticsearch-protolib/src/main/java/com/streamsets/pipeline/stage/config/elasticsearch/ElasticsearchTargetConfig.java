@@ -165,4 +165,29 @@ public class ElasticsearchTargetConfig extends ElasticsearchConfig {
       group = "ELASTIC_SEARCH"
   )
   public String rawAdditionalProperties;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Bulk Request Size (MB)",
+      description = "Batches are sent in as many bulk requests of up to this size as needed",
+      defaultValue = "10",
+      min = 1,
+      displayPosition = 130,
+      group = "ELASTIC_SEARCH"
+  )
+  public int maxBulkRequestSizeMB = 10;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Concurrent Bulk Requests",
+      description = "Number of bulk requests of a batch sent in parallel. When greater than 1, operations on the " +
+          "same document in a batch may be applied out of order",
+      defaultValue = "1",
+      min = 1,
+      displayPosition = 140,
+      group = "ELASTIC_SEARCH"
+  )
+  public int maxConcurrentBulkRequests = 1;
 }
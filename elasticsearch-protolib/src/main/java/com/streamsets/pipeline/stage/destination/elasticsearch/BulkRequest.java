@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.elasticsearch;
+
+import com.streamsets.pipeline.api.Record;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Body of a bulk API request, written as NDJSON bytes straight into a buffer that is kept and reused for the next
+ * batches, together with the record of each item.
+ * <p/>
+ * The byte range of every item is tracked so that single items can be sent again in a new request.
+ */
+class BulkRequest {
+  private final Buffer body = new Buffer();
+  private final List<Record> records = new ArrayList<>();
+  private int[] itemOffsets = new int[64];
+  private int itemStart = -1;
+
+  void reset() {
+    body.reset();
+    records.clear();
+    itemStart = -1;
+  }
+
+  boolean isEmpty() {
+    return records.isEmpty();
+  }
+
+  /**
+   * Size of the body in bytes.
+   */
+  int size() {
+    return body.size();
+  }
+
+  int getItemCount() {
+    return records.size();
+  }
+
+  Record getRecord(int item) {
+    return records.get(item);
+  }
+
+  /**
+   * Starts writing an item, its action and document are written with {@link #write(String)}
+   * and to {@link #getOutputStream()}.
+   */
+  void startItem() {
+    itemStart = body.size();
+  }
+
+  void endItem(Record record) {
+    if (records.size() == itemOffsets.length) {
+      itemOffsets = Arrays.copyOf(itemOffsets, itemOffsets.length * 2);
+    }
+    itemOffsets[records.size()] = itemStart;
+    records.add(record);
+    itemStart = -1;
+  }
+
+  /**
+   * Discards whatever was written for the current item.
+   */
+  void cancelItem() {
+    if (itemStart >= 0) {
+      body.truncate(itemStart);
+      itemStart = -1;
+    }
+  }
+
+  void write(String str) {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    body.write(bytes, 0, bytes.length);
+  }
+
+  OutputStream getOutputStream() {
+    return body;
+  }
+
+  /**
+   * Removes the line separator the JSON generator writes after a record, documents must be on a single line.
+   */
+  void trimTrailingNewLines() {
+    int size = body.size();
+    while (size > 0 && (body.byteAt(size - 1) == '\n' || body.byteAt(size - 1) == '\r')) {
+      size--;
+    }
+    body.truncate(size);
+  }
+
+  /**
+   * Appends a copy of an item of another request.
+   */
+  void addItem(BulkRequest other, int item) {
+    int start = other.itemOffsets[item];
+    int end = (item + 1 < other.records.size()) ? other.itemOffsets[item + 1] : other.body.size();
+    startItem();
+    body.write(other.body.buffer(), start, end - start);
+    endItem(other.records.get(item));
+  }
+
+  HttpEntity toEntity() {
+    return new ByteArrayEntity(body.buffer(), 0, body.size(), ContentType.APPLICATION_JSON);
+  }
+
+  @Override
+  public String toString() {
+    return new String(body.buffer(), 0, body.size(), StandardCharsets.UTF_8);
+  }
+
+  private static class Buffer extends ByteArrayOutputStream {
+
+    byte[] buffer() {
+      return buf;
+    }
+
+    byte byteAt(int index) {
+      return buf[index];
+    }
+
+    void truncate(int size) {
+      count = size;
+    }
+  }
+
+}
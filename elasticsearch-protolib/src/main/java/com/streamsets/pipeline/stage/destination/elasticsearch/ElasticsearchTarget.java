@@ -16,10 +16,11 @@
 package com.streamsets.pipeline.stage.destination.elasticsearch;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.gson.JsonArray;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.ErrorCode;
 import com.streamsets.pipeline.api.Record;
@@ -47,15 +48,13 @@ import com.streamsets.pipeline.stage.config.elasticsearch.ElasticsearchTargetCon
 import com.streamsets.pipeline.stage.config.elasticsearch.Errors;
 import com.streamsets.pipeline.stage.config.elasticsearch.Groups;
 import org.apache.commons.lang.StringUtils;
-import org.apache.http.HttpEntity;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
 import org.elasticsearch.client.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
@@ -66,9 +65,16 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class ElasticsearchTarget extends BaseTarget {
   private static final Logger LOG = LoggerFactory.getLogger(ElasticsearchTarget.class);
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final int MAX_BULK_RETRIES = 3;
+  private static final long BULK_RETRY_BACK_OFF_MS = 100;
   private final ElasticsearchTargetConfig conf;
   private ELEval timeDriverEval;
   private TimeZone timeZone;
@@ -85,6 +91,9 @@ public class ElasticsearchTarget extends BaseTarget {
   private static final Pattern elVarPattern = Pattern.compile(".*\\$\\{.*:.*\\(.*\\)\\}.*");
   private String additionalProperties;
   private boolean additionalPropertiesIsEval;
+  private long maxBulkRequestSize;
+  private final List<BulkRequest> bulkRequests = new ArrayList<>();
+  private ExecutorService bulkExecutor;
 
   public ElasticsearchTarget(ElasticsearchTargetConfig conf) {
     this.conf = conf;
@@ -240,11 +249,22 @@ public class ElasticsearchTarget extends BaseTarget {
         .setCharset(Charset.forName(conf.charset))
         .build();
 
+    maxBulkRequestSize = conf.maxBulkRequestSizeMB * 1024L * 1024L;
+    if (issues.isEmpty() && conf.maxConcurrentBulkRequests > 1) {
+      bulkExecutor = Executors.newFixedThreadPool(
+          conf.maxConcurrentBulkRequests,
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Elasticsearch Bulk Writer %d").build()
+      );
+    }
+
     return issues;
   }
 
   @Override
   public void destroy() {
+    if (bulkExecutor != null) {
+      bulkExecutor.shutdownNow();
+    }
     if(delegate != null) {
       delegate.destroy();
     }
@@ -277,15 +297,12 @@ public class ElasticsearchTarget extends BaseTarget {
     TimeNowEL.setTimeNowInContext(elVars, getBatchTime());
     Iterator<Record> it = batch.getRecords();
 
-    StringBuilder bulkRequest = new StringBuilder();
-
-    //we need to keep the records in order of appearance in case we have indexing errors
-    //and error handling is TO_ERROR
-    List<Record> records = new ArrayList<>();
+    // batches are split in bulk requests of up to the max size, the request buffers are reused across batches
+    List<BulkRequest> requests = new ArrayList<>();
+    BulkRequest request = nextBulkRequest(requests);
 
     while (it.hasNext()) {
       Record record = it.next();
-      records.add(record);
 
       try {
         RecordEL.setRecordInContext(elVars, record);
@@ -307,14 +324,9 @@ public class ElasticsearchTarget extends BaseTarget {
         if (additionalPropertiesIsEval) {
           additionalPropertiesName = additionalPropertiesEval.eval(elVars, additionalProperties, String.class);
         }
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataGenerator generator = generatorFactory.getGenerator(baos);
-        generator.write(record);
-        generator.close();
 
         int opCode = -1;
         String opType = record.getHeader().getAttribute(OperationType.SDC_OPERATION_TYPE);
-        String recordJson = new String(baos.toByteArray(), StandardCharsets.UTF_8).replace("\n", "");
         // Check if the operation code from header attribute is valid
         if (!StringUtils.isEmpty(opType)) {
           try {
@@ -349,8 +361,14 @@ public class ElasticsearchTarget extends BaseTarget {
           // No header attribute set. Use default.
           opCode = conf.defaultOperation.code;
         }
-        bulkRequest.append(getOperation(index, type, id, parent, routing, additionalPropertiesName, recordJson, opCode));
+        if (opCode != -1) {
+          writeOperation(request, index, type, id, parent, routing, additionalPropertiesName, record, opCode);
+          if (request.size() >= maxBulkRequestSize) {
+            request = nextBulkRequest(requests);
+          }
+        }
       } catch (IOException ex) {
+        request.cancelItem();
         errorRecordHandler.onError(new OnRecordErrorException(record,
             Errors.ELASTICSEARCH_15,
             record.getHeader().getSourceId(),
@@ -359,47 +377,144 @@ public class ElasticsearchTarget extends BaseTarget {
         ));
       }
     }
+    if (request.isEmpty()) {
+      requests.remove(requests.size() - 1);
+    }
+
+    if (!requests.isEmpty()) {
+      List<BulkResult> results = send(requests);
+
+      // Handle errors in bulk requests individually, in order of appearance of the records.
+      List<ErrorItem> errorItems = new ArrayList<>();
+      for (BulkResult result : results) {
+        if (result.exception != null) {
+          errorRecordHandler.onError(
+              result.failedRecords,
+              new StageException(
+                  Errors.ELASTICSEARCH_17,
+                  result.failedRecords.size(),
+                  result.exception.toString(),
+                  result.exception
+              )
+          );
+        }
+        errorItems.addAll(result.errorItems);
+      }
+      if (!errorItems.isEmpty()) {
+        switch (getContext().getOnErrorRecord()) {
+          case DISCARD:
+            break;
+          case TO_ERROR:
+            for (ErrorItem item : errorItems) {
+              getContext().toError(item.record, Errors.ELASTICSEARCH_16, item.record.getHeader().getSourceId(), item.reason);
+            }
+            break;
+          case STOP_PIPELINE:
+            throw new StageException(Errors.ELASTICSEARCH_17, errorItems.size(), "One or more operations failed");
+          default:
+            throw new IllegalStateException(Utils.format("Unknown OnError value '{}'", getContext().getOnErrorRecord()));
+        }
+      }
+    }
+  }
+
+  private BulkRequest nextBulkRequest(List<BulkRequest> requests) {
+    if (requests.size() == bulkRequests.size()) {
+      bulkRequests.add(new BulkRequest());
+    }
+    BulkRequest request = bulkRequests.get(requests.size());
+    request.reset();
+    requests.add(request);
+    return request;
+  }
+
+  /**
+   * Sends the bulk requests of a batch, in parallel if so configured.
+   *
+   * @return the result of every request, in the same order.
+   */
+  private List<BulkResult> send(List<BulkRequest> requests) throws StageException {
+    List<BulkResult> results = new ArrayList<>(requests.size());
+    if (bulkExecutor == null || requests.size() == 1) {
+      for (BulkRequest request : requests) {
+        results.add(sendWithRetries(request));
+      }
+    } else {
+      List<Future<BulkResult>> futures = new ArrayList<>(requests.size());
+      for (BulkRequest request : requests) {
+        futures.add(bulkExecutor.submit(() -> sendWithRetries(request)));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          results.add(futures.get(i).get());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new StageException(Errors.ELASTICSEARCH_17, requests.get(i).getItemCount(), ex.toString(), ex);
+        } catch (ExecutionException ex) {
+          throw new StageException(
+              Errors.ELASTICSEARCH_17,
+              requests.get(i).getItemCount(),
+              ex.getCause().toString(),
+              ex.getCause()
+          );
+        }
+      }
+    }
+    return results;
+  }
 
-    if (!records.isEmpty()) {
+  /**
+   * Sends a bulk request. Items rejected because the cluster is overloaded are sent again, in a new request holding
+   * only those items, after a back off. Other failed items are not retried.
+   */
+  private BulkResult sendWithRetries(BulkRequest request) {
+    BulkResult result = new BulkResult();
+    BulkRequest pending = request;
+    for (int attempt = 0; ; attempt++) {
+      List<ErrorItem> errorItems;
       try {
-        HttpEntity entity = new StringEntity(bulkRequest.toString(), ContentType.APPLICATION_JSON);
-        Response response;
-        response = delegate.performRequest(
+        Response response = delegate.performRequest(
             "POST",
             "/_bulk",
             conf.params,
-            entity,
+            pending.toEntity(),
             delegate.getAuthenticationHeader(conf.securityConfig.securityUser.get())
         );
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        response.getEntity().writeTo(baos);
-        JsonObject json = new JsonParser().parse(baos.toString()).getAsJsonObject();
-        baos.close();
-
-        // Handle errors in bulk requests individually.
-        boolean errors = json.get("errors").getAsBoolean();
-        if (errors) {
-          List<ErrorItem> errorItems;
-          switch (getContext().getOnErrorRecord()) {
-            case DISCARD:
-              break;
-            case TO_ERROR:
-              errorItems = extractErrorItems(json);
-              for (ErrorItem item : errorItems) {
-                Record record = records.get(item.index);
-                getContext().toError(record, Errors.ELASTICSEARCH_16, record.getHeader().getSourceId(), item.reason);
-              }
-              break;
-            case STOP_PIPELINE:
-              errorItems = extractErrorItems(json);
-              throw new StageException(Errors.ELASTICSEARCH_17, errorItems.size(), "One or more operations failed");
-            default:
-              throw new IllegalStateException(Utils.format("Unknown OnError value '{}'", getContext().getOnErrorRecord()));
-          }
+        try (InputStream is = response.getEntity().getContent()) {
+          errorItems = extractErrorItems(pending, is);
         }
       } catch (IOException ex) {
-        errorRecordHandler.onError( records, new StageException(Errors.ELASTICSEARCH_17, records.size(), ex.toString(), ex));
+        result.exception = ex;
+        for (int i = 0; i < pending.getItemCount(); i++) {
+          result.failedRecords.add(pending.getRecord(i));
+        }
+        return result;
+      }
+
+      BulkRequest retry = new BulkRequest();
+      for (ErrorItem item : errorItems) {
+        if (item.status == TOO_MANY_REQUESTS && attempt < MAX_BULK_RETRIES) {
+          retry.addItem(pending, item.index);
+        } else {
+          result.errorItems.add(item);
+        }
+      }
+      if (retry.isEmpty()) {
+        return result;
+      }
+      long backOff = BULK_RETRY_BACK_OFF_MS << attempt;
+      LOG.debug("'{}' bulk items rejected, retrying them in '{}' ms", retry.getItemCount(), backOff);
+      try {
+        Thread.sleep(backOff);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        result.exception = new IOException("Interrupted while retrying rejected bulk items", ex);
+        for (int i = 0; i < retry.getItemCount(); i++) {
+          result.failedRecords.add(retry.getRecord(i));
+        }
+        return result;
       }
+      pending = retry;
     }
   }
 
@@ -412,34 +527,53 @@ public class ElasticsearchTarget extends BaseTarget {
     return batchTime;
   }
 
-  private String getOperation( String index, String type, String id, String parent, String routing,
-      String additionalProperties, String record, int opCode) {
+  private void writeOperation(BulkRequest request, String index, String type, String id, String parent,
+      String routing, String additionalProperties, Record record, int opCode) throws IOException {
     StringBuilder op = new StringBuilder();
+    String docPrefix;
+    String docSuffix;
     switch (opCode) {
       case OperationType.UPSERT_CODE:
         getOperationMetadata("index", index, type, id, parent, routing, additionalProperties, op);
-        op.append(String.format("%s%n", record));
+        docPrefix = "";
+        docSuffix = "\n";
         break;
       case OperationType.INSERT_CODE:
         getOperationMetadata("create", index, type, id, parent, routing, additionalProperties, op);
-        op.append(String.format("%s%n", record));
+        docPrefix = "";
+        docSuffix = "\n";
         break;
       case OperationType.UPDATE_CODE:
         getOperationMetadata("update", index, type, id, parent, routing, additionalProperties, op);
-        op.append(String.format("{\"doc\":%s}%n", record));
+        docPrefix = "{\"doc\":";
+        docSuffix = "}\n";
         break;
       case OperationType.MERGE_CODE:
         getOperationMetadata("update", index, type, id, parent, routing, additionalProperties, op);
-        op.append(String.format("{\"doc_as_upsert\": \"true\", \"doc\":%s}%n", record));
+        docPrefix = "{\"doc_as_upsert\": \"true\", \"doc\":";
+        docSuffix = "}\n";
         break;
       case OperationType.DELETE_CODE:
         getOperationMetadata("delete", index, type, id, parent, routing, additionalProperties, op);
+        docPrefix = null;
+        docSuffix = null;
         break;
       default:
         LOG.error("Operation {} not supported", opCode);
         throw new UnsupportedOperationException(String.format("Unsupported Operation: %s", opCode));
     }
-    return op.toString();
+    request.startItem();
+    request.write(op.toString());
+    if (docPrefix != null) {
+      request.write(docPrefix);
+      // the record is serialized straight into the request body
+      try (DataGenerator generator = generatorFactory.getGenerator(request.getOutputStream())) {
+        generator.write(record);
+      }
+      request.trimTrailingNewLines();
+      request.write(docSuffix);
+    }
+    request.endItem(record);
   }
 
   private void getOperationMetadata( String operation, String index, String type, String id, String parent,
@@ -459,7 +593,7 @@ public class ElasticsearchTarget extends BaseTarget {
       String additionalProperties = addAdditionalProperties(additionalPropertiesValue);
       sb.append(additionalProperties);
     }
-    sb.append(String.format("}}%n"));
+    sb.append("}}\n");
   }
 
   @VisibleForTesting
@@ -474,34 +608,96 @@ public class ElasticsearchTarget extends BaseTarget {
     return sb.toString();
   }
 
-  private List<ErrorItem> extractErrorItems(JsonObject json) {
+  /**
+   * Streams through a bulk response, the items are only looked at if some failed.
+   */
+  @VisibleForTesting
+  static List<ErrorItem> extractErrorItems(BulkRequest request, InputStream response) throws IOException {
     List<ErrorItem> errorItems = new ArrayList<>();
-    JsonArray items = json.getAsJsonArray("items");
-    for (int i = 0; i < items.size(); i++) {
-      JsonObject item = items.get(i).getAsJsonObject().entrySet().iterator().next().getValue().getAsJsonObject();
-      int status = item.get("status").getAsInt();
-      if (status >= 400) {
-        Object error = item.get("error");
-        // In some old versions, "error" is a simple string not a json object.
-        if (error instanceof JsonObject) {
-          errorItems.add(new ErrorItem(i, item.getAsJsonObject("error").get("reason").getAsString()));
-        } else if (error instanceof JsonPrimitive) {
-          errorItems.add(new ErrorItem(i, item.getAsJsonPrimitive("error").getAsString()));
+    try (JsonReader reader = new JsonReader(new InputStreamReader(response, StandardCharsets.UTF_8))) {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        if ("errors".equals(name)) {
+          if (!reader.nextBoolean()) {
+            return errorItems;
+          }
+        } else if ("items".equals(name)) {
+          reader.beginArray();
+          for (int i = 0; reader.hasNext(); i++) {
+            ErrorItem item = readItem(reader, request, i);
+            if (item != null) {
+              errorItems.add(item);
+            }
+          }
+          reader.endArray();
         } else {
-          // Error would be null if json has no "error" field.
-          errorItems.add(new ErrorItem(i, ""));
+          reader.skipValue();
         }
       }
+      reader.endObject();
     }
     return errorItems;
   }
 
-  private static class ErrorItem {
-    int index;
-    String reason;
-    ErrorItem(int index, String reason) {
+  private static ErrorItem readItem(JsonReader reader, BulkRequest request, int index) throws IOException {
+    int status = 0;
+    String reason = "";
+    // {"<operation>": {"_index": ..., "status": ..., "error": ...}}
+    reader.beginObject();
+    while (reader.hasNext()) {
+      reader.nextName();
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        if ("status".equals(name)) {
+          status = reader.nextInt();
+        } else if ("error".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+          reason = readErrorReason(reader);
+        } else if ("error".equals(name) && reader.peek() == JsonToken.STRING) {
+          // In some old versions, "error" is a simple string not a json object.
+          reason = reader.nextString();
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+    }
+    reader.endObject();
+    return (status >= 400) ? new ErrorItem(index, request.getRecord(index), status, reason) : null;
+  }
+
+  private static String readErrorReason(JsonReader reader) throws IOException {
+    String reason = "";
+    reader.beginObject();
+    while (reader.hasNext()) {
+      if ("reason".equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+        reason = reader.nextString();
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return reason;
+  }
+
+  @VisibleForTesting
+  static class ErrorItem {
+    final int index;
+    final Record record;
+    final int status;
+    final String reason;
+    ErrorItem(int index, Record record, int status, String reason) {
       this.index = index;
+      this.record = record;
+      this.status = status;
       this.reason = reason;
     }
   }
+
+  private static class BulkResult {
+    final List<ErrorItem> errorItems = new ArrayList<>();
+    final List<Record> failedRecords = new ArrayList<>();
+    IOException exception;
+  }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.elasticsearch;
+
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class TestBulkRequest {
+
+  private static void addItem(BulkRequest request, Record record, String action, String doc) throws Exception {
+    request.startItem();
+    request.write(action);
+    request.getOutputStream().write(doc.getBytes(StandardCharsets.UTF_8));
+    request.trimTrailingNewLines();
+    request.write("\n");
+    request.endItem(record);
+  }
+
+  @Test
+  public void testItems() throws Exception {
+    Record r0 = Mockito.mock(Record.class);
+    Record r1 = Mockito.mock(Record.class);
+    Record r2 = Mockito.mock(Record.class);
+
+    BulkRequest request = new BulkRequest();
+    Assert.assertTrue(request.isEmpty());
+    addItem(request, r0, "{\"index\":{}}\n", "{\"a\":0}\n");
+    addItem(request, r1, "{\"index\":{}}\n", "{\"a\":1}\r\n");
+
+    // a failed item leaves nothing behind
+    request.startItem();
+    request.write("{\"index\":{}}\n{\"a\":");
+    request.cancelItem();
+
+    addItem(request, r2, "{\"index\":{}}\n", "{\"a\":2}");
+
+    Assert.assertEquals(3, request.getItemCount());
+    Assert.assertSame(r1, request.getRecord(1));
+    String body = "{\"index\":{}}\n{\"a\":0}\n{\"index\":{}}\n{\"a\":1}\n{\"index\":{}}\n{\"a\":2}\n";
+    Assert.assertEquals(body, request.toString());
+    Assert.assertEquals(body.length(), request.size());
+
+    BulkRequest retry = new BulkRequest();
+    retry.addItem(request, 2);
+    retry.addItem(request, 0);
+    Assert.assertEquals(2, retry.getItemCount());
+    Assert.assertSame(r2, retry.getRecord(0));
+    Assert.assertSame(r0, retry.getRecord(1));
+    Assert.assertEquals("{\"index\":{}}\n{\"a\":2}\n{\"index\":{}}\n{\"a\":0}\n", retry.toString());
+
+    request.reset();
+    Assert.assertTrue(request.isEmpty());
+    Assert.assertEquals(0, request.size());
+  }
+
+  @Test
+  public void testExtractErrorItems() throws Exception {
+    BulkRequest request = new BulkRequest();
+    for (int i = 0; i < 3; i++) {
+      addItem(request, Mockito.mock(Record.class), "{\"index\":{}}\n", "{}");
+    }
+
+    String response = "{\"took\":3,\"errors\":true,\"items\":[" +
+        "{\"index\":{\"_id\":\"1\",\"status\":201}}," +
+        "{\"index\":{\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\",\"reason\":\"busy\"}}}," +
+        "{\"index\":{\"status\":400,\"error\":\"invalid\"}}]}";
+    List<ElasticsearchTarget.ErrorItem> items = ElasticsearchTarget.extractErrorItems(
+        request,
+        new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8))
+    );
+    Assert.assertEquals(2, items.size());
+    Assert.assertEquals(1, items.get(0).index);
+    Assert.assertSame(request.getRecord(1), items.get(0).record);
+    Assert.assertEquals(429, items.get(0).status);
+    Assert.assertEquals("busy", items.get(0).reason);
+    Assert.assertEquals(2, items.get(1).index);
+    Assert.assertEquals(400, items.get(1).status);
+    Assert.assertEquals("invalid", items.get(1).reason);
+
+    response = "{\"took\":3,\"errors\":false,\"items\":[{\"index\":{\"status\":201}}]}";
+    Assert.assertTrue(ElasticsearchTarget.extractErrorItems(
+        request,
+        new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8))
+    ).isEmpty());
+  }
+}
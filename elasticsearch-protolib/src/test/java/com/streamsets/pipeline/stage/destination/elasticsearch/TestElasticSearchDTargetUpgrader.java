@@ -92,4 +92,13 @@ public class TestElasticSearchDTargetUpgrader {
         "elasticSearchConfig.rawAdditionalProperties"
     );
   }
+
+  @Test
+  public void testV10ToV11() throws StageException {
+    StageUpgrader upgrader = new ElasticsearchDTargetUpgrader();
+    List<Config> configs = createConfigs();
+    List<Config> newConfigs = upgrader.upgrade("library", "stageName", "stageInstance", 2, 11, configs);
+    UpgraderTestUtils.assertExists(newConfigs, "elasticSearchConfig.maxBulkRequestSizeMB", 10);
+    UpgraderTestUtils.assertExists(newConfigs, "elasticSearchConfig.maxConcurrentBulkRequests", 1);
+  }
 }
@@ -222,6 +222,7 @@ public class HBaseLookupProcessor extends BaseProcessor {
             e
         ));
       }
+      LookupUtils.validateCacheConfig(getContext(), Groups.LOOKUP.name(), "conf.cache.", conf.cache, issues);
       cache = LookupUtils.buildCache(store, conf.cache);
 
       cacheCleaner = new CacheCleaner(cache, "HBaseLookupProcessor", 10 * 60 * 1000);
@@ -249,6 +250,9 @@ public class HBaseLookupProcessor extends BaseProcessor {
   @Override
   public void destroy() {
     super.destroy();
+    if (cache != null) {
+      LookupUtils.closeCache(cache);
+    }
     if(store != null) {
       try {
         hbaseConnectionHelper.getUGI().doAs((PrivilegedExceptionAction<Void>) () -> {
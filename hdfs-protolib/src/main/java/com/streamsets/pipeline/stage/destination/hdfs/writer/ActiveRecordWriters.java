@@ -17,6 +17,7 @@ package com.streamsets.pipeline.stage.destination.hdfs.writer;
 
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -27,12 +28,15 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ActiveRecordWriters {
   private static final Logger LOG = LoggerFactory.getLogger(ActiveRecordWriters.class);
@@ -71,15 +75,29 @@ public class ActiveRecordWriters {
     }
   }
 
+  // writers for different paths are created, rolled and released independently, only writers whose paths hash to
+  // the same stripe contend
+  private static final int LOCK_STRIPES = 64;
+
   private final RecordWriterManager manager;
+  private final Lock[] pathLocks;
+  private final ScheduledThreadPoolExecutor idleCloseExecutor;
 
   @VisibleForTesting
   Map<String, RecordWriter> writers;
   private Queue<DelayedRecordWriter> cutOffQueue;
 
   public ActiveRecordWriters(RecordWriterManager manager) {
-    writers = new HashMap<>();
+    writers = new ConcurrentHashMap<>();
     cutOffQueue = new DelayQueue<>();
+    pathLocks = new Lock[LOCK_STRIPES];
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      pathLocks[i] = new ReentrantLock();
+    }
+    // a single thread closes idle writers for all the paths instead of one thread per writer
+    idleCloseExecutor = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("Idle Close Thread").build());
+    idleCloseExecutor.setRemoveOnCancelPolicy(true);
+    idleCloseExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
     this.manager = manager;
   }
 
@@ -87,21 +105,46 @@ public class ActiveRecordWriters {
     manager.commitOldFiles(fs);
   }
 
+  ScheduledThreadPoolExecutor getIdleCloseExecutor() {
+    return idleCloseExecutor;
+  }
+
+  //The locks always have to taken in the following order
+  //1. path lock and 2. RecordWriter (if we need both of them)
+  //or else we will get into a deadlock
+  //For Ex: idle close thread releases a writer
+  //and the hdfsTarget (in the pipeline runnable thread), rolls the same writer
+  void lock(String path) {
+    getPathLock(path).lock();
+  }
+
+  void unlock(String path) {
+    getPathLock(path).unlock();
+  }
+
+  private Lock getPathLock(String path) {
+    return pathLocks[(path.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+  }
+
   public void purge() throws IOException, StageException {
     if (IS_TRACE_ENABLED) {
       LOG.trace("Purge");
     }
     DelayedRecordWriter delayedWriter = cutOffQueue.poll();
     while (delayedWriter != null) {
-      if (!delayedWriter.getWriter().isClosed()) {
+      RecordWriter writer = delayedWriter.getWriter();
+      if (!writer.isClosed()) {
         if (IS_TRACE_ENABLED) {
-          LOG.trace("Purging '{}'", delayedWriter.getWriter().getPath());
+          LOG.trace("Purging '{}'", writer.getPath());
         }
-        //We are fine no lock on writer needed.
-        synchronized (this) {
-          writers.remove(delayedWriter.getWriter().getPath().toString());
+        String path = writer.getPath().toString();
+        lock(path);
+        try {
+          writers.remove(path, writer);
+          manager.commitWriter(writer);
+        } finally {
+          unlock(path);
         }
-        manager.commitWriter(delayedWriter.getWriter());
       }
       delayedWriter = cutOffQueue.poll();
     }
@@ -109,12 +152,7 @@ public class ActiveRecordWriters {
 
   public RecordWriter get(Date now, Date recordDate, Record record) throws StageException, IOException {
     String path = manager.getPath(recordDate, record).toString();
-    RecordWriter writer = null;
-
-    //We are fine no lock on writer needed.
-    synchronized (this) {
-      writer = writers.get(path);
-    }
+    RecordWriter writer = writers.get(path);
 
     if(writer != null && manager.shouldRoll(writer, record)) {
       release(writer, true);
@@ -122,18 +160,23 @@ public class ActiveRecordWriters {
     }
 
     if (writer == null) {
-      writer = manager.getWriter(now, recordDate, record);
-      if (writer != null) {
-        if (IS_TRACE_ENABLED) {
-          LOG.trace("Got '{}'", writer.getPath());
-        }
-        writer.setActiveRecordWriters(this);
-
-        //We are fine no lock on writer needed.
-        synchronized(this) {
-          writers.put(path, writer);
+      lock(path);
+      try {
+        // another thread may have created it in the meantime
+        writer = writers.get(path);
+        if (writer == null) {
+          writer = manager.getWriter(now, recordDate, record);
+          if (writer != null) {
+            if (IS_TRACE_ENABLED) {
+              LOG.trace("Got '{}'", writer.getPath());
+            }
+            writer.setActiveRecordWriters(this);
+            writers.put(path, writer);
+            cutOffQueue.add(new DelayedRecordWriter(writer));
+          }
         }
-        cutOffQueue.add(new DelayedRecordWriter(writer));
+      } finally {
+        unlock(path);
       }
     }
     return writer;
@@ -148,29 +191,38 @@ public class ActiveRecordWriters {
     return cutOffQueue.size();
   }
 
-  //The whole function is synchronized because
-  //the locks always have to taken in the following order
-  //1. ActiveRecordWriters and 2. RecordWriter (if we need both of them)
-  //or else we will get into a deadlock
-  //For Ex: idle close thread calls this method
-  //and the hdfsTarget (in the pipeline runnable thread), calls flushAll
-  public synchronized void release(RecordWriter writer, boolean roll) throws StageException, IOException {
-    writer.closeLock();
+  public void release(RecordWriter writer, boolean roll) throws StageException, IOException {
+    releaseWriter(writer, roll);
+    purge();
+  }
+
+  // called by the idle close thread, which already holds the path lock, purging here would take other path locks
+  void releaseIdleClosed(RecordWriter writer) throws StageException, IOException {
+    releaseWriter(writer, false);
+  }
+
+  private void releaseWriter(RecordWriter writer, boolean roll) throws StageException, IOException {
+    String path = writer.getPath().toString();
+    lock(path);
     try {
-      if (roll || writer.isIdleClosed() || manager.isOverThresholds(writer)) {
-        if (IS_TRACE_ENABLED) {
-          LOG.trace("Release '{}'", writer.getPath());
+      writer.closeLock();
+      try {
+        if (roll || writer.isIdleClosed() || manager.isOverThresholds(writer)) {
+          if (IS_TRACE_ENABLED) {
+            LOG.trace("Release '{}'", writer.getPath());
+          }
+          writers.remove(path, writer);
+          manager.commitWriter(writer);
         }
-        writers.remove(writer.getPath().toString());
-        manager.commitWriter(writer);
+      } finally {
+        writer.closeUnlock();
       }
     } finally {
-      writer.closeUnlock();
+      unlock(path);
     }
-    purge();
   }
 
-  public synchronized void flushAll() throws StageException {
+  public void flushAll() throws StageException {
     if (IS_TRACE_ENABLED) {
       LOG.trace("Flush all '{}'", toString());
     }
@@ -187,12 +239,14 @@ public class ActiveRecordWriters {
     }
   }
 
-  public synchronized void closeAll() throws StageException{
+  public void closeAll() throws StageException{
     if (IS_TRACE_ENABLED) {
       LOG.trace("Close all '{}'", toString());
     }
     if(writers != null) {
       for (RecordWriter writer : writers.values()) {
+        String path = writer.getPath().toString();
+        lock(path);
         writer.closeLock();
         try {
           if (!writer.isClosed()) {
@@ -203,9 +257,11 @@ public class ActiveRecordWriters {
           LOG.warn(msg, ex);
         } finally {
           writer.closeUnlock();
+          unlock(path);
         }
       }
     }
+    idleCloseExecutor.shutdown();
     writers = null;
     cutOffQueue = null;
   }
@@ -74,6 +74,7 @@ public class RecordWriter {
   private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
   private ScheduledThreadPoolExecutor idleCloseExecutor = new ScheduledThreadPoolExecutor(1,
       new ThreadFactoryBuilder().setNameFormat("Idle Close Thread").build());
+  private boolean ownIdleCloseExecutor = true;
 
   private RecordWriter(Path path, long timeToLiveMillis, DataGeneratorFactory generatorFactory) {
     this.expires = (timeToLiveMillis == Long.MAX_VALUE) ? timeToLiveMillis : System.currentTimeMillis() + timeToLiveMillis;
@@ -129,6 +130,10 @@ public class RecordWriter {
 
   void setActiveRecordWriters(ActiveRecordWriters writers) {
     this.writers = writers;
+    // idle closes are run by the thread shared by all the active writers
+    idleCloseExecutor.shutdown();
+    idleCloseExecutor = writers.getIdleCloseExecutor();
+    ownIdleCloseExecutor = false;
   }
 
   void closeLock() {
@@ -230,14 +235,19 @@ public class RecordWriter {
       this.idleClosed = idleClosed;
       // writers can never be null, except in tests
       if (idleClosed && writers != null) {
-        writers.release(this, false);
+        writers.releaseIdleClosed(this);
       }
     } finally {
       generator = null;
       seqWriter = null;
+      if (!ownIdleCloseExecutor && currentIdleCloseFuture != null) {
+        currentIdleCloseFuture.cancel(false);
+      }
       closeLock.writeLock().unlock();
-      //Gracefully Shutdown the thread, so rename goes through without glitch.
-      idleCloseExecutor.shutdown();
+      if (ownIdleCloseExecutor) {
+        //Gracefully Shutdown the thread, so rename goes through without glitch.
+        idleCloseExecutor.shutdown();
+      }
     }
   }
 
@@ -319,12 +329,16 @@ public class RecordWriter {
       try {
         if (writers != null) {
           //We are going to call close(true) which takes a lock on writers
-          //and then going to call writers.release() -> which will take a lock on
-          //ActiveRecordWriters
+          //and then going to call writers.releaseIdleClosed() -> which will take the
+          //path lock in ActiveRecordWriters
           //The ordering for locking both ActiveRecordWriters and RecordWriter is
-          //1.ActiveRecordWriters 2. RecordWriter
-          synchronized (writers) {
+          //1.ActiveRecordWriters path lock 2. RecordWriter
+          String lockPath = getPath().toString();
+          writers.lock(lockPath);
+          try {
             close(true);
+          } finally {
+            writers.unlock(lockPath);
           }
         } else {
           close(true);
@@ -33,6 +33,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
 import static com.streamsets.pipeline.lib.dirspooler.PathMatcherMode.GLOB;
@@ -99,8 +100,9 @@ public class HdfsFileSystem implements WrappedFileSystem {
     }
   }
 
-  public void addFiles(WrappedFile dirFile, WrappedFile startingFile, List<WrappedFile> toProcess, boolean includeStartingFile, boolean useLastModified) throws IOException {
+  public boolean addFiles(WrappedFile dirFile, WrappedFile startingFile, List<WrappedFile> toProcess, boolean includeStartingFile, boolean useLastModified) throws IOException {
     final long scanTime = System.currentTimeMillis();
+    final AtomicBoolean skippedNewFiles = new AtomicBoolean(false);
 
     PathFilter pathFilter = new PathFilter() {
       @Override
@@ -117,19 +119,19 @@ public class HdfsFileSystem implements WrappedFileSystem {
 
           HdfsFile hdfsFile = new HdfsFile(fs, entry);
           // SDC-3551: Pick up only files with mtime strictly less than scan time.
-          if (fileStatus.getModificationTime() < scanTime) {
-            if (startingFile == null || startingFile.toString().isEmpty()) {
-              toProcess.add(hdfsFile);
+          if (fileStatus.getModificationTime() >= scanTime) {
+            skippedNewFiles.set(true);
+          } else if (startingFile == null || startingFile.toString().isEmpty()) {
+            toProcess.add(hdfsFile);
+          } else {
+            int compares = compare(hdfsFile, startingFile, useLastModified);
+            if (includeStartingFile) {
+              if (compares >= 0) {
+                toProcess.add(hdfsFile);
+              }
             } else {
-              int compares = compare(hdfsFile, startingFile, useLastModified);
-              if (includeStartingFile) {
-                if (compares >= 0) {
-                  toProcess.add(hdfsFile);
-                }
-              } else {
-                if (compares > 0) {
-                  toProcess.add(hdfsFile);
-                }
+              if (compares > 0) {
+                toProcess.add(hdfsFile);
               }
             }
           }
@@ -141,6 +143,7 @@ public class HdfsFileSystem implements WrappedFileSystem {
     };
 
     fs.globStatus(new Path(dirFile.getAbsolutePath(), "*"), pathFilter);
+    return skippedNewFiles.get();
   }
 
   public void archiveFiles(WrappedFile archiveDirPath, List<WrappedFile> toProcess, long timeThreshold) throws IOException {
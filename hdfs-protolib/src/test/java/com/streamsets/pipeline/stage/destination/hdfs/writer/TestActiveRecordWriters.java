@@ -35,10 +35,15 @@ import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.spy;
@@ -215,6 +220,48 @@ public class TestActiveRecordWriters {
     Assert.assertEquals(0, files.length);
   }
 
+  @Test
+  public void testConcurrentGet() throws Exception {
+    RecordWriterManager mgr = new RecordWriterManagerTestBuilder()
+        .context(ContextInfoCreator.createTargetContext(HdfsDTarget.class, "testConcurrentGet", false, OnRecordError.TO_ERROR, null))
+        .dirPathTemplate(getTestDir().toString() + "/${record:value('/')}")
+        .build();
+
+    ActiveRecordWriters writers = new ActiveRecordWriters(mgr);
+
+    Date now = new Date();
+    int threads = 8;
+    int paths = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Map<String, RecordWriter>>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          Map<String, RecordWriter> got = new HashMap<>();
+          for (int p = 0; p < paths; p++) {
+            Record record = RecordCreator.create();
+            record.set(Field.create("p" + p));
+            got.put("p" + p, writers.get(now, now, record));
+          }
+          return got;
+        }));
+      }
+      Map<String, RecordWriter> expected = futures.get(0).get();
+      for (Future<Map<String, RecordWriter>> future : futures) {
+        Map<String, RecordWriter> got = future.get();
+        for (int p = 0; p < paths; p++) {
+          // all the threads got the same writer for a given path
+          Assert.assertSame(expected.get("p" + p), got.get("p" + p));
+        }
+      }
+      Assert.assertEquals(paths, writers.writers.size());
+      Assert.assertEquals(paths, writers.getActiveWritersCount());
+    } finally {
+      executor.shutdownNow();
+      writers.closeAll();
+    }
+  }
+
   @Test
   public void testFailOnFlushFail() throws Exception {
     RecordWriterManager mgr = new RecordWriterManagerTestBuilder()
@@ -145,6 +145,8 @@ public abstract class AbstractHttpReceiverServer {
     params.put(CrossOriginFilter.ALLOWED_ORIGINS_PARAM, "*");
     params.put(CrossOriginFilter.ALLOWED_HEADERS_PARAM, "*");
     crossOriginFilter.setInitParameters(params);
+    // the receiver servlet may process requests asynchronously
+    crossOriginFilter.setAsyncSupported(true);
     contextHandler.addFilter(crossOriginFilter, "/*", EnumSet.of(DispatcherType.REQUEST));
 
     addReceiverServlet(context, contextHandler);
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.http;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.streamsets.pipeline.api.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receiver servlet that does not hold a server thread while a request is in flight.
+ * <p/>
+ * The request body is read with non-blocking I/O as it arrives, so slow clients don't hold a thread. Once the body
+ * has been fully read it is handed to a bounded pool of processing threads which parse it, push it through the
+ * pipeline and complete the response.
+ * <p/>
+ * Any number of requests can be reading their body, they are only bounded by the total size of the bodies they
+ * buffer: a request that would go over the cap is rejected with a 503. Once read, a request needs one of the processing
+ * threads or a place in their queue, otherwise it is rejected with a 503 so that the client backs off.
+ */
+@SuppressWarnings({"squid:S2226", "squid:S1989", "squid:S1948"})
+public class AsyncHttpReceiverServlet extends HttpReceiverServlet {
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncHttpReceiverServlet.class);
+  private static final int READ_BUFFER_SIZE = 8 * 1024;
+  private static final long STOP_TIMEOUT_SECS = 10;
+
+  private final long maxRequestSize;
+  private final long maxBufferedBytes;
+  // processing threads plus their queue, bounded
+  private final ThreadPoolExecutor executor;
+  private final AtomicLong bufferedBytes = new AtomicLong();
+
+  public AsyncHttpReceiverServlet(
+      Stage.Context context,
+      HttpReceiver receiver,
+      BlockingQueue<Exception> errorQueue,
+      int maxConcurrentRequests,
+      long maxRequestSize
+  ) {
+    // by default request bodies can take up to a quarter of the heap
+    this(context, receiver, errorQueue, maxConcurrentRequests, maxRequestSize, Runtime.getRuntime().maxMemory() / 4);
+  }
+
+  public AsyncHttpReceiverServlet(
+      Stage.Context context,
+      HttpReceiver receiver,
+      BlockingQueue<Exception> errorQueue,
+      int maxConcurrentRequests,
+      long maxRequestSize,
+      long maxBufferedBytes
+  ) {
+    super(context, receiver, errorQueue);
+    this.maxRequestSize = maxRequestSize;
+    this.maxBufferedBytes = maxBufferedBytes;
+    executor = new ThreadPoolExecutor(
+        maxConcurrentRequests,
+        maxConcurrentRequests,
+        60,
+        TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(maxConcurrentRequests),
+        new ThreadFactoryBuilder()
+            .setNameFormat("http-receiver-processor:" + context.getPipelineInfo().get(0).getInstanceName() + "-%d")
+            .setDaemon(true)
+            .build()
+    );
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+    String requestor = req.getRemoteAddr() + ":" + req.getRemotePort();
+    if (isShuttingDown()) {
+      LOG.debug("Shutting down, discarding incoming request from '{}'", requestor);
+      resp.setStatus(HttpServletResponse.SC_GONE);
+    } else {
+      if (validatePostRequest(req, resp)) {
+        LOG.debug("Request accepted from '{}'", requestor);
+        AsyncContext asyncContext = req.startAsync();
+        // like with synchronous processing, the pipeline may take any time to process the request
+        asyncContext.setTimeout(0);
+        ServletInputStream in = req.getInputStream();
+        in.setReadListener(new RequestReader(asyncContext, in, requestor));
+      } else {
+        invalidRequestMeter.mark();
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(STOP_TIMEOUT_SECS, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException ex) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    super.destroy();
+  }
+
+  /**
+   * Buffers the request body as it becomes available, then queues the request for processing.
+   */
+  private class RequestReader implements ReadListener {
+    private final AsyncContext asyncContext;
+    private final ServletInputStream in;
+    private final String requestor;
+    private final long start;
+    private final byte[] buffer;
+    private final RequestBody body;
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+    private boolean done;
+
+    RequestReader(AsyncContext asyncContext, ServletInputStream in, String requestor) {
+      this.asyncContext = asyncContext;
+      this.in = in;
+      this.requestor = requestor;
+      start = System.currentTimeMillis();
+      buffer = new byte[READ_BUFFER_SIZE];
+      body = new RequestBody();
+    }
+
+    @Override
+    public void onDataAvailable() throws IOException {
+      while (!done && in.isReady()) {
+        int read = in.read(buffer);
+        if (read == -1) {
+          return;
+        }
+        body.write(buffer, 0, read);
+        long buffered = bufferedBytes.addAndGet(read);
+        if (maxRequestSize > 0 && body.size() > maxRequestSize) {
+          done = true;
+          LOG.warn("Request from '{}' exceeds the maximum size of '{}' bytes, rejected", requestor, maxRequestSize);
+          errorRequestMeter.mark();
+          complete(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request too large");
+        } else if (buffered > maxBufferedBytes) {
+          done = true;
+          LOG.warn("Too much data buffered by the requests in flight, rejecting request from '{}'", requestor);
+          errorRequestMeter.mark();
+          complete(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too much data buffered");
+        }
+      }
+    }
+
+    @Override
+    public void onAllDataRead() {
+      if (!done) {
+        done = true;
+        try {
+          executor.execute(this::process);
+        } catch (RejectedExecutionException ex) {
+          LOG.warn("Too many requests being processed, rejecting request from '{}'", requestor);
+          errorRequestMeter.mark();
+          complete(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many requests being processed");
+        }
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      done = true;
+      errorRequestMeter.mark();
+      LOG.warn("Error while reading request payload from '{}': {}", requestor, throwable.toString(), throwable);
+      finish();
+      asyncContext.complete();
+    }
+
+    private void process() {
+      HttpServletRequest req = (HttpServletRequest) asyncContext.getRequest();
+      HttpServletResponse resp = (HttpServletResponse) asyncContext.getResponse();
+      try (InputStream is = getPayloadInputStream(req, body.toInputStream())) {
+        LOG.debug("Processing request from '{}'", requestor);
+        processRequest(req, is, resp);
+      } catch (Exception ex) {
+        try {
+          handleProcessingError(requestor, resp, ex);
+        } catch (IOException ioEx) {
+          LOG.debug("Could not send error response to '{}': {}", requestor, ioEx.toString(), ioEx);
+        }
+      } finally {
+        requestTimer.update(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+        finish();
+        asyncContext.complete();
+      }
+    }
+
+    private void complete(int status, String message) {
+      try {
+        ((HttpServletResponse) asyncContext.getResponse()).sendError(status, message);
+      } catch (IOException ex) {
+        LOG.debug("Could not send error response to '{}': {}", requestor, ex.toString(), ex);
+      }
+      finish();
+      asyncContext.complete();
+    }
+
+    /**
+     * Releases the buffered bytes of the request, once.
+     */
+    private void finish() {
+      if (finished.compareAndSet(false, true)) {
+        bufferedBytes.addAndGet(-body.size());
+      }
+    }
+  }
+
+  /**
+   * Request body buffer that can be read without copying it.
+   */
+  private static class RequestBody extends ByteArrayOutputStream {
+
+    InputStream toInputStream() {
+      return new ByteArrayInputStream(buf, 0, count);
+    }
+  }
+
+}
@@ -33,8 +33,18 @@ public class HttpReceiverServer extends AbstractHttpReceiverServer {
 
   @Override
   public void addReceiverServlet(Stage.Context context, ServletContextHandler contextHandler) {
-    servlet = new HttpReceiverServlet(context, receiver, errorQueue);
-    contextHandler.addServlet(new ServletHolder(servlet), receiver.getUriPath());
+    servlet = createReceiverServlet(context, receiver, errorQueue);
+    ServletHolder holder = new ServletHolder(servlet);
+    holder.setAsyncSupported(true);
+    contextHandler.addServlet(holder, receiver.getUriPath());
+  }
+
+  protected HttpReceiverServlet createReceiverServlet(
+      Stage.Context context,
+      HttpReceiver receiver,
+      BlockingQueue<Exception> errorQueue
+  ) {
+    return new HttpReceiverServlet(context, receiver, errorQueue);
   }
 
   @Override
@@ -47,10 +47,10 @@ public class HttpReceiverServlet extends HttpServlet {
 
   private final HttpReceiver receiver;
   private final BlockingQueue<Exception> errorQueue;
-  private final Meter invalidRequestMeter;
+  protected final Meter invalidRequestMeter;
   protected final Meter errorRequestMeter;
   protected final Meter requestMeter;
-  private final Timer requestTimer;
+  protected final Timer requestTimer;
   private volatile boolean shuttingDown;
 
   // In case of FlowFile data format, we need to put certain header as the OK response
@@ -181,30 +181,11 @@ public class HttpReceiverServlet extends HttpServlet {
         long start = System.currentTimeMillis();
         LOG.debug("Request accepted from '{}'", requestor);
         try (InputStream in = req.getInputStream()) {
-          InputStream is = in;
-          String compression = req.getHeader(HttpConstants.X_SDC_COMPRESSION_HEADER);
-          if (compression == null) {
-            compression = req.getHeader(HttpConstants.CONTENT_ENCODING_HEADER);
-          }
-          if (compression != null) {
-            switch (compression) {
-              case HttpConstants.SNAPPY_COMPRESSION:
-                is = new SnappyFramedInputStream(is, true);
-                break;
-              case HttpConstants.GZIP_COMPRESSION:
-                is = new GZIPInputStream(is);
-                break;
-              default:
-                throw new IOException(Utils.format("It shouldn't happen, unexpected compression '{}'", compression));
-            }
-          }
+          InputStream is = getPayloadInputStream(req, in);
           LOG.debug("Processing request from '{}'", requestor);
           processRequest(req, is, resp);
         } catch (Exception ex) {
-          errorQueue.offer(ex);
-          errorRequestMeter.mark();
-          LOG.warn("Error while processing request payload from '{}': {}", requestor, ex.toString(), ex);
-          resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.toString());
+          handleProcessingError(requestor, resp, ex);
         } finally {
           requestTimer.update(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
         }
@@ -215,6 +196,37 @@ public class HttpReceiverServlet extends HttpServlet {
     }
   }
 
+  /**
+   * Wraps the request body stream to decompress it if the request says it is compressed.
+   */
+  protected InputStream getPayloadInputStream(HttpServletRequest req, InputStream in) throws IOException {
+    InputStream is = in;
+    String compression = req.getHeader(HttpConstants.X_SDC_COMPRESSION_HEADER);
+    if (compression == null) {
+      compression = req.getHeader(HttpConstants.CONTENT_ENCODING_HEADER);
+    }
+    if (compression != null) {
+      switch (compression) {
+        case HttpConstants.SNAPPY_COMPRESSION:
+          is = new SnappyFramedInputStream(is, true);
+          break;
+        case HttpConstants.GZIP_COMPRESSION:
+          is = new GZIPInputStream(is);
+          break;
+        default:
+          throw new IOException(Utils.format("It shouldn't happen, unexpected compression '{}'", compression));
+      }
+    }
+    return is;
+  }
+
+  protected void handleProcessingError(String requestor, HttpServletResponse resp, Exception ex) throws IOException {
+    errorQueue.offer(ex);
+    errorRequestMeter.mark();
+    LOG.warn("Error while processing request payload from '{}': {}", requestor, ex.toString(), ex);
+    resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.toString());
+  }
+
   protected void processRequest(HttpServletRequest req, InputStream is, HttpServletResponse resp) throws IOException {
     if (getReceiver().process(req, is, resp)) {
       resp.setStatus(HttpServletResponse.SC_OK);
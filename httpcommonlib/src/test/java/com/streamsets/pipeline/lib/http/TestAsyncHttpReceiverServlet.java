@@ -0,0 +1,181 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.http;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestAsyncHttpReceiverServlet {
+  private HttpReceiver receiver;
+  private AsyncHttpReceiverServlet servlet;
+
+  @Before
+  public void setUp() {
+    receiver = Mockito.mock(HttpReceiverWithFragmenterWriter.class);
+  }
+
+  @After
+  public void tearDown() {
+    if (servlet != null) {
+      servlet.destroy();
+    }
+  }
+
+  private AsyncHttpReceiverServlet createServlet(int maxConcurrentRequests, long maxRequestSize, long maxBufferedBytes)
+      throws Exception {
+    Stage.Context context =
+        ContextInfoCreator.createSourceContext("n", false, OnRecordError.TO_ERROR, ImmutableList.of("a"));
+    servlet = Mockito.spy(
+        new AsyncHttpReceiverServlet(context, receiver, null, maxConcurrentRequests, maxRequestSize, maxBufferedBytes)
+    );
+    Mockito.doReturn(false).when(servlet).isShuttingDown();
+    Mockito.doReturn(true).when(servlet).validatePostRequest(Mockito.any(), Mockito.any());
+    return servlet;
+  }
+
+  /**
+   * Posts a request whose body is not read yet, returns its read listener.
+   */
+  private static ReadListener post(
+      AsyncHttpReceiverServlet servlet,
+      ServletInputStream in,
+      HttpServletResponse res
+  ) throws Exception {
+    HttpServletRequest req = Mockito.mock(HttpServletRequest.class);
+    AsyncContext asyncContext = Mockito.mock(AsyncContext.class);
+    Mockito.when(req.startAsync()).thenReturn(asyncContext);
+    Mockito.when(req.getInputStream()).thenReturn(in);
+    Mockito.when(asyncContext.getRequest()).thenReturn(req);
+    Mockito.when(asyncContext.getResponse()).thenReturn(res);
+
+    servlet.doPost(req, res);
+
+    ArgumentCaptor<ReadListener> listener = ArgumentCaptor.forClass(ReadListener.class);
+    Mockito.verify(in, Mockito.atMost(1)).setReadListener(listener.capture());
+    return listener.getAllValues().isEmpty() ? null : listener.getValue();
+  }
+
+  private static ServletInputStream createInputStream(int chunkSize) throws Exception {
+    ServletInputStream in = Mockito.mock(ServletInputStream.class);
+    Mockito.when(in.isReady()).thenReturn(true, false);
+    Mockito.when(in.read(Mockito.any(byte[].class))).thenReturn(chunkSize);
+    return in;
+  }
+
+  @Test
+  public void testSlowRequestsAreNotRejected() throws Exception {
+    AsyncHttpReceiverServlet servlet = createServlet(1, 0, Long.MAX_VALUE);
+
+    // requests still sending their body don't take a processing thread
+    for (int i = 0; i < 10; i++) {
+      HttpServletResponse res = Mockito.mock(HttpServletResponse.class);
+      Assert.assertNotNull(post(servlet, Mockito.mock(ServletInputStream.class), res));
+      Mockito.verify(res, Mockito.never()).sendError(Mockito.anyInt(), Mockito.anyString());
+    }
+  }
+
+  @Test
+  public void testTooManyRequestsBeingProcessed() throws Exception {
+    // one processing thread plus its queue
+    AsyncHttpReceiverServlet servlet = createServlet(1, 0, Long.MAX_VALUE);
+    CountDownLatch processing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger processedBytes = new AtomicInteger();
+    Mockito.doAnswer(invocation -> {
+      InputStream is = (InputStream) invocation.getArguments()[1];
+      processedBytes.addAndGet(is.available());
+      processing.countDown();
+      release.await();
+      return null;
+    }).when(servlet).processRequest(Mockito.any(), Mockito.any(), Mockito.any());
+
+    HttpServletResponse res1 = Mockito.mock(HttpServletResponse.class);
+    ReadListener listener1 = post(servlet, createInputStream(16), res1);
+    listener1.onDataAvailable();
+    listener1.onAllDataRead();
+    Assert.assertTrue(processing.await(10, TimeUnit.SECONDS));
+    Assert.assertEquals(16, processedBytes.get());
+
+    HttpServletResponse res2 = Mockito.mock(HttpServletResponse.class);
+    ReadListener listener2 = post(servlet, createInputStream(16), res2);
+    listener2.onDataAvailable();
+    listener2.onAllDataRead();
+
+    // no processing thread nor place in the queue once its body was read
+    HttpServletResponse res3 = Mockito.mock(HttpServletResponse.class);
+    ReadListener listener3 = post(servlet, createInputStream(16), res3);
+    Assert.assertNotNull(listener3);
+    listener3.onDataAvailable();
+    listener3.onAllDataRead();
+    Mockito.verify(res3).sendError(Mockito.eq(HttpServletResponse.SC_SERVICE_UNAVAILABLE), Mockito.anyString());
+
+    release.countDown();
+    Mockito.verify(res1, Mockito.never()).sendError(Mockito.anyInt(), Mockito.anyString());
+    Mockito.verify(res2, Mockito.never()).sendError(Mockito.anyInt(), Mockito.anyString());
+  }
+
+  @Test
+  public void testRequestTooLarge() throws Exception {
+    AsyncHttpReceiverServlet servlet = createServlet(1, 10, Long.MAX_VALUE);
+
+    HttpServletResponse res = Mockito.mock(HttpServletResponse.class);
+    ServletInputStream in = createInputStream(8);
+    Mockito.when(in.isReady()).thenReturn(true, true, false);
+    ReadListener listener = post(servlet, in, res);
+    listener.onDataAvailable();
+    Mockito.verify(res).sendError(Mockito.eq(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE), Mockito.anyString());
+  }
+
+  @Test
+  public void testTooMuchDataBuffered() throws Exception {
+    AsyncHttpReceiverServlet servlet = createServlet(2, 0, 20);
+
+    HttpServletResponse res1 = Mockito.mock(HttpServletResponse.class);
+    ReadListener listener1 = post(servlet, createInputStream(16), res1);
+    listener1.onDataAvailable();
+    Mockito.verify(res1, Mockito.never()).sendError(Mockito.anyInt(), Mockito.anyString());
+
+    HttpServletResponse res2 = Mockito.mock(HttpServletResponse.class);
+    ReadListener listener2 = post(servlet, createInputStream(16), res2);
+    listener2.onDataAvailable();
+    Mockito.verify(res2).sendError(Mockito.eq(HttpServletResponse.SC_SERVICE_UNAVAILABLE), Mockito.anyString());
+
+    // the buffered bytes are released with the request
+    listener1.onError(new Exception("connection reset"));
+    HttpServletResponse res3 = Mockito.mock(HttpServletResponse.class);
+    ReadListener listener3 = post(servlet, createInputStream(16), res3);
+    listener3.onDataAvailable();
+    Mockito.verify(res3, Mockito.never()).sendError(Mockito.anyInt(), Mockito.anyString());
+  }
+}
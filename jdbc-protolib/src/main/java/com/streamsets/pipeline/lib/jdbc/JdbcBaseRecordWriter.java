@@ -20,6 +20,8 @@ import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.lib.columnar.ColumnVector;
+import com.streamsets.pipeline.lib.columnar.ColumnarBatch;
 import com.streamsets.pipeline.lib.operation.UnsupportedOperationAction;
 import java.math.BigDecimal;
 import java.sql.Types;
@@ -468,190 +470,277 @@ public abstract class JdbcBaseRecordWriter implements JdbcRecordWriter {
     // fill in parameters to existing statement
     for (String column : columnsToParameters.keySet()) {
       Field field = record.get(recordReader.getFieldPath(column, getColumnsToFields(), opCode));
-      Field.Type fieldType = field.getType();
-      Object value = field.getValue();
-      int columnType = getColumnType(column);
+      setParamToStatement(paramIdx, statement, column, field, record, connection);
+      ++paramIdx;
+    }
+    return paramIdx;
+  }
 
-      /* See SDC-7959: MapD does not support PreparedStatement.setObject()
-      * To minimise exceptions, explicitly set values using setType method.
-      * Note:
-      * - MAP, LIST_MAP not implemented as handled prior to calling. */
-      try {
-        /* If a value is null, regardless of its passed in Field.Type, the column should be set to null
-         */
-        if (value == null) {
-          statement.setObject(paramIdx, value, getColumnType(column));
-          paramIdx++;
-          continue;
-        }
-        switch (fieldType) {
-          case LIST:
-            List<Field> fieldList = field.getValueAsList();
-            if (fieldList.size() > 0) {
-              Field.Type elementFieldType = fieldList.get(0).getType();
-              Array array = connection.createArrayOf(getSQLTypeName(elementFieldType), unpackList(fieldList).toArray());
-              statement.setArray(paramIdx, array);
-            } else {
-              statement.setArray(paramIdx, null);
-            }
+  /**
+   * Same as {@link #setParamsToStatement(int, PreparedStatement, Map, Record, Connection, int)} for the given row of
+   * a columnar view of the records. Integral, floating point and boolean columns whose values all have the same type
+   * are set from their primitive vectors, any other column goes through the per field conversion.
+   */
+  int setParamsToStatement(
+      int paramIdx,
+      PreparedStatement statement,
+      Map<String, String> columnsToParameters,
+      ColumnarBatch batch,
+      int row,
+      Connection connection
+  ) throws OnRecordErrorException {
+    for (String column : columnsToParameters.keySet()) {
+      ColumnVector vector = batch.getColumn(column);
+      Record record = batch.getRecord(row);
+      if (!setPrimitiveParamToStatement(paramIdx, statement, column, vector, row, record)) {
+        setParamToStatement(paramIdx, statement, column, vector.getField(row), record, connection);
+      }
+      ++paramIdx;
+    }
+    return paramIdx;
+  }
+
+  /**
+   * Sets the parameter from a primitive column vector when it can be done without conversion.
+   *
+   * @return false if the parameter has to be set from the field.
+   */
+  private boolean setPrimitiveParamToStatement(
+      int paramIdx,
+      PreparedStatement statement,
+      String column,
+      ColumnVector vector,
+      int row,
+      Record record
+  ) throws OnRecordErrorException {
+    if (vector.isNull(row)) {
+      return false;
+    }
+    int columnType = getColumnType(column);
+    try {
+      if (vector.isLongVector() && isColumnTypeNumeric(columnType)) {
+        switch (vector.getType()) {
+          case BYTE:
+            statement.setByte(paramIdx, (byte) vector.getLong(row));
             break;
-          case DATE:
-          case TIME:
-          case DATETIME:
-            if (!isColumnTypeDate(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            // Java Date types are not accepted by JDBC drivers, so we need to convert to java.sql.Timestamp
-            statement.setTimestamp(paramIdx,
-                field.getValueAsDate() == null ? null : new java.sql.Timestamp(field.getValueAsDatetime().getTime())
+          case SHORT:
+            statement.setShort(paramIdx, (short) vector.getLong(row));
+            break;
+          case INTEGER:
+            statement.setInt(paramIdx, (int) vector.getLong(row));
+            break;
+          default:
+            statement.setLong(paramIdx, vector.getLong(row));
+            break;
+        }
+        return true;
+      } else if (vector.isDoubleVector() && isColumnTypeNumeric(columnType)) {
+        if (vector.getType() == Field.Type.FLOAT) {
+          statement.setFloat(paramIdx, (float) vector.getDouble(row));
+        } else {
+          statement.setDouble(paramIdx, vector.getDouble(row));
+        }
+        return true;
+      } else if (vector.isBooleanVector() && columnType == Types.BOOLEAN) {
+        statement.setBoolean(paramIdx, vector.getBoolean(row));
+        return true;
+      }
+    } catch (SQLException e) {
+      LOG.error("Query failed due to {}", e.getMessage(), e);
+      Field field = vector.getField(row);
+      throw new OnRecordErrorException(record, JdbcErrors.JDBC_23, field.getValue(), field.getType().toString(), column);
+    }
+    return false;
+  }
+
+  private void setParamToStatement(
+      int paramIdx,
+      PreparedStatement statement,
+      String column,
+      Field field,
+      Record record,
+      Connection connection
+  ) throws OnRecordErrorException {
+    Field.Type fieldType = field.getType();
+    Object value = field.getValue();
+    int columnType = getColumnType(column);
+
+    /* See SDC-7959: MapD does not support PreparedStatement.setObject()
+    * To minimise exceptions, explicitly set values using setType method.
+    * Note:
+    * - MAP, LIST_MAP not implemented as handled prior to calling. */
+    try {
+      /* If a value is null, regardless of its passed in Field.Type, the column should be set to null
+       */
+      if (value == null) {
+        statement.setObject(paramIdx, value, getColumnType(column));
+        return;
+      }
+      switch (fieldType) {
+        case LIST:
+          List<Field> fieldList = field.getValueAsList();
+          if (fieldList.size() > 0) {
+            Field.Type elementFieldType = fieldList.get(0).getType();
+            Array array = connection.createArrayOf(getSQLTypeName(elementFieldType), unpackList(fieldList).toArray());
+            statement.setArray(paramIdx, array);
+          } else {
+            statement.setArray(paramIdx, null);
+          }
+          break;
+        case DATE:
+        case TIME:
+        case DATETIME:
+          if (!isColumnTypeDate(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
             );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case BOOLEAN:
-            if (columnType != Types.BOOLEAN) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setBoolean(paramIdx, (Boolean)value);
+          }
+          // Java Date types are not accepted by JDBC drivers, so we need to convert to java.sql.Timestamp
+          statement.setTimestamp(paramIdx,
+              field.getValueAsDate() == null ? null : new java.sql.Timestamp(field.getValueAsDatetime().getTime())
+          );
+          break;
+        case BOOLEAN:
+          if (columnType != Types.BOOLEAN) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case CHAR:
-          case STRING:
-            if (!isColumnTypeText(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setString(paramIdx, String.valueOf(value));
+          }
+          statement.setBoolean(paramIdx, (Boolean)value);
+          break;
+        case CHAR:
+        case STRING:
+          if (!isColumnTypeText(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case BYTE:
-            if (!isColumnTypeNumeric(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setByte(paramIdx, (Byte)value);
+          }
+          statement.setString(paramIdx, String.valueOf(value));
+          break;
+        case BYTE:
+          if (!isColumnTypeNumeric(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case SHORT:
-            if (!isColumnTypeNumeric(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setShort(paramIdx, (Short)value);
+          }
+          statement.setByte(paramIdx, (Byte)value);
+          break;
+        case SHORT:
+          if (!isColumnTypeNumeric(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case INTEGER:
-            if (!isColumnTypeNumeric(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setInt(paramIdx, (Integer)value);
+          }
+          statement.setShort(paramIdx, (Short)value);
+          break;
+        case INTEGER:
+          if (!isColumnTypeNumeric(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case LONG:
-            if (!isColumnTypeNumeric(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setLong(paramIdx, (Long)value);
+          }
+          statement.setInt(paramIdx, (Integer)value);
+          break;
+        case LONG:
+          if (!isColumnTypeNumeric(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case FLOAT:
-            if (!isColumnTypeNumeric(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setFloat(paramIdx, (Float)value);
+          }
+          statement.setLong(paramIdx, (Long)value);
+          break;
+        case FLOAT:
+          if (!isColumnTypeNumeric(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case DOUBLE:
-            if (!isColumnTypeNumeric(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setDouble(paramIdx, (Double)value);
+          }
+          statement.setFloat(paramIdx, (Float)value);
+          break;
+        case DOUBLE:
+          if (!isColumnTypeNumeric(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case DECIMAL:
-            if (!isColumnTypeNumeric(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            if (connection.getMetaData().getDriverName().contains(MSSQL)) {
-              LOG.debug(
-                  "Since {} is being used we will send the record as object",
-                  connection.getMetaData().getDriverName()
-              );
-              // Microsoft SQL Server JDBC Driver doesn't implement setBigDecimal() properly, it's better to always
-              // use setObject which have reasonable behavior.
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setBigDecimal(paramIdx, (BigDecimal) value);
+          }
+          statement.setDouble(paramIdx, (Double)value);
+          break;
+        case DECIMAL:
+          if (!isColumnTypeNumeric(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case BYTE_ARRAY:
-            if (!isColumnTypeBinary(columnType)) {
-              LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
-                  fieldType,
-                  column
-              );
-              statement.setObject(paramIdx, value, getColumnType(column));
-              break;
-            }
-            statement.setBytes(paramIdx, (byte[])value);
+          }
+          if (connection.getMetaData().getDriverName().contains(MSSQL)) {
+            LOG.debug(
+                "Since {} is being used we will send the record as object",
+                connection.getMetaData().getDriverName()
+            );
+            // Microsoft SQL Server JDBC Driver doesn't implement setBigDecimal() properly, it's better to always
+            // use setObject which have reasonable behavior.
+            statement.setObject(paramIdx, value, getColumnType(column));
             break;
-          case FILE_REF:
-          case MAP: // should not be seen as un-mapping handled prior to call
-          case LIST_MAP: // should not be seen as un-mapping handled prior to call
-            throw new DataFormatException(fieldType.name());
-          case ZONED_DATETIME: //guidance is to use setObject() for this type
-          default:
-            LOG.debug("fieldType: {} handled by default case. Attempting to use setObject()", fieldType);
+          }
+          statement.setBigDecimal(paramIdx, (BigDecimal) value);
+          break;
+        case BYTE_ARRAY:
+          if (!isColumnTypeBinary(columnType)) {
+            LOG.debug("fieldType: {} and column: {} not directly compatible. Attempting to use setObject()",
+                fieldType,
+                column
+            );
             statement.setObject(paramIdx, value, getColumnType(column));
             break;
-        }
-      } catch (DataFormatException e) {
-        LOG.error("Query failed unsupported type {}", e.getMessage());
-        throw new OnRecordErrorException(record, JdbcErrors.JDBC_05, field.getValue(), fieldType.toString(), column);
-      } catch (SQLException e) {
-        LOG.error("Query failed due to {}", e.getMessage(), e);
-        throw new OnRecordErrorException(record, JdbcErrors.JDBC_23, field.getValue(), fieldType.toString(), column);
+          }
+          statement.setBytes(paramIdx, (byte[])value);
+          break;
+        case FILE_REF:
+        case MAP: // should not be seen as un-mapping handled prior to call
+        case LIST_MAP: // should not be seen as un-mapping handled prior to call
+          throw new DataFormatException(fieldType.name());
+        case ZONED_DATETIME: //guidance is to use setObject() for this type
+        default:
+          LOG.debug("fieldType: {} handled by default case. Attempting to use setObject()", fieldType);
+          statement.setObject(paramIdx, value, getColumnType(column));
+          break;
       }
-      ++paramIdx;
+    } catch (DataFormatException e) {
+      LOG.error("Query failed unsupported type {}", e.getMessage());
+      throw new OnRecordErrorException(record, JdbcErrors.JDBC_05, field.getValue(), fieldType.toString(), column);
+    } catch (SQLException e) {
+      LOG.error("Query failed due to {}", e.getMessage(), e);
+      throw new OnRecordErrorException(record, JdbcErrors.JDBC_23, field.getValue(), fieldType.toString(), column);
     }
-    return paramIdx;
   }
 
   /**
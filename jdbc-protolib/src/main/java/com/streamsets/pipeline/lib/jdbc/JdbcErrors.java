@@ -150,6 +150,8 @@ public enum JdbcErrors implements ErrorCode {
   JDBC_411("Filter schema values cannot be empty."),
   JDBC_412("Poll interval (s) '{}' cannot be greater than Batch Time Wait (ms) '{}'"), //Postgres
   JDBC_413("Could not create the WAL receiver: {}"), //Postgres
+  JDBC_414("Batch lookup query must contain exactly one '?' placeholder for the lookup keys"),
+  JDBC_415("Batch lookup key column cannot be empty"),
 
   JDBC_500("The JDBC URL must be 'jdbc:<vendor>://<HOST>[:<PORT>][/<DB>]...'"),
   JDBC_501("Connection must be secured, either by SSL encryption or SSH Tunneling"),
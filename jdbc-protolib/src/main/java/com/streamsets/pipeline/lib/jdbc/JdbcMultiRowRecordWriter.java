@@ -26,6 +26,7 @@ import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.api.Stage.Context;
+import com.streamsets.pipeline.lib.columnar.ColumnarBatch;
 import com.streamsets.pipeline.lib.operation.OperationType;
 import com.streamsets.pipeline.lib.operation.UnsupportedOperationAction;
 import org.slf4j.Logger;
@@ -36,6 +37,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -235,6 +237,17 @@ public class JdbcMultiRowRecordWriter extends JdbcBaseRecordWriter {
         Math.min(maxRowsPerBatch, queue.size())
     );
 
+    // All the queued inserts have the same columns, their values are set column by column from a columnar view
+    ColumnarBatch columnar = null;
+    if (opCode == INSERT_CODE) {
+      Map<String, String> columnPaths = new LinkedHashMap<>();
+      for (String column : columnsToParameters.keySet()) {
+        columnPaths.put(column, recordReader.getFieldPath(column, getColumnsToFields(), opCode));
+      }
+      columnar = new ColumnarBatch(queue, columnPaths);
+    }
+    int row = 0;
+
     // Need to store removed records from queue, because we might need to add newly generated columns
     // to records for Jdbc Tee Processor.
     LinkedList<Record> removed = new LinkedList<>();
@@ -244,9 +257,12 @@ public class JdbcMultiRowRecordWriter extends JdbcBaseRecordWriter {
       // Start processing records in queue. All records have the same operation to the same table.
       while (!queue.isEmpty()) {
         Record r = queue.removeFirst();
-        if (opCode != DELETE_CODE) {
+        if (columnar != null) {
+          paramIdx = setParamsToStatement(paramIdx, statement, columnsToParameters, columnar, row, connection);
+        } else if (opCode != DELETE_CODE) {
           paramIdx = setParamsToStatement(paramIdx, statement, columnsToParameters, r, connection, opCode);
         }
+        row++;
         if (opCode != OperationType.INSERT_CODE) {
           paramIdx = setPrimaryKeys(paramIdx, r, statement, opCode);
         }
@@ -283,10 +299,14 @@ public class JdbcMultiRowRecordWriter extends JdbcBaseRecordWriter {
           connection
       )) {
         int paramIdx = 1;
+        row -= removed.size();
         for (Record r : removed) {
-          if (opCode != DELETE_CODE) {
+          if (columnar != null) {
+            paramIdx = setParamsToStatement(paramIdx, statement, columnsToParameters, columnar, row, connection);
+          } else if (opCode != DELETE_CODE) {
             paramIdx = setParamsToStatement(paramIdx, statement, columnsToParameters, r, connection, opCode);
           }
+          row++;
           if (opCode != OperationType.INSERT_CODE) {
             paramIdx = setPrimaryKeys(paramIdx, r, statement, opCode);
           }
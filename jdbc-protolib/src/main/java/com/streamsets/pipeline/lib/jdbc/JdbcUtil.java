@@ -144,6 +144,12 @@ public class JdbcUtil {
    */
   public static final String MAX_OFFSET_VALUE_QUERY = "SELECT MAX(%s) FROM %s";
 
+  /**
+   * The query to count the rows within a range of values of a particular (integral) offset column, tagged with the
+   * index of the range so that the counts of several ranges can be fetched with a single UNION ALL query
+   */
+  public static final String OFFSET_RANGE_ROW_COUNT_QUERY = "SELECT %d, COUNT(*) FROM %s WHERE %s >= %d AND %s < %d";
+
   /**
    * The index within the result set for the column that contains the min or max offset value
    */
@@ -392,6 +398,57 @@ public class JdbcUtil {
     );
   }
 
+  /**
+   * Counts the rows of the table whose (integral) offset column is in each of the ranges [from[i], to[i]), with a
+   * single query.
+   *
+   * @return the row count of each range
+   */
+  public static long[] getOffsetRangeRowCounts(
+      Connection connection,
+      String schema,
+      String tableName,
+      QuoteChar quoteChar,
+      String offsetColumn,
+      long[] from,
+      long[] to
+  ) throws SQLException {
+    Utils.checkArgument(from.length == to.length, "from and to must have the same length");
+    final long[] rowCounts = new long[from.length];
+    if (from.length == 0) {
+      return rowCounts;
+    }
+    final String qualifiedTableName = TableContextUtil.getQuotedQualifiedTableName(
+        schema,
+        tableName,
+        quoteChar.getQuoteCharacter()
+    );
+    final String qualifiedOffsetColumn = TableContextUtil.getQuotedObjectName(offsetColumn, quoteChar.getQuoteCharacter());
+    final List<String> rangeQueries = new ArrayList<>(from.length);
+    for (int i = 0; i < from.length; i++) {
+      rangeQueries.add(String.format(
+          OFFSET_RANGE_ROW_COUNT_QUERY,
+          i,
+          qualifiedTableName,
+          qualifiedOffsetColumn,
+          from[i],
+          qualifiedOffsetColumn,
+          to[i]
+      ));
+    }
+    final String rowCountQuery = Joiner.on(" UNION ALL ").join(rangeQueries);
+    LOG.debug("Issuing offset range row count query: {}", rowCountQuery);
+    try (
+      Statement st = connection.createStatement();
+      ResultSet rs = st.executeQuery(rowCountQuery)
+    ) {
+      while (rs.next()) {
+        rowCounts[rs.getInt(1)] = rs.getLong(2);
+      }
+    }
+    return rowCounts;
+  }
+
   private static long getEpochMillisFromSqlDate(java.sql.Date date) {
     return date.toLocalDate().atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
   }
@@ -639,165 +696,200 @@ public class JdbcUtil {
       boolean timestampToString,
       DatabaseVendor vendor
   ) throws SQLException, IOException, StageException {
-      Field field;
-      if (userSpecifiedType != DataType.USE_COLUMN_TYPE) {
-        // If user specifies the data type, overwrite the column type returned by database.
-        field = Field.create(Field.Type.valueOf(userSpecifiedType.getLabel()), rs.getObject(columnIndex));
-      } else {
-        // Firstly resolve some vendor specific types - we are careful in case that someone will be clashing
-        if(vendor == DatabaseVendor.ORACLE) {
-          switch (md.getColumnType(columnIndex)) {
-            case TableContextUtil.TYPE_ORACLE_BINARY_FLOAT:
-              float floatValue = rs.getFloat(columnIndex);
-              return Field.create(Field.Type.FLOAT, rs.wasNull() ? null : floatValue);
-            case TableContextUtil.TYPE_ORACLE_BINARY_DOUBLE:
-              double doubleValue = rs.getDouble(columnIndex);
-              return Field.create(Field.Type.DOUBLE, rs.wasNull() ? null : doubleValue);
-            case TableContextUtil.TYPE_ORACLE_TIMESTAMP_WITH_TIME_ZONE:
-            case TableContextUtil.TYPE_ORACLE_TIMESTAMP_WITH_LOCAL_TIME_ZONE:
-              OffsetDateTime offsetDateTime = rs.getObject(columnIndex, OffsetDateTime.class);
-              if (offsetDateTime == null) {
-                return timestampToString ?
-                    Field.create(Field.Type.STRING, null) :
-                    Field.create(Field.Type.ZONED_DATETIME, null);
-              }
-              if (timestampToString) {
-                return Field.create(Field.Type.STRING, offsetDateTime.toZonedDateTime().toString());
-              }
-              // Zoned Datetime can handle high precision
-              return Field.create(Field.Type.ZONED_DATETIME, offsetDateTime.toZonedDateTime());
-            case Types.SQLXML:
-              SQLXML xml = rs.getSQLXML(columnIndex);
-              return Field.create(Field.Type.STRING, xml == null ? null : xml.getString());
-          }
-        } else if (vendor == DatabaseVendor.SQL_SERVER) {
-          if (md.getColumnType(columnIndex) == TableContextUtil.TYPE_SQL_SERVER_DATETIMEOFFSET) {
-              DateTimeOffset dateTimeOffset = rs.getObject(columnIndex, DateTimeOffset.class);
-              if (dateTimeOffset == null) {
-                return timestampToString ?
-                    Field.create(Field.Type.STRING, null) :
-                    Field.create(Field.Type.ZONED_DATETIME, null);
-              }
-              if (timestampToString) {
-                return Field.create(Field.Type.STRING, dateTimeOffset.toString());
-              }
-              return Field.create(Field.Type.ZONED_DATETIME, dateTimeOffset.getOffsetDateTime().toZonedDateTime());
-          }
-        }
+    return createColumnReader(
+        md,
+        columnIndex,
+        maxClobSize,
+        maxBlobSize,
+        userSpecifiedType,
+        unknownTypeAction,
+        timestampToString,
+        vendor
+    ).read(rs);
+  }
 
-        // All types as of JDBC 2.0 are here:
-        // https://docs.oracle.com/javase/8/docs/api/constant-values.html#java.sql.Types.ARRAY
-        // Good source of recommended mappings is here:
-        // http://www.cs.mun.ca/java-api-1.5/guide/jdbc/getstart/mapping.html
-        switch (md.getColumnType(columnIndex)) {
-          case Types.BIGINT:
-            field = Field.create(Field.Type.LONG, rs.getObject(columnIndex));
-            break;
-          case Types.BINARY:
-          case Types.LONGVARBINARY:
-          case Types.VARBINARY:
-            field = Field.create(Field.Type.BYTE_ARRAY, rs.getBytes(columnIndex));
-            break;
-          case Types.BIT:
-          case Types.BOOLEAN:
-            field = Field.create(Field.Type.BOOLEAN, rs.getObject(columnIndex));
-            break;
-          case Types.CHAR:
-          case Types.LONGNVARCHAR:
-          case Types.LONGVARCHAR:
-          case Types.NCHAR:
-          case Types.NVARCHAR:
-          case Types.VARCHAR:
-            field = Field.create(Field.Type.STRING, rs.getObject(columnIndex));
-            break;
-          case Types.CLOB:
-          case Types.NCLOB:
-            field = Field.create(Field.Type.STRING, getClobString(rs.getClob(columnIndex), maxClobSize));
-            break;
-          case Types.BLOB:
-            field = Field.create(Field.Type.BYTE_ARRAY, getBlobBytes(rs.getBlob(columnIndex), maxBlobSize));
-            break;
-          case Types.DATE:
-            field = Field.create(Field.Type.DATE, rs.getDate(columnIndex));
-            break;
-          case Types.DECIMAL:
-          case Types.NUMERIC:
-            field = Field.create(Field.Type.DECIMAL, rs.getBigDecimal(columnIndex));
-            field.setAttribute(HeaderAttributeConstants.ATTR_SCALE, String.valueOf(rs.getMetaData().getScale(columnIndex)));
-            field.setAttribute(HeaderAttributeConstants.ATTR_PRECISION, String.valueOf(rs.getMetaData().getPrecision(columnIndex)));
-            break;
-          case Types.DOUBLE:
-            field = Field.create(Field.Type.DOUBLE, rs.getObject(columnIndex));
-            break;
-          case Types.FLOAT:
-          case Types.REAL:
-            field = Field.create(Field.Type.FLOAT, rs.getObject(columnIndex));
-            break;
-          case Types.INTEGER:
-            field = Field.create(Field.Type.INTEGER, rs.getObject(columnIndex));
-            break;
-          case Types.ROWID:
-            field = Field.create(Field.Type.STRING, rs.getRowId(columnIndex).toString());
-            break;
-          case Types.SMALLINT:
-          case Types.TINYINT:
-            field = Field.create(Field.Type.SHORT, rs.getObject(columnIndex));
-            break;
-          case Types.TIME:
-            field = Field.create(Field.Type.TIME, rs.getObject(columnIndex));
-            break;
-          case Types.TIMESTAMP:
-            final Timestamp timestamp = rs.getTimestamp(columnIndex);
-            if (timestampToString) {
-              field = Field.create(Field.Type.STRING, timestamp == null ? null : timestamp.toString());
-            } else {
-              field = Field.create(Field.Type.DATETIME, timestamp);
-              if (timestamp != null) {
-                setNanosecondsinAttribute(timestamp.getNanos(), field);
-              }
-            }
-            break;
-          // Ugly hack until we can support LocalTime, LocalDate, LocalDateTime, etc.
-          case Types.TIME_WITH_TIMEZONE:
-            OffsetTime offsetTime = rs.getObject(columnIndex, OffsetTime.class);
-            field = Field.create(Field.Type.TIME, Date.from(offsetTime.atDate(LocalDate.MIN).toInstant()));
-            break;
-          case Types.TIMESTAMP_WITH_TIMEZONE:
+  /**
+   * Returns the reader of a column, the column type and vendor specific handling is resolved here so that it is not
+   * done again for every row.
+   */
+  public ResultSetConverter.ColumnReader createColumnReader(
+      ResultSetMetaData md,
+      int columnIndex,
+      int maxClobSize,
+      int maxBlobSize,
+      DataType userSpecifiedType,
+      UnknownTypeAction unknownTypeAction,
+      boolean timestampToString,
+      DatabaseVendor vendor
+  ) throws SQLException {
+    if (userSpecifiedType != DataType.USE_COLUMN_TYPE) {
+      // If user specifies the data type, overwrite the column type returned by database.
+      Field.Type type = Field.Type.valueOf(userSpecifiedType.getLabel());
+      return rs -> Field.create(type, rs.getObject(columnIndex));
+    }
+
+    int columnType = md.getColumnType(columnIndex);
+
+    // Firstly resolve some vendor specific types - we are careful in case that someone will be clashing
+    if (vendor == DatabaseVendor.ORACLE) {
+      switch (columnType) {
+        case TableContextUtil.TYPE_ORACLE_BINARY_FLOAT:
+          return rs -> {
+            float floatValue = rs.getFloat(columnIndex);
+            return Field.create(Field.Type.FLOAT, rs.wasNull() ? null : floatValue);
+          };
+        case TableContextUtil.TYPE_ORACLE_BINARY_DOUBLE:
+          return rs -> {
+            double doubleValue = rs.getDouble(columnIndex);
+            return Field.create(Field.Type.DOUBLE, rs.wasNull() ? null : doubleValue);
+          };
+        case TableContextUtil.TYPE_ORACLE_TIMESTAMP_WITH_TIME_ZONE:
+        case TableContextUtil.TYPE_ORACLE_TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+          return rs -> {
             OffsetDateTime offsetDateTime = rs.getObject(columnIndex, OffsetDateTime.class);
-            field = Field.create(Field.Type.ZONED_DATETIME, offsetDateTime.toZonedDateTime());
-            break;
-          //case Types.REF_CURSOR: // JDK8 only
-          case Types.SQLXML:
-          case Types.STRUCT:
-          case Types.ARRAY:
-          case Types.DATALINK:
-          case Types.DISTINCT:
-          case Types.JAVA_OBJECT:
-          case Types.NULL:
-          case Types.OTHER:
-          case Types.REF:
-          default:
-            if(unknownTypeAction == null) {
-              return null;
+            if (offsetDateTime == null) {
+              return timestampToString ?
+                  Field.create(Field.Type.STRING, null) :
+                  Field.create(Field.Type.ZONED_DATETIME, null);
             }
-            switch (unknownTypeAction) {
-              case STOP_PIPELINE:
-                throw new StageException(JdbcErrors.JDBC_37, md.getColumnType(columnIndex), md.getColumnLabel(columnIndex));
-              case CONVERT_TO_STRING:
-                Object value = rs.getObject(columnIndex);
-                if(value != null) {
-                  field = Field.create(Field.Type.STRING, rs.getObject(columnIndex).toString());
-                } else {
-                  field = Field.create(Field.Type.STRING, null);
-                }
-                break;
-              default:
-                throw new IllegalStateException("Unknown action: " + unknownTypeAction);
+            if (timestampToString) {
+              return Field.create(Field.Type.STRING, offsetDateTime.toZonedDateTime().toString());
             }
-        }
+            // Zoned Datetime can handle high precision
+            return Field.create(Field.Type.ZONED_DATETIME, offsetDateTime.toZonedDateTime());
+          };
+        case Types.SQLXML:
+          return rs -> {
+            SQLXML xml = rs.getSQLXML(columnIndex);
+            return Field.create(Field.Type.STRING, xml == null ? null : xml.getString());
+          };
+        default:
+          break;
+      }
+    } else if (vendor == DatabaseVendor.SQL_SERVER) {
+      if (columnType == TableContextUtil.TYPE_SQL_SERVER_DATETIMEOFFSET) {
+        return rs -> {
+          DateTimeOffset dateTimeOffset = rs.getObject(columnIndex, DateTimeOffset.class);
+          if (dateTimeOffset == null) {
+            return timestampToString ?
+                Field.create(Field.Type.STRING, null) :
+                Field.create(Field.Type.ZONED_DATETIME, null);
+          }
+          if (timestampToString) {
+            return Field.create(Field.Type.STRING, dateTimeOffset.toString());
+          }
+          return Field.create(Field.Type.ZONED_DATETIME, dateTimeOffset.getOffsetDateTime().toZonedDateTime());
+        };
       }
+    }
 
-      return field;
+    // All types as of JDBC 2.0 are here:
+    // https://docs.oracle.com/javase/8/docs/api/constant-values.html#java.sql.Types.ARRAY
+    // Good source of recommended mappings is here:
+    // http://www.cs.mun.ca/java-api-1.5/guide/jdbc/getstart/mapping.html
+    switch (columnType) {
+      case Types.BIGINT:
+        return rs -> Field.create(Field.Type.LONG, rs.getObject(columnIndex));
+      case Types.BINARY:
+      case Types.LONGVARBINARY:
+      case Types.VARBINARY:
+        return rs -> Field.create(Field.Type.BYTE_ARRAY, rs.getBytes(columnIndex));
+      case Types.BIT:
+      case Types.BOOLEAN:
+        return rs -> Field.create(Field.Type.BOOLEAN, rs.getObject(columnIndex));
+      case Types.CHAR:
+      case Types.LONGNVARCHAR:
+      case Types.LONGVARCHAR:
+      case Types.NCHAR:
+      case Types.NVARCHAR:
+      case Types.VARCHAR:
+        return rs -> Field.create(Field.Type.STRING, rs.getObject(columnIndex));
+      case Types.CLOB:
+      case Types.NCLOB:
+        return rs -> Field.create(Field.Type.STRING, getClobString(rs.getClob(columnIndex), maxClobSize));
+      case Types.BLOB:
+        return rs -> Field.create(Field.Type.BYTE_ARRAY, getBlobBytes(rs.getBlob(columnIndex), maxBlobSize));
+      case Types.DATE:
+        return rs -> Field.create(Field.Type.DATE, rs.getDate(columnIndex));
+      case Types.DECIMAL:
+      case Types.NUMERIC:
+        String scale = String.valueOf(md.getScale(columnIndex));
+        String precision = String.valueOf(md.getPrecision(columnIndex));
+        return rs -> {
+          Field field = Field.create(Field.Type.DECIMAL, rs.getBigDecimal(columnIndex));
+          field.setAttribute(HeaderAttributeConstants.ATTR_SCALE, scale);
+          field.setAttribute(HeaderAttributeConstants.ATTR_PRECISION, precision);
+          return field;
+        };
+      case Types.DOUBLE:
+        return rs -> Field.create(Field.Type.DOUBLE, rs.getObject(columnIndex));
+      case Types.FLOAT:
+      case Types.REAL:
+        return rs -> Field.create(Field.Type.FLOAT, rs.getObject(columnIndex));
+      case Types.INTEGER:
+        return rs -> Field.create(Field.Type.INTEGER, rs.getObject(columnIndex));
+      case Types.ROWID:
+        return rs -> Field.create(Field.Type.STRING, rs.getRowId(columnIndex).toString());
+      case Types.SMALLINT:
+      case Types.TINYINT:
+        return rs -> Field.create(Field.Type.SHORT, rs.getObject(columnIndex));
+      case Types.TIME:
+        return rs -> Field.create(Field.Type.TIME, rs.getObject(columnIndex));
+      case Types.TIMESTAMP:
+        if (timestampToString) {
+          return rs -> {
+            Timestamp timestamp = rs.getTimestamp(columnIndex);
+            return Field.create(Field.Type.STRING, timestamp == null ? null : timestamp.toString());
+          };
+        }
+        return rs -> {
+          Timestamp timestamp = rs.getTimestamp(columnIndex);
+          Field field = Field.create(Field.Type.DATETIME, timestamp);
+          if (timestamp != null) {
+            setNanosecondsinAttribute(timestamp.getNanos(), field);
+          }
+          return field;
+        };
+      // Ugly hack until we can support LocalTime, LocalDate, LocalDateTime, etc.
+      case Types.TIME_WITH_TIMEZONE:
+        return rs -> {
+          OffsetTime offsetTime = rs.getObject(columnIndex, OffsetTime.class);
+          return Field.create(Field.Type.TIME, Date.from(offsetTime.atDate(LocalDate.MIN).toInstant()));
+        };
+      case Types.TIMESTAMP_WITH_TIMEZONE:
+        return rs -> {
+          OffsetDateTime offsetDateTime = rs.getObject(columnIndex, OffsetDateTime.class);
+          return Field.create(Field.Type.ZONED_DATETIME, offsetDateTime.toZonedDateTime());
+        };
+      //case Types.REF_CURSOR: // JDK8 only
+      case Types.SQLXML:
+      case Types.STRUCT:
+      case Types.ARRAY:
+      case Types.DATALINK:
+      case Types.DISTINCT:
+      case Types.JAVA_OBJECT:
+      case Types.NULL:
+      case Types.OTHER:
+      case Types.REF:
+      default:
+        if(unknownTypeAction == null) {
+          return rs -> null;
+        }
+        switch (unknownTypeAction) {
+          case STOP_PIPELINE:
+            String columnLabel = md.getColumnLabel(columnIndex);
+            return rs -> {
+              throw new StageException(JdbcErrors.JDBC_37, columnType, columnLabel);
+            };
+          case CONVERT_TO_STRING:
+            return rs -> {
+              Object value = rs.getObject(columnIndex);
+              return Field.create(Field.Type.STRING, value == null ? null : value.toString());
+            };
+          default:
+            throw new IllegalStateException("Unknown action: " + unknownTypeAction);
+        }
+    }
   }
 
   public static void setNanosecondsinAttribute(int nanoseconds, Field field) {
@@ -880,32 +972,83 @@ public class JdbcUtil {
       boolean timestampToString,
       DatabaseVendor vendor
   ) throws SQLException, StageException {
+    return createResultSetConverter(
+        rs,
+        maxClobSize,
+        maxBlobSize,
+        columnsToTypes,
+        unknownTypeAction,
+        recordHeader,
+        timestampToString,
+        vendor
+    ).toFields(rs, errorRecordHandler);
+  }
+
+  public ResultSetConverter createResultSetConverter(
+      ResultSet rs,
+      CommonSourceConfigBean commonSourceBean,
+      UnknownTypeAction unknownTypeAction,
+      Set<String> recordHeader,
+      DatabaseVendor vendor
+  ) throws SQLException {
+    return createResultSetConverter(
+        rs,
+        commonSourceBean.maxClobSize,
+        commonSourceBean.maxBlobSize,
+        Collections.emptyMap(),
+        unknownTypeAction,
+        recordHeader,
+        commonSourceBean.convertTimestampToString,
+        vendor
+    );
+  }
+
+  /**
+   * Returns a converter for the rows of the given result set, to be reused for all its rows.
+   */
+  public ResultSetConverter createResultSetConverter(
+      ResultSet rs,
+      int maxClobSize,
+      int maxBlobSize,
+      Map<String, DataType> columnsToTypes,
+      UnknownTypeAction unknownTypeAction,
+      Set<String> recordHeader,
+      boolean timestampToString,
+      DatabaseVendor vendor
+  ) throws SQLException {
     ResultSetMetaData md = rs.getMetaData();
-    LinkedHashMap<String, Field> fields = new LinkedHashMap<>(md.getColumnCount());
-
-    for (int i = 1; i <= md.getColumnCount(); i++) {
-      try {
-        if (recordHeader == null || !recordHeader.contains(md.getColumnName(i))) {
-          DataType dataType = columnsToTypes.get(md.getColumnName(i));
-          Field field = resultToField(
-              md,
-              rs,
-              i,
-              maxClobSize,
-              maxBlobSize,
-              dataType == null ? DataType.USE_COLUMN_TYPE : dataType,
-              unknownTypeAction,
-              timestampToString,
-              vendor
-          );
-          fields.put(md.getColumnLabel(i), field);
-        }
-      } catch (IOException|SQLException e) {
-        errorRecordHandler.onError(JdbcErrors.JDBC_03, md.getColumnName(i), md.getColumnType(i), rs.getObject(i), e);
+    int columnCount = md.getColumnCount();
+    List<Integer> columnIndexes = new ArrayList<>(columnCount);
+    for (int i = 1; i <= columnCount; i++) {
+      if (recordHeader == null || !recordHeader.contains(md.getColumnName(i))) {
+        columnIndexes.add(i);
       }
     }
 
-    return fields;
+    int[] indexes = new int[columnIndexes.size()];
+    String[] names = new String[indexes.length];
+    String[] labels = new String[indexes.length];
+    int[] types = new int[indexes.length];
+    ResultSetConverter.ColumnReader[] readers = new ResultSetConverter.ColumnReader[indexes.length];
+    for (int i = 0; i < indexes.length; i++) {
+      int columnIndex = columnIndexes.get(i);
+      indexes[i] = columnIndex;
+      names[i] = md.getColumnName(columnIndex);
+      labels[i] = md.getColumnLabel(columnIndex);
+      types[i] = md.getColumnType(columnIndex);
+      DataType dataType = columnsToTypes.get(names[i]);
+      readers[i] = createColumnReader(
+          md,
+          columnIndex,
+          maxClobSize,
+          maxBlobSize,
+          dataType == null ? DataType.USE_COLUMN_TYPE : dataType,
+          unknownTypeAction,
+          timestampToString,
+          vendor
+      );
+    }
+    return new ResultSetConverter(rs, columnCount, indexes, names, labels, types, readers);
   }
 
   private HikariConfig createDataSourceConfig(
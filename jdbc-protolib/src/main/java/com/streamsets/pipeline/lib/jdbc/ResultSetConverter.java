@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.stage.common.ErrorRecordHandler;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+
+/**
+ * Converts the rows of a result set to fields. The column metadata is looked up, and the reader of every column
+ * chosen, once when the converter is created instead of for every cell.
+ * <p/>
+ * Converters are created with {@link JdbcUtil#createResultSetConverter} and are not thread safe.
+ */
+public class ResultSetConverter {
+
+  /**
+   * Reads the value of a column of the current row.
+   */
+  @FunctionalInterface
+  public interface ColumnReader {
+    Field read(ResultSet rs) throws SQLException, IOException, StageException;
+  }
+
+  private final ResultSet resultSet;
+  private final int columnCount;
+  private final int[] columnIndexes;
+  private final String[] columnNames;
+  private final String[] columnLabels;
+  private final int[] columnTypes;
+  private final ColumnReader[] readers;
+
+  ResultSetConverter(
+      ResultSet resultSet,
+      int columnCount,
+      int[] columnIndexes,
+      String[] columnNames,
+      String[] columnLabels,
+      int[] columnTypes,
+      ColumnReader[] readers
+  ) {
+    this.resultSet = resultSet;
+    this.columnCount = columnCount;
+    this.columnIndexes = columnIndexes;
+    this.columnNames = columnNames;
+    this.columnLabels = columnLabels;
+    this.columnTypes = columnTypes;
+    this.readers = readers;
+  }
+
+  /**
+   * Returns true if the converter was created for the given result set and so can be reused for its rows.
+   */
+  public boolean isFor(ResultSet rs) {
+    return resultSet == rs;
+  }
+
+  /**
+   * Number of columns of the result set, including the ones that are not converted.
+   */
+  public int getColumnCount() {
+    return columnCount;
+  }
+
+  /**
+   * Converts the current row of the result set. Columns that fail to be read are reported to the error record handler
+   * and left out.
+   */
+  public LinkedHashMap<String, Field> toFields(
+      ResultSet rs,
+      ErrorRecordHandler errorRecordHandler
+  ) throws SQLException, StageException {
+    LinkedHashMap<String, Field> fields = new LinkedHashMap<>(readers.length * 4 / 3 + 1);
+    for (int i = 0; i < readers.length; i++) {
+      try {
+        fields.put(columnLabels[i], readers[i].read(rs));
+      } catch (IOException|SQLException e) {
+        errorRecordHandler.onError(JdbcErrors.JDBC_03, columnNames[i], columnTypes[i], rs.getObject(columnIndexes[i]), e);
+      }
+    }
+    return fields;
+  }
+}
@@ -28,6 +28,7 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.ToErrorContext;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
 import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
+import com.streamsets.pipeline.lib.jdbc.ResultSetConverter;
 import com.streamsets.pipeline.lib.jdbc.UtilsProvider;
 import com.streamsets.pipeline.lib.jdbc.multithread.cache.JdbcTableReadContextInvalidationListener;
 import com.streamsets.pipeline.lib.jdbc.multithread.cache.JdbcTableReadContextLoader;
@@ -50,6 +51,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -94,6 +96,7 @@ public abstract class JdbcBaseRunnable implements Runnable, JdbcRunnable {
   private boolean isReconnect;
 
   protected final JdbcUtil jdbcUtil;
+  private ResultSetConverter resultSetConverter;
 
   private enum Status {
     WAITING_FOR_RATE_LIMIT_PERMIT,
@@ -537,4 +540,24 @@ public abstract class JdbcBaseRunnable implements Runnable, JdbcRunnable {
     return connectionManager.getVendor();
   }
 
+  /**
+   * Returns the converter for the rows of the given result set, it is only created again when the result set changes.
+   */
+  protected ResultSetConverter getResultSetConverter(
+      ResultSet rs,
+      Set<String> recordHeader,
+      DatabaseVendor vendor
+  ) throws SQLException {
+    if (resultSetConverter == null || !resultSetConverter.isFor(rs)) {
+      resultSetConverter = jdbcUtil.createResultSetConverter(
+          rs,
+          commonSourceConfigBean,
+          tableJdbcConfigBean.unknownTypeAction,
+          recordHeader,
+          vendor
+      );
+    }
+    return resultSetConverter;
+  }
+
 }
@@ -211,10 +211,7 @@ public final class MultithreadedTableProvider {
         );
 
         lastPartition.getPartitionOffsetStart().forEach(
-            (col, off) -> {
-              String basedOnStartOffset = lastPartition.generateNextPartitionOffset(col, off);
-              nextStartingOffsets.put(col, basedOnStartOffset);
-            }
+            (col, off) -> nextStartingOffsets.put(col, lastPartition.getNextPartitionStartOffset(col, off))
         );
 
       } else if (partitioningTurnedOn) {
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc.multithread;
+
+import com.streamsets.pipeline.api.impl.Utils;
+
+/**
+ * Sampled row density of an integral offset column, used to size partitions by estimated row count instead of by a
+ * fixed range of values.
+ * <p/>
+ * The range between the minimum and maximum offset values is divided into buckets of equal width and the density
+ * (rows per offset value) of each bucket is sampled. Partitions starting in a bucket denser than the table average
+ * cover a proportionally smaller range and partitions in sparse buckets a larger one, so that each of them holds
+ * roughly as many rows as a partition of the configured size would with evenly distributed values. That keeps all
+ * threads busy on tables where most rows are concentrated in a small part of the key space.
+ */
+public class OffsetDensityHistogram {
+  public static final int NUM_BUCKETS = 32;
+  // estimates are coarse, don't resize partitions for small deviations from the average density
+  static final double MIN_ADJUSTMENT = 2;
+  static final double MAX_ADJUSTMENT = 16;
+
+  private final long minOffset;
+  private final long maxOffset;
+  private final long bucketWidth;
+  private final long[] bucketPartitionSizes;
+  private final long partitionSize;
+
+  /**
+   * @param minOffset minimum value of the offset column
+   * @param maxOffset maximum value of the offset column
+   * @param partitionSize configured partition size
+   * @param densities sampled density of each bucket, see {@link #getBucketWidth(long, long, int)}
+   */
+  public OffsetDensityHistogram(long minOffset, long maxOffset, long partitionSize, double[] densities) {
+    Utils.checkArgument(maxOffset >= minOffset, "maxOffset must not be less than minOffset");
+    Utils.checkArgument(partitionSize > 0, "partitionSize must be greater than zero");
+    Utils.checkArgument(densities.length > 0, "densities must not be empty");
+    this.minOffset = minOffset;
+    this.maxOffset = maxOffset;
+    this.partitionSize = partitionSize;
+    this.bucketWidth = getBucketWidth(minOffset, maxOffset, densities.length);
+    this.bucketPartitionSizes = new long[densities.length];
+
+    double averageDensity = 0;
+    for (double density : densities) {
+      averageDensity += density / densities.length;
+    }
+    for (int i = 0; i < densities.length; i++) {
+      double adjustment = (densities[i] > 0) ? averageDensity / densities[i] : MAX_ADJUSTMENT;
+      if (adjustment < MIN_ADJUSTMENT && adjustment > 1 / MIN_ADJUSTMENT) {
+        adjustment = 1;
+      }
+      adjustment = Math.max(1 / MAX_ADJUSTMENT, Math.min(MAX_ADJUSTMENT, adjustment));
+      bucketPartitionSizes[i] = Math.max(1, Math.round(partitionSize * adjustment));
+    }
+  }
+
+  public static long getBucketWidth(long minOffset, long maxOffset, int numBuckets) {
+    return Math.max(1, (maxOffset - minOffset) / numBuckets + 1);
+  }
+
+  /**
+   * @return the size of the partition starting at the given offset.
+   */
+  public long getPartitionSize(long startOffset) {
+    if (startOffset < minOffset || startOffset > maxOffset) {
+      // rows added after the histogram was sampled, nothing is known about them
+      return partitionSize;
+    }
+    int bucket = (int) Math.min(bucketPartitionSizes.length - 1, (startOffset - minOffset) / bucketWidth);
+    return bucketPartitionSizes[bucket];
+  }
+
+  @Override
+  public String toString() {
+    return Utils.format(
+        "OffsetDensityHistogram[minOffset={}, maxOffset={}, bucketWidth={}, partitionSize={}]",
+        minOffset,
+        maxOffset,
+        bucketWidth,
+        partitionSize
+    );
+  }
+}
@@ -50,6 +50,8 @@ public class TableContext {
   // optionally store all column labels and types
   private Map<String, Integer> columnToType = new LinkedHashMap<>();
   private long offset;
+  // sampled density of the offset column, to size partitions by row count
+  private OffsetDensityHistogram offsetDensityHistogram;
 
   public TableContext(
       DatabaseVendor vendor,
@@ -162,6 +164,14 @@ public class TableContext {
     return offsetColumnToPartitionOffsetAdjustments;
   }
 
+  public OffsetDensityHistogram getOffsetDensityHistogram() {
+    return offsetDensityHistogram;
+  }
+
+  public void setOffsetDensityHistogram(OffsetDensityHistogram offsetDensityHistogram) {
+    this.offsetDensityHistogram = offsetDensityHistogram;
+  }
+
   public Map<String, String> getOffsetColumnToMinValues() {
     return Collections.unmodifiableMap(offsetColumnToMinValues);
   }
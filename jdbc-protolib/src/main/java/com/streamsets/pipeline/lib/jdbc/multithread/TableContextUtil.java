@@ -322,7 +322,7 @@ public class TableContextUtil {
     final Map<String, String> offsetAdjustments = new HashMap<>();
     offsetColumnToType.keySet().forEach(c -> offsetAdjustments.put(c, tableConfigBean.getPartitionSize()));
 
-    return new TableContext(
+    TableContext tableContext = new TableContext(
         vendor,
         quoteChar,
         schemaName,
@@ -337,6 +337,91 @@ public class TableContextUtil {
         tableConfigBean.getMaxNumActivePartitions(),
         tableConfigBean.getExtraOffsetColumnConditions()
     );
+    if (tableContext.getPartitioningMode() != PartitioningMode.DISABLED && tableContext.isPartitionable()) {
+      tableContext.setOffsetDensityHistogram(sampleOffsetDensity(connection, tableContext));
+    }
+    return tableContext;
+  }
+
+  /**
+   * Samples the row density of an integral offset column, when the table spans enough partitions for the
+   * distribution of its rows to matter. A window of the configured partition size is counted in each bucket, all in a
+   * single query that only ever reads about {@link OffsetDensityHistogram#NUM_BUCKETS} partitions worth of index.
+   *
+   * @return the histogram, or null if the partitions should keep the configured size.
+   */
+  private OffsetDensityHistogram sampleOffsetDensity(
+      Connection connection,
+      TableContext tableContext
+  ) throws SQLException {
+    final String column = tableContext.getOffsetColumns().iterator().next();
+    switch (tableContext.getOffsetColumnType(column)) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+        break;
+      default:
+        return null;
+    }
+    final String minValue = tableContext.getOffsetColumnToMinValues().get(column);
+    final String maxValue = tableContext.getOffsetColumnToMaxValues().get(column);
+    final String partitionSizeValue = tableContext.getOffsetColumnToPartitionOffsetAdjustments().get(column);
+    if (minValue == null || maxValue == null || partitionSizeValue == null) {
+      return null;
+    }
+
+    final long minOffset;
+    final long maxOffset;
+    final long partitionSize;
+    try {
+      minOffset = Long.parseLong(minValue);
+      maxOffset = Long.parseLong(maxValue);
+      partitionSize = Long.parseLong(partitionSizeValue);
+    } catch (NumberFormatException e) {
+      // invalid partition sizes are reported by the validation of the table configs
+      return null;
+    }
+    final long range = maxOffset - minOffset;
+    if (partitionSize <= 0 || range < 0 || maxOffset == Long.MAX_VALUE
+        || range / partitionSize < OffsetDensityHistogram.NUM_BUCKETS) {
+      return null;
+    }
+
+    final long bucketWidth = OffsetDensityHistogram.getBucketWidth(
+        minOffset,
+        maxOffset,
+        OffsetDensityHistogram.NUM_BUCKETS
+    );
+    final long[] windowStarts = new long[OffsetDensityHistogram.NUM_BUCKETS];
+    final long[] windowEnds = new long[OffsetDensityHistogram.NUM_BUCKETS];
+    for (int i = 0; i < windowStarts.length; i++) {
+      windowStarts[i] = minOffset + i * bucketWidth;
+      // trailing buckets past the maximum offset are left empty
+      windowEnds[i] = Math.max(
+          windowStarts[i],
+          Math.min(windowStarts[i] + Math.min(partitionSize, bucketWidth), maxOffset + 1)
+      );
+    }
+    final long[] rowCounts = JdbcUtil.getOffsetRangeRowCounts(
+        connection,
+        tableContext.getSchema(),
+        tableContext.getTableName(),
+        tableContext.getQuoteChar(),
+        column,
+        windowStarts,
+        windowEnds
+    );
+    final double[] densities = new double[OffsetDensityHistogram.NUM_BUCKETS];
+    for (int i = 0; i < densities.length; i++) {
+      if (windowEnds[i] > windowStarts[i]) {
+        densities[i] = (double) rowCounts[i] / (windowEnds[i] - windowStarts[i]);
+      }
+    }
+
+    final OffsetDensityHistogram histogram = new OffsetDensityHistogram(minOffset, maxOffset, partitionSize, densities);
+    LOG.debug("Sampled offset density of table {}: {}", tableContext.getQualifiedName(), histogram);
+    return histogram;
   }
 
   /**
@@ -827,6 +912,8 @@ public class TableContextUtil {
   ) {
     final String partitionSize = tableContext.getOffsetColumnToPartitionOffsetAdjustments().get(column);
     final int offsetColumnType = tableContext.getOffsetColumnToType().get(column);
+    // only sampled for integral offset columns
+    final OffsetDensityHistogram histogram = tableContext.getOffsetDensityHistogram();
 
     switch (tableContext.getVendor()) {
       case ORACLE:
@@ -858,7 +945,9 @@ public class TableContextUtil {
       case Types.SMALLINT:
       case Types.INTEGER:
         final int int1 = Integer.parseInt(offset);
-        final int int2 = Integer.parseInt(partitionSize);
+        final int int2 = histogram != null
+            ? (int) Math.min(Integer.MAX_VALUE, histogram.getPartitionSize(int1))
+            : Integer.parseInt(partitionSize);
         return String.valueOf(int1 + int2);
       case Types.TIMESTAMP:
         final Timestamp timestamp1 = getTimestampForOffsetValue(offset);
@@ -870,7 +959,7 @@ public class TableContextUtil {
       case Types.TIME:
       case Types.DATE:
         final long long1 = Long.parseLong(offset);
-        final long long2 = Long.parseLong(partitionSize);
+        final long long2 = histogram != null ? histogram.getPartitionSize(long1) : Long.parseLong(partitionSize);
         return String.valueOf(long1 + long2);
       case Types.FLOAT:
       case Types.REAL:
@@ -23,6 +23,7 @@ import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
+import com.streamsets.pipeline.lib.jdbc.ResultSetConverter;
 import com.streamsets.pipeline.stage.origin.jdbc.CommonSourceConfigBean;
 import com.streamsets.pipeline.lib.jdbc.multithread.util.OffsetQueryUtil;
 import com.streamsets.pipeline.stage.origin.jdbc.table.TableJdbcConfigBean;
@@ -73,13 +74,8 @@ public final class TableJdbcRunnable extends JdbcBaseRunnable {
   ) throws SQLException, StageException {
     ResultSetMetaData md = rs.getMetaData();
 
-    LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(
-        rs,
-        commonSourceConfigBean,
-        errorRecordHandler,
-        tableJdbcConfigBean.unknownTypeAction,
-        getVendor()
-    );
+    ResultSetConverter converter = getResultSetConverter(rs, null, getVendor());
+    LinkedHashMap<String, Field> fields = converter.toFields(rs, errorRecordHandler);
 
     // TODO: change offset format here for incremental mode (finished=true if result set end reached)
 
@@ -107,7 +103,7 @@ public final class TableJdbcRunnable extends JdbcBaseRunnable {
       record.getHeader().setAttribute(THREAD_NUMBER_ATTRIBUTE, String.valueOf(threadNumber));
     }
 
-    int columns = rs.getMetaData().getColumnCount();
+    int columns = converter.getColumnCount();
     if (fields.size() != columns) {
       errorRecordHandler.onError(JdbcErrors.JDBC_35, fields.size(), columns);
       return; // Don't output this record.
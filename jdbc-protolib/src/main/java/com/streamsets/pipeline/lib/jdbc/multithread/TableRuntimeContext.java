@@ -507,10 +507,7 @@ public class TableRuntimeContext {
     final int newPartitionSequence = lastPartition.partitionSequence > 0 ? lastPartition.partitionSequence + 1 : 1;
 
     lastPartition.partitionOffsetStart.forEach(
-        (col, off) -> {
-          String basedOnStartOffset = lastPartition.generateNextPartitionOffset(col, off);
-          nextStartingOffsets.put(col, basedOnStartOffset);
-        }
+        (col, off) -> nextStartingOffsets.put(col, lastPartition.getNextPartitionStartOffset(col, off))
     );
 
     nextStartingOffsets.forEach(
@@ -530,6 +527,15 @@ public class TableRuntimeContext {
     return nextPartition;
   }
 
+  /**
+   * The next partition starts where this one ends. Partition sizes can vary within a table (see
+   * {@link OffsetDensityHistogram}), the end offset can't always be computed again from the start offset.
+   */
+  public String getNextPartitionStartOffset(String column, String startOffset) {
+    final String endOffset = partitionOffsetEnd.get(column);
+    return endOffset != null ? endOffset : generateNextPartitionOffset(column, startOffset);
+  }
+
   public String generateNextPartitionOffset(String column, String offset) {
     return TableContextUtil.generateNextPartitionOffset(
         sourceTableContext,
@@ -37,6 +37,7 @@ import com.streamsets.pipeline.lib.jdbc.HikariPoolConfigBean;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
 import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
 import com.streamsets.pipeline.lib.jdbc.MSOperationCode;
+import com.streamsets.pipeline.lib.jdbc.ResultSetConverter;
 import com.streamsets.pipeline.lib.jdbc.UnknownTypeAction;
 import com.streamsets.pipeline.lib.jdbc.UtilsProvider;
 import com.streamsets.pipeline.lib.util.ThreadUtil;
@@ -102,6 +103,7 @@ public class JdbcSource extends BaseSource {
   private HikariDataSource dataSource = null;
   private Connection connection = null;
   private ResultSet resultSet = null;
+  private ResultSetConverter resultSetConverter = null;
   private long lastQueryCompletedTime = 0L;
   private String preparedQuery;
   private int queryRowCount = 0;
@@ -587,14 +589,16 @@ public class JdbcSource extends BaseSource {
     ResultSetMetaData md = resultSet.getMetaData();
     int numColumns = md.getColumnCount();
 
-    LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(
-        resultSet,
-        commonSourceConfigBean,
-        errorRecordHandler,
-        unknownTypeAction,
-        null,
-        hikariConfigBean.getVendor()
-    );
+    if (resultSetConverter == null || !resultSetConverter.isFor(resultSet)) {
+      resultSetConverter = jdbcUtil.createResultSetConverter(
+          resultSet,
+          commonSourceConfigBean,
+          unknownTypeAction,
+          null,
+          hikariConfigBean.getVendor()
+      );
+    }
+    LinkedHashMap<String, Field> fields = resultSetConverter.toFields(resultSet, errorRecordHandler);
 
     if (fields.size() != numColumns) {
       errorRecordHandler.onError(JdbcErrors.JDBC_35, fields.size(), numColumns);
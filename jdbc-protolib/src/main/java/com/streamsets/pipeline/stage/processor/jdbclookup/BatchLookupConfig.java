@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.jdbclookup;
+
+import com.streamsets.pipeline.api.ConfigDef;
+import com.streamsets.pipeline.api.Dependency;
+import com.streamsets.pipeline.lib.el.RecordEL;
+
+public class BatchLookupConfig {
+  public static final String CONFIG_PREFIX = "batchLookupConfig.";
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Batch Lookups",
+      defaultValue = "false",
+      description = "Looks up the distinct keys of each batch with a few queries using an IN clause instead of " +
+          "running the SQL query once per record",
+      displayPosition = 200,
+      group = "#0"
+  )
+  public boolean enabled = false;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.STRING,
+      label = "Lookup Key",
+      description = "Expression that evaluates to the lookup key of the record, for example ${record:value('/id')}",
+      elDefs = {RecordEL.class},
+      evaluation = ConfigDef.Evaluation.EXPLICIT,
+      displayPosition = 210,
+      dependencies = @Dependency(configName = "enabled", triggeredByValues = "true"),
+      group = "#0"
+  )
+  public String keyExpression;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.STRING,
+      label = "Key Column",
+      description = "Column returned by the batch query that holds the lookup key",
+      displayPosition = 220,
+      dependencies = @Dependency(configName = "enabled", triggeredByValues = "true"),
+      group = "#0"
+  )
+  public String keyColumn;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.TEXT,
+      mode = ConfigDef.Mode.SQL,
+      label = "Batch SQL Query",
+      description = "SELECT <key column>, <column>, ... FROM <table name> WHERE <key column> IN (?). The ? is " +
+          "replaced with one parameter per lookup key.",
+      displayPosition = 230,
+      dependencies = @Dependency(configName = "enabled", triggeredByValues = "true"),
+      group = "#0"
+  )
+  public String query;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Keys per Query",
+      defaultValue = "1000",
+      min = 1,
+      description = "Maximum number of keys in the IN clause of a single query. Some databases limit it to 1000.",
+      displayPosition = 240,
+      dependencies = @Dependency(configName = "enabled", triggeredByValues = "true"),
+      group = "#0"
+  )
+  public int maxKeysPerQuery = 1000;
+}
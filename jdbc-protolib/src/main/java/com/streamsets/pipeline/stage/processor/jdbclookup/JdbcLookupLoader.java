@@ -25,19 +25,27 @@ import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.lib.jdbc.DataType;
 import com.streamsets.pipeline.lib.jdbc.JdbcErrors;
 import com.streamsets.pipeline.lib.jdbc.JdbcUtil;
+import com.streamsets.pipeline.lib.jdbc.ResultSetConverter;
+import com.streamsets.pipeline.lib.jdbc.multithread.DatabaseVendor;
 import com.streamsets.pipeline.lib.jdbc.UnknownTypeAction;
 import com.streamsets.pipeline.lib.jdbc.UtilsProvider;
 import com.streamsets.pipeline.stage.common.ErrorRecordHandler;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -93,18 +101,11 @@ public class JdbcLookupLoader extends CacheLoader<String, Optional<List<Map<Stri
       t = null;
 
       // Process whole result set and load it to the memory
+      ResultSetConverter converter = createResultSetConverter(resultSet);
+      int numColumns = converter.getColumnCount();
       while(resultSet.next()) {
-        ResultSetMetaData md = resultSet.getMetaData();
+        LinkedHashMap<String, Field> fields = converter.toFields(resultSet, errorRecordHandler);
 
-        LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(resultSet,
-          maxClobSize,
-          maxBlobSize,
-          columnsToTypes,
-          errorRecordHandler,
-          UnknownTypeAction.STOP_PIPELINE
-        );
-
-        int numColumns = md.getColumnCount();
         if (fields.size() != numColumns) {
           throw new OnRecordErrorException(JdbcErrors.JDBC_35, fields.size(), numColumns);
         }
@@ -130,4 +131,129 @@ public class JdbcLookupLoader extends CacheLoader<String, Optional<List<Map<Stri
 
     return Optional.of(lookupItems);
   }
+
+  /**
+   * Looks up several keys at once. The single '?' placeholder of the query is expanded to one bind parameter per key,
+   * and the query runs once per chunk of at most maxKeysPerQuery keys.
+   *
+   * @return the returned rows grouped by the normalized value of the key column (see {@link #normalizeKey(Object)}),
+   * keys without rows are not present.
+   */
+  public Map<String, List<Map<String, Field>>> lookupValuesForKeys(
+      String query,
+      String keyColumn,
+      List<Object> keys,
+      int maxKeysPerQuery
+  ) throws StageException {
+    Map<String, List<Map<String, Field>>> lookupItems = new HashMap<>();
+    if (keys.isEmpty()) {
+      return lookupItems;
+    }
+
+    int placeholder = query.indexOf('?');
+    String preparedQuery = null;
+    try (Connection connection = dataSource.getConnection()) {
+      for (int start = 0; start < keys.size(); start += maxKeysPerQuery) {
+        List<Object> chunk = keys.subList(start, Math.min(start + maxKeysPerQuery, keys.size()));
+        preparedQuery = query.substring(0, placeholder) +
+            String.join(", ", Collections.nCopies(chunk.size(), "?")) +
+            query.substring(placeholder + 1);
+        LOG.debug("Executing SQL for {} keys:  {}", chunk.size(), preparedQuery);
+
+        Timer.Context t = selectTimer.time();
+        try (PreparedStatement stmt = connection.prepareStatement(preparedQuery)) {
+          for (int i = 0; i < chunk.size(); i++) {
+            stmt.setObject(i + 1, chunk.get(i));
+          }
+          try (ResultSet resultSet = stmt.executeQuery()) {
+            // Stop timer immediately so that we're calculating only query execution time and not the processing time
+            t.stop();
+            t = null;
+
+            ResultSetConverter converter = createResultSetConverter(resultSet);
+            int numColumns = converter.getColumnCount();
+            while (resultSet.next()) {
+              LinkedHashMap<String, Field> fields = converter.toFields(resultSet, errorRecordHandler);
+              if (fields.size() != numColumns) {
+                throw new OnRecordErrorException(JdbcErrors.JDBC_35, fields.size(), numColumns);
+              }
+
+              Field keyField = getKeyField(fields, keyColumn);
+              if (keyField == null || keyField.getValue() == null) {
+                LOG.debug("Ignoring row without value for key column '{}'", keyColumn);
+                continue;
+              }
+              lookupItems.computeIfAbsent(normalizeKey(keyField.getValue()), k -> new ArrayList<>()).add(fields);
+            }
+          }
+        } finally {
+          // If the timer wasn't stopped due to exception yet, stop it now
+          if (t != null) {
+            t.stop();
+          }
+          selectMeter.mark();
+        }
+      }
+    } catch (SQLException e) {
+      LOG.error(JdbcErrors.JDBC_02.getMessage(), preparedQuery, e);
+      throw new OnRecordErrorException(JdbcErrors.JDBC_02, preparedQuery, e.getMessage());
+    }
+    return lookupItems;
+  }
+
+  private ResultSetConverter createResultSetConverter(ResultSet resultSet) throws SQLException {
+    return jdbcUtil.createResultSetConverter(
+        resultSet,
+        maxClobSize,
+        maxBlobSize,
+        columnsToTypes,
+        UnknownTypeAction.STOP_PIPELINE,
+        null,
+        false,
+        DatabaseVendor.UNKNOWN
+    );
+  }
+
+  /**
+   * Normalizes a key so that a value of the key column and the lookup key it was returned for compare equal even
+   * when they don't print the same: numbers of any type and scale, CHAR padding and dates are normalized. Keys that
+   * still differ (e.g. case insensitive collations) are not matched, callers must not take them as missing.
+   */
+  public static String normalizeKey(Object key) {
+    if (key == null) {
+      return null;
+    }
+    if (key instanceof BigDecimal || key instanceof BigInteger || key instanceof Long || key instanceof Integer
+        || key instanceof Short || key instanceof Byte || key instanceof Double || key instanceof Float) {
+      BigDecimal decimal;
+      try {
+        decimal = (key instanceof BigDecimal) ? (BigDecimal) key : new BigDecimal(key.toString());
+      } catch (NumberFormatException e) {
+        // NaN, Infinity
+        return key.toString();
+      }
+      return (decimal.signum() == 0) ? "0" : decimal.stripTrailingZeros().toPlainString();
+    }
+    if (key instanceof Date) {
+      return String.valueOf(((Date) key).getTime());
+    }
+    if (key instanceof String) {
+      // CHAR columns are padded with spaces
+      return StringUtils.stripEnd((String) key, " ");
+    }
+    return key.toString();
+  }
+
+  private static Field getKeyField(Map<String, Field> fields, String keyColumn) {
+    Field field = fields.get(keyColumn);
+    if (field == null) {
+      // Databases differ on the case of unquoted identifiers
+      for (Map.Entry<String, Field> entry : fields.entrySet()) {
+        if (entry.getKey().equalsIgnoreCase(keyColumn)) {
+          return entry.getValue();
+        }
+      }
+    }
+    return field;
+  }
 }
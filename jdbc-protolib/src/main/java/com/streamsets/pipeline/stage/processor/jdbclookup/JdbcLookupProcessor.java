@@ -59,6 +59,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -78,6 +79,7 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
   private final CacheConfig cacheConfig;
 
   private ELEval queryEval;
+  private ELEval keyEval;
 
   private final String query;
   private final List<JdbcFieldColumnMapping> columnMappings;
@@ -85,6 +87,7 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
   private final int maxClobSize;
   private final int maxBlobSize;
   private final HikariPoolConfigBean hikariConfigBean;
+  private final BatchLookupConfig batchLookupConfig;
 
   private ErrorRecordHandler errorRecordHandler;
   private HikariDataSource dataSource = null;
@@ -93,6 +96,9 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
   private Map<String, DataType> columnsToTypes = new HashMap<>();
 
   private LoadingCache<String, Optional<List<Map<String, Field>>>> cache;
+  private JdbcLookupLoader loader;
+  // Values looked up in bulk for the batch being processed, by prepared query
+  private Map<String, Optional<List<Map<String, Field>>>> batchValues;
   private Optional<List<Map<String, Field>>> defaultValue;
   private CacheCleaner cacheCleaner;
   private final MissingValuesBehavior missingValuesBehavior;
@@ -110,6 +116,30 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
       int maxBlobSize,
       HikariPoolConfigBean hikariConfigBean,
       CacheConfig cacheConfig
+  ) {
+    this(
+        query,
+        columnMappings,
+        multipleValuesBehavior,
+        missingValuesBehavior,
+        maxClobSize,
+        maxBlobSize,
+        hikariConfigBean,
+        cacheConfig,
+        new BatchLookupConfig()
+    );
+  }
+
+  public JdbcLookupProcessor(
+      String query,
+      List<JdbcFieldColumnMapping> columnMappings,
+      MultipleValuesBehavior multipleValuesBehavior,
+      MissingValuesBehavior missingValuesBehavior,
+      int maxClobSize,
+      int maxBlobSize,
+      HikariPoolConfigBean hikariConfigBean,
+      CacheConfig cacheConfig,
+      BatchLookupConfig batchLookupConfig
   ) {
     this.query = query;
     this.columnMappings = columnMappings;
@@ -119,6 +149,7 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
     this.maxBlobSize = maxBlobSize;
     this.hikariConfigBean = hikariConfigBean;
     this.cacheConfig = cacheConfig;
+    this.batchLookupConfig = batchLookupConfig;
   }
 
   /** {@inheritDoc} */
@@ -136,6 +167,24 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
 
     queryEval = getContext().createELEval("query");
 
+    if (batchLookupConfig.enabled) {
+      keyEval = getContext().createELEval(BatchLookupConfig.CONFIG_PREFIX + "keyExpression");
+      if (StringUtils.isBlank(batchLookupConfig.keyColumn)) {
+        issues.add(context.createConfigIssue(
+            Groups.JDBC.name(),
+            BatchLookupConfig.CONFIG_PREFIX + "keyColumn",
+            JdbcErrors.JDBC_415
+        ));
+      }
+      if (StringUtils.countMatches(batchLookupConfig.query, "?") != 1) {
+        issues.add(context.createConfigIssue(
+            Groups.JDBC.name(),
+            BatchLookupConfig.CONFIG_PREFIX + "query",
+            JdbcErrors.JDBC_414
+        ));
+      }
+    }
+
     issues = hikariConfigBean.validateConfigs(context, issues);
 
     if (context.getRunnerId() == 0) {
@@ -152,6 +201,8 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
     }
 
 
+    LookupUtils.validateCacheConfig(context, Groups.JDBC.name(), "cacheConfig.", cacheConfig, issues);
+
     if(issues.isEmpty()) {
       this.defaultValue = calculateDefault(context, issues);
     }
@@ -159,7 +210,7 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
     if (issues.isEmpty()) {
       cache = buildCache();
       cacheCleaner = new CacheCleaner(cache, "JdbcLookupProcessor", 10 * 60 * 1000);
-      if (cacheConfig.enabled) {
+      if (cacheConfig.enabled && !batchLookupConfig.enabled) {
         preprocessThreads = Math.min(hikariConfigBean.minIdle, Runtime.getRuntime().availableProcessors()-1);
         preprocessThreads = Math.max(preprocessThreads, 1);
       }
@@ -257,6 +308,11 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
   /** {@inheritDoc} */
   @Override
   public void destroy() {
+    // stop background reloads before the dataSource they use is closed
+    if (cache != null) {
+      LookupUtils.closeCache(cache);
+    }
+
     if (getContext().getRunnerId() == 0) {
       if (generationExecutor != null) {
         generationExecutor.shutdown();
@@ -320,12 +376,78 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
       // No records - take the opportunity to clean up the cache so that we don't hold on to memory indefinitely
       cacheCleaner.periodicCleanUp();
     }
-    //Cache warming
-    if (preprocessThreads > 0) {
+    if (batchLookupConfig.enabled) {
+      batchValues = lookupBatch(batch);
+    } else if (preprocessThreads > 0) {
+      //Cache warming
       preprocess(batch);
     }
     //Normal processing per record
-    super.process(batch, batchMaker);
+    try {
+      super.process(batch, batchMaker);
+    } finally {
+      batchValues = null;
+    }
+  }
+
+  /**
+   * Looks up the distinct keys of the batch that are not cached yet with as few queries as possible. Records whose
+   * query or key can't be evaluated, or whose keys couldn't be looked up, are left to the per record lookup.
+   */
+  private Map<String, Optional<List<Map<String, Field>>>> lookupBatch(Batch batch) {
+    Map<String, Optional<List<Map<String, Field>>>> values = new HashMap<>();
+    Map<String, String> keysByQuery = new HashMap<>();
+    Map<String, Object> distinctKeys = new LinkedHashMap<>();
+
+    Iterator<Record> it = batch.getRecords();
+    while (it.hasNext()) {
+      Record record = it.next();
+      try {
+        ELVars elVars = getContext().createELVars();
+        RecordEL.setRecordInContext(elVars, record);
+        String preparedQuery = queryEval.eval(elVars, query, String.class);
+        if (keysByQuery.containsKey(preparedQuery) || cache.getIfPresent(preparedQuery) != null) {
+          continue;
+        }
+        Object key = keyEval.eval(elVars, batchLookupConfig.keyExpression, Object.class);
+        if (key != null) {
+          String normalizedKey = JdbcLookupLoader.normalizeKey(key);
+          keysByQuery.put(preparedQuery, normalizedKey);
+          distinctKeys.putIfAbsent(normalizedKey, key);
+        }
+      } catch (ELEvalException e) {
+        LOG.debug("Leaving record '{}' to the per record lookup: {}", record.getHeader().getSourceId(), e.toString());
+      }
+    }
+
+    if (distinctKeys.isEmpty()) {
+      return values;
+    }
+
+    Map<String, List<Map<String, Field>>> rows;
+    try {
+      rows = loader.lookupValuesForKeys(
+          batchLookupConfig.query,
+          batchLookupConfig.keyColumn,
+          new ArrayList<>(distinctKeys.values()),
+          batchLookupConfig.maxKeysPerQuery
+      );
+    } catch (StageException e) {
+      LOG.warn("Batch lookup failed, falling back to per record lookups: {}", e.toString(), e);
+      return values;
+    }
+
+    for (Map.Entry<String, String> entry : keysByQuery.entrySet()) {
+      List<Map<String, Field>> keyRows = rows.get(entry.getValue());
+      // A key without rows may still be a hit that the key column returns in a different form (collation, format),
+      // only the per record lookup can tell, so it's neither recorded as missing nor cached.
+      if (keyRows != null) {
+        Optional<List<Map<String, Field>>> value = Optional.of(keyRows);
+        values.put(entry.getKey(), value);
+        cache.put(entry.getKey(), value);
+      }
+    }
+    return values;
   }
 
   /** {@inheritDoc} */
@@ -335,7 +457,10 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
       ELVars elVars = getContext().createELVars();
       RecordEL.setRecordInContext(elVars, record);
       String preparedQuery = queryEval.eval(elVars, query, String.class);
-      Optional<List<Map<String, Field>>> entry = cache.get(preparedQuery);
+      Optional<List<Map<String, Field>>> entry = (batchValues != null) ? batchValues.get(preparedQuery) : null;
+      if (entry == null) {
+        entry = cache.get(preparedQuery);
+      }
 
       if (!entry.isPresent()) {
         // No results
@@ -429,7 +554,7 @@ public class JdbcLookupProcessor extends SingleLaneRecordProcessor {
 
   @SuppressWarnings("unchecked")
   private LoadingCache<String, Optional<List<Map<String, Field>>>> buildCache() {
-    JdbcLookupLoader loader = new JdbcLookupLoader(
+    loader = new JdbcLookupLoader(
       getContext(),
       dataSource,
       columnsToTypes,
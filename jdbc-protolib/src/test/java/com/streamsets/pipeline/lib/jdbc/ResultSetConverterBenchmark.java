@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.lib.jdbc.multithread.DatabaseVendor;
+import com.streamsets.pipeline.stage.common.ErrorRecordHandler;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting the rows of a wide table with {@link JdbcUtil#resultSetToFields}, which resolves the column
+ * metadata again for every row, and with a {@link ResultSetConverter} created once per result set.
+ * <p/>
+ * The table is in an in-memory H2 database. Not run as part of the build, run the main method from the IDE or the
+ * test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResultSetConverterBenchmark {
+  private static final int ROWS = 1000;
+
+  @Param({"10", "100", "200"})
+  public int columns;
+
+  private final JdbcUtil jdbcUtil = new JdbcUtil();
+  private final ErrorRecordHandler errorRecordHandler = Mockito.mock(ErrorRecordHandler.class);
+  private Connection connection;
+  private Statement statement;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:benchmark" + columns, "sa", "sa");
+    StringBuilder create = new StringBuilder("CREATE TABLE WIDE (ID INT PRIMARY KEY");
+    StringBuilder insert = new StringBuilder("INSERT INTO WIDE VALUES (?");
+    for (int i = 0; i < columns; i++) {
+      switch (i % 5) {
+        case 0:
+          create.append(", C").append(i).append(" INT");
+          break;
+        case 1:
+          create.append(", C").append(i).append(" VARCHAR(64)");
+          break;
+        case 2:
+          create.append(", C").append(i).append(" DECIMAL(20, 4)");
+          break;
+        case 3:
+          create.append(", C").append(i).append(" TIMESTAMP");
+          break;
+        default:
+          create.append(", C").append(i).append(" DOUBLE");
+          break;
+      }
+      insert.append(", ?");
+    }
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute(create.append(")").toString());
+    }
+    try (PreparedStatement stmt = connection.prepareStatement(insert.append(")").toString())) {
+      for (int row = 0; row < ROWS; row++) {
+        stmt.setInt(1, row);
+        for (int i = 0; i < columns; i++) {
+          switch (i % 5) {
+            case 0:
+              stmt.setInt(i + 2, row * i);
+              break;
+            case 1:
+              stmt.setString(i + 2, "value " + row + " " + i);
+              break;
+            case 2:
+              stmt.setBigDecimal(i + 2, BigDecimal.valueOf(row * 10000L + i, 4));
+              break;
+            case 3:
+              stmt.setTimestamp(i + 2, new Timestamp(row * 1000L + i));
+              break;
+            default:
+              stmt.setDouble(i + 2, row + i / 10d);
+              break;
+          }
+        }
+        stmt.addBatch();
+      }
+      stmt.executeBatch();
+    }
+    statement = connection.createStatement();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    statement.close();
+    connection.close();
+  }
+
+  @Benchmark
+  public void perCell(Blackhole blackhole) throws Exception {
+    try (ResultSet rs = statement.executeQuery("SELECT * FROM WIDE")) {
+      while (rs.next()) {
+        LinkedHashMap<String, Field> fields = jdbcUtil.resultSetToFields(
+            rs,
+            0,
+            0,
+            Collections.emptyMap(),
+            errorRecordHandler,
+            UnknownTypeAction.STOP_PIPELINE,
+            null,
+            false,
+            DatabaseVendor.UNKNOWN
+        );
+        blackhole.consume(fields);
+      }
+    }
+  }
+
+  @Benchmark
+  public void converter(Blackhole blackhole) throws Exception {
+    try (ResultSet rs = statement.executeQuery("SELECT * FROM WIDE")) {
+      ResultSetConverter converter = jdbcUtil.createResultSetConverter(
+          rs,
+          0,
+          0,
+          Collections.emptyMap(),
+          UnknownTypeAction.STOP_PIPELINE,
+          null,
+          false,
+          DatabaseVendor.UNKNOWN
+      );
+      while (rs.next()) {
+        blackhole.consume(converter.toFields(rs, errorRecordHandler));
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(ResultSetConverterBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -17,6 +17,7 @@ package com.streamsets.pipeline.lib.jdbc;
 
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.lib.jdbc.multithread.DatabaseVendor;
+import com.streamsets.pipeline.stage.common.ErrorRecordHandler;
 import com.streamsets.pipeline.stage.origin.jdbc.table.QuoteChar;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
@@ -25,6 +26,7 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -34,11 +36,14 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -203,6 +208,57 @@ public class TestJdbcUtil {
     }
   }
 
+  @Test
+  public void testResultSetConverter() throws Exception {
+    HikariPoolConfigBean config = createConfigBean();
+    ErrorRecordHandler errorRecordHandler = Mockito.mock(ErrorRecordHandler.class);
+    try (HikariDataSource dataSource = jdbcUtil.createDataSourceForRead(config)) {
+      try (Connection connection = dataSource.getConnection()) {
+        try (Statement stmt = connection.createStatement()) {
+          ResultSet resultSet = stmt.executeQuery("SELECT * FROM " + schema + "." + dataTypesTestTable);
+          ResultSetConverter converter = jdbcUtil.createResultSetConverter(
+              resultSet,
+              0,
+              0,
+              Collections.emptyMap(),
+              UnknownTypeAction.STOP_PIPELINE,
+              Collections.singleton("MY_TIME"),
+              false,
+              DatabaseVendor.UNKNOWN
+          );
+          assertTrue(converter.isFor(resultSet));
+          assertEquals(4, converter.getColumnCount());
+
+          assertTrue(resultSet.next());
+          Map<String, Field> fields = converter.toFields(resultSet, errorRecordHandler);
+          assertEquals(Arrays.asList("P_ID", "TS_WITH_TZ", "MY_DATE"), new ArrayList<>(fields.keySet()));
+          assertEquals(
+              jdbcUtil.resultSetToFields(
+                  resultSet,
+                  0,
+                  0,
+                  Collections.emptyMap(),
+                  errorRecordHandler,
+                  UnknownTypeAction.STOP_PIPELINE,
+                  Collections.singleton("MY_TIME"),
+                  false,
+                  DatabaseVendor.UNKNOWN
+              ),
+              fields
+          );
+          assertEquals(Field.Type.INTEGER, fields.get("P_ID").getType());
+          assertEquals(Field.Type.ZONED_DATETIME, fields.get("TS_WITH_TZ").getType());
+          assertEquals(Field.Type.DATE, fields.get("MY_DATE").getType());
+
+          try (Statement other = connection.createStatement()) {
+            assertFalse(converter.isFor(other.executeQuery("SELECT 1")));
+          }
+        }
+      }
+    }
+    Mockito.verifyZeroInteractions(errorRecordHandler);
+  }
+
   @Test
   public void testGetMinValues() throws Exception {
     HikariPoolConfigBean config = createConfigBean();
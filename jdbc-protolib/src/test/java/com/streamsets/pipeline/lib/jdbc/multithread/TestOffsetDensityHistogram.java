@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc.multithread;
+
+import com.streamsets.pipeline.stage.origin.jdbc.table.PartitioningMode;
+import com.streamsets.pipeline.stage.origin.jdbc.table.QuoteChar;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+public class TestOffsetDensityHistogram {
+  private static final String COLUMN = "id";
+
+  private static double[] uniformDensities() {
+    double[] densities = new double[OffsetDensityHistogram.NUM_BUCKETS];
+    Arrays.fill(densities, 1);
+    return densities;
+  }
+
+  @Test
+  public void testUniformDensity() {
+    OffsetDensityHistogram histogram = new OffsetDensityHistogram(0, 3199, 100, uniformDensities());
+    for (long offset = 0; offset < 3200; offset += 50) {
+      Assert.assertEquals(100, histogram.getPartitionSize(offset));
+    }
+  }
+
+  @Test
+  public void testSkewedDensity() {
+    double[] densities = uniformDensities();
+    densities[0] = 0;
+    densities[1] = 10;
+    // average density is 1.25, buckets are 100 wide
+    OffsetDensityHistogram histogram = new OffsetDensityHistogram(0, 3199, 100, densities);
+
+    // empty bucket, largest partitions allowed
+    Assert.assertEquals(1600, histogram.getPartitionSize(0));
+    Assert.assertEquals(1600, histogram.getPartitionSize(99));
+    // 8 times denser than average
+    Assert.assertEquals(13, histogram.getPartitionSize(100));
+    Assert.assertEquals(13, histogram.getPartitionSize(199));
+    // close enough to the average
+    Assert.assertEquals(100, histogram.getPartitionSize(200));
+    Assert.assertEquals(100, histogram.getPartitionSize(3199));
+    // outside of the sampled range
+    Assert.assertEquals(100, histogram.getPartitionSize(-1));
+    Assert.assertEquals(100, histogram.getPartitionSize(5000));
+  }
+
+  @Test
+  public void testPartitionsFollowHistogram() {
+    LinkedHashMap<String, Integer> offsetColumnToType = new LinkedHashMap<>();
+    offsetColumnToType.put(COLUMN, Types.INTEGER);
+    TableContext tableContext = new TableContext(
+        DatabaseVendor.UNKNOWN,
+        QuoteChar.NONE,
+        "schema",
+        "table",
+        offsetColumnToType,
+        Collections.emptyMap(),
+        Collections.singletonMap(COLUMN, "100"),
+        Collections.singletonMap(COLUMN, "0"),
+        Collections.singletonMap(COLUMN, "3199"),
+        false,
+        PartitioningMode.BEST_EFFORT,
+        -1,
+        null
+    );
+    double[] densities = uniformDensities();
+    densities[1] = 10;
+    tableContext.setOffsetDensityHistogram(new OffsetDensityHistogram(0, 3199, 100, densities));
+
+    TableRuntimeContext partition = TableRuntimeContext.createInitialPartition(tableContext);
+    Assert.assertEquals("0", partition.getPartitionOffsetStart().get(COLUMN));
+    Assert.assertEquals("100", partition.getPartitionOffsetEnd().get(COLUMN));
+
+    // partitions are contiguous and shrink in the dense bucket
+    long expectedStart = 100;
+    while (expectedStart < 200) {
+      partition = TableRuntimeContext.createNextPartition(partition);
+      Assert.assertEquals(String.valueOf(expectedStart), partition.getPartitionOffsetStart().get(COLUMN));
+      long end = Long.parseLong(partition.getPartitionOffsetEnd().get(COLUMN));
+      Assert.assertTrue(end - expectedStart < 100);
+      expectedStart = end;
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.jdbc.multithread;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.SortedSetMultimap;
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.PushSource;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.el.ELVars;
+import com.streamsets.pipeline.lib.el.TimeNowEL;
+import com.streamsets.pipeline.lib.jdbc.UtilsProvider;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import com.streamsets.pipeline.stage.origin.jdbc.table.PartitioningMode;
+import com.streamsets.pipeline.stage.origin.jdbc.table.QuoteChar;
+import com.streamsets.pipeline.stage.origin.jdbc.table.TableConfigBean;
+import com.streamsets.pipeline.stage.origin.jdbc.table.TableJdbcELEvalContext;
+import com.streamsets.pipeline.stage.origin.jdbc.table.TableJdbcSourceTestBuilder;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+
+public class TestOffsetDensitySampling {
+  private static final String USER_NAME = "sa";
+  private static final String PASSWORD = "sa";
+  private static final String SCHEMA = "TEST";
+  private static final String JDBC_URL = "jdbc:h2:mem:offsetDensity";
+  private static final String COLUMN = "ID";
+  private static final String PARTITION_SIZE = "100";
+
+  // every id in 0..999, then one id every 100 up to 31999
+  private static final String SKEWED_TABLE = "SKEWED";
+  // every id in 0..999, spans less than NUM_BUCKETS partitions
+  private static final String SMALL_TABLE = "SMALL";
+  // same ids as SKEWED_TABLE, but not integral
+  private static final String DECIMAL_TABLE = "DECIMAL_IDS";
+
+  private static Connection connection;
+  private static TableJdbcELEvalContext tableJdbcELEvalContext;
+  private static TableContextUtil tableContextUtil;
+
+  @BeforeClass
+  public static void setup() throws SQLException {
+    tableContextUtil = UtilsProvider.getTableContextUtil();
+    connection = DriverManager.getConnection(JDBC_URL, USER_NAME, PASSWORD);
+    try (Statement s = connection.createStatement()) {
+      s.addBatch(String.format("CREATE SCHEMA IF NOT EXISTS %s;", SCHEMA));
+      s.addBatch(String.format("CREATE TABLE %s.%s (ID INT NOT NULL PRIMARY KEY);", SCHEMA, SKEWED_TABLE));
+      s.addBatch(String.format("CREATE TABLE %s.%s (ID INT NOT NULL PRIMARY KEY);", SCHEMA, SMALL_TABLE));
+      s.addBatch(String.format("CREATE TABLE %s.%s (ID DECIMAL(10, 2) NOT NULL PRIMARY KEY);", SCHEMA, DECIMAL_TABLE));
+      s.executeBatch();
+    }
+    for (int id = 0; id < 1000; id++) {
+      insert(SKEWED_TABLE, id);
+      insert(SMALL_TABLE, id);
+      insert(DECIMAL_TABLE, id);
+    }
+    for (int id = 1000; id < 32000; id += 100) {
+      insert(SKEWED_TABLE, id);
+      insert(DECIMAL_TABLE, id);
+    }
+    insert(SKEWED_TABLE, 31999);
+    insert(DECIMAL_TABLE, 31999);
+
+    Stage.Context context = ContextInfoCreator.createSourceContext(
+        "a",
+        false,
+        OnRecordError.TO_ERROR,
+        ImmutableList.of("a")
+    );
+    ELVars elVars = context.createELVars();
+    TimeNowEL.setTimeNowInContext(elVars, new Date());
+    tableJdbcELEvalContext = new TableJdbcELEvalContext(context, elVars);
+  }
+
+  @AfterClass
+  public static void tearDown() throws SQLException {
+    try (Statement s = connection.createStatement()) {
+      s.execute(String.format("DROP SCHEMA %s CASCADE;", SCHEMA));
+    }
+    connection.close();
+    tableContextUtil = null;
+  }
+
+  private static void insert(String table, int id) throws SQLException {
+    try (PreparedStatement ps = connection.prepareStatement(
+        String.format("INSERT INTO %s.%s VALUES (?)", SCHEMA, table)
+    )) {
+      ps.setInt(1, id);
+      ps.executeUpdate();
+    }
+  }
+
+  private static TableContext createTableContext(String table) throws Exception {
+    TableConfigBean tableConfigBean = new TableJdbcSourceTestBuilder.TableConfigBeanTestBuilder()
+        .schema(SCHEMA)
+        .tablePattern(table)
+        .partitioningMode(PartitioningMode.BEST_EFFORT)
+        .partitionSize(PARTITION_SIZE)
+        .build();
+    Map<String, TableContext> tableContexts = tableContextUtil.listTablesForConfig(
+        DatabaseVendor.UNKNOWN,
+        Mockito.mock(PushSource.Context.class),
+        new LinkedList<Stage.ConfigIssue>(),
+        connection,
+        tableConfigBean,
+        tableJdbcELEvalContext,
+        QuoteChar.NONE
+    );
+    Assert.assertEquals(1, tableContexts.size());
+    TableContext tableContext = tableContexts.values().iterator().next();
+    Assert.assertTrue(tableContext.isPartitionable());
+    return tableContext;
+  }
+
+  @Test
+  public void testSampledPartitionSizes() throws Exception {
+    TableContext tableContext = createTableContext(SKEWED_TABLE);
+    OffsetDensityHistogram histogram = tableContext.getOffsetDensityHistogram();
+    Assert.assertNotNull(histogram);
+
+    // buckets are 1000 wide, the first one holds a row per offset value and the others one per 100, the average
+    // density is ~0.041 rows per offset value
+    Assert.assertEquals(6, histogram.getPartitionSize(0));
+    Assert.assertEquals(6, histogram.getPartitionSize(999));
+    Assert.assertEquals(409, histogram.getPartitionSize(1000));
+    Assert.assertEquals(409, histogram.getPartitionSize(31999));
+    // rows added after sampling
+    Assert.assertEquals(100, histogram.getPartitionSize(32000));
+
+    Assert.assertEquals("6", TableContextUtil.generateNextPartitionOffset(tableContext, COLUMN, "0"));
+    Assert.assertEquals("1409", TableContextUtil.generateNextPartitionOffset(tableContext, COLUMN, "1000"));
+  }
+
+  @Test
+  public void testNextPartitionStartsAtRestoredPartitionEnd() throws Exception {
+    TableContext tableContext = createTableContext(SKEWED_TABLE);
+    Assert.assertNotNull(tableContext.getOffsetDensityHistogram());
+
+    // stored by a previous run with the fixed partition size
+    TableRuntimeContext stored = new TableRuntimeContext(
+        tableContext,
+        false,
+        true,
+        11,
+        Collections.singletonMap(COLUMN, "1000"),
+        Collections.singletonMap(COLUMN, "1100")
+    );
+    Map<String, String> newCommitOffsets = new HashMap<>();
+    SortedSetMultimap<TableContext, TableRuntimeContext> restored =
+        TableRuntimeContext.buildPartitionsFromStoredV2Offsets(
+            ImmutableMap.of(tableContext.getQualifiedName(), tableContext),
+            ImmutableMap.of(stored.getOffsetKey(), ""),
+            new HashSet<>(),
+            newCommitOffsets
+        );
+    Assert.assertEquals(1, restored.get(tableContext).size());
+    TableRuntimeContext restoredPartition = restored.get(tableContext).first();
+    Assert.assertEquals("1100", restoredPartition.getPartitionOffsetEnd().get(COLUMN));
+
+    // no gap or overlap with the restored partition, even though its size doesn't match the sampled one
+    TableRuntimeContext next = TableRuntimeContext.createNextPartition(restoredPartition);
+    Assert.assertEquals(12, next.getPartitionSequence());
+    Assert.assertEquals("1100", next.getPartitionOffsetStart().get(COLUMN));
+    Assert.assertEquals("1509", next.getPartitionOffsetEnd().get(COLUMN));
+
+    next = TableRuntimeContext.createNextPartition(next);
+    Assert.assertEquals("1509", next.getPartitionOffsetStart().get(COLUMN));
+    Assert.assertEquals("1918", next.getPartitionOffsetEnd().get(COLUMN));
+  }
+
+  @Test
+  public void testTooSmallTableKeepsConfiguredSize() throws Exception {
+    TableContext tableContext = createTableContext(SMALL_TABLE);
+    Assert.assertNull(tableContext.getOffsetDensityHistogram());
+    Assert.assertEquals("100", TableContextUtil.generateNextPartitionOffset(tableContext, COLUMN, "0"));
+  }
+
+  @Test
+  public void testNonIntegralOffsetKeepsConfiguredSize() throws Exception {
+    TableContext tableContext = createTableContext(DECIMAL_TABLE);
+    Assert.assertNull(tableContext.getOffsetDensityHistogram());
+  }
+}
@@ -38,6 +38,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -762,4 +763,143 @@ public class TestJdbcLookup {
       processorRunner.runDestroy();
     }
   }
+
+  @Test
+  public void testBatchLookup() throws Exception {
+    List<JdbcFieldColumnMapping> columnMappings = ImmutableList.of(
+        new JdbcFieldColumnMapping("FIRST_NAME", "/first_name")
+    );
+
+    JdbcLookupDProcessor processor = createProcessor();
+    processor.cacheConfig.enabled = true;
+    processor.batchLookupConfig = new BatchLookupConfig();
+    processor.batchLookupConfig.enabled = true;
+    processor.batchLookupConfig.keyExpression = "${record:value('/id')}";
+    processor.batchLookupConfig.keyColumn = "p_id";
+    processor.batchLookupConfig.query = "SELECT P_ID, FIRST_NAME FROM TEST.TEST_TABLE WHERE P_ID IN (?)";
+    // Forces more than one query per batch
+    processor.batchLookupConfig.maxKeysPerQuery = 2;
+
+    ProcessorRunner processorRunner = new ProcessorRunner.Builder(JdbcLookupDProcessor.class, processor)
+        .addConfiguration("query", "SELECT P_ID, FIRST_NAME FROM TEST.TEST_TABLE WHERE P_ID = ${record:value('/id')}")
+        .addConfiguration("columnMappings", columnMappings)
+        .addConfiguration("multipleValuesBehavior", MultipleValuesBehavior.FIRST_ONLY)
+        .addConfiguration("missingValuesBehavior", MissingValuesBehavior.PASS_RECORD_ON)
+        .addConfiguration("maxClobSize", 1000)
+        .addConfiguration("maxBlobSize", 1000)
+        .addOutputLane("lane")
+        .build();
+
+    List<Record> records = new ArrayList<>();
+    for (int id : new int[] {1, 2, 1, 4, 99}) {
+      Record record = RecordCreator.create();
+      LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
+      fields.put("id", Field.create(id));
+      record.set(Field.create(fields));
+      records.add(record);
+    }
+
+    processorRunner.runInit();
+    try {
+      List<Record> output = processorRunner.runProcess(records).getRecords().get("lane");
+      Assert.assertEquals(5, output.size());
+      Assert.assertEquals("Adam", output.get(0).get("/first_name").getValueAsString());
+      Assert.assertEquals("Jon", output.get(1).get("/first_name").getValueAsString());
+      Assert.assertEquals("Adam", output.get(2).get("/first_name").getValueAsString());
+      Assert.assertEquals("Girish", output.get(3).get("/first_name").getValueAsString());
+      Assert.assertNull(output.get(4).get("/first_name"));
+
+      // Looked up values are cached like single lookups
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("UPDATE TEST.TEST_TABLE SET FIRST_NAME = 'Changed' WHERE P_ID = 1");
+      }
+      output = processorRunner.runProcess(ImmutableList.of(records.get(0))).getRecords().get("lane");
+      Assert.assertEquals("Adam", output.get(0).get("/first_name").getValueAsString());
+    } finally {
+      processorRunner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testBatchLookupKeyFormats() throws Exception {
+    List<JdbcFieldColumnMapping> columnMappings = ImmutableList.of(
+        new JdbcFieldColumnMapping("FIRST_NAME", "/first_name")
+    );
+
+    JdbcLookupDProcessor processor = createProcessor();
+    processor.cacheConfig.enabled = true;
+    processor.cacheConfig.retryOnCacheMiss = false;
+    processor.batchLookupConfig = new BatchLookupConfig();
+    processor.batchLookupConfig.enabled = true;
+    processor.batchLookupConfig.keyExpression = "${record:value('/id')}";
+    processor.batchLookupConfig.keyColumn = "P_ID";
+    processor.batchLookupConfig.query = "SELECT P_ID, FIRST_NAME FROM TEST.TEST_TABLE WHERE P_ID IN (?)";
+
+    ProcessorRunner processorRunner = new ProcessorRunner.Builder(JdbcLookupDProcessor.class, processor)
+        .addConfiguration("query", "SELECT P_ID, FIRST_NAME FROM TEST.TEST_TABLE WHERE P_ID = ${record:value('/id')}")
+        .addConfiguration("columnMappings", columnMappings)
+        .addConfiguration("multipleValuesBehavior", MultipleValuesBehavior.FIRST_ONLY)
+        .addConfiguration("missingValuesBehavior", MissingValuesBehavior.SEND_TO_ERROR)
+        .addConfiguration("maxClobSize", 1000)
+        .addConfiguration("maxBlobSize", 1000)
+        .addOutputLane("lane")
+        .build();
+
+    List<Record> records = new ArrayList<>();
+    // a decimal with a scale matches the INT key column, a zero padded string doesn't but is still a hit
+    for (Field id : new Field[] {Field.create(new BigDecimal("2.00")), Field.create("004")}) {
+      Record record = RecordCreator.create();
+      LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
+      fields.put("id", id);
+      record.set(Field.create(fields));
+      records.add(record);
+    }
+
+    processorRunner.runInit();
+    try {
+      StageRunner.Output output = processorRunner.runProcess(records);
+      Assert.assertTrue(processorRunner.getErrorRecords().isEmpty());
+      List<Record> lane = output.getRecords().get("lane");
+      Assert.assertEquals(2, lane.size());
+      Assert.assertEquals("Jon", lane.get(0).get("/first_name").getValueAsString());
+      Assert.assertEquals("Girish", lane.get(1).get("/first_name").getValueAsString());
+    } finally {
+      processorRunner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testNormalizeKey() {
+    Assert.assertEquals("5", JdbcLookupLoader.normalizeKey(new BigDecimal("5.00")));
+    Assert.assertEquals("5", JdbcLookupLoader.normalizeKey(5L));
+    Assert.assertEquals("500", JdbcLookupLoader.normalizeKey(new BigDecimal("5E+2")));
+    Assert.assertEquals("0", JdbcLookupLoader.normalizeKey(new BigDecimal("0.000")));
+    Assert.assertEquals("2.5", JdbcLookupLoader.normalizeKey(2.5d));
+    Assert.assertEquals("abc", JdbcLookupLoader.normalizeKey("abc   "));
+    Assert.assertEquals("1000", JdbcLookupLoader.normalizeKey(new Date(1000)));
+  }
+
+  @Test
+  public void testBatchLookupInvalidQuery() throws Exception {
+    JdbcLookupDProcessor processor = createProcessor();
+    processor.batchLookupConfig = new BatchLookupConfig();
+    processor.batchLookupConfig.enabled = true;
+    processor.batchLookupConfig.keyExpression = "${record:value('/id')}";
+    processor.batchLookupConfig.keyColumn = "P_ID";
+    processor.batchLookupConfig.query = "SELECT P_ID FROM TEST.TEST_TABLE";
+
+    ProcessorRunner processorRunner = new ProcessorRunner.Builder(JdbcLookupDProcessor.class, processor)
+        .addConfiguration("query", mapQuery)
+        .addConfiguration("columnMappings", ImmutableList.of(new JdbcFieldColumnMapping("P_ID", "/p_id")))
+        .addConfiguration("multipleValuesBehavior", MultipleValuesBehavior.FIRST_ONLY)
+        .addConfiguration("missingValuesBehavior", MissingValuesBehavior.SEND_TO_ERROR)
+        .addConfiguration("maxClobSize", 1000)
+        .addConfiguration("maxBlobSize", 1000)
+        .addOutputLane("lane")
+        .build();
+
+    List<Stage.ConfigIssue> issues = processorRunner.runValidateConfigs();
+    assertEquals(1, issues.size());
+    Assert.assertTrue(issues.get(0).toString().contains("JDBC_414"));
+  }
 }
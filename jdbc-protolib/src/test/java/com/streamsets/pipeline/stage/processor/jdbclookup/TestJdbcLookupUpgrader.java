@@ -18,11 +18,15 @@ package com.streamsets.pipeline.stage.processor.jdbclookup;
 
 import com.streamsets.pipeline.api.Config;
 import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.StageUpgrader;
 import com.streamsets.pipeline.config.upgrade.UpgraderTestUtils;
 import com.streamsets.pipeline.stage.common.MissingValuesBehavior;
 import com.streamsets.pipeline.stage.processor.jdbclookup.JdbcLookupProcessorUpgrader;
+import com.streamsets.pipeline.upgrader.SelectorStageUpgrader;
 import org.junit.Test;
+import org.mockito.Mockito;
 
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -56,4 +60,23 @@ public class TestJdbcLookupUpgrader {
 
     UpgraderTestUtils.assertExists(upgradedConfigs, "missingValuesBehavior", MissingValuesBehavior.SEND_TO_ERROR);
   }
+
+  @Test
+  public void testUpgradeV3toV4() throws StageException {
+    List<Config> configs = new ArrayList<>();
+
+    URL yamlResource = ClassLoader.getSystemClassLoader().getResource("upgrader/JdbcLookupDProcessor.yaml");
+    StageUpgrader upgrader = new SelectorStageUpgrader("stage", new JdbcLookupProcessorUpgrader(), yamlResource);
+    StageUpgrader.Context context = Mockito.mock(StageUpgrader.Context.class);
+    Mockito.doReturn(3).when(context).getFromVersion();
+    Mockito.doReturn(4).when(context).getToVersion();
+
+    List<Config> upgradedConfigs = upgrader.upgrade(configs, context);
+
+    UpgraderTestUtils.assertExists(upgradedConfigs, "batchLookupConfig.enabled", false);
+    UpgraderTestUtils.assertExists(upgradedConfigs, "batchLookupConfig.keyExpression", "");
+    UpgraderTestUtils.assertExists(upgradedConfigs, "batchLookupConfig.keyColumn", "");
+    UpgraderTestUtils.assertExists(upgradedConfigs, "batchLookupConfig.query", "");
+    UpgraderTestUtils.assertExists(upgradedConfigs, "batchLookupConfig.maxKeysPerQuery", 1000);
+  }
 }
@@ -36,7 +36,6 @@ import com.streamsets.pipeline.stage.destination.lib.ToOriginResponseConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -49,6 +48,9 @@ import java.util.Set;
 public class KafkaTarget extends BaseTarget {
 
   private static final Logger LOG = LoggerFactory.getLogger(KafkaTarget.class);
+  private static final int INITIAL_MESSAGE_BUFFER_SIZE = 1024;
+  // messages for a whole partition can be large, don't hold on to more than this between batches
+  private static final int MAX_RETAINED_MESSAGE_BUFFER_SIZE = 16 * 1024 * 1024;
 
   private final KafkaTargetConfig conf;
   private final ToOriginResponseConfig responseConf;
@@ -57,6 +59,7 @@ public class KafkaTarget extends BaseTarget {
   private SdcKafkaProducer kafkaProducer;
   private ErrorRecordHandler errorRecordHandler;
   private Set<String> accessedTopic;
+  private MessageBuffer messageBuffer;
 
   public KafkaTarget(KafkaTargetConfig conf, ToOriginResponseConfig responseConf) {
     this.conf = conf;
@@ -72,6 +75,7 @@ public class KafkaTarget extends BaseTarget {
     kafkaProducer = conf.getKafkaProducer();
     errorRecordHandler = new DefaultErrorRecordHandler(getContext());
     accessedTopic = new HashSet<>();
+    messageBuffer = new MessageBuffer(INITIAL_MESSAGE_BUFFER_SIZE, MAX_RETAINED_MESSAGE_BUFFER_SIZE);
     return issues;
   }
 
@@ -151,11 +155,11 @@ public class KafkaTarget extends BaseTarget {
           for (Map.Entry<Object, List<Record>> entry : perPartition.entrySet()) {
             Object partition = entry.getKey();
             List<Record> list = entry.getValue();
-            ByteArrayOutputStream baos = new ByteArrayOutputStream(1024 * list.size());
+            messageBuffer.reset();
             Record currentRecord = null;
             try {
               DataGenerator generator = conf.dataGeneratorFormatConfig.getDataGeneratorFactory()
-                .getGenerator(baos);
+                .getGenerator(messageBuffer);
               for (Record record : list) {
                 currentRecord = record;
                 generator.write(record);
@@ -163,7 +167,7 @@ public class KafkaTarget extends BaseTarget {
               }
               currentRecord = null;
               generator.close();
-              byte[] bytes = baos.toByteArray();
+              byte[] bytes = messageBuffer.toMessage();
               // multiple records squashed.. so using partition as the message key
               kafkaProducer.enqueueMessage(entryTopic, bytes, partition);
             } catch (StageException ex) {
@@ -295,11 +299,11 @@ public class KafkaTarget extends BaseTarget {
   }
 
   private Object serializeRecord(Record record) throws StageException, IOException {
-    ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
-    DataGenerator generator = conf.dataGeneratorFormatConfig.getDataGeneratorFactory().getGenerator(baos);
+    messageBuffer.reset();
+    DataGenerator generator = conf.dataGeneratorFormatConfig.getDataGeneratorFactory().getGenerator(messageBuffer);
     generator.write(record);
     generator.close();
-    return baos.toByteArray();
+    return messageBuffer.toMessage();
   }
 
   @Override
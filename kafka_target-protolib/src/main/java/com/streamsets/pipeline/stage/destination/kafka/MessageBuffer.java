@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Output buffer reused for all the messages serialized by a KafkaTarget instance (so by a single pipeline runner).
+ * <p/>
+ * The buffer grows to the size of the largest message and stays there, so serializing a message doesn't go through
+ * the buffer doublings (and copies) of a new ByteArrayOutputStream. The producer keeps the message bytes until they
+ * are sent, so each message is still handed over as its own array of the exact size.
+ */
+class MessageBuffer extends ByteArrayOutputStream {
+  private final int initialSize;
+  private final int maxRetainedSize;
+
+  /**
+   * @param initialSize initial size of the buffer.
+   * @param maxRetainedSize buffers that grew larger than this are released after the message is taken.
+   */
+  MessageBuffer(int initialSize, int maxRetainedSize) {
+    super(initialSize);
+    this.initialSize = initialSize;
+    this.maxRetainedSize = maxRetainedSize;
+  }
+
+  /**
+   * Returns the bytes written since the last call and resets the buffer for the next message.
+   */
+  synchronized byte[] toMessage() {
+    byte[] message = Arrays.copyOf(buf, count);
+    count = 0;
+    if (buf.length > maxRetainedSize) {
+      buf = new byte[initialSize];
+    }
+    return message;
+  }
+
+  int capacity() {
+    return buf.length;
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.kafka;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestMessageBuffer {
+
+  @Test
+  public void testBufferIsReused() throws Exception {
+    MessageBuffer buffer = new MessageBuffer(4, 1024);
+    buffer.write(new byte[] {1, 2, 3, 4, 5, 6});
+    int capacity = buffer.capacity();
+    Assert.assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6}, buffer.toMessage());
+
+    buffer.write(new byte[] {7, 8});
+    Assert.assertArrayEquals(new byte[] {7, 8}, buffer.toMessage());
+    Assert.assertEquals(capacity, buffer.capacity());
+    Assert.assertEquals(0, buffer.toMessage().length);
+  }
+
+  @Test
+  public void testLargeBufferIsReleased() throws Exception {
+    MessageBuffer buffer = new MessageBuffer(4, 8);
+    buffer.write(new byte[16]);
+    Assert.assertEquals(16, buffer.toMessage().length);
+    Assert.assertEquals(4, buffer.capacity());
+  }
+}
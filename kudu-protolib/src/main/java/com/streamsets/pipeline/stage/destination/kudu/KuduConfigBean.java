@@ -109,14 +109,28 @@ public class KuduConfigBean {
       required = true,
       type = ConfigDef.Type.NUMBER,
       label = "Mutation Buffer Space (records)",
-      description = "Sets the buffer size that Kudu client uses for a single batch. Should be greater than or" +
-        " equal to the number of records in the batch passed from the pipeline.",
+      description = "Sets the buffer size that Kudu client uses for a single batch. With manual flush mode, should be" +
+        " greater than or equal to the number of records in the batch passed from the pipeline.",
       defaultValue = "1000",
       displayPosition = 15,
       group = "ADVANCED"
   )
   public int mutationBufferSpace;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "MANUAL",
+      label = "Flush Mode",
+      description = "Manual sends the operations of each table at the end of the batch and waits for them. Background" +
+          " sends operations whenever the mutation buffer fills up, while the rest of the batch is converted, and" +
+          " waits for all of them at the end of the batch",
+      displayPosition = 16,
+      group = "ADVANCED"
+  )
+  @ValueChooserModel(KuduFlushModeChooserValues.class)
+  public KuduFlushMode flushMode = KuduFlushMode.MANUAL;
+
   @ConfigDef(
       required = false,
       type = ConfigDef.Type.NUMBER,
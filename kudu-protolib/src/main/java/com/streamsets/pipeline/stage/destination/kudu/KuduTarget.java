@@ -58,6 +58,7 @@ import org.apache.kudu.client.Operation;
 import org.apache.kudu.client.OperationResponse;
 import org.apache.kudu.client.PartialRow;
 import org.apache.kudu.client.RowError;
+import org.apache.kudu.client.RowErrorsAndOverflowStatus;
 import org.apache.kudu.client.SessionConfiguration;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -68,6 +69,7 @@ import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -324,7 +326,14 @@ public class KuduTarget extends BaseTarget {
       );
     }
     session.setMutationBufferSpace(configBean.mutationBufferSpace);
-    session.setFlushMode(SessionConfiguration.FlushMode.MANUAL_FLUSH);
+    if (configBean.flushMode == KuduFlushMode.BACKGROUND) {
+      // apply() blocks once the mutation buffer is full and its previous flush is still in flight
+      session.setFlushMode(SessionConfiguration.FlushMode.AUTO_FLUSH_BACKGROUND);
+      // row errors are only known once the batch is flushed, keep room for as many of them as buffered operations
+      session.setErrorCollectorSpace(configBean.mutationBufferSpace);
+    } else {
+      session.setFlushMode(SessionConfiguration.FlushMode.MANUAL_FLUSH);
+    }
     return session;
   }
 
@@ -410,6 +419,9 @@ public class KuduTarget extends BaseTarget {
     );
 
     KuduSession session = Preconditions.checkNotNull(kuduSession, KUDU_SESSION);
+    final boolean backgroundFlush = configBean.flushMode == KuduFlushMode.BACKGROUND;
+    // with background flushing, row errors of all the tables are only known once the whole batch is flushed
+    Map<Operation, AppliedOperation> appliedOperations = new IdentityHashMap<>();
 
     for (String tableName : partitions.keySet()) {
 
@@ -479,7 +491,11 @@ public class KuduTarget extends BaseTarget {
                 operation.getRow().toString()
             );
             try {
-              keyToRecordMap.put(operation.getRow().stringifyRowKey(), record);
+              if (backgroundFlush) {
+                appliedOperations.put(operation, new AppliedOperation(tableName, record));
+              } else {
+                keyToRecordMap.put(operation.getRow().stringifyRowKey(), record);
+              }
               session.apply(operation);
             } catch (IllegalStateException ex) {
               // IllegalStateException is thrown when there is issue in column values
@@ -494,6 +510,9 @@ public class KuduTarget extends BaseTarget {
           errorRecordHandler.onError(new OnRecordErrorException(record, Errors.KUDU_03, ex.getMessage(), ex));
         }
       }
+      if (backgroundFlush) {
+        continue;
+      }
       // from here, executed at the end of batch
       try {
         List<RowError> rowErrors = Collections.emptyList();
@@ -506,26 +525,71 @@ public class KuduTarget extends BaseTarget {
           LOG.warn(Errors.KUDU_03.getMessage(), error.toString());
         }
         for (RowError error : rowErrors) {
-          Operation operation = error.getOperation();
-          String rowKey = operation.getRow().stringifyRowKey();
-          Record errorRecord = keyToRecordMap.get(rowKey);
-          if (error.getErrorStatus().isAlreadyPresent()) {
-            // Failed due to inserting duplicate row key
-            errorRecordHandler.onError(new OnRecordErrorException(errorRecord, Errors.KUDU_08, rowKey));
-          } else if (error.getErrorStatus().isNotFound()) {
-            // Row key not found error, mostly for update and delete operations.
-            errorRecordHandler.onError(new OnRecordErrorException(errorRecord, Errors.KUDU_15, rowKey, tableName));
-          } else {
-            // Failure is most likely caused by setting, network, or corrupted table.
-            // Worth throwing StageException.
-            throw new StageException(Errors.KUDU_03, error.toString());
-          }
+          String rowKey = error.getOperation().getRow().stringifyRowKey();
+          handleRowError(error, keyToRecordMap.get(rowKey), rowKey, tableName);
         }
       } catch (KuduException ex) {
         LOG.error(Errors.KUDU_03.getMessage(), ex.toString(), ex);
         throw new StageException(Errors.KUDU_03, ex.getMessage(), ex);
       }
     }
+
+    if (backgroundFlush) {
+      flushInBackgroundMode(session, appliedOperations);
+    }
+  }
+
+  /**
+   * Waits for all the operations of the batch to be acknowledged, the batch (and so its offset) is only done then.
+   * Operations flushed in the background report their failures through the pending errors of the session.
+   */
+  private void flushInBackgroundMode(
+      KuduSession session,
+      Map<Operation, AppliedOperation> appliedOperations
+  ) throws StageException {
+    try {
+      session.flush();
+    } catch (KuduException ex) {
+      LOG.error(Errors.KUDU_03.getMessage(), ex.toString(), ex);
+      throw new StageException(Errors.KUDU_03, ex.getMessage(), ex);
+    }
+    RowErrorsAndOverflowStatus pendingErrors = session.getPendingErrors();
+    RowError[] rowErrors = pendingErrors.getRowErrors();
+    // log ALL errors then process them
+    for (RowError error : rowErrors) {
+      LOG.warn(Errors.KUDU_03.getMessage(), error.toString());
+    }
+    if (pendingErrors.isOverflowed()) {
+      // some failed rows are not known, they can't be sent to error
+      throw new StageException(Errors.KUDU_03, "Too many row errors, some of them were discarded by the Kudu client");
+    }
+    for (RowError error : rowErrors) {
+      AppliedOperation appliedOperation = appliedOperations.get(error.getOperation());
+      if (appliedOperation == null) {
+        // not an operation of this batch
+        throw new StageException(Errors.KUDU_03, error.toString());
+      }
+      handleRowError(
+          error,
+          appliedOperation.record,
+          error.getOperation().getRow().stringifyRowKey(),
+          appliedOperation.tableName
+      );
+    }
+  }
+
+  private void handleRowError(RowError error, Record errorRecord, String rowKey, String tableName) throws StageException {
+    if (error.getErrorStatus().isAlreadyPresent()) {
+      // Failed due to inserting duplicate row key
+      errorRecordHandler.onError(new OnRecordErrorException(errorRecord, Errors.KUDU_08, rowKey));
+    } else if (error.getErrorStatus().isNotFound()) {
+      // Row key not found error, mostly for update and delete operations.
+      errorRecordHandler.onError(new OnRecordErrorException(errorRecord, Errors.KUDU_15, rowKey, tableName));
+    } else {
+      // Failure is most likely caused by setting, network, or corrupted table.
+      // Worth throwing StageException.
+      throw new StageException(Errors.KUDU_03, error.toString());
+    }
   }
 
   /**
@@ -589,4 +653,14 @@ public class KuduTarget extends BaseTarget {
     getContext().publishLineageEvent(event);
 
   }
+
+  private static class AppliedOperation {
+    private final String tableName;
+    private final Record record;
+
+    AppliedOperation(String tableName, Record record) {
+      this.tableName = tableName;
+      this.record = record;
+    }
+  }
 }
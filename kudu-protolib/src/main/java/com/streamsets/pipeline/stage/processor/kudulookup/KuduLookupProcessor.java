@@ -183,6 +183,14 @@ public class KuduLookupProcessor extends SingleLaneRecordProcessor {
       }
     }
 
+    LookupUtils.validateCacheConfig(
+        getContext(),
+        Groups.LOOKUP.name(),
+        KuduLookupConfig.CONF_PREFIX + "cache.",
+        conf.cache,
+        issues
+    );
+
     if (issues.isEmpty()) {
       store = new KuduLookupLoader(getContext(), kuduClient, keyColumns, columnToField, conf);
       cache = LookupUtils.buildCache(store, conf.cache);
@@ -195,6 +203,9 @@ public class KuduLookupProcessor extends SingleLaneRecordProcessor {
   @Override
   public void destroy() {
     super.destroy();
+    if (cache != null) {
+      LookupUtils.closeCache(cache);
+    }
     if (kuduSession != null) {
       try {
         List<OperationResponse> result = kuduSession.close().join();
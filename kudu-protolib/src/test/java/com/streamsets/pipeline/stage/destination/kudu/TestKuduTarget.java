@@ -28,6 +28,7 @@ import com.streamsets.pipeline.lib.operation.OperationType;
 import com.streamsets.pipeline.lib.operation.UnsupportedOperationAction;
 import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.pipeline.sdk.TargetRunner;
+import com.streamsets.pipeline.stage.lib.kudu.Errors;
 import com.streamsets.pipeline.stage.lib.kudu.KuduFieldMappingConfig;
 import junit.framework.Assert;
 import org.apache.kudu.ColumnSchema;
@@ -40,6 +41,9 @@ import org.apache.kudu.client.KuduSession;
 import org.apache.kudu.client.KuduTable;
 import org.apache.kudu.client.Operation;
 import org.apache.kudu.client.PartialRow;
+import org.apache.kudu.client.RowError;
+import org.apache.kudu.client.RowErrorsAndOverflowStatus;
+import org.apache.kudu.client.Status;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -62,13 +66,17 @@ import java.util.List;
     KuduClient.class,
     KuduTable.class,
     KuduSession.class,
-    Operation.class
+    Operation.class,
+    RowError.class,
+    RowErrorsAndOverflowStatus.class,
+    Status.class
     })
 @PowerMockIgnore({ "javax.net.ssl.*" })
 public class TestKuduTarget {
 
   private static final String KUDU_MASTER = "localhost:7051";
   private final String tableName = "test";
+  private KuduTable table;
 
   @Before
   public void setup() {
@@ -97,7 +105,7 @@ public class TestKuduTarget {
     final Schema schema = new Schema(columns);
 
     // Mock KuduTable class
-    KuduTable table = PowerMockito.mock(KuduTable.class);
+    table = PowerMockito.mock(KuduTable.class);
     PowerMockito.stub(
         PowerMockito.method(KuduClient.class, "openTable"))
         .toReturn(table);
@@ -241,6 +249,102 @@ public class TestKuduTarget {
     }
   }
 
+  @Test
+  public void testBackgroundFlush() throws Exception{
+    KuduTarget target = new KuduTarget(new KuduConfigBeanBuilder()
+        .setMaster(KUDU_MASTER)
+        .setTableName(tableName)
+        .setDefaultOperation(KuduOperationType.INSERT)
+        .setUnsupportedAction(UnsupportedOperationAction.SEND_TO_ERROR)
+        .setFlushMode(KuduFlushMode.BACKGROUND)
+        .build());
+    TargetRunner targetRunner = getTargetRunner(target);
+    targetRunner.runInit();
+
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      Record record =  RecordCreator.create();
+      LinkedHashMap<String, Field> field = new LinkedHashMap<>();
+      field.put("key", Field.create(i));
+      field.put("value", Field.create(Field.Type.STRING, i == 0 ? "value" : null));
+      field.put("name", Field.create(Field.Type.STRING, i == 0 ? "name" : null));
+      record.set(Field.createListMap(field));
+      records.add(record);
+    }
+
+    try {
+      targetRunner.runWrite(records);
+
+      List<Record> errors = targetRunner.getErrorRecords();
+      Assert.assertEquals(1, errors.size());
+      Assert.assertEquals(1, errors.get(0).get("/key").getValueAsInteger());
+    } finally {
+      targetRunner.runDestroy();
+    }
+  }
+
+  /**
+   * Row errors reported by a background flush must be sent to error with the record of the failed operation.
+   */
+  @Test
+  public void testBackgroundFlushRowErrors() throws Exception{
+    List<Insert> inserts = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Insert insert = PowerMockito.mock(Insert.class);
+      PartialRow row = PowerMockito.mock(PartialRow.class);
+      PowerMockito.when(row.stringifyRowKey()).thenReturn("(int32 key=" + i + ")");
+      PowerMockito.when(insert.getRow()).thenReturn(row);
+      inserts.add(insert);
+    }
+    PowerMockito.when(table.newInsert()).thenReturn(inserts.get(0), inserts.get(1), inserts.get(2));
+
+    RowErrorsAndOverflowStatus pendingErrors = PowerMockito.mock(RowErrorsAndOverflowStatus.class);
+    PowerMockito.when(pendingErrors.getRowErrors()).thenReturn(new RowError[] {
+        mockRowError(inserts.get(0), true, false),
+        mockRowError(inserts.get(2), false, true)
+    });
+    PowerMockito.stub(PowerMockito.method(KuduSession.class, "getPendingErrors")).toReturn(pendingErrors);
+
+    TargetRunner targetRunner = getTargetRunner(getBackgroundFlushTarget());
+    targetRunner.runInit();
+
+    try {
+      targetRunner.runWrite(createRecords(3));
+
+      List<Record> errors = targetRunner.getErrorRecords();
+      Assert.assertEquals(2, errors.size());
+      Assert.assertEquals(0, errors.get(0).get("/key").getValueAsInteger());
+      Assert.assertEquals(Errors.KUDU_08.name(), errors.get(0).getHeader().getErrorCode());
+      Assert.assertEquals(2, errors.get(1).get("/key").getValueAsInteger());
+      Assert.assertEquals(Errors.KUDU_15.name(), errors.get(1).getHeader().getErrorCode());
+    } finally {
+      targetRunner.runDestroy();
+    }
+  }
+
+  /**
+   * When the Kudu client dropped some row errors the failed records are unknown, the batch must fail.
+   */
+  @Test
+  public void testBackgroundFlushRowErrorsOverflow() throws Exception{
+    RowErrorsAndOverflowStatus pendingErrors = PowerMockito.mock(RowErrorsAndOverflowStatus.class);
+    PowerMockito.when(pendingErrors.getRowErrors()).thenReturn(new RowError[0]);
+    PowerMockito.when(pendingErrors.isOverflowed()).thenReturn(true);
+    PowerMockito.stub(PowerMockito.method(KuduSession.class, "getPendingErrors")).toReturn(pendingErrors);
+
+    TargetRunner targetRunner = getTargetRunner(getBackgroundFlushTarget());
+    targetRunner.runInit();
+
+    try {
+      targetRunner.runWrite(createRecords(2));
+      Assert.fail("should throw StageException");
+    } catch (StageException e) {
+      Assert.assertEquals(Errors.KUDU_03, e.getErrorCode());
+    } finally {
+      targetRunner.runDestroy();
+    }
+  }
+
   /**
    * Checks that a LineageEvent is returned.
    * @throws Exception
@@ -450,6 +554,40 @@ public class TestKuduTarget {
         .build();
   }
 
+  private KuduTarget getBackgroundFlushTarget() {
+    return new KuduTarget(new KuduConfigBeanBuilder()
+        .setMaster(KUDU_MASTER)
+        .setTableName(tableName)
+        .setDefaultOperation(KuduOperationType.INSERT)
+        .setUnsupportedAction(UnsupportedOperationAction.SEND_TO_ERROR)
+        .setFlushMode(KuduFlushMode.BACKGROUND)
+        .build());
+  }
+
+  private static List<Record> createRecords(int count) {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Record record =  RecordCreator.create();
+      LinkedHashMap<String, Field> field = new LinkedHashMap<>();
+      field.put("key", Field.create(i));
+      field.put("value", Field.create("value"));
+      field.put("name", Field.create("name"));
+      record.set(Field.createListMap(field));
+      records.add(record);
+    }
+    return records;
+  }
+
+  private static RowError mockRowError(Operation operation, boolean alreadyPresent, boolean notFound) {
+    Status status = PowerMockito.mock(Status.class);
+    PowerMockito.when(status.isAlreadyPresent()).thenReturn(alreadyPresent);
+    PowerMockito.when(status.isNotFound()).thenReturn(notFound);
+    RowError error = PowerMockito.mock(RowError.class);
+    PowerMockito.when(error.getOperation()).thenReturn(operation);
+    PowerMockito.when(error.getErrorStatus()).thenReturn(status);
+    return error;
+  }
+
   public class KuduConfigBeanBuilder {
 
     String kuduMaster;
@@ -457,6 +595,7 @@ public class TestKuduTarget {
     KuduOperationType defaultOperation;
     List<KuduFieldMappingConfig> mapping;
     UnsupportedOperationAction unsupportedAction;
+    KuduFlushMode flushMode = KuduFlushMode.MANUAL;
 
     public KuduConfigBeanBuilder setMaster(String master) {
       this.kuduMaster = master;
@@ -478,6 +617,11 @@ public class TestKuduTarget {
       return this;
     }
 
+    public KuduConfigBeanBuilder setFlushMode(KuduFlushMode flushMode) {
+      this.flushMode = flushMode;
+      return this;
+    }
+
     public KuduConfigBean build() {
       KuduConfigBean conf = new KuduConfigBean();
       conf.kuduMaster = kuduMaster;
@@ -485,6 +629,7 @@ public class TestKuduTarget {
       conf.defaultOperation = KuduOperationType.INSERT;
       conf.fieldMappingConfigs = mapping;
       conf.unsupportedAction = unsupportedAction;
+      conf.flushMode = flushMode;
       return conf;
     }
   }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * CacheLoader that runs reloads triggered by refreshAfterWrite in its own executor, so the lookup that hits a stale
+ * value gets the old value right away instead of waiting for the reload.
+ * <p/>
+ * The executor lives as long as the cache of the stage instance. Once closed, pending and new reloads keep the old
+ * value, so nothing runs against a data source that was released in the stage destroy().
+ * <p/>
+ * Guava 18+ provides CacheLoader.asyncReloading() for this, but some stage libraries run with older Guava versions.
+ */
+class AsyncReloadingCacheLoader<Key, Value> extends CacheLoader<Key, Value> implements Closeable {
+  private static final int REFRESH_THREADS = 2;
+
+  private final CacheLoader<Key, Value> delegate;
+  private final ExecutorService executor;
+  private volatile boolean closed;
+
+  AsyncReloadingCacheLoader(CacheLoader<Key, Value> delegate) {
+    this.delegate = delegate;
+    this.executor = Executors.newFixedThreadPool(
+        REFRESH_THREADS,
+        new ThreadFactoryBuilder().setNameFormat("Lookup Cache Refresher-%d").setDaemon(true).build()
+    );
+  }
+
+  @Override
+  public Value load(Key key) throws Exception {
+    return delegate.load(key);
+  }
+
+  @Override
+  public Map<Key, Value> loadAll(Iterable<? extends Key> keys) throws Exception {
+    return delegate.loadAll(keys);
+  }
+
+  @Override
+  public ListenableFuture<Value> reload(Key key, Value oldValue) {
+    if (closed) {
+      return Futures.immediateFuture(oldValue);
+    }
+    ListenableFutureTask<Value> task = ListenableFutureTask.create(
+        () -> closed ? oldValue : delegate.reload(key, oldValue).get()
+    );
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // Closed concurrently
+      return Futures.immediateFuture(oldValue);
+    }
+    return task;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    executor.shutdownNow();
+  }
+}
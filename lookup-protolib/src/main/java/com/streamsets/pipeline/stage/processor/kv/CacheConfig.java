@@ -46,6 +46,22 @@ public class CacheConfig {
   )
   public long maxSize = -1;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Maximum Cache Size (MB)",
+      min = -1,
+      defaultValue = "-1",
+      description = "Approximate amount of memory the cached values can use. If exceeded, values are evicted to make " +
+          "room. When set, it replaces the maximum entries to cache. Default value is -1 which only limits the number " +
+          "of entries",
+      dependsOn = "enabled",
+      triggeredByValue = "true",
+      displayPosition = 115,
+      group = "#0"
+  )
+  public long maxSizeMB = -1;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.MODEL,
@@ -86,6 +102,36 @@ public class CacheConfig {
   @ValueChooserModel(TimeUnitChooserValues.class)
   public TimeUnit timeUnit = TimeUnit.SECONDS;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Refresh Asynchronously",
+      defaultValue = "false",
+      description = "Reloads values in the background once they are older than the refresh time, while the old value " +
+          "keeps being returned. Lookups don't wait for the reload of frequently used values when they expire.",
+      displayPosition = 142,
+      dependencies = @Dependency(configName = "enabled", triggeredByValues = "true"),
+      group = "#0"
+  )
+  public boolean refreshAsync = false;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Refresh Time",
+      min = 1,
+      defaultValue = "1",
+      description = "Age after which a value is reloaded in the background, in the cache time unit. It should be " +
+          "lower than the expiration time.",
+      displayPosition = 144,
+      dependencies = {
+          @Dependency(configName = "enabled", triggeredByValues = "true"),
+          @Dependency(configName = "refreshAsync", triggeredByValues = "true")
+      },
+      group = "#0"
+  )
+  public long refreshTime = 1;
+
     @ConfigDef(
       required = true,
       type = ConfigDef.Type.BOOLEAN,
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Weigher;
+import com.streamsets.pipeline.api.Field;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Weighs cache entries by a rough estimate of their heap usage in bytes, so that lookup caches can be bounded by
+ * memory rather than by number of entries. The estimate covers the lookup value types (strings, fields, maps,
+ * lists and optionals), anything else is counted with a fixed object size.
+ */
+class CacheEntryWeigher implements Weigher<Object, Object> {
+  private static final int OBJECT_SIZE = 16;
+  private static final int REFERENCE_SIZE = 8;
+  private static final int BOXED_SIZE = 24;
+  private static final int MAP_ENTRY_SIZE = 32;
+
+  @Override
+  public int weigh(Object key, Object value) {
+    long weight = estimate(key) + estimate(value);
+    return (int) Math.min(weight, Integer.MAX_VALUE);
+  }
+
+  static long estimate(Object value) {
+    if (value == null) {
+      return 0;
+    } else if (value instanceof String) {
+      return OBJECT_SIZE + BOXED_SIZE + 2L * ((String) value).length();
+    } else if (value instanceof Field) {
+      Field field = (Field) value;
+      return OBJECT_SIZE + 3 * REFERENCE_SIZE + estimate(field.getValue());
+    } else if (value instanceof Map) {
+      long size = 3 * OBJECT_SIZE;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        size += MAP_ENTRY_SIZE + estimate(entry.getKey()) + estimate(entry.getValue());
+      }
+      return size;
+    } else if (value instanceof Collection) {
+      long size = 3 * OBJECT_SIZE;
+      for (Object element : (Collection<?>) value) {
+        size += REFERENCE_SIZE + estimate(element);
+      }
+      return size;
+    } else if (value instanceof java.util.Optional) {
+      return OBJECT_SIZE + estimate(((java.util.Optional<?>) value).orElse(null));
+    } else if (value instanceof Optional) {
+      return OBJECT_SIZE + estimate(((Optional<?>) value).orNull());
+    } else if (value instanceof byte[]) {
+      return OBJECT_SIZE + ((byte[]) value).length;
+    }
+    return BOXED_SIZE;
+  }
+}
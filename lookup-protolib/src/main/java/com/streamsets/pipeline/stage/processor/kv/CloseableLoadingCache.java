@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv;
+
+import com.google.common.cache.ForwardingLoadingCache;
+import com.google.common.cache.LoadingCache;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * LoadingCache that releases the resources of its loader (e.g. the background reload executor) when closed.
+ */
+class CloseableLoadingCache<Key, Value>
+    extends ForwardingLoadingCache.SimpleForwardingLoadingCache<Key, Value> implements Closeable {
+  private final Closeable loader;
+
+  CloseableLoadingCache(LoadingCache<Key, Value> delegate, Closeable loader) {
+    super(delegate);
+    this.loader = loader;
+  }
+
+  @Override
+  public void close() throws IOException {
+    loader.close();
+  }
+}
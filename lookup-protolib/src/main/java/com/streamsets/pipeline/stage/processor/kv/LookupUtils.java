@@ -18,13 +18,17 @@ package com.streamsets.pipeline.stage.processor.kv;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.impl.Utils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Optional;
 
 public class LookupUtils {
@@ -39,7 +43,7 @@ public class LookupUtils {
       throw new IllegalArgumentException("This stage does not support retry on cache miss feature.");
     }
 
-    return createBuilder(conf).build(cacheLoader);
+    return build(cacheLoader, conf);
   }
 
   @NotNull
@@ -51,11 +55,57 @@ public class LookupUtils {
   ) {
     return new OptionalLoadingCache(
       !conf.retryOnCacheMiss,
-      createBuilder(conf).build(cacheLoader),
+      build(cacheLoader, conf),
       defaultValue
     );
   }
 
+  /**
+   * Validates the cache configuration, reporting issues against the given group and config bean prefix (for example
+   * "conf.cache.").
+   */
+  public static void validateCacheConfig(
+      Stage.Context context,
+      String group,
+      String configPrefix,
+      CacheConfig conf,
+      List<Stage.ConfigIssue> issues
+  ) {
+    if (conf.enabled && conf.refreshAsync && conf.refreshTime >= conf.expirationTime) {
+      issues.add(context.createConfigIssue(
+          group,
+          configPrefix + "refreshTime",
+          Errors.LOOKUP_04,
+          conf.refreshTime,
+          conf.expirationTime
+      ));
+    }
+  }
+
+  /**
+   * Releases the resources held by a cache created by buildCache. Background reloads are stopped, so this must be
+   * called in the stage destroy() before the data source used by the cache loader is closed.
+   */
+  public static void closeCache(LoadingCache<?, ?> cache) {
+    if (cache instanceof Closeable) {
+      try {
+        ((Closeable) cache).close();
+      } catch (IOException e) {
+        LOG.warn("Error closing lookup cache: {}", e.toString(), e);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <Key, Value> LoadingCache<Key, Value> build(CacheLoader<Key, Value> cacheLoader, CacheConfig conf) {
+    CacheBuilder cacheBuilder = createBuilder(conf);
+    if (conf.enabled && conf.refreshAsync) {
+      AsyncReloadingCacheLoader<Key, Value> loader = new AsyncReloadingCacheLoader<>(cacheLoader);
+      return new CloseableLoadingCache<>(cacheBuilder.build(loader), loader);
+    }
+    return cacheBuilder.build(cacheLoader);
+  }
+
   private static CacheBuilder createBuilder(CacheConfig conf) {
     CacheBuilder cacheBuilder = CacheBuilder.newBuilder();
 
@@ -80,16 +130,27 @@ public class LookupUtils {
       }
     }
 
+    // Guava can bound the cache either by entries or by weight, not both
+    if (conf.enabled && conf.maxSizeMB > 0) {
+      cacheBuilder
+          .maximumWeight(conf.maxSizeMB * 1024 * 1024)
+          .weigher(new CacheEntryWeigher());
+    } else {
+      cacheBuilder.maximumSize(conf.maxSize);
+    }
+
+    if (conf.enabled && conf.refreshAsync && conf.refreshTime > 0) {
+      cacheBuilder.refreshAfterWrite(conf.refreshTime, conf.timeUnit);
+    }
+
     // CacheBuilder doesn't support specifying type thus suffers from erasure, so
     // we build it with this if / else logic.
     if (conf.evictionPolicyType == EvictionPolicyType.EXPIRE_AFTER_ACCESS) {
       cacheBuilder
-          .maximumSize(conf.maxSize)
           .expireAfterAccess(conf.expirationTime, conf.timeUnit)
       ;
     } else if (conf.evictionPolicyType == EvictionPolicyType.EXPIRE_AFTER_WRITE) {
       cacheBuilder
-          .maximumSize(conf.maxSize)
           .expireAfterWrite(conf.expirationTime, conf.timeUnit)
       ;
     } else {
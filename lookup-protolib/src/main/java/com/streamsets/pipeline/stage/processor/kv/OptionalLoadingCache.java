@@ -20,6 +20,8 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 
 import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
@@ -31,7 +33,7 @@ import java.util.concurrent.ExecutionException;
  * default values. The default values are always removed from the cache and hence values for
  * them will be looked up each time.
  */
-public class OptionalLoadingCache<Key, Value> implements LoadingCache<Key, Optional<Value>> {
+public class OptionalLoadingCache<Key, Value> implements LoadingCache<Key, Optional<Value>>, Closeable {
 
   private final boolean cacheMissingValues;
   private final LoadingCache<Key, Optional<Value>> delegate;
@@ -147,4 +149,11 @@ public class OptionalLoadingCache<Key, Value> implements LoadingCache<Key, Optio
   public void cleanUp() {
     delegate.cleanUp();
   }
+
+  @Override
+  public void close() throws IOException {
+    if (delegate instanceof Closeable) {
+      ((Closeable) delegate).close();
+    }
+  }
 }
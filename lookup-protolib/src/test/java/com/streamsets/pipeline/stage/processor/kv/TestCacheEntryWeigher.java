@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.pipeline.api.Field;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+public class TestCacheEntryWeigher {
+
+  @Test
+  public void testWeighs() {
+    CacheEntryWeigher weigher = new CacheEntryWeigher();
+
+    long shortString = CacheEntryWeigher.estimate("a");
+    long longString = CacheEntryWeigher.estimate("abcdefghij");
+    Assert.assertEquals(18, longString - shortString);
+
+    Field field = Field.create("abcdefghij");
+    Assert.assertTrue(CacheEntryWeigher.estimate(field) > longString);
+
+    Assert.assertTrue(
+        CacheEntryWeigher.estimate(ImmutableMap.of("a", field, "b", field)) >
+            CacheEntryWeigher.estimate(ImmutableMap.of("a", field))
+    );
+    Assert.assertTrue(
+        CacheEntryWeigher.estimate(ImmutableList.of(field, field)) >
+            CacheEntryWeigher.estimate(ImmutableList.of(field))
+    );
+    Assert.assertEquals(
+        CacheEntryWeigher.estimate(field) + 16,
+        CacheEntryWeigher.estimate(Optional.of(field))
+    );
+    Assert.assertEquals(
+        CacheEntryWeigher.estimate(field) + 16,
+        CacheEntryWeigher.estimate(com.google.common.base.Optional.of(field))
+    );
+    Assert.assertEquals(16 + 100, CacheEntryWeigher.estimate(new byte[100]));
+
+    Assert.assertEquals(shortString + longString, weigher.weigh("a", "abcdefghij"));
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.kv;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.streamsets.pipeline.api.Stage;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestLookupUtils {
+
+  private static CacheConfig createCacheConfig() {
+    CacheConfig conf = new CacheConfig();
+    conf.enabled = true;
+    conf.evictionPolicyType = EvictionPolicyType.EXPIRE_AFTER_WRITE;
+    conf.expirationTime = 10;
+    conf.timeUnit = TimeUnit.SECONDS;
+    return conf;
+  }
+
+  /**
+   * Loader returning "key-N" where N is the number of loads done so far. Loads after the first one block until the
+   * latch is released.
+   */
+  private static class CountingLoader extends CacheLoader<String, String> {
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch reloadLatch = new CountDownLatch(1);
+
+    @Override
+    public String load(String key) throws Exception {
+      int count = loads.incrementAndGet();
+      if (count > 1) {
+        reloadLatch.await();
+      }
+      return key + "-" + count;
+    }
+  }
+
+  @Test
+  public void testMaxSizeMB() throws Exception {
+    CacheConfig conf = createCacheConfig();
+    conf.maxSizeMB = 1;
+
+    LoadingCache<String, String> cache = LookupUtils.buildCache(new CacheLoader<String, String>() {
+      @Override
+      public String load(String key) {
+        return Strings.repeat("x", 1000);
+      }
+    }, conf);
+
+    for (int i = 0; i < 2000; i++) {
+      cache.get("key" + i);
+    }
+
+    // every entry weighs more than 2KB, so 1MB can't hold more than ~500 of them
+    Assert.assertTrue(cache.size() > 0);
+    Assert.assertTrue(cache.size() <= 512);
+  }
+
+  @Test
+  public void testAsyncRefresh() throws Exception {
+    CacheConfig conf = createCacheConfig();
+    conf.refreshAsync = true;
+    conf.refreshTime = 50;
+    conf.expirationTime = 60000;
+    conf.timeUnit = TimeUnit.MILLISECONDS;
+
+    CountingLoader loader = new CountingLoader();
+    LoadingCache<String, String> cache = LookupUtils.buildCache(loader, conf);
+    try {
+      Assert.assertEquals("a-1", cache.get("a"));
+      Thread.sleep(100);
+
+      // the reload is blocked, yet the stale value is returned right away
+      Assert.assertEquals("a-1", cache.get("a"));
+
+      loader.reloadLatch.countDown();
+      long deadline = System.currentTimeMillis() + 10000;
+      while (!"a-2".equals(cache.getIfPresent("a")) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals("a-2", cache.getIfPresent("a"));
+    } finally {
+      LookupUtils.closeCache(cache);
+    }
+  }
+
+  @Test
+  public void testNoReloadAfterClose() throws Exception {
+    CacheConfig conf = createCacheConfig();
+    conf.refreshAsync = true;
+    conf.refreshTime = 50;
+    conf.expirationTime = 60000;
+    conf.timeUnit = TimeUnit.MILLISECONDS;
+
+    CountingLoader loader = new CountingLoader();
+    loader.reloadLatch.countDown();
+    LoadingCache<String, Optional<String>> cache = LookupUtils.buildCache(
+        new CacheLoader<String, Optional<String>>() {
+          @Override
+          public Optional<String> load(String key) throws Exception {
+            return Optional.of(loader.load(key));
+          }
+        },
+        conf,
+        Optional.empty()
+    );
+
+    Assert.assertEquals("a-1", cache.get("a").get());
+    LookupUtils.closeCache(cache);
+    Thread.sleep(100);
+
+    Assert.assertEquals("a-1", cache.get("a").get());
+    Thread.sleep(100);
+    Assert.assertEquals("a-1", cache.get("a").get());
+    Assert.assertEquals(1, loader.loads.get());
+  }
+
+  @Test
+  public void testValidateRefreshTime() {
+    Stage.Context context = Mockito.mock(Stage.Context.class);
+    Mockito.when(context.createConfigIssue(
+        Mockito.anyString(),
+        Mockito.anyString(),
+        Mockito.any(),
+        Mockito.<Object>anyVararg()
+    ))
+        .thenReturn(Mockito.mock(Stage.ConfigIssue.class));
+
+    CacheConfig conf = createCacheConfig();
+    conf.refreshAsync = true;
+    conf.refreshTime = 5;
+    conf.expirationTime = 10;
+    List<Stage.ConfigIssue> issues = new ArrayList<>();
+    LookupUtils.validateCacheConfig(context, "LOOKUP", "conf.cache.", conf, issues);
+    Assert.assertTrue(issues.isEmpty());
+
+    conf.refreshTime = 10;
+    LookupUtils.validateCacheConfig(context, "LOOKUP", "conf.cache.", conf, issues);
+    Assert.assertEquals(1, issues.size());
+    Mockito.verify(context).createConfigIssue(
+        Mockito.eq("LOOKUP"),
+        Mockito.eq("conf.cache.refreshTime"),
+        Mockito.eq(Errors.LOOKUP_04),
+        Mockito.<Object>anyVararg()
+    );
+
+    // only relevant when refreshing asynchronously
+    issues.clear();
+    conf.refreshAsync = false;
+    LookupUtils.validateCacheConfig(context, "LOOKUP", "conf.cache.", conf, issues);
+    Assert.assertTrue(issues.isEmpty());
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.common.mongodb;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonReader;
+import org.bson.BsonSerializationException;
+import org.bson.BsonWriter;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the field tree of a record straight into BSON, without going through JSON.
+ * <p/>
+ * Unlike JSON, BSON keeps the types: DATE, DATETIME and TIME fields are written as BSON dates, DECIMAL fields as
+ * Decimal128 and BYTE_ARRAY fields as binary. The root field of the record must be a MAP or a LIST_MAP.
+ * <p/>
+ * Only encoding is supported.
+ */
+public class RecordBsonCodec implements Codec<Record> {
+
+  public static final RecordBsonCodec INSTANCE = new RecordBsonCodec();
+
+  /**
+   * Returns the record as a BSON document.
+   *
+   * @throws BsonSerializationException if the record can't be written as a document.
+   * @throws NumberFormatException if a DECIMAL field doesn't fit in a Decimal128.
+   */
+  public RawBsonDocument toBson(Record record) {
+    return new RawBsonDocument(record, this);
+  }
+
+  /**
+   * Returns a document with the given fields of the record, the values are encoded like in {@link #toBson(Record)}
+   * so that the document can be used to match documents written by this codec.
+   *
+   * @param fields map of document key to record field path.
+   */
+  public BsonDocument toBson(Record record, Map<String, String> fields) {
+    BsonDocument document = new BsonDocument();
+    BsonDocumentWriter writer = new BsonDocumentWriter(document);
+    writer.writeStartDocument();
+    for (Map.Entry<String, String> entry : fields.entrySet()) {
+      writer.writeName(entry.getKey());
+      writeField(writer, record.get(entry.getValue()));
+    }
+    writer.writeEndDocument();
+    return document;
+  }
+
+  @Override
+  public void encode(BsonWriter writer, Record record, EncoderContext encoderContext) {
+    Field root = record.get();
+    if (root == null || (root.getType() != Field.Type.MAP && root.getType() != Field.Type.LIST_MAP)) {
+      throw new BsonSerializationException(String.format(
+          "Record '%s' root field must be a MAP or LIST_MAP to be written as a document",
+          record.getHeader().getSourceId()
+      ));
+    }
+    writeField(writer, root);
+  }
+
+  @Override
+  public Record decode(BsonReader reader, DecoderContext decoderContext) {
+    throw new UnsupportedOperationException("Records can't be decoded from BSON");
+  }
+
+  @Override
+  public Class<Record> getEncoderClass() {
+    return Record.class;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeField(BsonWriter writer, Field field) {
+    Object value = (field == null) ? null : field.getValue();
+    if (value == null) {
+      writer.writeNull();
+      return;
+    }
+    switch (field.getType()) {
+      case BOOLEAN:
+        writer.writeBoolean((Boolean) value);
+        break;
+      case CHAR:
+        writer.writeString(String.valueOf((char) (Character) value));
+        break;
+      case BYTE:
+      case SHORT:
+      case INTEGER:
+        writer.writeInt32(((Number) value).intValue());
+        break;
+      case LONG:
+        writer.writeInt64((Long) value);
+        break;
+      case FLOAT:
+        // the float's decimal representation, not its binary expansion
+        writer.writeDouble(Double.parseDouble(value.toString()));
+        break;
+      case DOUBLE:
+        writer.writeDouble((Double) value);
+        break;
+      case DECIMAL:
+        writeDecimal(writer, (BigDecimal) value);
+        break;
+      case DATE:
+      case DATETIME:
+      case TIME:
+        writer.writeDateTime(((Date) value).getTime());
+        break;
+      case ZONED_DATETIME:
+        writer.writeString(((ZonedDateTime) value).format(DateTimeFormatter.ISO_ZONED_DATE_TIME));
+        break;
+      case STRING:
+        writer.writeString((String) value);
+        break;
+      case BYTE_ARRAY:
+        writer.writeBinaryData(new BsonBinary((byte[]) value));
+        break;
+      case MAP:
+      case LIST_MAP:
+        writer.writeStartDocument();
+        for (Map.Entry<String, Field> entry : ((Map<String, Field>) value).entrySet()) {
+          writer.writeName(entry.getKey());
+          writeField(writer, entry.getValue());
+        }
+        writer.writeEndDocument();
+        break;
+      case LIST:
+        writer.writeStartArray();
+        for (Field element : (List<Field>) value) {
+          writeField(writer, element);
+        }
+        writer.writeEndArray();
+        break;
+      default:
+        throw new BsonSerializationException(String.format("Field type '%s' is not supported", field.getType()));
+    }
+  }
+
+  /**
+   * Decimal128 holds at most 34 significant digits, larger values are rounded like a decimal128 arithmetic would.
+   * Values whose exponent is out of the Decimal128 range are written as strings.
+   */
+  private static void writeDecimal(BsonWriter writer, BigDecimal value) {
+    Decimal128 decimal;
+    try {
+      decimal = new Decimal128(value.round(MathContext.DECIMAL128));
+    } catch (NumberFormatException e) {
+      writer.writeString(value.toString());
+      return;
+    }
+    writer.writeDecimal128(decimal);
+  }
+
+}
@@ -15,10 +15,15 @@
  */
 package com.streamsets.pipeline.stage.destination.mongodb;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.DeleteOneModel;
 import com.mongodb.client.model.InsertOneModel;
 import com.mongodb.client.model.ReplaceOneModel;
@@ -30,40 +35,41 @@ import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.BaseTarget;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
-import com.streamsets.pipeline.api.ext.json.Mode;
 import com.streamsets.pipeline.api.impl.Utils;
-import com.streamsets.pipeline.config.DataFormat;
-import com.streamsets.pipeline.lib.generator.DataGenerator;
-import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
-import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
 import com.streamsets.pipeline.lib.operation.OperationType;
 import com.streamsets.pipeline.stage.common.DefaultErrorRecordHandler;
 import com.streamsets.pipeline.stage.common.ErrorRecordHandler;
 import com.streamsets.pipeline.stage.common.mongodb.Errors;
+import com.streamsets.pipeline.stage.common.mongodb.RecordBsonCodec;
 import org.apache.commons.io.IOUtils;
-import org.bson.Document;
+import org.bson.BSONException;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 
 public class MongoDBTarget extends BaseTarget {
   private static final Logger LOG = LoggerFactory.getLogger(MongoDBTarget.class);
 
-  public static final int DEFAULT_CAPACITY = 1024;
-
   private final MongoTargetConfigBean mongoTargetConfigBean;
   private MongoClient mongoClient;
-  private MongoCollection<Document> mongoCollection;
+  private MongoCollection<RawBsonDocument> mongoCollection;
   private ErrorRecordHandler errorRecordHandler;
-  private DataGeneratorFactory generatorFactory;
+  private Map<String, String> uniqueKeys;
+  private BulkWriteOptions bulkWriteOptions;
+  private ExecutorService writeExecutor;
 
   public MongoDBTarget(MongoTargetConfigBean mongoTargetConfigBean) {
     this.mongoTargetConfigBean = mongoTargetConfigBean;
@@ -88,21 +94,30 @@ public class MongoDBTarget extends BaseTarget {
     // since no issue was found in validation, the followings must not be null at this point.
     Utils.checkNotNull(mongoTargetConfigBean.mongoConfig.getMongoDatabase(), "MongoDatabase");
     mongoClient = Utils.checkNotNull(mongoTargetConfigBean.mongoConfig.getMongoClient(), "MongoClient");
-    mongoCollection = Utils.checkNotNull(mongoTargetConfigBean.mongoConfig.getMongoCollection(), "MongoCollection");
+    mongoCollection = Utils.checkNotNull(mongoTargetConfigBean.mongoConfig.getMongoCollection(), "MongoCollection")
+        .withDocumentClass(RawBsonDocument.class);
 
-    DataGeneratorFactoryBuilder builder = new DataGeneratorFactoryBuilder(
-        getContext(),
-        DataFormat.JSON.getGeneratorFormat()
-    );
-    builder.setCharset(StandardCharsets.UTF_8);
-    builder.setMode(Mode.MULTIPLE_OBJECTS);
-    generatorFactory = builder.build();
+    uniqueKeys = new LinkedHashMap<>();
+    if (mongoTargetConfigBean.uniqueKeyField != null) {
+      mongoTargetConfigBean.uniqueKeyField.forEach(key -> uniqueKeys.put(removeAndReplaceSlashes(key), key));
+    }
+
+    bulkWriteOptions = new BulkWriteOptions().ordered(mongoTargetConfigBean.orderedWrites);
+    if (!mongoTargetConfigBean.orderedWrites && mongoTargetConfigBean.maxConcurrentWrites > 1) {
+      writeExecutor = Executors.newFixedThreadPool(
+          mongoTargetConfigBean.maxConcurrentWrites,
+          new ThreadFactoryBuilder().setDaemon(true).setNameFormat("MongoDB Writer %d").build()
+      );
+    }
 
     return issues;
   }
 
   @Override
   public void destroy() {
+    if (writeExecutor != null) {
+      writeExecutor.shutdownNow();
+    }
     IOUtils.closeQuietly(mongoClient);
     super.destroy();
   }
@@ -110,16 +125,12 @@ public class MongoDBTarget extends BaseTarget {
   @Override
   public void write(Batch batch) throws StageException {
     Iterator<Record> records = batch.getRecords();
-    List<WriteModel<Document>> documentList = new ArrayList<>();
+    List<WriteModel<RawBsonDocument>> documentList = new ArrayList<>();
     List<Record> recordList = new ArrayList<>();
     while (records.hasNext()) {
       Record record = records.next();
       try {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream(DEFAULT_CAPACITY);
-        DataGenerator generator = generatorFactory.getGenerator(baos);
-        generator.write(record);
-        generator.close();
-        Document document = Document.parse(new String(baos.toByteArray()));
+        RawBsonDocument document = RecordBsonCodec.INSTANCE.toBson(record);
 
         // create a write model based on record header
         if (isNullOrEmpty(record.getHeader().getAttribute(OperationType.SDC_OPERATION_TYPE))) {
@@ -145,13 +156,9 @@ public class MongoDBTarget extends BaseTarget {
           case "REPLACE":
             validateUniqueKey(operation, record);
             recordList.add(record);
-            Document replaceKey = new Document();
-            mongoTargetConfigBean.uniqueKeyField.forEach( key ->
-                replaceKey.put(removeAndReplaceSlashes(key), record.get(key).getValue())
-            );
             documentList.add(
                 new ReplaceOneModel<>(
-                    replaceKey,
+                    RecordBsonCodec.INSTANCE.toBson(record, uniqueKeys),
                     document,
                     new UpdateOptions().upsert(mongoTargetConfigBean.isUpsert)
                 )
@@ -160,14 +167,10 @@ public class MongoDBTarget extends BaseTarget {
           case "UPDATE":
             validateUniqueKey(operation, record);
             recordList.add(record);
-            Document updateKey = new Document();
-            mongoTargetConfigBean.uniqueKeyField.forEach( key ->
-                updateKey.put(removeAndReplaceSlashes(key), record.get(key).getValue())
-            );
             documentList.add(
                 new UpdateOneModel<>(
-                    updateKey,
-                    new Document("$set", document),
+                    RecordBsonCodec.INSTANCE.toBson(record, uniqueKeys),
+                    new BsonDocument("$set", document),
                     new UpdateOptions().upsert(mongoTargetConfigBean.isUpsert)
                 )
             );
@@ -180,7 +183,7 @@ public class MongoDBTarget extends BaseTarget {
             LOG.error(Errors.MONGODB_14.getMessage(), operation, record.getHeader().getSourceId());
             throw new StageException(Errors.MONGODB_14, operation, record.getHeader().getSourceId());
         }
-      } catch (IOException | StageException | NumberFormatException e) {
+      } catch (BSONException | StageException | NumberFormatException e) {
         errorRecordHandler.onError(
             new OnRecordErrorException(
                 record,
@@ -192,29 +195,93 @@ public class MongoDBTarget extends BaseTarget {
       }
     }
 
-    if (!documentList.isEmpty()) {
-      try {
-        BulkWriteResult bulkWriteResult = mongoCollection.bulkWrite(documentList);
-        if (bulkWriteResult.wasAcknowledged()) {
-          LOG.trace(
-              "Wrote batch with {} inserts, {} updates and {} deletes",
-              bulkWriteResult.getInsertedCount(),
-              bulkWriteResult.getModifiedCount(),
-              bulkWriteResult.getDeletedCount()
-          );
+    if (documentList.isEmpty()) {
+      return;
+    }
+    if (writeExecutor == null || documentList.size() == 1) {
+      bulkWrite(documentList, recordList);
+    } else {
+      // unordered writes, the batch is split in contiguous parts written concurrently
+      int size = (documentList.size() + mongoTargetConfigBean.maxConcurrentWrites - 1)
+          / mongoTargetConfigBean.maxConcurrentWrites;
+      List<List<WriteModel<RawBsonDocument>>> documentParts = Lists.partition(documentList, size);
+      List<List<Record>> recordParts = Lists.partition(recordList, size);
+      List<Future<List<OnRecordErrorException>>> futures = new ArrayList<>(documentParts.size());
+      for (int i = 0; i < documentParts.size(); i++) {
+        List<WriteModel<RawBsonDocument>> documents = documentParts.get(i);
+        List<Record> partRecords = recordParts.get(i);
+        futures.add(writeExecutor.submit(() -> writeDocuments(documents, partRecords)));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        Throwable failure = null;
+        try {
+          for (OnRecordErrorException error : futures.get(i).get()) {
+            errorRecordHandler.onError(error);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          failure = e;
+        } catch (ExecutionException e) {
+          failure = e.getCause();
+        }
+        if (failure != null) {
+          for (Record record : recordParts.get(i)) {
+            errorRecordHandler.onError(
+                new OnRecordErrorException(record, Errors.MONGODB_17, failure.toString(), failure)
+            );
+          }
+        }
+      }
+    }
+  }
+
+  private void bulkWrite(List<WriteModel<RawBsonDocument>> documents, List<Record> records) throws StageException {
+    for (OnRecordErrorException error : writeDocuments(documents, records)) {
+      errorRecordHandler.onError(error);
+    }
+  }
+
+  /**
+   * Writes the documents with a single bulk write. As it can run on another thread than the pipeline runner, the
+   * failed records are returned instead of being sent to the error record handler.
+   */
+  private List<OnRecordErrorException> writeDocuments(
+      List<WriteModel<RawBsonDocument>> documents,
+      List<Record> records
+  ) {
+    List<OnRecordErrorException> errors = new ArrayList<>();
+    try {
+      BulkWriteResult bulkWriteResult = mongoCollection.bulkWrite(documents, bulkWriteOptions);
+      if (bulkWriteResult.wasAcknowledged()) {
+        LOG.trace(
+            "Wrote batch with {} inserts, {} updates and {} deletes",
+            bulkWriteResult.getInsertedCount(),
+            bulkWriteResult.getModifiedCount(),
+            bulkWriteResult.getDeletedCount()
+        );
+      }
+    } catch (MongoBulkWriteException e) {
+      if (mongoTargetConfigBean.orderedWrites) {
+        addErrors(errors, records, e);
+      } else {
+        // all the other operations were applied
+        for (BulkWriteError error : e.getWriteErrors()) {
+          Record record = records.get(error.getIndex());
+          errors.add(new OnRecordErrorException(record, Errors.MONGODB_17, error.getMessage()));
         }
-      } catch (MongoException e) {
-        for (Record record : recordList) {
-          errorRecordHandler.onError(
-              new OnRecordErrorException(
-                  record,
-                  Errors.MONGODB_17,
-                  e.toString(),
-                  e
-              )
-          );
+        if (e.getWriteConcernError() != null) {
+          addErrors(errors, records, e);
         }
       }
+    } catch (MongoException e) {
+      addErrors(errors, records, e);
+    }
+    return errors;
+  }
+
+  private static void addErrors(List<OnRecordErrorException> errors, List<Record> records, MongoException e) {
+    for (Record record : records) {
+      errors.add(new OnRecordErrorException(record, Errors.MONGODB_17, e.toString(), e));
     }
   }
 
@@ -61,4 +61,30 @@ public class MongoTargetConfigBean {
   @ValueChooserModel(WriteConcernChooserValues.class)
   public WriteConcernLabel writeConcern = WriteConcernLabel.JOURNALED;
 
+  @ConfigDef(
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Ordered Writes",
+      defaultValue = "true",
+      description = "Applies the operations of a batch in order, stopping at the first failed one. Unordered writes " +
+          "are applied in any order and can be split in concurrent requests",
+      required = true,
+      displayPosition = 1030,
+      group = "MONGODB"
+  )
+  public boolean orderedWrites = true;
+
+  @ConfigDef(
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Concurrent Writes",
+      defaultValue = "1",
+      description = "Number of bulk writes each batch is split in, they are sent concurrently",
+      required = true,
+      min = 1,
+      dependsOn = "orderedWrites",
+      triggeredByValue = "false",
+      displayPosition = 1040,
+      group = "MONGODB"
+  )
+  public int maxConcurrentWrites = 1;
+
 }
@@ -83,6 +83,13 @@ public class MongoDBProcessor extends SingleLaneRecordProcessor {
           Errors.MONGODB_41.getMessage()
       ));
     }
+    LookupUtils.validateCacheConfig(
+        getContext(),
+        Groups.LOOKUP.name(),
+        "configBean.cacheConfig.",
+        configBean.cacheConfig,
+        issues
+    );
     if (!issues.isEmpty()){
       return issues;
     }
@@ -171,6 +178,9 @@ public class MongoDBProcessor extends SingleLaneRecordProcessor {
 
   @Override
   public void destroy() {
+    if (cache != null) {
+      LookupUtils.closeCache(cache);
+    }
     IOUtils.closeQuietly(mongoClient);
     super.destroy();
   }
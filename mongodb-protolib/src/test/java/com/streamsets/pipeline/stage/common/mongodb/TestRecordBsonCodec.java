@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.common.mongodb;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import org.bson.BsonDocument;
+import org.bson.BsonSerializationException;
+import org.bson.RawBsonDocument;
+import org.bson.types.Decimal128;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestRecordBsonCodec {
+
+  @Test
+  public void testTypes() {
+    Map<String, Field> nested = new LinkedHashMap<>();
+    nested.put("a", Field.create(1L));
+    Map<String, Field> map = new LinkedHashMap<>();
+    map.put("boolean", Field.create(true));
+    map.put("char", Field.create('c'));
+    map.put("short", Field.create((short) 2));
+    map.put("int", Field.create(3));
+    map.put("long", Field.create(4L));
+    map.put("float", Field.create(0.1f));
+    map.put("double", Field.create(0.2d));
+    map.put("decimal", Field.create(new BigDecimal("12345678901234567890.123")));
+    map.put("datetime", Field.createDatetime(new Date(1000)));
+    map.put("string", Field.create("s"));
+    map.put("bytes", Field.create(new byte[]{1, 2}));
+    map.put("null", Field.create(Field.Type.STRING, null));
+    map.put("list", Field.create(ImmutableList.of(Field.create("x"), Field.create(5))));
+    map.put("map", Field.createListMap(new LinkedHashMap<>(nested)));
+    Record record = RecordCreator.create();
+    record.set(Field.createListMap(new LinkedHashMap<>(map)));
+
+    RawBsonDocument document = RecordBsonCodec.INSTANCE.toBson(record);
+
+    Assert.assertEquals(ImmutableList.copyOf(map.keySet()), ImmutableList.copyOf(document.keySet()));
+    Assert.assertTrue(document.getBoolean("boolean").getValue());
+    Assert.assertEquals("c", document.getString("char").getValue());
+    Assert.assertEquals(2, document.getInt32("short").getValue());
+    Assert.assertEquals(3, document.getInt32("int").getValue());
+    Assert.assertEquals(4L, document.getInt64("long").getValue());
+    Assert.assertEquals(0.1d, document.getDouble("float").getValue(), 0);
+    Assert.assertEquals(0.2d, document.getDouble("double").getValue(), 0);
+    Assert.assertEquals(
+        new Decimal128(new BigDecimal("12345678901234567890.123")),
+        document.getDecimal128("decimal").getValue()
+    );
+    Assert.assertEquals(1000, document.getDateTime("datetime").getValue());
+    Assert.assertEquals("s", document.getString("string").getValue());
+    Assert.assertArrayEquals(new byte[]{1, 2}, document.getBinary("bytes").getData());
+    Assert.assertTrue(document.isNull("null"));
+    Assert.assertEquals("x", document.getArray("list").get(0).asString().getValue());
+    Assert.assertEquals(5, document.getArray("list").get(1).asInt32().getValue());
+    Assert.assertEquals(1L, document.getDocument("map").getInt64("a").getValue());
+  }
+
+  @Test
+  public void testKey() {
+    Record record = RecordCreator.create();
+    record.set(Field.create(ImmutableMap.of(
+        "id", Field.create(1),
+        "nested", Field.create(ImmutableMap.of("date", Field.createDate(new Date(1000))))
+    )));
+
+    BsonDocument key = RecordBsonCodec.INSTANCE.toBson(
+        record,
+        ImmutableMap.of("id", "/id", "nested.date", "/nested/date")
+    );
+
+    Assert.assertEquals(2, key.size());
+    Assert.assertEquals(1, key.getInt32("id").getValue());
+    Assert.assertEquals(1000, key.getDateTime("nested.date").getValue());
+  }
+
+  @Test
+  public void testDecimalBeyondDecimal128() {
+    Record record = RecordCreator.create();
+    record.set(Field.create(ImmutableMap.of(
+        "precise", Field.create(new BigDecimal("1234567890123456789012345678901234567890")),
+        "huge", Field.create(new BigDecimal("1E+7000"))
+    )));
+
+    RawBsonDocument document = RecordBsonCodec.INSTANCE.toBson(record);
+
+    // rounded to the 34 significant digits of a Decimal128
+    Assert.assertEquals(
+        new BigDecimal("1.234567890123456789012345678901235E+39"),
+        document.getDecimal128("precise").getValue().bigDecimalValue()
+    );
+    Assert.assertEquals("1E+7000", document.getString("huge").getValue());
+  }
+
+  @Test(expected = BsonSerializationException.class)
+  public void testRootMustBeMap() {
+    Record record = RecordCreator.create();
+    record.set(Field.create("not a document"));
+    RecordBsonCodec.INSTANCE.toBson(record);
+  }
+}
@@ -48,7 +48,9 @@ import java.util.Map;
 import java.util.Random;
 
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class MongoDBTargetIT {
   private static final String DATABASE_NAME = "testDatabase1";
@@ -306,6 +308,58 @@ public class MongoDBTargetIT {
     }
   }
 
+  @Test
+  public void testUnorderedWritesSendOnlyFailedRecordsToError() throws Exception {
+    testUnorderedWrites(1);
+  }
+
+  @Test
+  public void testConcurrentUnorderedWrites() throws Exception {
+    // 20 records in 4 bulk writes of 5, the failed ones are not the first of their part
+    testUnorderedWrites(4);
+  }
+
+  private void testUnorderedWrites(int maxConcurrentWrites) throws Exception {
+    // already existing ids, their inserts fail with a duplicate key error
+    testWriteCollection.insertOne(new Document("_id", "ID3"));
+    testWriteCollection.insertOne(new Document("_id", "ID17"));
+
+    MongoTargetConfigBean mongoTargetConfigBean = new MongoTargetConfigBean();
+    mongoTargetConfigBean.mongoConfig = new MongoDBConfig();
+    mongoTargetConfigBean.mongoConfig.connectionString =
+        "mongodb://" + mongoContainer.getContainerIpAddress() + ":" + mongoContainer.getMappedPort(MongoDBConfig.MONGO_DEFAULT_PORT);
+    mongoTargetConfigBean.mongoConfig.collection = TEST_WRITE_COLLECTION;
+    mongoTargetConfigBean.mongoConfig.database = DATABASE_NAME;
+    mongoTargetConfigBean.mongoConfig.authenticationType = AuthenticationType.NONE;
+    mongoTargetConfigBean.mongoConfig.username = null;
+    mongoTargetConfigBean.mongoConfig.password = null;
+    mongoTargetConfigBean.writeConcern = WriteConcernLabel.JOURNALED;
+    mongoTargetConfigBean.orderedWrites = false;
+    mongoTargetConfigBean.maxConcurrentWrites = maxConcurrentWrites;
+
+    TargetRunner targetRunner = new TargetRunner.Builder(MongoDBDTarget.class, new MongoDBTarget(mongoTargetConfigBean))
+        .setOnRecordError(OnRecordError.TO_ERROR)
+        .build();
+
+    targetRunner.runInit();
+    List<Record> logRecords = createJsonRecords(OperationType.INSERT_CODE);
+    for (int i = 0; i < logRecords.size(); i++) {
+      logRecords.get(i).get().getValueAsMap().put("_id", Field.create("ID" + i));
+    }
+    targetRunner.runWrite(logRecords);
+
+    // only the records of the failed operations are sent to error, all the other ones are written
+    List<Record> errorRecords = targetRunner.getErrorRecords();
+    assertEquals(2, errorRecords.size());
+    assertEquals("NAME3", errorRecords.get(0).get("/name").getValueAsString());
+    assertEquals("NAME17", errorRecords.get(1).get("/name").getValueAsString());
+    assertEquals(20, testWriteCollection.count());
+    assertEquals(18, testWriteCollection.count(exists("name")));
+    assertNull(testWriteCollection.find(eq("_id", "ID3")).first().get("name"));
+
+    targetRunner.runDestroy();
+  }
+
   private List<Record> createJsonRecords(int operationCode) throws IOException {
     final String operation = String.valueOf(operationCode);
     final Random rand = new Random(0);
@@ -98,6 +98,8 @@ public class RedisLookupProcessor extends BaseProcessor {
       }
     }
 
+    LookupUtils.validateCacheConfig(getContext(), Groups.LOOKUP.name(), "conf.cache.", conf.cache, issues);
+
     if (issues.isEmpty()) {
       error = new DefaultErrorRecordHandler(getContext());
       keyExprEval = getContext().createELEval("keyExpr");
@@ -300,6 +302,9 @@ public class RedisLookupProcessor extends BaseProcessor {
   @Override
   public void destroy() {
     super.destroy();
+    if (cache != null) {
+      LookupUtils.closeCache(cache);
+    }
     if (store != null) {
       try {
         store.close();
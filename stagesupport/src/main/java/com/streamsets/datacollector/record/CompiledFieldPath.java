@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field-path parsed once into its path elements. Stages can compile the field-paths they use in init() and then
+ * resolve them against every record without parsing the path again or allocating intermediate collections.
+ *
+ * Lookups walk the field tree directly, modifications go through the Record API so that the record implementation
+ * stays in charge of how its fields are updated.
+ */
+public final class CompiledFieldPath {
+
+  private final String fieldPath;
+  private final List<PathElement> elementList;
+  private final PathElement[] elements;
+
+  private CompiledFieldPath(String fieldPath, List<PathElement> elements) {
+    this.fieldPath = fieldPath;
+    this.elementList = Collections.unmodifiableList(elements);
+    this.elements = elements.toArray(new PathElement[elements.size()]);
+  }
+
+  /**
+   * Parses the given single quote escaped field-path.
+   *
+   * @throws IllegalArgumentException if the field-path is invalid or contains wildcards.
+   */
+  public static CompiledFieldPath compile(String fieldPath) {
+    List<PathElement> elements = PathElement.parse(fieldPath, true);
+    for (PathElement element : elements) {
+      if (element.getType() == PathElement.Type.LIST && element.getIndex() < 0) {
+        throw new IllegalArgumentException(Utils.format("Wildcards are not supported in field-path '{}'", fieldPath));
+      }
+    }
+    return new CompiledFieldPath(fieldPath, elements);
+  }
+
+  /**
+   * Wraps already parsed path elements without any further validation.
+   */
+  public static CompiledFieldPath fromElements(String fieldPath, List<PathElement> elements) {
+    return new CompiledFieldPath(fieldPath, elements);
+  }
+
+  public String getFieldPath() {
+    return fieldPath;
+  }
+
+  public List<PathElement> getElements() {
+    return elementList;
+  }
+
+  public Field get(Record record) {
+    return resolve(record.get(), elements.length);
+  }
+
+  public boolean has(Record record) {
+    return get(record) != null;
+  }
+
+  /**
+   * Returns the field holding the field represented by this path, null if it does not exist or if this is the root.
+   */
+  public Field getParent(Record record) {
+    return (elements.length > 1) ? resolve(record.get(), elements.length - 1) : null;
+  }
+
+  public Field set(Record record, Field field) {
+    return record.set(fieldPath, field);
+  }
+
+  public Field delete(Record record) {
+    return record.delete(fieldPath);
+  }
+
+  /**
+   * Walks the first 'depth' path elements starting at the given root field, returns null if any of them is missing.
+   */
+  public Field resolve(Field root, int depth) {
+    Field current = root;
+    for (int i = 0; current != null && i < depth; i++) {
+      PathElement element = elements[i];
+      switch (element.getType()) {
+        case ROOT:
+          break;
+        case MAP:
+          current = resolveMapElement(current, element.getName());
+          break;
+        case LIST:
+          current = resolveListElement(current, element.getIndex());
+          break;
+        case FIELD_EXPRESSION:
+        default:
+          current = null;
+          break;
+      }
+    }
+    return current;
+  }
+
+  private static Field resolveMapElement(Field parent, String name) {
+    if (parent.getType().isOneOf(Field.Type.MAP, Field.Type.LIST_MAP)) {
+      Map<String, Field> map = parent.getValueAsMap();
+      return (map != null) ? map.get(name) : null;
+    }
+    return null;
+  }
+
+  private static Field resolveListElement(Field parent, int index) {
+    switch (parent.getType()) {
+      case LIST:
+        List<Field> list = parent.getValueAsList();
+        return (list != null && list.size() > index) ? list.get(index) : null;
+      case LIST_MAP:
+        // getValueAsList() would copy all the values of the list-map, just walk it instead
+        Map<String, Field> listMap = parent.getValueAsListMap();
+        if (listMap != null && listMap.size() > index) {
+          int i = 0;
+          for (Field field : listMap.values()) {
+            if (i++ == index) {
+              return field;
+            }
+          }
+        }
+        return null;
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return Utils.format("CompiledFieldPath[path='{}']", fieldPath);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.columnar;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.util.BitSet;
+
+/**
+ * A single column of a {@link ColumnarBatch}.
+ * <p/>
+ * When all the non null values of the column have the same integral (BYTE, SHORT, INTEGER, LONG), floating point
+ * (FLOAT, DOUBLE) or BOOLEAN type, the values are also kept unboxed in a primitive array, so they can be read
+ * without casting and unboxing each value. Missing fields and fields with a null value are both null in the column.
+ */
+public final class ColumnVector {
+  private final String name;
+  private final Field.Type type;
+  private final Field[] fields;
+  private final BitSet nulls;
+  private final long[] longs;
+  private final double[] doubles;
+  private final boolean[] booleans;
+
+  ColumnVector(String name, Field[] fields) {
+    this.name = name;
+    this.fields = fields;
+    this.nulls = new BitSet(fields.length);
+    Field.Type commonType = null;
+    boolean mixed = false;
+    for (int row = 0; row < fields.length; row++) {
+      Field field = fields[row];
+      if (field == null || field.getValue() == null) {
+        nulls.set(row);
+      } else if (commonType == null) {
+        commonType = field.getType();
+      } else if (commonType != field.getType()) {
+        mixed = true;
+      }
+    }
+    this.type = mixed ? null : commonType;
+
+    long[] longValues = null;
+    double[] doubleValues = null;
+    boolean[] booleanValues = null;
+    if (type != null) {
+      switch (type) {
+        case BYTE:
+        case SHORT:
+        case INTEGER:
+        case LONG:
+          longValues = new long[fields.length];
+          for (int row = nulls.nextClearBit(0); row < fields.length; row = nulls.nextClearBit(row + 1)) {
+            longValues[row] = ((Number) fields[row].getValue()).longValue();
+          }
+          break;
+        case FLOAT:
+        case DOUBLE:
+          doubleValues = new double[fields.length];
+          for (int row = nulls.nextClearBit(0); row < fields.length; row = nulls.nextClearBit(row + 1)) {
+            doubleValues[row] = ((Number) fields[row].getValue()).doubleValue();
+          }
+          break;
+        case BOOLEAN:
+          booleanValues = new boolean[fields.length];
+          for (int row = nulls.nextClearBit(0); row < fields.length; row = nulls.nextClearBit(row + 1)) {
+            booleanValues[row] = (Boolean) fields[row].getValue();
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    this.longs = longValues;
+    this.doubles = doubleValues;
+    this.booleans = booleanValues;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the type of all the non null values of the column, null if the column has mixed types or only nulls.
+   */
+  public Field.Type getType() {
+    return type;
+  }
+
+  public int size() {
+    return fields.length;
+  }
+
+  public boolean isNull(int row) {
+    return nulls.get(row);
+  }
+
+  public boolean hasNulls() {
+    return !nulls.isEmpty();
+  }
+
+  public boolean isLongVector() {
+    return longs != null;
+  }
+
+  public boolean isDoubleVector() {
+    return doubles != null;
+  }
+
+  public boolean isBooleanVector() {
+    return booleans != null;
+  }
+
+  public long getLong(int row) {
+    Utils.checkState(longs != null, Utils.formatL("Column '{}' is not an integral column", name));
+    return longs[row];
+  }
+
+  public double getDouble(int row) {
+    Utils.checkState(doubles != null, Utils.formatL("Column '{}' is not a floating point column", name));
+    return doubles[row];
+  }
+
+  public boolean getBoolean(int row) {
+    Utils.checkState(booleans != null, Utils.formatL("Column '{}' is not a boolean column", name));
+    return booleans[row];
+  }
+
+  /**
+   * @return the field of the given row, null if the record doesn't have the field.
+   */
+  public Field getField(int row) {
+    return fields[row];
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.columnar;
+
+import com.streamsets.datacollector.util.EscapeUtil;
+import com.streamsets.pipeline.api.Batch;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column oriented view of a list of records, for destinations that write whole columns (multi-row inserts,
+ * columnar file formats) and would otherwise walk the field tree of every record for every column.
+ * <p/>
+ * The records are not copied, columns are built lazily the first time they are asked for, so a stage only pays for
+ * the columns it reads. The view is only valid as long as the records are not modified.
+ */
+public class ColumnarBatch {
+  private final List<Record> records;
+  private final Map<String, String> columnPaths;
+  private final Map<String, ColumnVector> columns;
+
+  /**
+   * @param records the rows of the batch.
+   * @param columnPaths column names to the field path of the column in the records, in column order.
+   */
+  public ColumnarBatch(List<Record> records, Map<String, String> columnPaths) {
+    this.records = new ArrayList<>(Utils.checkNotNull(records, "records"));
+    this.columnPaths = Collections.unmodifiableMap(new LinkedHashMap<>(columnPaths));
+    this.columns = new HashMap<>();
+  }
+
+  /**
+   * Creates a view of a batch with a flat and stable schema, where the root field of every record is a MAP or
+   * LIST_MAP with the same field names. The columns are the root fields, in the order of the first record.
+   *
+   * @return null if the batch is empty or the records don't share the same flat schema.
+   */
+  public static ColumnarBatch of(Batch batch) {
+    List<Record> records = new ArrayList<>();
+    Iterator<Record> it = batch.getRecords();
+    Set<String> names = null;
+    while (it.hasNext()) {
+      Record record = it.next();
+      Map<String, Field> root = getRootMap(record);
+      if (root == null) {
+        return null;
+      }
+      if (names == null) {
+        names = root.keySet();
+      } else if (!names.equals(root.keySet())) {
+        return null;
+      }
+      records.add(record);
+    }
+    if (names == null) {
+      return null;
+    }
+    Map<String, String> columnPaths = new LinkedHashMap<>();
+    for (String name : names) {
+      columnPaths.put(name, "/" + EscapeUtil.singleQuoteEscape(name));
+    }
+    return new ColumnarBatch(records, columnPaths);
+  }
+
+  private static Map<String, Field> getRootMap(Record record) {
+    Field root = record.get();
+    if (root == null || root.getValue() == null) {
+      return null;
+    }
+    if (root.getType() != Field.Type.MAP && root.getType() != Field.Type.LIST_MAP) {
+      return null;
+    }
+    return root.getValueAsMap();
+  }
+
+  public int getRowCount() {
+    return records.size();
+  }
+
+  public Record getRecord(int row) {
+    return records.get(row);
+  }
+
+  public List<Record> getRecords() {
+    return Collections.unmodifiableList(records);
+  }
+
+  /**
+   * @return the column names, in column order.
+   */
+  public Set<String> getColumnNames() {
+    return columnPaths.keySet();
+  }
+
+  /**
+   * Returns the given column, building it on first use.
+   */
+  public ColumnVector getColumn(String name) {
+    ColumnVector column = columns.get(name);
+    if (column == null) {
+      String path = columnPaths.get(name);
+      Utils.checkArgument(path != null, Utils.formatL("Unknown column '{}'", name));
+      Field[] fields = new Field[records.size()];
+      for (int row = 0; row < fields.length; row++) {
+        fields[row] = records.get(row).get(path);
+      }
+      column = new ColumnVector(name, fields);
+      columns.put(name, column);
+    }
+    return column;
+  }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.columnar;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Batch;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestColumnarBatch {
+
+  private static Record createRecord(Map<String, Field> values) {
+    Field root = Field.createListMap(new LinkedHashMap<>(values));
+    Record record = Mockito.mock(Record.class);
+    Mockito.when(record.get()).thenReturn(root);
+    for (Map.Entry<String, Field> entry : values.entrySet()) {
+      Mockito.when(record.get("/" + entry.getKey())).thenReturn(entry.getValue());
+    }
+    return record;
+  }
+
+  private static Record createRecord(Field id, Field price, Field name) {
+    LinkedHashMap<String, Field> values = new LinkedHashMap<>();
+    values.put("id", id);
+    values.put("price", price);
+    values.put("name", name);
+    return createRecord(values);
+  }
+
+  private static Batch createBatch(List<Record> records) {
+    Batch batch = Mockito.mock(Batch.class);
+    Mockito.when(batch.getRecords()).thenReturn(records.iterator());
+    return batch;
+  }
+
+  @Test
+  public void testTypedColumns() {
+    List<Record> records = ImmutableList.of(
+        createRecord(Field.create(1), Field.create(1.5d), Field.create("a")),
+        createRecord(Field.create(2), Field.create(Field.Type.DOUBLE, null), Field.create("b")),
+        createRecord(Field.create(3), Field.create(3.5d), Field.create(Field.Type.STRING, null))
+    );
+    ColumnarBatch batch = ColumnarBatch.of(createBatch(records));
+
+    Assert.assertNotNull(batch);
+    Assert.assertEquals(3, batch.getRowCount());
+    Assert.assertEquals(ImmutableList.of("id", "price", "name"), ImmutableList.copyOf(batch.getColumnNames()));
+
+    ColumnVector id = batch.getColumn("id");
+    Assert.assertEquals(Field.Type.INTEGER, id.getType());
+    Assert.assertTrue(id.isLongVector());
+    Assert.assertFalse(id.hasNulls());
+    Assert.assertEquals(2L, id.getLong(1));
+
+    ColumnVector price = batch.getColumn("price");
+    Assert.assertEquals(Field.Type.DOUBLE, price.getType());
+    Assert.assertTrue(price.isDoubleVector());
+    Assert.assertTrue(price.isNull(1));
+    Assert.assertEquals(3.5d, price.getDouble(2), 0);
+
+    ColumnVector name = batch.getColumn("name");
+    Assert.assertEquals(Field.Type.STRING, name.getType());
+    Assert.assertFalse(name.isLongVector() || name.isDoubleVector() || name.isBooleanVector());
+    Assert.assertTrue(name.isNull(2));
+    Assert.assertEquals("b", name.getField(1).getValueAsString());
+    Assert.assertSame(records.get(1), batch.getRecord(1));
+  }
+
+  @Test
+  public void testColumnsAreBuiltLazily() {
+    Record record = createRecord(Field.create(1), Field.create(1.5d), Field.create("a"));
+    Map<String, String> columnPaths = new LinkedHashMap<>();
+    columnPaths.put("id", "/id");
+    columnPaths.put("name", "/name");
+    ColumnarBatch batch = new ColumnarBatch(ImmutableList.of(record), columnPaths);
+
+    Mockito.verify(record, Mockito.never()).get(Mockito.anyString());
+    Assert.assertSame(batch.getColumn("id"), batch.getColumn("id"));
+    Mockito.verify(record, Mockito.times(1)).get("/id");
+    Mockito.verify(record, Mockito.never()).get("/name");
+  }
+
+  @Test
+  public void testMixedTypes() {
+    List<Record> records = ImmutableList.of(
+        createRecord(Field.create(1), Field.create(1.5d), Field.create("a")),
+        createRecord(Field.create(2L), Field.create(2.5d), Field.create("b"))
+    );
+    ColumnVector id = ColumnarBatch.of(createBatch(records)).getColumn("id");
+    Assert.assertNull(id.getType());
+    Assert.assertFalse(id.isLongVector());
+    Assert.assertEquals(2L, id.getField(1).getValueAsLong());
+  }
+
+  @Test
+  public void testUnstableSchema() {
+    LinkedHashMap<String, Field> other = new LinkedHashMap<>();
+    other.put("id", Field.create(2));
+    List<Record> records = ImmutableList.of(
+        createRecord(Field.create(1), Field.create(1.5d), Field.create("a")),
+        createRecord(other)
+    );
+    Assert.assertNull(ColumnarBatch.of(createBatch(records)));
+    Assert.assertNull(ColumnarBatch.of(createBatch(ImmutableList.of())));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownColumn() {
+    Record record = createRecord(Field.create(1), Field.create(1.5d), Field.create("a"));
+    ColumnarBatch.of(createBatch(ImmutableList.of(record))).getColumn("missing");
+  }
+
+}